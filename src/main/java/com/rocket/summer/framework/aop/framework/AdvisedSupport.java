@@ -56,8 +56,12 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
     /** The AdvisorChainFactory to use */
     AdvisorChainFactory advisorChainFactory = new DefaultAdvisorChainFactory();
 
-    /** Cache with Method as key and advisor chain List as value */
-    private transient Map<MethodCacheKey, List<Object>> methodCache;
+    /**
+     * Cache with Method as key and advisor chain List as value. Keyed by the
+     * Method itself so that lookups for the same Method instance, as passed
+     * into proxy callbacks, hit on identity without allocating a key.
+     */
+    private transient Map<Method, List<Object>> methodCache;
 
     /**
      * Interfaces to be implemented by the proxy. Held in List to keep the order
@@ -98,7 +102,7 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
      * Initialize the method cache.
      */
     private void initMethodCache() {
-        this.methodCache = new ConcurrentHashMap<MethodCacheKey, List<Object>>(32);
+        this.methodCache = new ConcurrentHashMap<Method, List<Object>>(32);
     }
 
 
@@ -459,12 +463,11 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
      * @return a List of MethodInterceptors (may also include InterceptorAndDynamicMethodMatchers)
      */
     public List<Object> getInterceptorsAndDynamicInterceptionAdvice(Method method, Class<?> targetClass) {
-        MethodCacheKey cacheKey = new MethodCacheKey(method);
-        List<Object> cached = this.methodCache.get(cacheKey);
+        List<Object> cached = this.methodCache.get(method);
         if (cached == null) {
             cached = this.advisorChainFactory.getInterceptorsAndDynamicInterceptionAdvice(
                     this, method, targetClass);
-            this.methodCache.put(cacheKey, cached);
+            this.methodCache.put(method, cached);
         }
         return cached;
     }
@@ -557,46 +560,4 @@ public class AdvisedSupport extends ProxyConfig implements Advised {
         return sb.toString();
     }
 
-
-    /**
-     * Simple wrapper class around a Method. Used as the key when
-     * caching methods, for efficient equals and hashCode comparisons.
-     */
-    private static final class MethodCacheKey implements Comparable<MethodCacheKey> {
-
-        private final Method method;
-
-        private final int hashCode;
-
-        public MethodCacheKey(Method method) {
-            this.method = method;
-            this.hashCode = method.hashCode();
-        }
-
-        @Override
-        public boolean equals(Object other) {
-            return (this == other || (other instanceof MethodCacheKey &&
-                    this.method == ((MethodCacheKey) other).method));
-        }
-
-        @Override
-        public int hashCode() {
-            return this.hashCode;
-        }
-
-        @Override
-        public String toString() {
-            return this.method.toString();
-        }
-
-        @Override
-        public int compareTo(MethodCacheKey other) {
-            int result = this.method.getName().compareTo(other.method.getName());
-            if (result == 0) {
-                result = this.method.toString().compareTo(other.method.toString());
-            }
-            return result;
-        }
-    }
-
 }
@@ -2,10 +2,12 @@ package com.rocket.summer.framework.aop.framework;
 
 import com.rocket.summer.framework.aop.*;
 import com.rocket.summer.framework.aop.support.AopUtils;
+import com.rocket.summer.framework.cglib.core.PregeneratedClassSupport;
 import com.rocket.summer.framework.cglib.core.SpringNamingPolicy;
 import com.rocket.summer.framework.core.SmartClassLoader;
 import com.rocket.summer.framework.util.Assert;
 import com.rocket.summer.framework.util.ClassUtils;
+import com.rocket.summer.framework.util.ConcurrentReferenceHashMap;
 import com.rocket.summer.framework.util.ObjectUtils;
 import net.sf.cglib.core.ClassGenerator;
 import net.sf.cglib.core.CodeGenerationException;
@@ -17,6 +19,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.lang.reflect.UndeclaredThrowableException;
@@ -65,6 +68,18 @@ class CglibAopProxy implements AopProxy, Serializable {
     /** Keeps track of the Classes that we have validated for final methods */
     private static final Map<Class<?>, Boolean> validatedClasses = new WeakHashMap<Class<?>, Boolean>();
 
+    /**
+     * Cache of generated proxy classes, shared across all proxies in the VM.
+     * Keyed by ClassLoader, superclass, interfaces, callback types and the
+     * callback assignment for each method, not by the advice configuration:
+     * proxies that differ in their advice but route their methods to the same
+     * callbacks share the same proxy class. The keys hold structural data only,
+     * with the ClassLoader referenced weakly, so that they do not keep advice
+     * or bean instances alive.
+     */
+    private static final Map<ProxyClassKey, Class<?>> proxyClassCache =
+            new ConcurrentReferenceHashMap<ProxyClassKey, Class<?>>(64);
+
 
     /** The configuration used to configure this proxy */
     protected final AdvisedSupport advised;
@@ -80,6 +95,8 @@ class CglibAopProxy implements AopProxy, Serializable {
 
     private transient int fixedInterceptorOffset;
 
+    private transient ProxyClassCallbackFilter proxyClassCallbackFilter;
+
 
     /**
      * Create a new CglibAopProxy for the given AOP configuration.
@@ -150,10 +167,12 @@ class CglibAopProxy implements AopProxy, Serializable {
                     enhancer.setUseCache(false);
                 }
             }
+            Class<?>[] proxyInterfaces = AopProxyUtils.completeProxiedInterfaces(this.advised);
             enhancer.setSuperclass(proxySuperClass);
-            enhancer.setInterfaces(AopProxyUtils.completeProxiedInterfaces(this.advised));
+            enhancer.setInterfaces(proxyInterfaces);
             enhancer.setNamingPolicy(SpringNamingPolicy.INSTANCE);
             enhancer.setStrategy(new ClassLoaderAwareUndeclaredThrowableStrategy(classLoader));
+            PregeneratedClassSupport.configure(enhancer);
 
             Callback[] callbacks = getCallbacks(rootClass);
             Class<?>[] types = new Class<?>[callbacks.length];
@@ -161,8 +180,19 @@ class CglibAopProxy implements AopProxy, Serializable {
                 types[x] = callbacks[x].getClass();
             }
             // fixedInterceptorMap only populated at this point, after getCallbacks call above
-            enhancer.setCallbackFilter(new ProxyCallbackFilter(
-                    this.advised.getConfigurationOnlyCopy(), this.fixedInterceptorMap, this.fixedInterceptorOffset));
+            ProxyCallbackFilter callbackFilter = new ProxyCallbackFilter(
+                    this.advised.getConfigurationOnlyCopy(), this.fixedInterceptorMap, this.fixedInterceptorOffset);
+            if (enhancer.getUseCache()) {
+                // Determine the callback for each method upfront, identifying the proxy class.
+                this.proxyClassCallbackFilter = new ProxyClassCallbackFilter(
+                        callbackFilter, (classLoader != null ? classLoader : proxySuperClass.getClassLoader()),
+                        proxySuperClass, proxyInterfaces, types);
+                enhancer.setCallbackFilter(this.proxyClassCallbackFilter);
+            }
+            else {
+                this.proxyClassCallbackFilter = null;
+                enhancer.setCallbackFilter(callbackFilter);
+            }
             enhancer.setCallbackTypes(types);
 
             // Generate the proxy class and create a proxy instance.
@@ -185,11 +215,46 @@ class CglibAopProxy implements AopProxy, Serializable {
     }
 
     protected Object createProxyClassAndInstance(Enhancer enhancer, Callback[] callbacks) {
-        enhancer.setInterceptDuringConstruction(false);
-        enhancer.setCallbacks(callbacks);
-        return (this.constructorArgs != null ?
-                enhancer.create(this.constructorArgTypes, this.constructorArgs) :
-                enhancer.create());
+        Class<?> proxyClass = createProxyClass(enhancer, false);
+        // Expose the callbacks to the constructor, as Enhancer.create would do.
+        Enhancer.registerCallbacks(proxyClass, callbacks);
+        try {
+            return (this.constructorArgs != null ?
+                    proxyClass.getConstructor(this.constructorArgTypes).newInstance(this.constructorArgs) :
+                    proxyClass.newInstance());
+        }
+        catch (Exception ex) {
+            throw new AopConfigException("Unable to instantiate proxy class [" + proxyClass.getName() + "]", ex);
+        }
+        finally {
+            Enhancer.registerCallbacks(proxyClass, null);
+        }
+    }
+
+    /**
+     * Obtain the proxy class for the given, fully configured Enhancer: either a
+     * previously generated proxy class with the same structure and callback
+     * assignment, or a newly generated one.
+     * @param enhancer the Enhancer to generate the proxy class with
+     * @param interceptDuringConstruction whether the proxy class is supposed
+     * to intercept method calls from within its constructor
+     * @return the proxy class
+     */
+    protected Class<?> createProxyClass(Enhancer enhancer, boolean interceptDuringConstruction) {
+        enhancer.setInterceptDuringConstruction(interceptDuringConstruction);
+        if (this.proxyClassCallbackFilter == null) {
+            return enhancer.createClass();
+        }
+        ProxyClassKey cacheKey = this.proxyClassCallbackFilter.createProxyClassKey(interceptDuringConstruction);
+        Class<?> proxyClass = proxyClassCache.get(cacheKey);
+        if (proxyClass == null) {
+            proxyClass = enhancer.createClass();
+            proxyClassCache.put(cacheKey, proxyClass);
+        }
+        else if (logger.isDebugEnabled()) {
+            logger.debug("Reusing CGLIB proxy class [" + proxyClass.getName() + "]");
+        }
+        return proxyClass;
     }
 
     /**
@@ -286,27 +351,32 @@ class CglibAopProxy implements AopProxy, Serializable {
 
         Callback[] callbacks;
 
-        // If the target is a static one and the advice chain is frozen,
-        // then we can make some optimizations by sending the AOP calls
-        // direct to the target using the fixed chain for that method.
-        if (isStatic && isFrozen) {
+        // If the advice chain is frozen, then we can make some optimizations by
+        // baking the fixed chain for each advised method into its own callback,
+        // avoiding the chain lookup per invocation. Methods without advice are
+        // served by the "straight to target" callbacks above.
+        if (isFrozen) {
             Method[] methods = rootClass.getMethods();
-            Callback[] fixedCallbacks = new Callback[methods.length];
+            List<Callback> fixedCallbacks = new ArrayList<Callback>();
             this.fixedInterceptorMap = new HashMap<String, Integer>(methods.length);
-
-            // TODO: small memory optimization here (can skip creation for methods with no advice)
-            for (int x = 0; x < methods.length; x++) {
-                List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(methods[x], rootClass);
-                fixedCallbacks[x] = new FixedChainStaticTargetInterceptor(
-                        chain, this.advised.getTargetSource().getTarget(), this.advised.getTargetClass());
-                this.fixedInterceptorMap.put(methods[x].toString(), x);
+            Object target = (isStatic ? this.advised.getTargetSource().getTarget() : null);
+            for (Method method : methods) {
+                List<Object> chain = this.advised.getInterceptorsAndDynamicInterceptionAdvice(method, rootClass);
+                if (!chain.isEmpty()) {
+                    this.fixedInterceptorMap.put(method.toString(), fixedCallbacks.size());
+                    fixedCallbacks.add(isStatic ?
+                            new FixedChainStaticTargetInterceptor(chain, target, this.advised.getTargetClass(), exposeProxy) :
+                            new FixedChainDynamicTargetInterceptor(chain, this.advised.getTargetSource(), exposeProxy));
+                }
             }
 
             // Now copy both the callbacks from mainCallbacks
             // and fixedCallbacks into the callbacks array.
-            callbacks = new Callback[mainCallbacks.length + fixedCallbacks.length];
+            callbacks = new Callback[mainCallbacks.length + fixedCallbacks.size()];
             System.arraycopy(mainCallbacks, 0, callbacks, 0, mainCallbacks.length);
-            System.arraycopy(fixedCallbacks, 0, callbacks, mainCallbacks.length, fixedCallbacks.length);
+            for (int x = 0; x < fixedCallbacks.size(); x++) {
+                callbacks[mainCallbacks.length + x] = fixedCallbacks.get(x);
+            }
             this.fixedInterceptorOffset = mainCallbacks.length;
         }
         else {
@@ -565,6 +635,10 @@ class CglibAopProxy implements AopProxy, Serializable {
 
     /**
      * Interceptor used specifically for advised methods on a frozen, static proxy.
+     * <p>Saves the advice chain lookup, but still creates a new
+     * {@link CglibMethodInvocation} per call, and CGLIB still passes a fresh
+     * arguments array: advice may hold on to the invocation beyond the call,
+     * e.g. for asynchronous execution, so invocations cannot be reused.
      */
     private static class FixedChainStaticTargetInterceptor implements MethodInterceptor, Serializable {
 
@@ -574,20 +648,86 @@ class CglibAopProxy implements AopProxy, Serializable {
 
         private final Class<?> targetClass;
 
-        public FixedChainStaticTargetInterceptor(List<Object> adviceChain, Object target, Class<?> targetClass) {
+        private final boolean exposeProxy;
+
+        public FixedChainStaticTargetInterceptor(
+                List<Object> adviceChain, Object target, Class<?> targetClass, boolean exposeProxy) {
+
             this.adviceChain = adviceChain;
             this.target = target;
             this.targetClass = targetClass;
+            this.exposeProxy = exposeProxy;
+        }
+
+        @Override
+        public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+            Object oldProxy = null;
+            if (this.exposeProxy) {
+                oldProxy = AopContext.setCurrentProxy(proxy);
+            }
+            try {
+                MethodInvocation invocation = new CglibMethodInvocation(proxy, this.target, method, args,
+                        this.targetClass, this.adviceChain, methodProxy);
+                Object retVal = invocation.proceed();
+                retVal = processReturnType(proxy, this.target, method, retVal);
+                return retVal;
+            }
+            finally {
+                if (this.exposeProxy) {
+                    AopContext.setCurrentProxy(oldProxy);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Interceptor used specifically for advised methods on a frozen proxy
+     * with a dynamic target: obtains the target per invocation, but does
+     * not need to look up the advice chain.
+     * <p>Like {@link FixedChainStaticTargetInterceptor}, this still creates a
+     * method invocation for every call.
+     */
+    private static class FixedChainDynamicTargetInterceptor implements MethodInterceptor, Serializable {
+
+        private final List<Object> adviceChain;
+
+        private final TargetSource targetSource;
+
+        private final boolean exposeProxy;
+
+        public FixedChainDynamicTargetInterceptor(
+                List<Object> adviceChain, TargetSource targetSource, boolean exposeProxy) {
+
+            this.adviceChain = adviceChain;
+            this.targetSource = targetSource;
+            this.exposeProxy = exposeProxy;
         }
 
         @Override
         public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
-            MethodInvocation invocation = new CglibMethodInvocation(proxy, this.target, method, args,
-                    this.targetClass, this.adviceChain, methodProxy);
-            // If we get here, we need to create a MethodInvocation.
-            Object retVal = invocation.proceed();
-            retVal = processReturnType(proxy, this.target, method, retVal);
-            return retVal;
+            Object oldProxy = null;
+            if (this.exposeProxy) {
+                oldProxy = AopContext.setCurrentProxy(proxy);
+            }
+            Object target = null;
+            try {
+                target = this.targetSource.getTarget();
+                Class<?> targetClass = (target != null ? target.getClass() : null);
+                MethodInvocation invocation = new CglibMethodInvocation(proxy, target, method, args,
+                        targetClass, this.adviceChain, methodProxy);
+                Object retVal = invocation.proceed();
+                retVal = processReturnType(proxy, target, method, retVal);
+                return retVal;
+            }
+            finally {
+                if (target != null) {
+                    this.targetSource.releaseTarget(target);
+                }
+                if (this.exposeProxy) {
+                    AopContext.setCurrentProxy(oldProxy);
+                }
+            }
         }
     }
 
@@ -732,14 +872,14 @@ class CglibAopProxy implements AopProxy, Serializable {
          * callback we need.
          * <p>The callbacks for each proxy are built up of a set of fixed callbacks
          * for general use and then a set of callbacks that are specific to a method
-         * for use on static targets with a fixed advice chain.
+         * for use with a frozen advice chain.
          * <p>The callback used is determined thus:
          * <dl>
          * <dt>For exposed proxies</dt>
          * <dd>Exposing the proxy requires code to execute before and after the
          * method/chain invocation. This means we must use
-         * DynamicAdvisedInterceptor, since all other interceptors can avoid the
-         * need for a try/catch block</dd>
+         * DynamicAdvisedInterceptor or a fixed chain interceptor, since all
+         * other interceptors can avoid the need for a try/catch block</dd>
          * <dt>For Object.finalize():</dt>
          * <dd>No override for this method is used.</dd>
          * <dt>For equals():</dt>
@@ -749,10 +889,10 @@ class CglibAopProxy implements AopProxy, Serializable {
          * <dd>the AdvisedDispatcher is used to dispatch the call directly to
          * the target</dd>
          * <dt>For advised methods:</dt>
-         * <dd>If the target is static and the advice chain is frozen then a
-         * FixedChainStaticTargetInterceptor specific to the method is used to
-         * invoke the advice chain. Otherwise a DyanmicAdvisedInterceptor is
-         * used.</dd>
+         * <dd>If the advice chain is frozen then a FixedChainStaticTargetInterceptor
+         * (for static targets) or FixedChainDynamicTargetInterceptor specific to the
+         * method is used to invoke the advice chain. Otherwise a
+         * DynamicAdvisedInterceptor is used.</dd>
          * <dt>For non-advised methods:</dt>
          * <dd>Where it can be determined that the method will not return {@code this}
          * or when {@code ProxyFactory.getExposeProxy()} returns {@code false},
@@ -798,30 +938,29 @@ class CglibAopProxy implements AopProxy, Serializable {
             boolean isStatic = this.advised.getTargetSource().isStatic();
             boolean isFrozen = this.advised.isFrozen();
             if (haveAdvice || !isFrozen) {
-                // If exposing the proxy, then AOP_PROXY must be used.
-                if (exposeProxy) {
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("Must expose proxy on advised method: " + method);
-                    }
-                    return AOP_PROXY;
-                }
                 String key = method.toString();
                 // Check to see if we have fixed interceptor to serve this method.
                 // Else use the AOP_PROXY.
-                if (isStatic && isFrozen && this.fixedInterceptorMap.containsKey(key)) {
+                if (isFrozen && this.fixedInterceptorMap.containsKey(key)) {
                     if (logger.isDebugEnabled()) {
                         logger.debug("Method has advice and optimizations are enabled: " + method);
                     }
-                    // We know that we are optimizing so we can use the FixedStaticChainInterceptors.
+                    // We know that we are optimizing so we can use the fixed chain interceptors,
+                    // which expose the proxy themselves if necessary.
                     int index = this.fixedInterceptorMap.get(key);
                     return (index + this.fixedInterceptorOffset);
                 }
-                else {
+                // If exposing the proxy, then AOP_PROXY must be used.
+                if (exposeProxy) {
                     if (logger.isDebugEnabled()) {
-                        logger.debug("Unable to apply any optimizations to advised method: " + method);
+                        logger.debug("Must expose proxy on advised method: " + method);
                     }
                     return AOP_PROXY;
                 }
+                if (logger.isDebugEnabled()) {
+                    logger.debug("Unable to apply any optimizations to advised method: " + method);
+                }
+                return AOP_PROXY;
             }
             else {
                 // See if the return type of the method is outside the class hierarchy of the target type.
@@ -931,6 +1070,182 @@ class CglibAopProxy implements AopProxy, Serializable {
     }
 
 
+    /**
+     * CallbackFilter that determines the callback for each method of the proxy
+     * class upfront, using a ProxyCallbackFilter. Equal to another such filter
+     * if both stand for the same proxy class structure and assign the same
+     * callback to each method, independent of the advice configuration that
+     * led to the assignment. The hash code is stable across runs, keeping the
+     * generated class names stable as well.
+     */
+    private static class ProxyClassCallbackFilter implements CallbackFilter {
+
+        private final CallbackFilter targetFilter;
+
+        private final ClassLoader classLoader;
+
+        private final Class<?> superclass;
+
+        private final Class<?>[] interfaces;
+
+        private final Class<?>[] callbackTypes;
+
+        private final Map<Method, Integer> callbackIndices = new HashMap<Method, Integer>();
+
+        private final String[] methodKeys;
+
+        private final int[] methodIndices;
+
+        private final int hashCode;
+
+        public ProxyClassCallbackFilter(CallbackFilter targetFilter, ClassLoader classLoader,
+                Class<?> superclass, Class<?>[] interfaces, Class<?>[] callbackTypes) {
+
+            this.targetFilter = targetFilter;
+            this.classLoader = classLoader;
+            this.superclass = superclass;
+            this.interfaces = interfaces;
+            this.callbackTypes = callbackTypes;
+
+            // Same candidate methods as considered by the Enhancer itself.
+            List<Method> methods = new ArrayList<Method>();
+            Enhancer.getMethods(superclass, interfaces, methods);
+            Map<String, Integer> sortedIndices = new TreeMap<String, Integer>();
+            for (Method method : methods) {
+                int mod = method.getModifiers();
+                if (!Modifier.isStatic(mod) && !Modifier.isFinal(mod) && !Modifier.isPrivate(mod) &&
+                        !this.callbackIndices.containsKey(method)) {
+                    int index = targetFilter.accept(method);
+                    this.callbackIndices.put(method, index);
+                    sortedIndices.put(method.toString(), index);
+                }
+            }
+            this.methodKeys = new String[sortedIndices.size()];
+            this.methodIndices = new int[sortedIndices.size()];
+            int hashCode = superclass.getName().hashCode();
+            for (Class<?> ifc : interfaces) {
+                hashCode = 31 * hashCode + ifc.getName().hashCode();
+            }
+            for (Class<?> callbackType : callbackTypes) {
+                hashCode = 31 * hashCode + callbackType.getName().hashCode();
+            }
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : sortedIndices.entrySet()) {
+                this.methodKeys[i] = entry.getKey();
+                this.methodIndices[i] = entry.getValue();
+                hashCode = 31 * hashCode + entry.getKey().hashCode();
+                hashCode = 31 * hashCode + entry.getValue();
+                i++;
+            }
+            this.hashCode = hashCode;
+        }
+
+        @Override
+        public int accept(Method method) {
+            Integer index = this.callbackIndices.get(method);
+            return (index != null ? index : this.targetFilter.accept(method));
+        }
+
+        /**
+         * Create a key for the proxy class cache from the structural data of this filter.
+         */
+        public ProxyClassKey createProxyClassKey(boolean interceptDuringConstruction) {
+            return new ProxyClassKey(this.classLoader, this.superclass, this.interfaces, this.callbackTypes,
+                    this.methodKeys, this.methodIndices, this.hashCode, interceptDuringConstruction);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ProxyClassCallbackFilter)) {
+                return false;
+            }
+            ProxyClassCallbackFilter otherFilter = (ProxyClassCallbackFilter) other;
+            return (this.hashCode == otherFilter.hashCode && this.classLoader == otherFilter.classLoader &&
+                    this.superclass == otherFilter.superclass &&
+                    Arrays.equals(this.interfaces, otherFilter.interfaces) &&
+                    Arrays.equals(this.callbackTypes, otherFilter.callbackTypes) &&
+                    Arrays.equals(this.methodIndices, otherFilter.methodIndices) &&
+                    Arrays.equals(this.methodKeys, otherFilter.methodKeys));
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+
+
+    /**
+     * Key for the proxy class cache: the structure of a proxy class, without
+     * the callback filter and thus without the advice configuration behind it.
+     */
+    private static final class ProxyClassKey {
+
+        private final WeakReference<ClassLoader> classLoader;
+
+        private final boolean bootstrapClassLoader;
+
+        private final Class<?> superclass;
+
+        private final Class<?>[] interfaces;
+
+        private final Class<?>[] callbackTypes;
+
+        private final String[] methodKeys;
+
+        private final int[] methodIndices;
+
+        private final boolean interceptDuringConstruction;
+
+        private final int hashCode;
+
+        public ProxyClassKey(ClassLoader classLoader, Class<?> superclass, Class<?>[] interfaces,
+                Class<?>[] callbackTypes, String[] methodKeys, int[] methodIndices, int structureHashCode,
+                boolean interceptDuringConstruction) {
+
+            this.classLoader = new WeakReference<ClassLoader>(classLoader);
+            this.bootstrapClassLoader = (classLoader == null);
+            this.superclass = superclass;
+            this.interfaces = interfaces;
+            this.callbackTypes = callbackTypes;
+            this.methodKeys = methodKeys;
+            this.methodIndices = methodIndices;
+            this.interceptDuringConstruction = interceptDuringConstruction;
+            this.hashCode = structureHashCode * 2 + (interceptDuringConstruction ? 1 : 0);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ProxyClassKey)) {
+                return false;
+            }
+            ProxyClassKey otherKey = (ProxyClassKey) other;
+            ClassLoader classLoader = this.classLoader.get();
+            return (this.hashCode == otherKey.hashCode &&
+                    this.bootstrapClassLoader == otherKey.bootstrapClassLoader &&
+                    (this.bootstrapClassLoader || classLoader != null) &&
+                    classLoader == otherKey.classLoader.get() &&
+                    this.interceptDuringConstruction == otherKey.interceptDuringConstruction &&
+                    this.superclass == otherKey.superclass &&
+                    Arrays.equals(this.interfaces, otherKey.interfaces) &&
+                    Arrays.equals(this.callbackTypes, otherKey.callbackTypes) &&
+                    Arrays.equals(this.methodIndices, otherKey.methodIndices) &&
+                    Arrays.equals(this.methodKeys, otherKey.methodKeys));
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+
+
     /**
      * CGLIB GeneratorStrategy variant which exposes the application ClassLoader
      * as thread context ClassLoader for the time of class generation
@@ -945,6 +1260,12 @@ class CglibAopProxy implements AopProxy, Serializable {
             this.classLoader = classLoader;
         }
 
+        @Override
+        protected byte[] transform(byte[] b) throws Exception {
+            PregeneratedClassSupport.writeGeneratedClass(b);
+            return b;
+        }
+
         @Override
         public byte[] generate(ClassGenerator cg) throws Exception {
             if (this.classLoader == null) {
@@ -34,7 +34,7 @@ class ObjenesisCglibAopProxy extends CglibAopProxy {
 
     @Override
     protected Object createProxyClassAndInstance(Enhancer enhancer, Callback[] callbacks) {
-        Class<?> proxyClass = enhancer.createClass();
+        Class<?> proxyClass = createProxyClass(enhancer, true);
         Object proxyInstance = null;
 
         if (objenesis.isWorthTrying()) {
@@ -0,0 +1,68 @@
+package com.rocket.summer.framework.aop.scope;
+
+import com.rocket.summer.framework.aop.target.SimpleBeanTargetSource;
+import com.rocket.summer.framework.beans.factory.BeanFactory;
+import com.rocket.summer.framework.beans.factory.NoSuchBeanDefinitionException;
+import com.rocket.summer.framework.beans.factory.config.ConfigurableBeanFactory;
+import com.rocket.summer.framework.beans.factory.config.Scope;
+import com.rocket.summer.framework.util.StringUtils;
+
+/**
+ * TargetSource for scoped proxies, obtaining the target bean from its
+ * containing BeanFactory like {@link SimpleBeanTargetSource}.
+ *
+ * <p>If the target bean's scope is a {@link TargetCachingScope}, a resolved
+ * target is cached for the current activation of the scope: repeated calls
+ * within the same request, for example, get the target from the scope's
+ * {@link ScopedTargetCache} instead of going through the BeanFactory.
+ * Changes of the scope that bypass its owner, such as request attributes set
+ * directly on an <code>HttpServletRequest</code>, are not detected.
+ *
+ * @see ScopedProxyFactoryBean
+ */
+public class ScopedBeanTargetSource extends SimpleBeanTargetSource {
+
+    private volatile TargetCachingScope targetCachingScope;
+
+    private volatile boolean scopeResolved = false;
+
+
+    public Object getTarget() throws Exception {
+        TargetCachingScope scope = getTargetCachingScope();
+        ScopedTargetCache cache = (scope != null ? scope.getScopedTargetCache() : null);
+        if (cache == null) {
+            return super.getTarget();
+        }
+        Object target = cache.get(this);
+        if (target == null) {
+            target = super.getTarget();
+            cache.put(this, target);
+        }
+        return target;
+    }
+
+    /**
+     * Determine the scope of the target bean, if it supports target caching.
+     */
+    private TargetCachingScope getTargetCachingScope() {
+        if (!this.scopeResolved) {
+            BeanFactory beanFactory = getBeanFactory();
+            if (beanFactory instanceof ConfigurableBeanFactory) {
+                ConfigurableBeanFactory cbf = (ConfigurableBeanFactory) beanFactory;
+                try {
+                    String scopeName = cbf.getMergedBeanDefinition(getTargetBeanName()).getScope();
+                    Scope scope = (StringUtils.hasLength(scopeName) ? cbf.getRegisteredScope(scopeName) : null);
+                    if (scope instanceof TargetCachingScope) {
+                        this.targetCachingScope = (TargetCachingScope) scope;
+                    }
+                }
+                catch (NoSuchBeanDefinitionException ex) {
+                    // No definition to check - don't cache.
+                }
+            }
+            this.scopeResolved = true;
+        }
+        return this.targetCachingScope;
+    }
+
+}
@@ -4,7 +4,6 @@ import com.rocket.summer.framework.aop.framework.AopInfrastructureBean;
 import com.rocket.summer.framework.aop.framework.ProxyConfig;
 import com.rocket.summer.framework.aop.framework.ProxyFactory;
 import com.rocket.summer.framework.aop.support.DelegatingIntroductionInterceptor;
-import com.rocket.summer.framework.aop.target.SimpleBeanTargetSource;
 import com.rocket.summer.framework.beans.factory.BeanFactory;
 import com.rocket.summer.framework.beans.factory.BeanFactoryAware;
 import com.rocket.summer.framework.beans.factory.FactoryBean;
@@ -28,6 +27,9 @@ import java.lang.reflect.Modifier;
  * <i>class-based</i> proxies by default. This can be customized
  * through switching the "proxyTargetClass" property to "false".
  *
+ * <p>Targets are resolved through a {@link ScopedBeanTargetSource}, caching the
+ * resolved target for the current scope activation where the scope supports it.
+ *
  * @author Rod Johnson
  * @author Juergen Hoeller
  * @since 2.0
@@ -36,7 +38,7 @@ import java.lang.reflect.Modifier;
 public class ScopedProxyFactoryBean extends ProxyConfig implements FactoryBean, BeanFactoryAware {
 
     /** The TargetSource that manages scoping */
-    private final SimpleBeanTargetSource scopedTargetSource = new SimpleBeanTargetSource();
+    private final ScopedBeanTargetSource scopedTargetSource = new ScopedBeanTargetSource();
 
     /** The name of the target bean */
     private String targetBeanName;
@@ -0,0 +1,54 @@
+package com.rocket.summer.framework.aop.scope;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Cache for scoped targets that have already been resolved during the current
+ * activation of a scope, e.g. the current web request. Held by the scope's
+ * backing store, so that repeated calls on a scoped proxy can use the resolved
+ * target directly instead of going through the scope and the bean factory.
+ *
+ * <p>Entries are keyed by the identity of the resolving component, typically
+ * a {@link ScopedBeanTargetSource}. The owner of the cache is responsible for
+ * clearing it whenever objects get added to or removed from the scope.
+ *
+ * @see TargetCachingScope#getScopedTargetCache()
+ */
+public class ScopedTargetCache {
+
+    private final Map<Object, Object> targets = new IdentityHashMap<Object, Object>(8);
+
+
+    /**
+     * Return the target cached for the given key.
+     * @param key the resolving component
+     * @return the cached target, or <code>null</code> if none
+     */
+    public Object get(Object key) {
+        synchronized (this.targets) {
+            return this.targets.get(key);
+        }
+    }
+
+    /**
+     * Cache the given target for the given key.
+     * @param key the resolving component
+     * @param target the resolved target
+     */
+    public void put(Object key, Object target) {
+        synchronized (this.targets) {
+            this.targets.put(key, target);
+        }
+    }
+
+    /**
+     * Remove all cached targets.
+     */
+    public void clear() {
+        synchronized (this.targets) {
+            this.targets.clear();
+        }
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.rocket.summer.framework.aop.scope;
+
+import com.rocket.summer.framework.beans.factory.config.Scope;
+
+/**
+ * Extension of the {@link Scope} interface for scopes that allow scoped proxies
+ * to cache their resolved targets for the current activation of the scope.
+ *
+ * @see ScopedBeanTargetSource
+ */
+public interface TargetCachingScope extends Scope {
+
+    /**
+     * Return the cache of resolved targets for the current activation of this
+     * scope, e.g. for the current request.
+     * @return the cache, or <code>null</code> if the scope is not active
+     * or caching is not possible at this point
+     */
+    ScopedTargetCache getScopedTargetCache();
+
+}
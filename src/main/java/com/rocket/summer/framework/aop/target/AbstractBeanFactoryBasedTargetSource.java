@@ -32,7 +32,7 @@ import java.io.Serializable;
  * @see LazyInitTargetSource
  * @see PrototypeTargetSource
  * @see ThreadLocalTargetSource
- * @see CommonsPoolTargetSource
+ * @see SimplePoolTargetSource
  */
 public abstract class AbstractBeanFactoryBasedTargetSource
         implements TargetSource, BeanFactoryAware, Serializable {
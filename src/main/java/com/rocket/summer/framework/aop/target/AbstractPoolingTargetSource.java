@@ -0,0 +1,102 @@
+package com.rocket.summer.framework.aop.target;
+
+import com.rocket.summer.framework.aop.support.DefaultIntroductionAdvisor;
+import com.rocket.summer.framework.aop.support.DelegatingIntroductionInterceptor;
+import com.rocket.summer.framework.beans.factory.BeanFactory;
+import com.rocket.summer.framework.beans.factory.BeanInitializationException;
+import com.rocket.summer.framework.beans.factory.DisposableBean;
+import com.rocket.summer.framework.context.BeansException;
+
+/**
+ * Abstract base class for pooling {@link com.rocket.summer.framework.aop.TargetSource}
+ * implementations which maintain a pool of target instances, acquiring and
+ * releasing a target object from the pool for each method invocation.
+ * This abstract base class is independent of concrete pooling technology;
+ * see the subclass {@link SimplePoolTargetSource} for a concrete example.
+ *
+ * <p>Subclasses must implement the {@link #getTarget} and
+ * {@link #releaseTarget} methods based on their chosen object pool.
+ * The {@link #newPrototypeInstance()} method inherited from
+ * {@link AbstractPrototypeBasedTargetSource} can be used to create objects
+ * in order to put them into the pool.
+ *
+ * <p>Subclasses must also implement some of the monitoring methods from the
+ * {@link PoolingConfig} interface. The {@link #getPoolingConfigMixin()} method
+ * makes these stats available on proxied objects through an IntroductionAdvisor.
+ *
+ * <p>This class implements the {@link DisposableBean} interface in order to
+ * force subclasses to implement a {@link #destroy()} method, closing down
+ * their object pool.
+ *
+ * @see #getTarget
+ * @see #releaseTarget
+ * @see #destroy
+ */
+public abstract class AbstractPoolingTargetSource extends AbstractPrototypeBasedTargetSource
+        implements PoolingConfig, DisposableBean {
+
+    /** The maximum size of the pool */
+    private int maxSize = -1;
+
+
+    /**
+     * Set the maximum size of the pool.
+     * Default is -1, indicating no size limit.
+     */
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Return the maximum size of the pool.
+     */
+    public int getMaxSize() {
+        return this.maxSize;
+    }
+
+
+    public final void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        super.setBeanFactory(beanFactory);
+        try {
+            createPool();
+        }
+        catch (Throwable ex) {
+            throw new BeanInitializationException("Could not create instance pool for TargetSource", ex);
+        }
+    }
+
+
+    /**
+     * Create the pool.
+     * @throws Exception to avoid placing constraints on pooling APIs
+     */
+    protected abstract void createPool() throws Exception;
+
+    /**
+     * Acquire an object from the pool.
+     * @return an object from the pool
+     * @throws Exception we may need to deal with checked exceptions from pool
+     * APIs, so we're forgiving with our exception signature
+     */
+    public abstract Object getTarget() throws Exception;
+
+    /**
+     * Return the given object to the pool.
+     * @param target object that must have been acquired from the pool
+     * via a call to <code>getTarget()</code>
+     * @throws Exception to allow pooling APIs to throw exception
+     * @see #getTarget
+     */
+    public abstract void releaseTarget(Object target) throws Exception;
+
+
+    /**
+     * Return an IntroductionAdvisor providing a mixin
+     * exposing statistics about the pool maintained by this object.
+     */
+    public DefaultIntroductionAdvisor getPoolingConfigMixin() {
+        DelegatingIntroductionInterceptor dii = new DelegatingIntroductionInterceptor(this);
+        return new DefaultIntroductionAdvisor(dii, PoolingConfig.class);
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.rocket.summer.framework.aop.target;
+
+import com.rocket.summer.framework.beans.factory.BeanDefinitionStoreException;
+import com.rocket.summer.framework.beans.factory.BeanFactory;
+import com.rocket.summer.framework.beans.factory.DisposableBean;
+import com.rocket.summer.framework.beans.factory.config.ConfigurableBeanFactory;
+import com.rocket.summer.framework.context.BeansException;
+
+/**
+ * Base class for dynamic {@link com.rocket.summer.framework.aop.TargetSource} implementations
+ * that create new prototype bean instances to support a pooling or
+ * new-instance-per-invocation strategy.
+ *
+ * <p>Such TargetSources must run in a {@link BeanFactory}, as it needs to
+ * call the <code>getBean</code> method to create a new prototype instance.
+ * Therefore, this base class extends {@link AbstractBeanFactoryBasedTargetSource}.
+ *
+ * @see com.rocket.summer.framework.beans.factory.BeanFactory#getBean
+ * @see ThreadLocalTargetSource
+ * @see SimplePoolTargetSource
+ */
+public abstract class AbstractPrototypeBasedTargetSource extends AbstractBeanFactoryBasedTargetSource {
+
+    public void setBeanFactory(BeanFactory beanFactory) throws BeansException {
+        super.setBeanFactory(beanFactory);
+
+        // Check whether the target bean is defined as prototype.
+        if (!beanFactory.isPrototype(getTargetBeanName())) {
+            throw new BeanDefinitionStoreException(
+                    "Cannot use prototype-based TargetSource against non-prototype bean with name '" +
+                    getTargetBeanName() + "': instances would not be independent");
+        }
+    }
+
+    /**
+     * Subclasses should call this method to create a new prototype instance.
+     * @throws BeansException if bean creation failed
+     */
+    protected Object newPrototypeInstance() throws BeansException {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Creating new instance of bean '" + getTargetBeanName() + "'");
+        }
+        return getBeanFactory().getBean(getTargetBeanName());
+    }
+
+    /**
+     * Subclasses should call this method to destroy an obsolete prototype instance.
+     * @param target the bean instance to destroy
+     */
+    protected void destroyPrototypeInstance(Object target) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Destroying instance of bean '" + getTargetBeanName() + "'");
+        }
+        if (getBeanFactory() instanceof ConfigurableBeanFactory) {
+            ((ConfigurableBeanFactory) getBeanFactory()).destroyBean(getTargetBeanName(), target);
+        }
+        else if (target instanceof DisposableBean) {
+            try {
+                ((DisposableBean) target).destroy();
+            }
+            catch (Throwable ex) {
+                logger.error("Couldn't invoke destroy method of bean with name '" + getTargetBeanName() + "'", ex);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.rocket.summer.framework.aop.target;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe recorder for the {@link TargetSourceStats} of a TargetSource.
+ */
+@SuppressWarnings("serial")
+final class BorrowStatistics implements Serializable {
+
+    private final AtomicInteger activeCount = new AtomicInteger();
+
+    private final AtomicLong borrowCount = new AtomicLong();
+
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+
+    /**
+     * Record a target obtained after the given wait time.
+     */
+    public void recordBorrow(long waitNanos) {
+        this.activeCount.incrementAndGet();
+        this.borrowCount.incrementAndGet();
+        this.totalWaitNanos.addAndGet(waitNanos);
+        long max = this.maxWaitNanos.get();
+        while (waitNanos > max && !this.maxWaitNanos.compareAndSet(max, waitNanos)) {
+            max = this.maxWaitNanos.get();
+        }
+    }
+
+    /**
+     * Record a target released.
+     */
+    public void recordRelease() {
+        this.activeCount.decrementAndGet();
+    }
+
+    public int getActiveCount() {
+        return this.activeCount.get();
+    }
+
+    public long getBorrowCount() {
+        return this.borrowCount.get();
+    }
+
+    public long getTotalWaitNanos() {
+        return this.totalWaitNanos.get();
+    }
+
+    public long getMaxWaitNanos() {
+        return this.maxWaitNanos.get();
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.rocket.summer.framework.aop.target;
+
+/**
+ * Config interface for a pooling target source.
+ *
+ * @see AbstractPoolingTargetSource#getPoolingConfigMixin()
+ */
+public interface PoolingConfig extends TargetSourceStats {
+
+    /**
+     * Return the maximum size of the pool.
+     */
+    int getMaxSize();
+
+    /**
+     * Return the number of idle objects in the pool.
+     */
+    int getIdleCount();
+
+}
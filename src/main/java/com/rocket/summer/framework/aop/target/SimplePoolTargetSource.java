@@ -0,0 +1,251 @@
+package com.rocket.summer.framework.aop.target;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link com.rocket.summer.framework.aop.TargetSource} implementation that holds
+ * prototype target instances in a bounded, built-in object pool. Useful for
+ * target beans that are not thread-safe and expensive to create, such as
+ * parsers or clients for legacy systems, which would otherwise need to be
+ * created anew for every use.
+ *
+ * <p>The pool hands out at most {@link #setMaxSize "maxSize"} targets at any time
+ * (default is 8). Callers that find the pool exhausted wait for a target to be
+ * released, for at most {@link #setMaxWait "maxWait"} milliseconds if specified.
+ * Released targets are kept for reuse; the most recently released target is
+ * handed out first. The pool can be pre-filled with {@link #setMinIdle "minIdle"}
+ * targets on startup, and targets can be validated before being handed out
+ * (see {@link #setTestOnBorrow} and {@link #validateTarget}).
+ *
+ * <p>Borrow wait times and the number of active targets are available through
+ * the {@link PoolingConfig} interface, which can also be exposed on the proxy
+ * via {@link #getPoolingConfigMixin()}.
+ *
+ * <p>The target bean must be defined as prototype. Pool settings must be
+ * specified before the owning BeanFactory is set, which creates the pool.
+ *
+ * @see #setMaxSize
+ * @see #setMaxWait
+ * @see #setMinIdle
+ * @see #setTestOnBorrow
+ */
+public class SimplePoolTargetSource extends AbstractPoolingTargetSource {
+
+    private static final int DEFAULT_MAX_SIZE = 8;
+
+
+    private int minIdle = 0;
+
+    private long maxWait = -1;
+
+    private boolean testOnBorrow = false;
+
+    /** Permits for the targets in use, or <code>null</code> if unlimited */
+    private Semaphore permits;
+
+    /** The idle targets, most recently released first */
+    private final BlockingDeque<Object> idleTargets = new LinkedBlockingDeque<Object>();
+
+    private final BorrowStatistics borrowStatistics = new BorrowStatistics();
+
+    private volatile boolean closed = false;
+
+
+    /**
+     * Create a SimplePoolTargetSource with a maximum pool size of 8.
+     * @see #setMaxSize
+     */
+    public SimplePoolTargetSource() {
+        setMaxSize(DEFAULT_MAX_SIZE);
+    }
+
+
+    /**
+     * Set the number of targets to create upfront when the pool is created.
+     * Default is 0. Values above the maximum pool size are capped.
+     */
+    public void setMinIdle(int minIdle) {
+        this.minIdle = minIdle;
+    }
+
+    /**
+     * Return the number of targets to create upfront.
+     */
+    public int getMinIdle() {
+        return this.minIdle;
+    }
+
+    /**
+     * Set the maximum time in milliseconds to wait for a target
+     * when the pool is exhausted. Default is -1, waiting indefinitely.
+     */
+    public void setMaxWait(long maxWait) {
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * Return the maximum time in milliseconds to wait for a target.
+     */
+    public long getMaxWait() {
+        return this.maxWait;
+    }
+
+    /**
+     * Set whether to validate targets through {@link #validateTarget}
+     * before handing them out. Invalid targets are destroyed and replaced.
+     * Default is "false".
+     */
+    public void setTestOnBorrow(boolean testOnBorrow) {
+        this.testOnBorrow = testOnBorrow;
+    }
+
+    /**
+     * Return whether to validate targets before handing them out.
+     */
+    public boolean isTestOnBorrow() {
+        return this.testOnBorrow;
+    }
+
+
+    protected void createPool() throws Exception {
+        logger.debug("Creating bounded object pool");
+        this.permits = (getMaxSize() > 0 ? new Semaphore(getMaxSize(), true) : null);
+        int initialSize = (getMaxSize() > 0 ? Math.min(this.minIdle, getMaxSize()) : this.minIdle);
+        for (int i = 0; i < initialSize; i++) {
+            this.idleTargets.offerLast(newPrototypeInstance());
+        }
+    }
+
+    /**
+     * Borrow an object from the pool, waiting for one to be released
+     * if the pool is exhausted.
+     * @throws NoSuchElementException if no target became available within
+     * the maximum wait time, or if a newly created target failed validation
+     */
+    public Object getTarget() throws Exception {
+        long startTime = System.nanoTime();
+        acquirePermit();
+        boolean obtained = false;
+        try {
+            Object target = obtainTarget();
+            obtained = true;
+            this.borrowStatistics.recordBorrow(System.nanoTime() - startTime);
+            return target;
+        }
+        finally {
+            if (!obtained) {
+                releasePermit();
+            }
+        }
+    }
+
+    private void acquirePermit() throws InterruptedException {
+        if (this.permits == null) {
+            return;
+        }
+        if (this.maxWait < 0) {
+            this.permits.acquire();
+        }
+        else if (!this.permits.tryAcquire(this.maxWait, TimeUnit.MILLISECONDS)) {
+            throw new NoSuchElementException("Timeout waiting for pooled instance of bean '" +
+                    getTargetBeanName() + "': all " + getMaxSize() + " instances in use for more than " +
+                    this.maxWait + " ms");
+        }
+    }
+
+    private void releasePermit() {
+        if (this.permits != null) {
+            this.permits.release();
+        }
+    }
+
+    private Object obtainTarget() throws Exception {
+        while (true) {
+            Object target = this.idleTargets.pollFirst();
+            boolean created = (target == null);
+            if (created) {
+                target = newPrototypeInstance();
+            }
+            if (!this.testOnBorrow || validateTarget(target)) {
+                return target;
+            }
+            destroyPrototypeInstance(target);
+            if (created) {
+                throw new NoSuchElementException(
+                        "Newly created instance of bean '" + getTargetBeanName() + "' failed validation");
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Discarded pooled instance of bean '" + getTargetBeanName() + "' that failed validation");
+            }
+        }
+    }
+
+    /**
+     * Validate the given target before handing it out, if "testOnBorrow" is active.
+     * <p>The default implementation considers every target valid.
+     * Can be overridden in subclasses, e.g. checking a connection held by the target.
+     * @param target the target about to be handed out
+     * @return <code>true</code> if the target may be used, <code>false</code>
+     * if it is to be destroyed and replaced
+     */
+    protected boolean validateTarget(Object target) {
+        return true;
+    }
+
+    /**
+     * Return the given object to the pool.
+     */
+    public void releaseTarget(Object target) throws Exception {
+        this.borrowStatistics.recordRelease();
+        try {
+            if (this.closed) {
+                destroyPrototypeInstance(target);
+            }
+            else {
+                this.idleTargets.offerFirst(target);
+            }
+        }
+        finally {
+            releasePermit();
+        }
+    }
+
+    public int getActiveCount() {
+        return this.borrowStatistics.getActiveCount();
+    }
+
+    public int getIdleCount() {
+        return this.idleTargets.size();
+    }
+
+    public long getBorrowCount() {
+        return this.borrowStatistics.getBorrowCount();
+    }
+
+    public long getTotalBorrowWaitNanos() {
+        return this.borrowStatistics.getTotalWaitNanos();
+    }
+
+    public long getMaxBorrowWaitNanos() {
+        return this.borrowStatistics.getMaxWaitNanos();
+    }
+
+
+    /**
+     * Closes the object pool, destroying all idle targets. Targets still
+     * in use are destroyed when released.
+     */
+    public void destroy() throws Exception {
+        logger.debug("Closing bounded object pool");
+        this.closed = true;
+        Object target;
+        while ((target = this.idleTargets.pollFirst()) != null) {
+            destroyPrototypeInstance(target);
+        }
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.rocket.summer.framework.aop.target;
+
+/**
+ * Statistics for TargetSources that hand out target instances for the
+ * duration of an invocation: how many targets are currently in use and
+ * how long callers had to wait for a target.
+ *
+ * @see PoolingConfig
+ * @see ThreadLocalTargetSourceStats
+ */
+public interface TargetSourceStats {
+
+    /**
+     * Return the number of targets currently in use, i.e. obtained
+     * but not yet released.
+     */
+    int getActiveCount();
+
+    /**
+     * Return the number of targets obtained so far.
+     */
+    long getBorrowCount();
+
+    /**
+     * Return the accumulated time that callers spent waiting for a target,
+     * including the creation of new target instances, in nanoseconds.
+     */
+    long getTotalBorrowWaitNanos();
+
+    /**
+     * Return the longest time that a single caller spent waiting for
+     * a target, in nanoseconds.
+     */
+    long getMaxBorrowWaitNanos();
+
+}
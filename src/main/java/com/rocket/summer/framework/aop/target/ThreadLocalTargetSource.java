@@ -0,0 +1,153 @@
+package com.rocket.summer.framework.aop.target;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.rocket.summer.framework.aop.IntroductionAdvisor;
+import com.rocket.summer.framework.aop.support.DefaultIntroductionAdvisor;
+import com.rocket.summer.framework.aop.support.DelegatingIntroductionInterceptor;
+import com.rocket.summer.framework.beans.factory.DisposableBean;
+import com.rocket.summer.framework.context.BeansException;
+import com.rocket.summer.framework.core.NamedThreadLocal;
+
+/**
+ * Alternative to an object pool. This {@link com.rocket.summer.framework.aop.TargetSource}
+ * uses a threading model in which every thread has its own copy of the target.
+ * There's no contention for targets. Target object creation is kept to a minimum
+ * on the running server.
+ *
+ * <p>Application code is written as to a normal pool; callers can't assume they
+ * will be dealing with the same instance in invocations in different threads.
+ * However, state can be relied on during the operations of a single thread:
+ * for example, if one caller makes repeated calls on the AOP proxy.
+ *
+ * <p>Cleanup of thread-bound objects is performed on BeanFactory destruction,
+ * calling their <code>DisposableBean.destroy()</code> method if available.
+ * Be aware that many thread-bound objects can be around until the application
+ * actually shuts down.
+ *
+ * @see ThreadLocalTargetSourceStats
+ * @see com.rocket.summer.framework.beans.factory.DisposableBean#destroy()
+ */
+public class ThreadLocalTargetSource extends AbstractPrototypeBasedTargetSource
+        implements ThreadLocalTargetSourceStats, DisposableBean {
+
+    /**
+     * ThreadLocal holding the target associated with the current
+     * thread. Unlike most ThreadLocals, which are static, this variable
+     * is meant to be per thread per instance of the ThreadLocalTargetSource class.
+     */
+    private final ThreadLocal<Object> targetInThread =
+            new NamedThreadLocal<Object>("Thread-local instance of bean") {
+                public String toString() {
+                    return super.toString() + " '" + getTargetBeanName() + "'";
+                }
+            };
+
+    /**
+     * Set of managed targets, enabling us to keep track of the targets we've created.
+     */
+    private final Set<Object> targetSet = new HashSet<Object>();
+
+    private final AtomicInteger invocationCount = new AtomicInteger();
+
+    private final AtomicInteger hitCount = new AtomicInteger();
+
+    private final BorrowStatistics borrowStatistics = new BorrowStatistics();
+
+
+    /**
+     * Implementation of abstract getTarget() method.
+     * We look for a target held in a ThreadLocal. If we don't find one,
+     * we create one and bind it to the thread. No synchronization is required.
+     */
+    public Object getTarget() throws BeansException {
+        long startTime = System.nanoTime();
+        this.invocationCount.incrementAndGet();
+        Object target = this.targetInThread.get();
+        if (target == null) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("No target for prototype '" + getTargetBeanName() + "' bound to thread: " +
+                        "creating one and binding it to thread '" + Thread.currentThread().getName() + "'");
+            }
+            // Associate target with ThreadLocal.
+            target = newPrototypeInstance();
+            this.targetInThread.set(target);
+            synchronized (this.targetSet) {
+                this.targetSet.add(target);
+            }
+        }
+        else {
+            this.hitCount.incrementAndGet();
+        }
+        this.borrowStatistics.recordBorrow(System.nanoTime() - startTime);
+        return target;
+    }
+
+    /**
+     * The target stays bound to the current thread; we just keep track
+     * of the active count here.
+     */
+    public void releaseTarget(Object target) {
+        this.borrowStatistics.recordRelease();
+    }
+
+    /**
+     * Dispose of targets if necessary; clear ThreadLocal.
+     * @see #destroyPrototypeInstance
+     */
+    public void destroy() {
+        logger.debug("Destroying ThreadLocalTargetSource bindings");
+        synchronized (this.targetSet) {
+            for (Object target : this.targetSet) {
+                destroyPrototypeInstance(target);
+            }
+            this.targetSet.clear();
+        }
+        // Clear ThreadLocal, just in case.
+        this.targetInThread.remove();
+    }
+
+
+    public int getInvocationCount() {
+        return this.invocationCount.get();
+    }
+
+    public int getHitCount() {
+        return this.hitCount.get();
+    }
+
+    public int getObjectCount() {
+        synchronized (this.targetSet) {
+            return this.targetSet.size();
+        }
+    }
+
+    public int getActiveCount() {
+        return this.borrowStatistics.getActiveCount();
+    }
+
+    public long getBorrowCount() {
+        return this.borrowStatistics.getBorrowCount();
+    }
+
+    public long getTotalBorrowWaitNanos() {
+        return this.borrowStatistics.getTotalWaitNanos();
+    }
+
+    public long getMaxBorrowWaitNanos() {
+        return this.borrowStatistics.getMaxWaitNanos();
+    }
+
+
+    /**
+     * Return an introduction advisor mixin that allows the AOP proxy to be
+     * cast to ThreadLocalTargetSourceStats.
+     */
+    public IntroductionAdvisor getStatsMixin() {
+        DelegatingIntroductionInterceptor dii = new DelegatingIntroductionInterceptor(this);
+        return new DefaultIntroductionAdvisor(dii, ThreadLocalTargetSourceStats.class);
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.rocket.summer.framework.aop.target;
+
+/**
+ * Statistics for a ThreadLocal TargetSource.
+ *
+ * @see ThreadLocalTargetSource#getStatsMixin()
+ */
+public interface ThreadLocalTargetSourceStats extends TargetSourceStats {
+
+    /**
+     * Return the number of client invocations.
+     */
+    int getInvocationCount();
+
+    /**
+     * Return the number of hits that were satisfied by a thread-bound object.
+     */
+    int getHitCount();
+
+    /**
+     * Return the number of thread-bound objects created.
+     */
+    int getObjectCount();
+
+}
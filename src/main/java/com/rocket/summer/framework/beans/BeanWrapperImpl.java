@@ -241,6 +241,17 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
     }
 
 
+    /**
+     * Return the generated accessor for the given read or write method, if accessor
+     * generation is active.
+     * @see CachedIntrospectionResults#GENERATE_ACCESSORS_PROPERTY_NAME
+     */
+    private MemberAccessor getMemberAccessor(Method method) {
+        return (CachedIntrospectionResults.shouldGenerateAccessors ?
+                getCachedIntrospectionResults().getMemberAccessor(method) : null);
+    }
+
+
     private class BeanPropertyHandler extends PropertyHandler {
 
         private final PropertyDescriptor pd;
@@ -296,6 +307,10 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
                 }
             }
             else {
+                MemberAccessor accessor = getMemberAccessor(readMethod);
+                if (accessor != null) {
+                    return accessor.get(getWrappedInstance());
+                }
                 return readMethod.invoke(getWrappedInstance(), (Object[]) null);
             }
         }
@@ -335,7 +350,13 @@ public class BeanWrapperImpl extends AbstractNestablePropertyAccessor implements
                 }
             }
             else {
-                writeMethod.invoke(getWrappedInstance(), value);
+                MemberAccessor accessor = getMemberAccessor(writeMethod);
+                if (accessor != null) {
+                    accessor.set(getWrappedInstance(), value);
+                }
+                else {
+                    writeMethod.invoke(getWrappedInstance(), value);
+                }
             }
         }
     }
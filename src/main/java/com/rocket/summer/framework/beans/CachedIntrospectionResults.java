@@ -14,6 +14,7 @@ import java.beans.BeanInfo;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.lang.reflect.Member;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -71,10 +72,24 @@ public class CachedIntrospectionResults {
      */
     public static final String IGNORE_BEANINFO_PROPERTY_NAME = "spring.beaninfo.ignore";
 
+    /**
+     * System property that instructs Spring to access bean properties through generated
+     * bytecode instead of reflection: "spring.beaninfo.generateAccessors", with a value of
+     * "true" generating a {@link MemberAccessor} class per introspected bean class on first
+     * property access, covering public property read and write methods and public fields.
+     * <p>The default is "false", invoking read and write methods via reflection. Consider
+     * switching this flag to "true" for applications that bind or read bean properties at
+     * high rates, e.g. through data binding or SpEL property access.
+     * @see MemberAccessor#forMember
+     */
+    public static final String GENERATE_ACCESSORS_PROPERTY_NAME = "spring.beaninfo.generateAccessors";
+
 
     private static final boolean shouldIntrospectorIgnoreBeaninfoClasses =
             SpringProperties.getFlag(IGNORE_BEANINFO_PROPERTY_NAME);
 
+    static final boolean shouldGenerateAccessors = SpringProperties.getFlag(GENERATE_ACCESSORS_PROPERTY_NAME);
+
     /** Stores the BeanInfoFactory instances */
     private static List<BeanInfoFactory> beanInfoFactories = SpringFactoriesLoader.loadFactories(
             BeanInfoFactory.class, CachedIntrospectionResults.class.getClassLoader());
@@ -232,6 +247,9 @@ public class CachedIntrospectionResults {
     /** TypeDescriptor objects keyed by PropertyDescriptor */
     private final ConcurrentMap<PropertyDescriptor, TypeDescriptor> typeDescriptorCache;
 
+    /** Generated MemberAccessor objects keyed by read/write Method or Field, lazily initialized */
+    private volatile Map<Member, MemberAccessor> memberAccessorCache;
+
 
     /**
      * Create a new CachedIntrospectionResults instance for the given class.
@@ -358,4 +376,38 @@ public class CachedIntrospectionResults {
         return this.typeDescriptorCache.get(pd);
     }
 
+    /**
+     * Return the generated accessor for the given property read or write method
+     * or public field, generating the accessors for this bean class on first access.
+     * @param member the method or field
+     * @return the accessor, or {@code null} if none available for the given member
+     */
+    MemberAccessor getMemberAccessor(Member member) {
+        Map<Member, MemberAccessor> accessors = this.memberAccessorCache;
+        if (accessors == null) {
+            synchronized (this) {
+                accessors = this.memberAccessorCache;
+                if (accessors == null) {
+                    Class<?> beanClass = getBeanClass();
+                    Set<Member> members = new LinkedHashSet<Member>();
+                    for (PropertyDescriptor pd : this.propertyDescriptorCache.values()) {
+                        if (pd.getReadMethod() != null) {
+                            members.add(pd.getReadMethod());
+                        }
+                        if (pd.getWriteMethod() != null) {
+                            members.add(pd.getWriteMethod());
+                            if (pd instanceof GenericTypeAwarePropertyDescriptor) {
+                                members.add(((GenericTypeAwarePropertyDescriptor) pd).getWriteMethodForActualAccess());
+                            }
+                        }
+                    }
+                    Collections.addAll(members, beanClass.getFields());
+                    accessors = MemberAccessorGenerator.generateAccessors(beanClass, members);
+                    this.memberAccessorCache = accessors;
+                }
+            }
+        }
+        return accessors.get(member);
+    }
+
 }
@@ -10,6 +10,7 @@ import com.rocket.summer.framework.util.ReflectionUtils;
 
 import java.beans.PropertyChangeEvent;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -90,8 +91,7 @@ public class DirectFieldAccessor extends AbstractPropertyAccessor {
                     this.target.getClass(), propertyName, "Field '" + propertyName + "' does not exist");
         }
         try {
-            ReflectionUtils.makeAccessible(field);
-            return field.get(this.target);
+            return readField(field);
         }
         catch (IllegalAccessException ex) {
             throw new InvalidPropertyException(this.target.getClass(), propertyName, "Field is not accessible", ex);
@@ -107,11 +107,10 @@ public class DirectFieldAccessor extends AbstractPropertyAccessor {
         }
         Object oldValue = null;
         try {
-            ReflectionUtils.makeAccessible(field);
-            oldValue = field.get(this.target);
+            oldValue = readField(field);
             Object convertedValue = this.typeConverterDelegate.convertIfNecessary(
                     field.getName(), oldValue, newValue, field.getType(), new TypeDescriptor(field));
-            field.set(this.target, convertedValue);
+            writeField(field, convertedValue);
         }
         catch (ConverterNotFoundException ex) {
             PropertyChangeEvent pce = new PropertyChangeEvent(this.target, propertyName, oldValue, newValue);
@@ -134,6 +133,46 @@ public class DirectFieldAccessor extends AbstractPropertyAccessor {
         }
     }
 
+    /**
+     * Read the given field on the target, through a generated {@link MemberAccessor}
+     * if available.
+     */
+    private Object readField(Field field) throws IllegalAccessException {
+        MemberAccessor accessor = MemberAccessor.forMember(this.target.getClass(), field);
+        if (accessor == null) {
+            ReflectionUtils.makeAccessible(field);
+            return field.get(this.target);
+        }
+        try {
+            return accessor.get(this.target);
+        }
+        catch (InvocationTargetException ex) {
+            // Not to be expected for field access
+            ReflectionUtils.handleInvocationTargetException(ex);
+            throw new IllegalStateException("Should never get here");
+        }
+    }
+
+    /**
+     * Write the given field on the target, through a generated {@link MemberAccessor}
+     * if available.
+     */
+    private void writeField(Field field, Object value) throws IllegalAccessException {
+        MemberAccessor accessor = MemberAccessor.forMember(this.target.getClass(), field);
+        if (accessor == null) {
+            ReflectionUtils.makeAccessible(field);
+            field.set(this.target, value);
+            return;
+        }
+        try {
+            accessor.set(this.target, value);
+        }
+        catch (InvocationTargetException ex) {
+            // Not to be expected for field access
+            ReflectionUtils.handleInvocationTargetException(ex);
+        }
+    }
+
     public <T> T convertIfNecessary(
             Object value, Class<T> requiredType, MethodParameter methodParam) throws TypeMismatchException {
         try {
@@ -0,0 +1,137 @@
+package com.rocket.summer.framework.beans;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import com.rocket.summer.framework.context.BeansException;
+import com.rocket.summer.framework.util.ClassUtils;
+
+/**
+ * Accessor for a bean property read or write method or a public field, invoking it
+ * through generated bytecode instead of reflection. Follows the contract of
+ * {@link Method#invoke} and {@link Field#get}/{@link Field#set}: exceptions thrown
+ * by an invoked method are wrapped in an {@link InvocationTargetException}.
+ *
+ * <p>Accessors are generated per bean class, covering the public read and write
+ * methods of its bean properties as well as its public instance fields, and cached
+ * along with the class's introspection results. Generation is only active if the
+ * {@link CachedIntrospectionResults#GENERATE_ACCESSORS_PROPERTY_NAME} flag is set.
+ * Shared by {@link BeanWrapperImpl}, {@link DirectFieldAccessor} and SpEL's
+ * {@code ReflectivePropertyAccessor}.
+ *
+ * @see #forMember(Class, Member)
+ */
+public abstract class MemberAccessor {
+
+    /**
+     * Return the generated accessor for the given method or field of the given bean class.
+     * @param beanClass the bean class to access the member on
+     * @param member a property read or write method, or a public field
+     * @return the accessor, or {@code null} if accessor generation is not active or
+     * not possible for the given member, in which case reflection needs to be used
+     * @throws BeansException in case of introspection failure
+     */
+    public static MemberAccessor forMember(Class<?> beanClass, Member member) throws BeansException {
+        if (!CachedIntrospectionResults.shouldGenerateAccessors) {
+            return null;
+        }
+        return CachedIntrospectionResults.forClass(beanClass).getMemberAccessor(member);
+    }
+
+
+    private final Member member;
+
+    private final Class<?> targetType;
+
+    private final boolean readable;
+
+    private final Class<?> valueType;
+
+
+    /**
+     * Create a new MemberAccessor for the given member.
+     * @param member the read or write method or the field to access
+     * @param targetType the type that the member is accessed on
+     */
+    protected MemberAccessor(Member member, Class<?> targetType) {
+        this.member = member;
+        this.targetType = targetType;
+        if (member instanceof Field) {
+            Field field = (Field) member;
+            this.readable = true;
+            this.valueType = (!Modifier.isFinal(field.getModifiers()) ? field.getType() : null);
+        }
+        else {
+            Method method = (Method) member;
+            this.readable = (method.getParameterTypes().length == 0);
+            this.valueType = (method.getParameterTypes().length == 1 ? method.getParameterTypes()[0] : null);
+        }
+    }
+
+
+    /**
+     * Return the method or field that this accessor gives access to.
+     */
+    public final Member getMember() {
+        return this.member;
+    }
+
+    /**
+     * Invoke the read method or read the field on the given target.
+     * @param target the target object
+     * @return the value
+     * @throws IllegalAccessException if the member is not accessible
+     * @throws InvocationTargetException if the read method threw an exception
+     */
+    public final Object get(Object target) throws IllegalAccessException, InvocationTargetException {
+        if (!this.readable || !this.targetType.isInstance(target)) {
+            // Let reflection raise the corresponding exception.
+            return (this.member instanceof Field ? ((Field) this.member).get(target) :
+                    ((Method) this.member).invoke(target));
+        }
+        return doGet(target);
+    }
+
+    /**
+     * Invoke the write method or write the field on the given target.
+     * <p>Values that would require a widening conversion are applied through reflection.
+     * @param target the target object
+     * @param value the value to apply
+     * @throws IllegalAccessException if the member is not accessible
+     * @throws InvocationTargetException if the write method threw an exception
+     */
+    public final void set(Object target, Object value) throws IllegalAccessException, InvocationTargetException {
+        if (!this.targetType.isInstance(target) || this.valueType == null ||
+                (value != null ? !ClassUtils.isAssignableValue(this.valueType, value) : this.valueType.isPrimitive())) {
+            // Let reflection raise the corresponding exception or apply a widening conversion.
+            if (this.member instanceof Field) {
+                ((Field) this.member).set(target, value);
+            }
+            else {
+                ((Method) this.member).invoke(target, value);
+            }
+            return;
+        }
+        doSet(target, value);
+    }
+
+    /**
+     * Read the value from the given target, which is an instance of the target type.
+     */
+    protected abstract Object doGet(Object target) throws InvocationTargetException;
+
+    /**
+     * Apply the given value, which is assignable to the value type, to the given target,
+     * which is an instance of the target type.
+     */
+    protected abstract void doSet(Object target, Object value) throws InvocationTargetException;
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " for " + this.member;
+    }
+
+}
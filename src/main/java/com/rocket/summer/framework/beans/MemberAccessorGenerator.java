@@ -0,0 +1,307 @@
+package com.rocket.summer.framework.beans;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import com.rocket.summer.framework.util.ClassUtils;
+
+/**
+ * Generates a {@link MemberAccessor} subclass per bean class, with one instance per
+ * accessible member dispatching on the member's index. Each generated class gets
+ * loaded by a class loader of its own, so that it can be unloaded along with the
+ * introspection results that refer to it.
+ *
+ * <p>Only public instance members that are reachable through a public class
+ * are covered; any other member is left to reflection.
+ *
+ * @see CachedIntrospectionResults#getMemberAccessor
+ */
+final class MemberAccessorGenerator implements Opcodes {
+
+    private static final Log logger = LogFactory.getLog(MemberAccessorGenerator.class);
+
+    private static final String MEMBER_ACCESSOR_CLASS_NAME = MemberAccessor.class.getName().replace('.', '/');
+
+    private static final String INVOCATION_TARGET_EXCEPTION_CLASS_NAME = "java/lang/reflect/InvocationTargetException";
+
+    private static final AtomicInteger classCounter = new AtomicInteger();
+
+
+    private MemberAccessorGenerator() {
+    }
+
+
+    /**
+     * Generate accessors for the given members of the given bean class.
+     * @param beanClass the bean class that the members are accessed on
+     * @param candidates the read and write methods and fields to generate accessors for
+     * @return the accessors keyed by member, not containing members that are not
+     * accessible from generated code (empty if generation failed altogether)
+     */
+    static Map<Member, MemberAccessor> generateAccessors(Class<?> beanClass, Collection<? extends Member> candidates) {
+        List<Member> members = new ArrayList<Member>();
+        List<Class<?>> owners = new ArrayList<Class<?>>();
+        for (Member candidate : candidates) {
+            Class<?> owner = determineOwner(beanClass, candidate);
+            if (owner != null && !members.contains(candidate)) {
+                members.add(candidate);
+                owners.add(owner);
+            }
+        }
+        if (members.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        ClassLoader parent = beanClass.getClassLoader();
+        if (parent == null) {
+            parent = MemberAccessor.class.getClassLoader();
+        }
+        else if (!ClassUtils.isVisible(MemberAccessor.class, parent)) {
+            return Collections.emptyMap();
+        }
+
+        String className = MEMBER_ACCESSOR_CLASS_NAME + "$$Generated$$" + classCounter.incrementAndGet();
+        try {
+            byte[] bytes = generateClass(className, members, owners);
+            Class<?> accessorClass = new AccessorClassLoader(parent).defineClass(className.replace('/', '.'), bytes);
+            Constructor<?> ctor = accessorClass.getConstructor(Member.class, Class.class, int.class);
+            Map<Member, MemberAccessor> accessors = new HashMap<Member, MemberAccessor>(members.size());
+            for (int i = 0; i < members.size(); i++) {
+                accessors.put(members.get(i), (MemberAccessor) ctor.newInstance(members.get(i), owners.get(i), i));
+            }
+            if (logger.isTraceEnabled()) {
+                logger.trace("Generated " + accessors.size() + " member accessors for class [" +
+                        beanClass.getName() + "]");
+            }
+            return accessors;
+        }
+        catch (Throwable ex) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Failed to generate member accessors for class [" + beanClass.getName() +
+                        "] - falling back to reflection", ex);
+            }
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Determine the class to access the given member through from generated code.
+     * @return the owner class, or {@code null} if the member is not accessible
+     */
+    private static Class<?> determineOwner(Class<?> beanClass, Member member) {
+        if (!Modifier.isPublic(member.getModifiers()) || Modifier.isStatic(member.getModifiers())) {
+            return null;
+        }
+        if (member instanceof Method) {
+            Method method = (Method) member;
+            Class<?>[] paramTypes = method.getParameterTypes();
+            if (paramTypes.length > 1 || (paramTypes.length == 0 && method.getReturnType() == void.class) ||
+                    (paramTypes.length == 1 && !isPublicType(paramTypes[0]))) {
+                return null;
+            }
+        }
+        else if (!(member instanceof Field) || !isPublicType(((Field) member).getType())) {
+            return null;
+        }
+        Class<?> declaringClass = member.getDeclaringClass();
+        if (!declaringClass.isAssignableFrom(beanClass)) {
+            return null;
+        }
+        if (Modifier.isPublic(declaringClass.getModifiers())) {
+            return declaringClass;
+        }
+        if (Modifier.isPublic(beanClass.getModifiers()) && !beanClass.isInterface()) {
+            // Public member inherited from a non-public class: access it through the bean class.
+            return beanClass;
+        }
+        return null;
+    }
+
+    private static boolean isPublicType(Class<?> type) {
+        Class<?> typeToCheck = type;
+        while (typeToCheck.isArray()) {
+            typeToCheck = typeToCheck.getComponentType();
+        }
+        return (typeToCheck.isPrimitive() || Modifier.isPublic(typeToCheck.getModifiers()));
+    }
+
+    private static byte[] generateClass(String className, List<Member> members, List<Class<?>> owners) {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_5, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, className, null, MEMBER_ACCESSOR_CLASS_NAME, null);
+        cw.visitField(ACC_PRIVATE | ACC_FINAL, "index", "I", null, null).visitEnd();
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "(Ljava/lang/reflect/Member;Ljava/lang/Class;I)V",
+                null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitMethodInsn(INVOKESPECIAL, MEMBER_ACCESSOR_CLASS_NAME, "<init>",
+                "(Ljava/lang/reflect/Member;Ljava/lang/Class;)V", false);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ILOAD, 3);
+        mv.visitFieldInsn(PUTFIELD, className, "index", "I");
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        generateDispatchMethod(cw, className, members, owners, false);
+        generateDispatchMethod(cw, className, members, owners, true);
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    /**
+     * Generate {@code doGet} or {@code doSet}: a switch on the member index, with
+     * the invocation of each read or write method wrapped in a handler that rethrows
+     * any exception as {@link java.lang.reflect.InvocationTargetException}.
+     */
+    private static void generateDispatchMethod(ClassWriter cw, String className,
+            List<Member> members, List<Class<?>> owners, boolean write) {
+
+        MethodVisitor mv = (write ?
+                cw.visitMethod(ACC_PROTECTED, "doSet", "(Ljava/lang/Object;Ljava/lang/Object;)V", null,
+                        new String[] {INVOCATION_TARGET_EXCEPTION_CLASS_NAME}) :
+                cw.visitMethod(ACC_PROTECTED, "doGet", "(Ljava/lang/Object;)Ljava/lang/Object;", null,
+                        new String[] {INVOCATION_TARGET_EXCEPTION_CLASS_NAME}));
+        mv.visitCode();
+
+        Label unsupported = new Label();
+        Label handler = new Label();
+        boolean handlerUsed = false;
+        Label[] cases = new Label[members.size()];
+        for (int i = 0; i < members.size(); i++) {
+            cases[i] = (isApplicable(members.get(i), write) ? new Label() : unsupported);
+        }
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitFieldInsn(GETFIELD, className, "index", "I");
+        mv.visitTableSwitchInsn(0, members.size() - 1, unsupported, cases);
+
+        for (int i = 0; i < members.size(); i++) {
+            if (cases[i] == unsupported) {
+                continue;
+            }
+            Member member = members.get(i);
+            Class<?> owner = owners.get(i);
+            String ownerName = Type.getInternalName(owner);
+            mv.visitLabel(cases[i]);
+            mv.visitVarInsn(ALOAD, 1);
+            mv.visitTypeInsn(CHECKCAST, ownerName);
+            if (write) {
+                mv.visitVarInsn(ALOAD, 2);
+                insertUnboxOrCast(mv, (member instanceof Field ? ((Field) member).getType() :
+                        ((Method) member).getParameterTypes()[0]));
+            }
+            if (member instanceof Field) {
+                Field field = (Field) member;
+                mv.visitFieldInsn((write ? PUTFIELD : GETFIELD), ownerName, field.getName(),
+                        Type.getDescriptor(field.getType()));
+            }
+            else {
+                Method method = (Method) member;
+                Label start = new Label();
+                Label end = new Label();
+                mv.visitLabel(start);
+                mv.visitMethodInsn((owner.isInterface() ? INVOKEINTERFACE : INVOKEVIRTUAL), ownerName,
+                        method.getName(), Type.getMethodDescriptor(method), owner.isInterface());
+                mv.visitLabel(end);
+                mv.visitTryCatchBlock(start, end, handler, "java/lang/Throwable");
+                handlerUsed = true;
+                if (write && method.getReturnType() != void.class) {
+                    mv.visitInsn(method.getReturnType() == long.class || method.getReturnType() == double.class ?
+                            POP2 : POP);
+                }
+            }
+            if (write) {
+                mv.visitInsn(RETURN);
+            }
+            else {
+                insertBoxIfNecessary(mv, (member instanceof Field ? ((Field) member).getType() :
+                        ((Method) member).getReturnType()));
+                mv.visitInsn(ARETURN);
+            }
+        }
+
+        mv.visitLabel(unsupported);
+        mv.visitTypeInsn(NEW, "java/lang/UnsupportedOperationException");
+        mv.visitInsn(DUP);
+        mv.visitMethodInsn(INVOKESPECIAL, "java/lang/UnsupportedOperationException", "<init>", "()V", false);
+        mv.visitInsn(ATHROW);
+
+        if (handlerUsed) {
+            int exceptionSlot = (write ? 3 : 2);
+            mv.visitLabel(handler);
+            mv.visitVarInsn(ASTORE, exceptionSlot);
+            mv.visitTypeInsn(NEW, INVOCATION_TARGET_EXCEPTION_CLASS_NAME);
+            mv.visitInsn(DUP);
+            mv.visitVarInsn(ALOAD, exceptionSlot);
+            mv.visitMethodInsn(INVOKESPECIAL, INVOCATION_TARGET_EXCEPTION_CLASS_NAME, "<init>",
+                    "(Ljava/lang/Throwable;)V", false);
+            mv.visitInsn(ATHROW);
+        }
+
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static boolean isApplicable(Member member, boolean write) {
+        if (member instanceof Field) {
+            return (!write || !Modifier.isFinal(member.getModifiers()));
+        }
+        return (((Method) member).getParameterTypes().length == (write ? 1 : 0));
+    }
+
+    private static void insertBoxIfNecessary(MethodVisitor mv, Class<?> type) {
+        if (type.isPrimitive()) {
+            Class<?> wrapperType = ClassUtils.resolvePrimitiveIfNecessary(type);
+            mv.visitMethodInsn(INVOKESTATIC, Type.getInternalName(wrapperType), "valueOf",
+                    "(" + Type.getDescriptor(type) + ")" + Type.getDescriptor(wrapperType), false);
+        }
+    }
+
+    private static void insertUnboxOrCast(MethodVisitor mv, Class<?> type) {
+        if (type.isPrimitive()) {
+            String wrapperName = Type.getInternalName(ClassUtils.resolvePrimitiveIfNecessary(type));
+            mv.visitTypeInsn(CHECKCAST, wrapperName);
+            mv.visitMethodInsn(INVOKEVIRTUAL, wrapperName, type.getName() + "Value",
+                    "()" + Type.getDescriptor(type), false);
+        }
+        else if (type != Object.class) {
+            mv.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+        }
+    }
+
+
+    /**
+     * Class loader for a single generated accessor class.
+     */
+    private static class AccessorClassLoader extends ClassLoader {
+
+        public AccessorClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        public Class<?> defineClass(String name, byte[] bytes) {
+            return super.defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+
+}
@@ -0,0 +1,192 @@
+package com.rocket.summer.framework.beans;
+
+import com.rocket.summer.framework.context.BeansException;
+import com.rocket.summer.framework.core.convert.ConversionFailedException;
+import com.rocket.summer.framework.core.convert.ConversionService;
+import com.rocket.summer.framework.core.convert.Property;
+import com.rocket.summer.framework.core.convert.TypeDescriptor;
+import com.rocket.summer.framework.util.ConcurrentReferenceHashMap;
+import com.rocket.summer.framework.util.ReflectionUtils;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Precomputed binding information for the top-level writable properties of a bean
+ * class: resolved write methods and property type descriptors, introspected once
+ * per class and shared across all binding operations for that class. Write methods
+ * are invoked through a generated {@link MemberAccessor} if accessor generation is active.
+ *
+ * <p>Allows for binding simple property values without going through
+ * {@link BeanWrapperImpl}'s property path parsing and per-call introspection,
+ * provided that values get converted through a {@link ConversionService} only,
+ * i.e. that no custom PropertyEditors are registered. Nested and indexed
+ * property paths are not covered and need to be bound through a regular
+ * {@link BeanWrapper}.
+ *
+ * @see com.rocket.summer.framework.validation.DataBinder
+ */
+public final class PropertyBindingPlan {
+
+    private static final TypeDescriptor STRING_TYPE = TypeDescriptor.valueOf(String.class);
+
+    private static final TypeDescriptor STRING_ARRAY_TYPE = TypeDescriptor.valueOf(String[].class);
+
+    private static final Map<Class<?>, PropertyBindingPlan> planCache =
+            new ConcurrentReferenceHashMap<Class<?>, PropertyBindingPlan>(64);
+
+
+    /**
+     * Return the binding plan for the given bean class, creating it on first access.
+     * @param beanClass the bean class to bind to
+     * @return the binding plan (never {@code null})
+     * @throws BeansException in case of introspection failure
+     */
+    public static PropertyBindingPlan forClass(Class<?> beanClass) throws BeansException {
+        PropertyBindingPlan plan = planCache.get(beanClass);
+        if (plan == null) {
+            plan = new PropertyBindingPlan(CachedIntrospectionResults.forClass(beanClass));
+            planCache.put(beanClass, plan);
+        }
+        return plan;
+    }
+
+
+    private final Map<String, PropertyBinding> bindings;
+
+
+    private PropertyBindingPlan(CachedIntrospectionResults introspectionResults) {
+        Map<String, PropertyBinding> bindings = new HashMap<String, PropertyBinding>();
+        for (PropertyDescriptor pd : introspectionResults.getPropertyDescriptors()) {
+            if (pd instanceof GenericTypeAwarePropertyDescriptor && pd.getWriteMethod() != null) {
+                GenericTypeAwarePropertyDescriptor gpd = (GenericTypeAwarePropertyDescriptor) pd;
+                TypeDescriptor td = introspectionResults.getTypeDescriptor(pd);
+                if (td == null) {
+                    td = introspectionResults.addTypeDescriptor(pd, new TypeDescriptor(
+                            new Property(gpd.getBeanClass(), gpd.getReadMethod(), gpd.getWriteMethod(), gpd.getName())));
+                }
+                Method writeMethod = gpd.getWriteMethodForActualAccess();
+                ReflectionUtils.makeAccessible(writeMethod);
+                MemberAccessor accessor = (CachedIntrospectionResults.shouldGenerateAccessors ?
+                        introspectionResults.getMemberAccessor(writeMethod) : null);
+                bindings.put(pd.getName(), new PropertyBinding(pd.getName(), writeMethod, accessor, td));
+            }
+        }
+        this.bindings = Collections.unmodifiableMap(bindings);
+    }
+
+
+    /**
+     * Return the binding for the given property, if it is a writable top-level property.
+     * @param propertyName the name of the property (not a nested or indexed path)
+     * @return the binding, or {@code null} if none
+     */
+    public PropertyBinding getBinding(String propertyName) {
+        return this.bindings.get(propertyName);
+    }
+
+
+    /**
+     * Binding information for a single writable property.
+     */
+    public static final class PropertyBinding {
+
+        private final String propertyName;
+
+        private final Method writeMethod;
+
+        private final MemberAccessor accessor;
+
+        private final TypeDescriptor typeDescriptor;
+
+        private PropertyBinding(String propertyName, Method writeMethod, MemberAccessor accessor,
+                TypeDescriptor typeDescriptor) {
+
+            this.propertyName = propertyName;
+            this.writeMethod = writeMethod;
+            this.accessor = accessor;
+            this.typeDescriptor = typeDescriptor;
+        }
+
+        public String getPropertyName() {
+            return this.propertyName;
+        }
+
+        public TypeDescriptor getTypeDescriptor() {
+            return this.typeDescriptor;
+        }
+
+        /**
+         * Convert the given request-style value, i.e. a {@code String} or
+         * {@code String[]}, to the property type and apply it to the given target.
+         * <p>Mirrors {@link TypeConverterDelegate}, which tries the ConversionService
+         * first if no custom editor applies: if the given ConversionService is not able
+         * to convert the value, nothing is applied and the value needs to go through
+         * regular property access, where default PropertyEditors may still handle it.
+         * @param target the target bean
+         * @param value the value to apply
+         * @param conversionService the ConversionService to use
+         * @return {@code true} if the value has been applied, {@code false} if it
+         * is to be bound through regular property access instead
+         * @throws TypeMismatchException if the property setter rejected the value
+         * @throws MethodInvocationException if the property setter threw an exception
+         */
+        public boolean bind(Object target, Object value, ConversionService conversionService)
+                throws BeansException {
+
+            TypeDescriptor sourceType;
+            if (value instanceof String) {
+                sourceType = STRING_TYPE;
+            }
+            else if (value instanceof String[]) {
+                sourceType = STRING_ARRAY_TYPE;
+            }
+            else {
+                return false;
+            }
+            if (!conversionService.canConvert(sourceType, this.typeDescriptor)) {
+                return false;
+            }
+            Object convertedValue;
+            try {
+                convertedValue = conversionService.convert(value, sourceType, this.typeDescriptor);
+            }
+            catch (ConversionFailedException ex) {
+                // Let regular property access fall back to default editors.
+                return false;
+            }
+            try {
+                if (this.accessor != null) {
+                    this.accessor.set(target, convertedValue);
+                }
+                else {
+                    this.writeMethod.invoke(target, convertedValue);
+                }
+            }
+            catch (InvocationTargetException ex) {
+                PropertyChangeEvent pce = new PropertyChangeEvent(target, this.propertyName, null, value);
+                if (ex.getTargetException() instanceof ClassCastException) {
+                    throw new TypeMismatchException(pce, this.typeDescriptor.getType(), ex.getTargetException());
+                }
+                Throwable cause = ex.getTargetException();
+                if (cause instanceof UndeclaredThrowableException) {
+                    // May happen e.g. with Groovy-generated methods
+                    cause = cause.getCause();
+                }
+                throw new MethodInvocationException(pce, cause);
+            }
+            catch (Exception ex) {
+                PropertyChangeEvent pce = new PropertyChangeEvent(target, this.propertyName, null, value);
+                throw new MethodInvocationException(pce, ex);
+            }
+            return true;
+        }
+    }
+
+}
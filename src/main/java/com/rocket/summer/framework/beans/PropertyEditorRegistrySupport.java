@@ -5,6 +5,7 @@ import com.rocket.summer.framework.core.convert.ConversionService;
 import com.rocket.summer.framework.core.io.Resource;
 import com.rocket.summer.framework.core.io.support.ResourceArrayPropertyEditor;
 import com.rocket.summer.framework.util.ClassUtils;
+import com.rocket.summer.framework.util.CollectionUtils;
 import org.xml.sax.InputSource;
 
 import java.beans.PropertyEditor;
@@ -297,6 +298,14 @@ public class PropertyEditorRegistrySupport implements PropertyEditorRegistry {
         return getCustomEditor(requiredTypeToUse);
     }
 
+    /**
+     * Determine whether any custom editors have been registered,
+     * either for a type or for a property path.
+     */
+    public boolean hasCustomEditors() {
+        return (!CollectionUtils.isEmpty(this.customEditors) || !CollectionUtils.isEmpty(this.customEditorsForPath));
+    }
+
     /**
      * Determine whether this registry contains a custom editor
      * for the specified array/collection element.
@@ -187,8 +187,15 @@ public abstract class YamlProcessor {
 		}
 	}
 
+	/**
+	 * Convert the given YAML document object to a map with String keys,
+	 * recursively converting nested maps. Non-String keys are turned into
+	 * indexed keys, and a plain text document into a "document" entry.
+	 * @param object the object constructed from a YAML document
+	 * @return the corresponding map
+	 */
 	@SuppressWarnings("unchecked")
-	private Map<String, Object> asMap(Object object) {
+	protected final Map<String, Object> asMap(Object object) {
 		// YAML can have numbers as keys
 		Map<String, Object> result = new LinkedHashMap<String, Object>();
 		if (!(object instanceof Map)) {
@@ -10,8 +10,10 @@ import com.rocket.summer.framework.context.ApplicationContextAware;
 import com.rocket.summer.framework.context.MessageSource;
 import com.rocket.summer.framework.context.MessageSourceAware;
 import com.rocket.summer.framework.core.convert.ConversionService;
+import com.rocket.summer.framework.core.env.MutablePropertySources;
 import com.rocket.summer.framework.core.env.PropertySources;
 import com.rocket.summer.framework.util.Assert;
+import com.rocket.summer.framework.util.ConcurrentReferenceHashMap;
 import com.rocket.summer.framework.util.StringUtils;
 import com.rocket.summer.framework.validation.*;
 import org.apache.commons.logging.Log;
@@ -19,6 +21,7 @@ import org.apache.commons.logging.LogFactory;
 
 import java.beans.PropertyDescriptor;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Validate some {@link Properties} (or optionally {@link PropertySources}) by binding
@@ -38,6 +41,8 @@ public class PropertiesConfigurationFactory<T> implements FactoryBean<T>,
     private static final Log logger = LogFactory
             .getLog(PropertiesConfigurationFactory.class);
 
+    private static final Map<Class<?>, TargetType> targetTypeCache = new ConcurrentReferenceHashMap<Class<?>, TargetType>();
+
     private boolean ignoreUnknownFields = true;
 
     private boolean ignoreInvalidFields;
@@ -64,6 +69,8 @@ public class PropertiesConfigurationFactory<T> implements FactoryBean<T>,
 
     private boolean resolvePlaceholders = true;
 
+    private boolean indexed = false;
+
     /**
      * Create a new {@link PropertiesConfigurationFactory} instance.
      * @param target the target object to bind too
@@ -186,6 +193,22 @@ public class PropertiesConfigurationFactory<T> implements FactoryBean<T>,
         this.resolvePlaceholders = resolvePlaceholders;
     }
 
+    /**
+     * Flag to indicate that the property names to bind should be looked up through an
+     * index over the property sources, rather than by enumerating the names of all
+     * property sources. Default is false.
+     * <p>Only the names starting with the target name, or with the names of the
+     * target's bean properties if unknown fields are ignored, are looked up. This
+     * only takes effect with a target name and {@link MutablePropertySources}, whose
+     * index is shared by all binding operations and only rebuilt once property
+     * sources have been added, removed or replaced.
+     * @param indexed flag value
+     * @see com.rocket.summer.framework.core.env.PropertySourcesPropertyResolver#setIndexed
+     */
+    public void setIndexed(boolean indexed) {
+        this.indexed = indexed;
+    }
+
     @Override
     public void afterPropertiesSet() throws Exception {
         bindPropertiesToTarget();
@@ -270,31 +293,21 @@ public class PropertiesConfigurationFactory<T> implements FactoryBean<T>,
     }
 
     private Set<String> getNames(Iterable<String> prefixes) {
-        Set<String> names = new LinkedHashSet<String>();
-        if (this.target != null) {
-            PropertyDescriptor[] descriptors = BeanUtils
-                    .getPropertyDescriptors(this.target.getClass());
-            for (PropertyDescriptor descriptor : descriptors) {
-                String name = descriptor.getName();
-                if (!name.equals("class")) {
-                    RelaxedNames relaxedNames = RelaxedNames.forCamelCase(name);
-                    if (prefixes == null) {
-                        for (String relaxedName : relaxedNames) {
-                            names.add(relaxedName);
-                        }
-                    }
-                    else {
-                        for (String prefix : prefixes) {
-                            for (String relaxedName : relaxedNames) {
-                                names.add(prefix + "." + relaxedName);
-                                names.add(prefix + "_" + relaxedName);
-                            }
-                        }
-                    }
-                }
-            }
+        if (this.target == null) {
+            return Collections.emptySet();
         }
-        return names;
+        return getTargetType().getNames((prefixes != null) ? this.targetName : "",
+                prefixes);
+    }
+
+    private TargetType getTargetType() {
+        Class<?> type = this.target.getClass();
+        TargetType targetType = targetTypeCache.get(type);
+        if (targetType == null) {
+            targetType = new TargetType(type);
+            targetTypeCache.put(type, targetType);
+        }
+        return targetType;
     }
 
     private PropertyValues getPropertySourcesPropertyValues(Set<String> names,
@@ -302,7 +315,28 @@ public class PropertiesConfigurationFactory<T> implements FactoryBean<T>,
         PropertyNamePatternsMatcher includes = getPropertyNamePatternsMatcher(names,
                 relaxedTargetNames);
         return new PropertySourcesPropertyValues(this.propertySources, names, includes,
-                this.resolvePlaceholders);
+                this.resolvePlaceholders, getIndexedPrefixes(relaxedTargetNames));
+    }
+
+    /**
+     * Return the prefixes that all property names matched by the
+     * {@link #getPropertyNamePatternsMatcher patterns matcher} start with in relaxed
+     * form, or {@code null} if the property names need to be enumerated.
+     */
+    private String[] getIndexedPrefixes(Iterable<String> relaxedTargetNames) {
+        if (!this.indexed || relaxedTargetNames == null
+                || !(this.propertySources instanceof MutablePropertySources)) {
+            return null;
+        }
+        if (this.ignoreUnknownFields && !isMapTarget()) {
+            String[] propertyNames = getTargetType().propertyNames;
+            String[] prefixes = new String[propertyNames.length];
+            for (int i = 0; i < propertyNames.length; i++) {
+                prefixes[i] = this.targetName + "." + propertyNames[i];
+            }
+            return prefixes;
+        }
+        return new String[] { this.targetName };
     }
 
     private PropertyNamePatternsMatcher getPropertyNamePatternsMatcher(Set<String> names,
@@ -356,5 +390,60 @@ public class PropertiesConfigurationFactory<T> implements FactoryBean<T>,
     protected void customizeBinder(DataBinder dataBinder) {
     }
 
+    /**
+     * Binding metadata for a target type: the names of its bean properties and the
+     * candidate property names derived from them, which are costly to compute.
+     */
+    private static class TargetType {
+
+        private final String[] propertyNames;
+
+        private final List<RelaxedNames> relaxedPropertyNames = new ArrayList<RelaxedNames>();
+
+        private final Map<String, Set<String>> namesByTargetName = new ConcurrentHashMap<String, Set<String>>();
+
+        TargetType(Class<?> type) {
+            List<String> propertyNames = new ArrayList<String>();
+            for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(type)) {
+                String name = descriptor.getName();
+                if (!name.equals("class")) {
+                    propertyNames.add(name);
+                    this.relaxedPropertyNames.add(RelaxedNames.forCamelCase(name));
+                }
+            }
+            this.propertyNames = propertyNames.toArray(new String[propertyNames.size()]);
+        }
+
+        public Set<String> getNames(String targetName, Iterable<String> prefixes) {
+            Set<String> names = this.namesByTargetName.get(targetName);
+            if (names == null) {
+                names = Collections.unmodifiableSet(createNames(prefixes));
+                this.namesByTargetName.put(targetName, names);
+            }
+            return names;
+        }
+
+        private Set<String> createNames(Iterable<String> prefixes) {
+            Set<String> names = new LinkedHashSet<String>();
+            for (RelaxedNames relaxedNames : this.relaxedPropertyNames) {
+                if (prefixes == null) {
+                    for (String relaxedName : relaxedNames) {
+                        names.add(relaxedName);
+                    }
+                }
+                else {
+                    for (String prefix : prefixes) {
+                        for (String relaxedName : relaxedNames) {
+                            names.add(prefix + "." + relaxedName);
+                            names.add(prefix + "_" + relaxedName);
+                        }
+                    }
+                }
+            }
+            return names;
+        }
+
+    }
+
 }
 
@@ -3,10 +3,13 @@ package com.rocket.summer.framework.boot.bind;
 import com.rocket.summer.framework.core.env.EnumerablePropertySource;
 import com.rocket.summer.framework.core.env.PropertySource;
 import com.rocket.summer.framework.core.env.PropertySources;
+import com.rocket.summer.framework.util.ObjectUtils;
 
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Convenience class for manipulating PropertySources.
@@ -59,6 +62,35 @@ public abstract class PropertySourceUtils {
         return Collections.unmodifiableMap(subProperties);
     }
 
+    /**
+     * Return the names of all properties that differ between the given property
+     * sources: properties that have been added, removed or changed in value.
+     * @param oldSource the previous property source
+     * @param newSource the new property source
+     * @return the names of the changed properties, or {@code null} if they cannot be
+     * determined since one of the property sources is not enumerable
+     */
+    public static Set<String> getChangedPropertyNames(PropertySource<?> oldSource,
+                                                      PropertySource<?> newSource) {
+        if (!(oldSource instanceof EnumerablePropertySource)
+                || !(newSource instanceof EnumerablePropertySource)) {
+            return null;
+        }
+        Set<String> changedNames = new LinkedHashSet<String>();
+        for (String name : ((EnumerablePropertySource<?>) oldSource).getPropertyNames()) {
+            if (!ObjectUtils.nullSafeEquals(oldSource.getProperty(name),
+                    newSource.getProperty(name))) {
+                changedNames.add(name);
+            }
+        }
+        for (String name : ((EnumerablePropertySource<?>) newSource).getPropertyNames()) {
+            if (!oldSource.containsProperty(name)) {
+                changedNames.add(name);
+            }
+        }
+        return changedNames;
+    }
+
     private static String getSubKey(String name, String rootPrefixes,
                                     RelaxedNames keyPrefix) {
         rootPrefixes = (rootPrefixes != null) ? rootPrefixes : "";
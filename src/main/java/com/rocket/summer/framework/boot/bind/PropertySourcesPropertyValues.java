@@ -7,8 +7,11 @@ import com.rocket.summer.framework.core.env.*;
 import com.rocket.summer.framework.util.Assert;
 import com.rocket.summer.framework.validation.DataBinder;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -86,6 +89,30 @@ public class PropertySourcesPropertyValues implements PropertyValues {
     PropertySourcesPropertyValues(PropertySources propertySources,
                                   Collection<String> nonEnumerableFallbackNames,
                                   PropertyNamePatternsMatcher includes, boolean resolvePlaceholders) {
+        this(propertySources, nonEnumerableFallbackNames, includes, resolvePlaceholders,
+                null);
+    }
+
+    /**
+     * Create a new PropertyValues from the given PropertySources, optionally only
+     * considering the names that start with one of the given prefixes in relaxed form.
+     * These names are looked up through the index of an indexed
+     * {@link PropertySourcesPropertyResolver} instead of enumerating all property
+     * names; for {@link MutablePropertySources}, that index is shared and only built
+     * once. Property sources that cannot be indexed are processed as usual.
+     * @param propertySources a PropertySources instance
+     * @param nonEnumerableFallbackNames the property names to try in lieu of an
+     * {@link EnumerablePropertySource}.
+     * @param includes the property name patterns to include; all names matching these
+     * patterns are expected to start with one of the indexed prefixes
+     * @param resolvePlaceholders flag to indicate the placeholders should be resolved
+     * @param indexedPrefixes the prefixes of the property names to consider, or
+     * {@code null} to enumerate all property names
+     */
+    PropertySourcesPropertyValues(PropertySources propertySources,
+                                  Collection<String> nonEnumerableFallbackNames,
+                                  PropertyNamePatternsMatcher includes, boolean resolvePlaceholders,
+                                  String[] indexedPrefixes) {
         Assert.notNull(propertySources, "PropertySources must not be null");
         Assert.notNull(includes, "Includes must not be null");
         this.propertySources = propertySources;
@@ -94,8 +121,38 @@ public class PropertySourcesPropertyValues implements PropertyValues {
         this.resolvePlaceholders = resolvePlaceholders;
         PropertySourcesPropertyResolver resolver = new PropertySourcesPropertyResolver(
                 propertySources);
+        Map<PropertySource<?>, List<String>> indexedNames = null;
+        if (indexedPrefixes != null) {
+            resolver.setIndexed(true);
+            indexedNames = resolver.getPropertyNamesByPrefix(indexedPrefixes);
+        }
         for (PropertySource<?> source : propertySources) {
-            processPropertySource(source, resolver);
+            List<String> names = (indexedNames != null) ? indexedNames.get(source) : null;
+            if (names != null) {
+                processIndexedPropertySource(source, names, resolver);
+            }
+            else {
+                processPropertySource(source, resolver);
+            }
+        }
+    }
+
+    private void processIndexedPropertySource(PropertySource<?> source,
+                                              List<String> names, PropertySourcesPropertyResolver resolver) {
+        if (source instanceof CompositePropertySource) {
+            for (PropertySource<?> nested : ((CompositePropertySource) source)
+                    .getPropertySources()) {
+                List<String> nestedNames = new ArrayList<String>();
+                for (String name : names) {
+                    if (nested.containsProperty(name)) {
+                        nestedNames.add(name);
+                    }
+                }
+                processIndexedPropertySource(nested, nestedNames, resolver);
+            }
+        }
+        else {
+            processPropertyNames(source, names, resolver, this.includes);
         }
     }
 
@@ -124,16 +181,23 @@ public class PropertySourcesPropertyValues implements PropertyValues {
                                                  PropertySourcesPropertyResolver resolver,
                                                  PropertyNamePatternsMatcher includes) {
         if (source.getPropertyNames().length > 0) {
-            for (String propertyName : source.getPropertyNames()) {
-                if (includes.matches(propertyName)) {
-                    Object value = getEnumerableProperty(source, resolver, propertyName);
-                    putIfAbsent(propertyName, value, source);
-                }
+            processPropertyNames(source, Arrays.asList(source.getPropertyNames()),
+                    resolver, includes);
+        }
+    }
+
+    private void processPropertyNames(PropertySource<?> source,
+                                      Iterable<String> propertyNames, PropertySourcesPropertyResolver resolver,
+                                      PropertyNamePatternsMatcher includes) {
+        for (String propertyName : propertyNames) {
+            if (includes.matches(propertyName)) {
+                Object value = getEnumerableProperty(source, resolver, propertyName);
+                putIfAbsent(propertyName, value, source);
             }
         }
     }
 
-    private Object getEnumerableProperty(EnumerablePropertySource<?> source,
+    private Object getEnumerableProperty(PropertySource<?> source,
                                          PropertySourcesPropertyResolver resolver, String propertyName) {
         try {
             if (this.resolvePlaceholders) {
@@ -2,10 +2,14 @@ package com.rocket.summer.framework.boot.bind;
 
 import com.rocket.summer.framework.core.env.ConfigurableEnvironment;
 import com.rocket.summer.framework.core.env.Environment;
+import com.rocket.summer.framework.core.env.IndexedPropertyResolver;
 import com.rocket.summer.framework.core.env.PropertyResolver;
 import com.rocket.summer.framework.core.env.PropertySourcesPropertyResolver;
 import com.rocket.summer.framework.util.Assert;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -60,46 +64,42 @@ public class RelaxedPropertyResolver implements PropertyResolver {
 
     @Override
     public <T> T getProperty(String key, Class<T> targetType, T defaultValue) {
-        RelaxedNames prefixes = new RelaxedNames(this.prefix);
-        RelaxedNames keys = new RelaxedNames(key);
-        for (String prefix : prefixes) {
-            for (String relaxedKey : keys) {
-                if (this.resolver.containsProperty(prefix + relaxedKey)) {
-                    return this.resolver.getProperty(prefix + relaxedKey, targetType);
-                }
-            }
-        }
-        return defaultValue;
+        String name = resolvePropertyName(key);
+        return (name != null ? this.resolver.getProperty(name, targetType) : defaultValue);
     }
 
     @Override
     @Deprecated
     public <T> Class<T> getPropertyAsClass(String key, Class<T> targetType) {
-        RelaxedNames prefixes = new RelaxedNames(this.prefix);
-        RelaxedNames keys = new RelaxedNames(key);
-        for (String prefix : prefixes) {
-            for (String relaxedKey : keys) {
-                if (this.resolver.containsProperty(prefix + relaxedKey)) {
-                    return this.resolver.getPropertyAsClass(prefix + relaxedKey,
-                            targetType);
-                }
-            }
-        }
-        return null;
+        String name = resolvePropertyName(key);
+        return (name != null ? this.resolver.getPropertyAsClass(name, targetType) : null);
     }
 
     @Override
     public boolean containsProperty(String key) {
-        RelaxedNames prefixes = new RelaxedNames(this.prefix);
-        RelaxedNames keys = new RelaxedNames(key);
-        for (String prefix : prefixes) {
-            for (String relaxedKey : keys) {
-                if (this.resolver.containsProperty(prefix + relaxedKey)) {
-                    return true;
-                }
+        return (resolvePropertyName(key) != null);
+    }
+
+    /**
+     * Determine the name of the property that the given key resolves to, trying
+     * all {@link RelaxedNames} of the prefix and the key in turn. An
+     * {@linkplain IndexedPropertyResolver#isIndexed() indexed} resolver checks
+     * each candidate with a single index lookup instead.
+     * @param key the property key, without prefix
+     * @return the actual property name, or {@code null} if none found
+     */
+    private String resolvePropertyName(String key) {
+        if (this.resolver instanceof IndexedPropertyResolver &&
+                ((IndexedPropertyResolver) this.resolver).isIndexed()) {
+            return ((IndexedPropertyResolver) this.resolver).resolveRelaxedPropertyName(
+                    new RelaxedCandidateNames(this.prefix, key));
+        }
+        for (String candidateName : new RelaxedCandidateNames(this.prefix, key)) {
+            if (this.resolver.containsProperty(candidateName)) {
+                return candidateName;
             }
         }
-        return false;
+        return null;
     }
 
     @Override
@@ -148,8 +148,42 @@ public class RelaxedPropertyResolver implements PropertyResolver {
                     ((ConfigurableEnvironment) environment).getPropertySources());
             ((PropertySourcesPropertyResolver) resolver)
                     .setIgnoreUnresolvableNestedPlaceholders(true);
+            if (environment instanceof IndexedPropertyResolver) {
+                ((PropertySourcesPropertyResolver) resolver)
+                        .setIndexed(((IndexedPropertyResolver) environment).isIndexed());
+            }
         }
         return new RelaxedPropertyResolver(resolver, prefix);
     }
 
+
+    /**
+     * All combinations of the {@link RelaxedNames} of a prefix and a key, computed
+     * on first iteration only.
+     */
+    private static class RelaxedCandidateNames implements Iterable<String> {
+
+        private final String prefix;
+
+        private final String key;
+
+        RelaxedCandidateNames(String prefix, String key) {
+            this.prefix = prefix;
+            this.key = key;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            List<String> names = new ArrayList<String>();
+            RelaxedNames keys = new RelaxedNames(this.key);
+            for (String prefix : new RelaxedNames(this.prefix)) {
+                for (String relaxedKey : keys) {
+                    names.add(prefix + relaxedKey);
+                }
+            }
+            return names.iterator();
+        }
+
+    }
+
 }
@@ -0,0 +1,367 @@
+package com.rocket.summer.framework.boot.context.config;
+
+import com.rocket.summer.framework.beans.factory.InitializingBean;
+import com.rocket.summer.framework.beans.factory.annotation.Autowired;
+import com.rocket.summer.framework.boot.bind.PropertySourceUtils;
+import com.rocket.summer.framework.boot.context.properties.ConfigurationPropertiesRebinder;
+import com.rocket.summer.framework.boot.context.properties.EnvironmentChangeEvent;
+import com.rocket.summer.framework.boot.env.PropertySourcesLoader;
+import com.rocket.summer.framework.context.ApplicationEventPublisher;
+import com.rocket.summer.framework.context.ApplicationEventPublisherAware;
+import com.rocket.summer.framework.context.EnvironmentAware;
+import com.rocket.summer.framework.context.SmartLifecycle;
+import com.rocket.summer.framework.core.env.ConfigurableEnvironment;
+import com.rocket.summer.framework.core.env.EnumerablePropertySource;
+import com.rocket.summer.framework.core.env.Environment;
+import com.rocket.summer.framework.core.env.MapPropertySource;
+import com.rocket.summer.framework.core.env.MutablePropertySources;
+import com.rocket.summer.framework.core.env.PropertySource;
+import com.rocket.summer.framework.core.io.FileSystemResource;
+import com.rocket.summer.framework.util.Assert;
+import com.rocket.summer.framework.util.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes configuration files on disk as property sources of the
+ * {@link ConfigurableEnvironment} and reloads them whenever they change, without
+ * restarting the application. Files are read through the registered
+ * {@link com.rocket.summer.framework.boot.env.PropertySourceLoader}s, so both
+ * '.properties' and YAML files are supported.
+ *
+ * <p>Each file is exposed as an immutable snapshot, added with highest precedence
+ * once this watcher has been initialized. A {@link WatchService} monitors the
+ * containing directories; changes are collected until no further change has been
+ * observed for the {@link #setDebounceMillis debounce period}, and only the changed
+ * files are read again. Reading happens on the watcher thread, and each new snapshot
+ * replaces the previous one in a single step, so readers of the environment are
+ * never blocked by a reload. A file that has been deleted results in an empty
+ * snapshot.
+ *
+ * <p>If a {@link ConfigurationPropertiesRebinder} is available, new snapshots are
+ * published through it, rebinding the affected
+ * {@link com.rocket.summer.framework.boot.context.properties.ConfigurationProperties}
+ * beans. Otherwise, an {@link EnvironmentChangeEvent} listing the changed keys is
+ * published directly.
+ *
+ * <p>Note that the files only become part of the environment when this watcher gets
+ * initialized as a bean. Beans that have been bound before, e.g. those created
+ * earlier during context refresh, do not see the values from the files unless they
+ * are {@link com.rocket.summer.framework.boot.context.properties.ConfigurationProperties#rebindable()
+ * rebindable} and a {@link ConfigurationPropertiesRebinder} is available, in which
+ * case they get rebound as soon as the files have been loaded. Other beans relying
+ * on the files should declare a dependency on this watcher, e.g. through
+ * {@code @DependsOn}, so that it gets initialized first.
+ *
+ * @see ConfigurationPropertiesRebinder#replacePropertySource
+ */
+public class PropertySourceFileWatcher implements EnvironmentAware,
+        ApplicationEventPublisherAware, InitializingBean, SmartLifecycle {
+
+    private static final Log logger = LogFactory.getLog(PropertySourceFileWatcher.class);
+
+    private final List<WatchedFile> files = new ArrayList<WatchedFile>();
+
+    private long debounceMillis = 500;
+
+    private int phase = 0;
+
+    private ConfigurableEnvironment environment;
+
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private ConfigurationPropertiesRebinder rebinder;
+
+    private final Object lifecycleMonitor = new Object();
+
+    private volatile WatchService watchService;
+
+    /**
+     * Set the files to watch, each exposed as a property source named after the file.
+     * @param files the files to watch
+     */
+    public void setFiles(File... files) {
+        this.files.clear();
+        for (File file : files) {
+            addFile("watchedFile: [" + file.getPath() + "]", file);
+        }
+    }
+
+    /**
+     * Add a file to watch, exposed as a property source with the given name.
+     * @param name the name of the property source
+     * @param file the file to watch
+     */
+    public void addFile(String name, File file) {
+        Assert.hasText(name, "Name must not be empty");
+        Assert.notNull(file, "File must not be null");
+        this.files.add(new WatchedFile(name, file.getAbsoluteFile()));
+    }
+
+    /**
+     * Set the time to wait for further changes before reloading changed files, in
+     * milliseconds. Default is 500.
+     * @param debounceMillis the debounce period
+     */
+    public void setDebounceMillis(long debounceMillis) {
+        this.debounceMillis = debounceMillis;
+    }
+
+    /**
+     * Set the lifecycle phase in which watching starts. Default is 0.
+     * @param phase the phase
+     */
+    public void setPhase(int phase) {
+        this.phase = phase;
+    }
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        Assert.isInstanceOf(ConfigurableEnvironment.class, environment);
+        this.environment = (ConfigurableEnvironment) environment;
+    }
+
+    @Override
+    public void setApplicationEventPublisher(
+            ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * Set the rebinder to publish new snapshots through.
+     * @param rebinder the rebinder
+     */
+    @Autowired(required = false)
+    public void setRebinder(ConfigurationPropertiesRebinder rebinder) {
+        this.rebinder = rebinder;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        Assert.state(this.environment != null, "No Environment set");
+        Set<String> fileExtensions = new PropertySourcesLoader().getAllFileExtensions();
+        MutablePropertySources propertySources = this.environment.getPropertySources();
+        for (WatchedFile file : this.files) {
+            String extension = StringUtils.getFilenameExtension(file.path.getName());
+            Assert.isTrue(extension != null
+                    && fileExtensions.contains(extension.toLowerCase(Locale.ENGLISH)),
+                    "Unsupported file extension for " + file.path);
+            if (!propertySources.contains(file.name)) {
+                propertySources.addFirst(new MapPropertySource(file.name,
+                        Collections.<String, Object>emptyMap()));
+            }
+            reload(file);
+        }
+    }
+
+    @Override
+    public void start() {
+        synchronized (this.lifecycleMonitor) {
+            if (this.watchService != null || this.files.isEmpty()) {
+                return;
+            }
+            try {
+                WatchService watchService = FileSystems.getDefault().newWatchService();
+                Set<Path> directories = new LinkedHashSet<Path>();
+                for (WatchedFile file : this.files) {
+                    directories.add(file.path.getParentFile().toPath());
+                }
+                for (Path directory : directories) {
+                    directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY,
+                            StandardWatchEventKinds.ENTRY_DELETE);
+                }
+                this.watchService = watchService;
+            }
+            catch (IOException ex) {
+                throw new IllegalStateException("Unable to watch " + this.files, ex);
+            }
+            // Pick up changes made since the initial load, before watching began
+            for (WatchedFile file : this.files) {
+                reload(file);
+            }
+            Thread thread = new Thread(new Watcher(this.watchService),
+                    "property-source-file-watcher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    @Override
+    public void stop() {
+        synchronized (this.lifecycleMonitor) {
+            WatchService watchService = this.watchService;
+            this.watchService = null;
+            if (watchService != null) {
+                try {
+                    watchService.close();
+                }
+                catch (IOException ex) {
+                    logger.debug("Failed to close WatchService", ex);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return (this.watchService != null);
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public int getPhase() {
+        return this.phase;
+    }
+
+    /**
+     * Read the given file into a new snapshot and publish it.
+     */
+    private void reload(WatchedFile file) {
+        PropertySource<?> snapshot;
+        try {
+            snapshot = loadSnapshot(file);
+        }
+        catch (Exception ex) {
+            logger.warn("Could not reload " + file.path + ", keeping previous values", ex);
+            return;
+        }
+        if (this.rebinder != null) {
+            this.rebinder.replacePropertySource(snapshot);
+            return;
+        }
+        MutablePropertySources propertySources = this.environment.getPropertySources();
+        Set<String> changedKeys = PropertySourceUtils.getChangedPropertyNames(
+                propertySources.get(file.name), snapshot);
+        propertySources.replace(file.name, snapshot);
+        if (this.applicationEventPublisher != null
+                && (changedKeys == null || !changedKeys.isEmpty())) {
+            this.applicationEventPublisher.publishEvent(new EnvironmentChangeEvent(
+                    this.environment, changedKeys, Collections.<String>emptySet()));
+        }
+    }
+
+    private PropertySource<?> loadSnapshot(WatchedFile file) throws IOException {
+        Map<String, Object> properties = new LinkedHashMap<String, Object>();
+        if (file.path.isFile()) {
+            // A new loader each time, so that nothing gets cached across reloads
+            PropertySource<?> loaded = new PropertySourcesLoader()
+                    .load(new FileSystemResource(file.path), null, file.name, null);
+            if (loaded instanceof EnumerablePropertySource) {
+                for (String name : ((EnumerablePropertySource<?>) loaded)
+                        .getPropertyNames()) {
+                    properties.put(name, loaded.getProperty(name));
+                }
+            }
+        }
+        return new MapPropertySource(file.name, Collections.unmodifiableMap(properties));
+    }
+
+    /**
+     * Watch loop, running until the {@link WatchService} has been closed.
+     */
+    private class Watcher implements Runnable {
+
+        private final WatchService watchService;
+
+        Watcher(WatchService watchService) {
+            this.watchService = watchService;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    Set<WatchedFile> changed = new LinkedHashSet<WatchedFile>();
+                    collectChanges(this.watchService.take(), changed);
+                    WatchKey key;
+                    while ((key = this.watchService.poll(
+                            PropertySourceFileWatcher.this.debounceMillis,
+                            TimeUnit.MILLISECONDS)) != null) {
+                        collectChanges(key, changed);
+                    }
+                    for (WatchedFile file : changed) {
+                        if (logger.isInfoEnabled()) {
+                            logger.info("Reloading changed file " + file.path);
+                        }
+                        try {
+                            reload(file);
+                        }
+                        catch (RuntimeException ex) {
+                            logger.warn("Failed to publish reloaded " + file.path, ex);
+                        }
+                    }
+                }
+            }
+            catch (ClosedWatchServiceException ex) {
+                // Stopped
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void collectChanges(WatchKey key, Set<WatchedFile> changed) {
+            Path directory = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                for (WatchedFile file : PropertySourceFileWatcher.this.files) {
+                    if (!file.path.getParentFile().toPath().equals(directory)) {
+                        continue;
+                    }
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW ||
+                            file.path.getName().equals(event.context().toString())) {
+                        changed.add(file);
+                    }
+                }
+            }
+            key.reset();
+        }
+
+    }
+
+    /**
+     * A watched file along with the name of its property source.
+     */
+    private static class WatchedFile {
+
+        private final String name;
+
+        private final File path;
+
+        WatchedFile(String name, File path) {
+            this.name = name;
+            this.path = path;
+        }
+
+    }
+
+}
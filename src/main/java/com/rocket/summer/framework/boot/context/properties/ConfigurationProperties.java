@@ -59,6 +59,16 @@ public @interface ConfigurationProperties {
      */
     boolean ignoreUnknownFields() default true;
 
+    /**
+     * Flag to indicate that this object may be rebound at runtime when properties under
+     * its prefix change, see {@link ConfigurationPropertiesRebinder}. The bean is then
+     * exposed through a class-based proxy whose target is replaced by a freshly created,
+     * bound and initialized instance in a single step. Only supported on classes, not on
+     * {@code @Bean} methods.
+     * @return the flag value (default false)
+     */
+    boolean rebindable() default false;
+
     /**
      * Flag to indicate that an exception should be raised if a Validator is available,
      * the class is annotated with {@link Validated @Validated} and validation fails. If
@@ -1,8 +1,14 @@
 package com.rocket.summer.framework.boot.context.properties;
 
+import com.rocket.summer.framework.aop.TargetSource;
+import com.rocket.summer.framework.aop.framework.ProxyFactory;
+import com.rocket.summer.framework.beans.BeanInstantiationException;
+import com.rocket.summer.framework.beans.BeanUtils;
 import com.rocket.summer.framework.beans.factory.*;
 import com.rocket.summer.framework.beans.factory.annotation.Autowired;
+import com.rocket.summer.framework.beans.factory.config.AutowireCapableBeanFactory;
 import com.rocket.summer.framework.beans.factory.config.BeanPostProcessor;
+import com.rocket.summer.framework.beans.factory.config.ConfigurableBeanFactory;
 import com.rocket.summer.framework.boot.bind.PropertiesConfigurationFactory;
 import com.rocket.summer.framework.boot.validation.MessageInterpolatorFactory;
 import com.rocket.summer.framework.context.*;
@@ -29,8 +35,14 @@ import org.apache.commons.logging.LogFactory;
 
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * {@link BeanPostProcessor} to bind {@link PropertySources} to beans annotated with
@@ -59,6 +71,11 @@ public class ConfigurationPropertiesBindingPostProcessor implements BeanPostProc
 
     private ConfigurationBeanFactoryMetaData beans = new ConfigurationBeanFactoryMetaData();
 
+    private final Map<String, BoundBean> boundBeans = new ConcurrentHashMap<String, BoundBean>();
+
+    /** Name of the bean currently being rebound on this thread, if any */
+    private final ThreadLocal<String> currentlyRebinding = new ThreadLocal<String>();
+
     private PropertySources propertySources;
 
     private Validator validator;
@@ -189,6 +206,11 @@ public class ConfigurationPropertiesBindingPostProcessor implements BeanPostProc
 
     @Override
     public void destroy() throws Exception {
+        for (Map.Entry<String, BoundBean> entry : this.boundBeans.entrySet()) {
+            destroyReplacedTarget(entry.getKey(), entry.getValue(),
+                    entry.getValue().targetSource.getCurrentTarget());
+        }
+        this.boundBeans.clear();
         freeLocalValidator();
     }
 
@@ -269,18 +291,48 @@ public class ConfigurationPropertiesBindingPostProcessor implements BeanPostProc
     @Override
     public Object postProcessAfterInitialization(Object bean, String beanName)
             throws BeansException {
+        BoundBean boundBean = (beanName != null ? this.boundBeans.get(beanName) : null);
+        if (boundBean != null && boundBean.targetSource.getCurrentTarget() == bean
+                && !beanName.equals(this.currentlyRebinding.get())) {
+            ProxyFactory proxyFactory = new ProxyFactory();
+            proxyFactory.setTargetSource(boundBean.targetSource);
+            proxyFactory.setProxyTargetClass(true);
+            return proxyFactory.getProxy(bean.getClass().getClassLoader());
+        }
         return bean;
     }
 
-    @SuppressWarnings("deprecation")
     private void postProcessBeforeInitialization(Object bean, String beanName,
                                                  ConfigurationProperties annotation) {
-        Object target = bean;
+        try {
+            bind(bean, annotation);
+        }
+        catch (Exception ex) {
+            String targetClass = ClassUtils.getShortName(bean.getClass());
+            throw new BeanCreationException(beanName, "Could not bind properties to "
+                    + targetClass + " (" + getAnnotationDetails(annotation) + ")", ex);
+        }
+        if (annotation.rebindable() && beanName != null
+                && !beanName.equals(this.currentlyRebinding.get())) {
+            if (!isSingleton(beanName)
+                    || this.beans.findFactoryAnnotation(beanName, ConfigurationProperties.class) != null) {
+                logger.warn("Ignoring rebindable flag on bean '" + beanName
+                        + "': only supported for singleton classes, not @Bean methods");
+            }
+            else {
+                this.boundBeans.put(beanName, new BoundBean(bean, annotation));
+            }
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private void bind(Object target, ConfigurationProperties annotation) throws Exception {
         PropertiesConfigurationFactory<Object> factory = new PropertiesConfigurationFactory<Object>(
                 target);
-        factory.setPropertySources(this.propertySources);
+        factory.setPropertySources(getBindingPropertySources());
+        factory.setIndexed(isIndexed());
         factory.setApplicationContext(this.applicationContext);
-        factory.setValidator(determineValidator(bean));
+        factory.setValidator(determineValidator(target));
         // If no explicit conversion service is provided we add one so that (at least)
         // comma-separated arrays of convertibles can be bound automatically
         factory.setConversionService((this.conversionService != null)
@@ -294,13 +346,127 @@ public class ConfigurationPropertiesBindingPostProcessor implements BeanPostProc
                 factory.setTargetName(annotation.prefix());
             }
         }
+        factory.bindPropertiesToTarget();
+    }
+
+    /**
+     * Return whether the environment resolves properties through an index, in which
+     * case binding looks up property names through that index as well.
+     * @see AbstractEnvironment#setIndexed
+     */
+    private boolean isIndexed() {
+        return (this.environment instanceof IndexedPropertyResolver
+                && ((IndexedPropertyResolver) this.environment).isIndexed());
+    }
+
+    private PropertySources getBindingPropertySources() {
+        if (this.propertySources instanceof FlatPropertySources && isIndexed()) {
+            // Bind against the original property sources to share their index
+            MutablePropertySources propertySources = ((FlatPropertySources) this.propertySources)
+                    .getIfAlreadyFlat();
+            if (propertySources != null) {
+                return propertySources;
+            }
+        }
+        return this.propertySources;
+    }
+
+    private boolean isSingleton(String beanName) {
+        if (this.beanFactory == null || beanName == null) {
+            return false;
+        }
         try {
-            factory.bindPropertiesToTarget();
+            return this.beanFactory.isSingleton(beanName);
         }
-        catch (Exception ex) {
-            String targetClass = ClassUtils.getShortName(target.getClass());
-            throw new BeanCreationException(beanName, "Could not bind properties to "
-                    + targetClass + " (" + getAnnotationDetails(annotation) + ")", ex);
+        catch (NoSuchBeanDefinitionException ex) {
+            // e.g. an inner bean
+            return false;
+        }
+    }
+
+    /**
+     * Rebind all {@link ConfigurationProperties#rebindable() rebindable} beans with a
+     * prefix that matches any of the given property names, e.g. after a property source
+     * has been replaced. Prefixes are matched in relaxed form, ignoring case and
+     * separators.
+     * <p>Rebindable beans are exposed through a class-based proxy. Each affected bean is
+     * recreated from its class and configured like the original instance, i.e.
+     * autowired, bound, validated and initialized; only then does the proxy switch to
+     * the new instance, with a single volatile write. Callers thus see either the old
+     * or the new instance, never a mix of both; a call that is already in progress
+     * completes on the old instance. The previous instance gets destroyed once the
+     * last call in progress on it has returned, on the thread of that call - except
+     * for the original one, which the bean factory destroys on shutdown. A bean
+     * that fails to bind keeps its current instance. Beans need a default constructor
+     * in order to be rebound.
+     * @param changedKeys the names of the changed properties, or {@code null} to
+     * rebind all beans
+     * @return the names of the beans that have been rebound
+     * @see ConfigurationPropertiesRebinder
+     */
+    public Set<String> rebind(Set<String> changedKeys) {
+        Set<String> reboundBeanNames = new LinkedHashSet<String>();
+        for (Map.Entry<String, BoundBean> entry : this.boundBeans.entrySet()) {
+            BoundBean boundBean = entry.getValue();
+            if (boundBean.matches(changedKeys) && rebind(entry.getKey(), boundBean)) {
+                reboundBeanNames.add(entry.getKey());
+            }
+        }
+        freeLocalValidator();
+        return reboundBeanNames;
+    }
+
+    private boolean rebind(final String beanName, final BoundBean boundBean) {
+        final Object current = boundBean.targetSource.getCurrentTarget();
+        Object target;
+        try {
+            target = BeanUtils.instantiateClass(ClassUtils.getUserClass(current));
+        }
+        catch (BeanInstantiationException ex) {
+            logger.warn("Cannot rebind properties to bean '" + beanName
+                    + "': no default constructor", ex);
+            return false;
+        }
+        this.currentlyRebinding.set(beanName);
+        try {
+            target = ((AutowireCapableBeanFactory) this.beanFactory).configureBean(target,
+                    beanName);
+        }
+        catch (BeansException ex) {
+            logger.warn("Could not rebind properties to bean '" + beanName + "' ("
+                    + getAnnotationDetails(boundBean.annotation)
+                    + "), keeping current instance", ex);
+            return false;
+        }
+        finally {
+            this.currentlyRebinding.remove();
+        }
+        boundBean.targetSource.setTarget(target, new Runnable() {
+            @Override
+            public void run() {
+                destroyReplacedTarget(beanName, boundBean, current);
+            }
+        });
+        if (logger.isDebugEnabled()) {
+            logger.debug("Rebound properties to bean '" + beanName + "'");
+        }
+        return true;
+    }
+
+    /**
+     * Destroy an instance created through rebinding. The original instance is left
+     * alone, since the bean factory destroys it along with the other singletons.
+     */
+    private void destroyReplacedTarget(String beanName, BoundBean boundBean, Object target) {
+        if (target == boundBean.original
+                || !(this.beanFactory instanceof ConfigurableBeanFactory)) {
+            return;
+        }
+        try {
+            ((ConfigurableBeanFactory) this.beanFactory).destroyBean(beanName, target);
+        }
+        catch (RuntimeException ex) {
+            logger.warn("Failed to destroy replaced instance of bean '" + beanName + "'", ex);
         }
     }
 
@@ -403,6 +569,167 @@ public class ConfigurationPropertiesBindingPostProcessor implements BeanPostProc
 
     }
 
+    /**
+     * A rebindable singleton bean that properties have been bound to, along with its
+     * annotation and the target source of the proxy exposing it.
+     */
+    private static class BoundBean {
+
+        private final Object original;
+
+        private final SwappableTargetSource targetSource;
+
+        private final ConfigurationProperties annotation;
+
+        private final String normalizedPrefix;
+
+        BoundBean(Object bean, ConfigurationProperties annotation) {
+            this.original = bean;
+            this.targetSource = new SwappableTargetSource(bean);
+            this.annotation = annotation;
+            this.normalizedPrefix = normalize(annotation.prefix());
+        }
+
+        public boolean matches(Set<String> changedKeys) {
+            if (changedKeys == null) {
+                return true;
+            }
+            for (String key : changedKeys) {
+                if (normalize(key).startsWith(this.normalizedPrefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static String normalize(String name) {
+            StringBuilder normalized = new StringBuilder(name.length());
+            for (int i = 0; i < name.length(); i++) {
+                char ch = name.charAt(i);
+                if (ch != '-' && ch != '_' && ch != '.') {
+                    normalized.append(Character.toLowerCase(ch));
+                }
+            }
+            return normalized.toString();
+        }
+
+    }
+
+    /**
+     * {@link TargetSource} for the proxy exposing a rebindable bean, switching to a new
+     * target instance in a single step. Counts the calls in progress on each instance,
+     * so that a replaced instance is only destroyed once no call uses it anymore.
+     */
+    private static class SwappableTargetSource implements TargetSource {
+
+        private volatile TargetHolder current;
+
+        /** Replaced instances with calls still in progress */
+        private final List<TargetHolder> draining = new CopyOnWriteArrayList<TargetHolder>();
+
+        SwappableTargetSource(Object target) {
+            this.current = new TargetHolder(target);
+        }
+
+        @Override
+        public Class<?> getTargetClass() {
+            return this.current.target.getClass();
+        }
+
+        @Override
+        public boolean isStatic() {
+            return false;
+        }
+
+        @Override
+        public Object getTarget() {
+            while (true) {
+                TargetHolder holder = this.current;
+                holder.callsInProgress.incrementAndGet();
+                if (holder == this.current) {
+                    return holder.target;
+                }
+                // Replaced in the meantime: back out and use the new instance
+                release(holder);
+            }
+        }
+
+        @Override
+        public void releaseTarget(Object target) {
+            TargetHolder holder = this.current;
+            if (holder.target != target) {
+                holder = null;
+                for (TargetHolder candidate : this.draining) {
+                    if (candidate.target == target) {
+                        holder = candidate;
+                        break;
+                    }
+                }
+            }
+            if (holder != null) {
+                release(holder);
+            }
+        }
+
+        /**
+         * Return the current target without counting a call in progress.
+         */
+        Object getCurrentTarget() {
+            return this.current.target;
+        }
+
+        /**
+         * Switch to the given target.
+         * @param target the new target
+         * @param replacedCallback invoked once no call is in progress on the
+         * replaced target anymore, possibly right away
+         */
+        void setTarget(Object target, Runnable replacedCallback) {
+            TargetHolder replaced = this.current;
+            replaced.replacedCallback = replacedCallback;
+            this.draining.add(replaced);
+            this.current = new TargetHolder(target);
+            if (replaced.callsInProgress.get() == 0) {
+                drained(replaced);
+            }
+        }
+
+        private void release(TargetHolder holder) {
+            if (holder.callsInProgress.decrementAndGet() == 0 && holder != this.current &&
+                    holder.replacedCallback != null) {
+                drained(holder);
+            }
+        }
+
+        private void drained(TargetHolder holder) {
+            if (holder.drained.compareAndSet(false, true)) {
+                this.draining.remove(holder);
+                holder.replacedCallback.run();
+            }
+        }
+
+    }
+
+    /**
+     * A target instance of a {@link SwappableTargetSource} along with the number of
+     * calls in progress on it.
+     */
+    private static class TargetHolder {
+
+        private final Object target;
+
+        private final AtomicInteger callsInProgress = new AtomicInteger();
+
+        private final AtomicBoolean drained = new AtomicBoolean();
+
+        private volatile Runnable replacedCallback;
+
+        TargetHolder(Object target) {
+            this.target = target;
+        }
+
+    }
+
     /**
      * {@link Validator} implementation that wraps {@link Validator} instances and chains
      * their execution.
@@ -465,6 +792,22 @@ public class ConfigurationPropertiesBindingPostProcessor implements BeanPostProc
             return getFlattened().get(name);
         }
 
+        /**
+         * Return the backing property sources if they don't contain any property
+         * sources to flatten, {@code null} otherwise.
+         */
+        public MutablePropertySources getIfAlreadyFlat() {
+            if (!(this.propertySources instanceof MutablePropertySources)) {
+                return null;
+            }
+            for (PropertySource<?> propertySource : this.propertySources) {
+                if (propertySource.getSource() instanceof ConfigurableEnvironment) {
+                    return null;
+                }
+            }
+            return (MutablePropertySources) this.propertySources;
+        }
+
         private MutablePropertySources getFlattened() {
             MutablePropertySources result = new MutablePropertySources();
             for (PropertySource<?> propertySource : this.propertySources) {
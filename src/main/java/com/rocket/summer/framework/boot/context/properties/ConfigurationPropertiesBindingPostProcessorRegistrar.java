@@ -21,6 +21,12 @@ public class ConfigurationPropertiesBindingPostProcessorRegistrar
     public static final String BINDER_BEAN_NAME = ConfigurationPropertiesBindingPostProcessor.class
             .getName();
 
+    /**
+     * The bean name of the {@link ConfigurationPropertiesRebinder}.
+     */
+    public static final String REBINDER_BEAN_NAME = ConfigurationPropertiesRebinder.class
+            .getName();
+
     private static final String METADATA_BEAN_NAME = BINDER_BEAN_NAME + ".store";
 
     @Override
@@ -34,6 +40,11 @@ public class ConfigurationPropertiesBindingPostProcessorRegistrar
             bean.addPropertyReference("beanMetaDataStore", METADATA_BEAN_NAME);
             registry.registerBeanDefinition(BINDER_BEAN_NAME, bean.getBeanDefinition());
             registry.registerBeanDefinition(METADATA_BEAN_NAME, meta.getBeanDefinition());
+            BeanDefinitionBuilder rebinder = BeanDefinitionBuilder.genericBeanDefinition(
+                    ConfigurationPropertiesRebinder.class);
+            rebinder.addConstructorArgReference(BINDER_BEAN_NAME);
+            registry.registerBeanDefinition(REBINDER_BEAN_NAME,
+                    rebinder.getBeanDefinition());
         }
     }
 
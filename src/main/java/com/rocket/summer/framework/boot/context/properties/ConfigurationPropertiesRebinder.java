@@ -0,0 +1,106 @@
+package com.rocket.summer.framework.boot.context.properties;
+
+import com.rocket.summer.framework.boot.bind.PropertySourceUtils;
+import com.rocket.summer.framework.context.ApplicationEventPublisher;
+import com.rocket.summer.framework.context.ApplicationEventPublisherAware;
+import com.rocket.summer.framework.context.EnvironmentAware;
+import com.rocket.summer.framework.core.env.ConfigurableEnvironment;
+import com.rocket.summer.framework.core.env.Environment;
+import com.rocket.summer.framework.core.env.MutablePropertySources;
+import com.rocket.summer.framework.core.env.PropertySource;
+import com.rocket.summer.framework.util.Assert;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.Set;
+
+/**
+ * Applies property changes to a running application: replaces property sources of the
+ * {@link ConfigurableEnvironment}, rebinds the {@link ConfigurationProperties} beans
+ * affected by the changed properties and publishes an {@link EnvironmentChangeEvent}.
+ * Registered along with the {@link ConfigurationPropertiesBindingPostProcessor}.
+ *
+ * <p>Only beans declared {@link ConfigurationProperties#rebindable() rebindable} whose
+ * prefix matches a changed property get rebound, see
+ * {@link ConfigurationPropertiesBindingPostProcessor#rebind(Set)}.
+ *
+ * @see EnableConfigurationProperties
+ */
+public class ConfigurationPropertiesRebinder
+        implements EnvironmentAware, ApplicationEventPublisherAware {
+
+    private static final Log logger = LogFactory
+            .getLog(ConfigurationPropertiesRebinder.class);
+
+    private final ConfigurationPropertiesBindingPostProcessor binder;
+
+    private ConfigurableEnvironment environment;
+
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * Create a new {@link ConfigurationPropertiesRebinder} instance.
+     * @param binder the post processor that bound the beans in the first place
+     */
+    public ConfigurationPropertiesRebinder(
+            ConfigurationPropertiesBindingPostProcessor binder) {
+        Assert.notNull(binder, "Binder must not be null");
+        this.binder = binder;
+    }
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        Assert.isInstanceOf(ConfigurableEnvironment.class, environment);
+        this.environment = (ConfigurableEnvironment) environment;
+    }
+
+    @Override
+    public void setApplicationEventPublisher(
+            ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * Replace the property source with the same name in the environment, and rebind
+     * the beans affected by the difference between the old and the new property source.
+     * @param propertySource the replacement property source
+     * @return the names of the changed properties, or {@code null} if they could not
+     * be determined (in which case all beans have been rebound)
+     * @throws IllegalArgumentException if no property source with the same name is
+     * present
+     */
+    public synchronized Set<String> replacePropertySource(PropertySource<?> propertySource) {
+        MutablePropertySources propertySources = this.environment.getPropertySources();
+        String name = propertySource.getName();
+        PropertySource<?> existing = propertySources.get(name);
+        Assert.isTrue(existing != null, "No property source named '" + name + "' present");
+        Set<String> changedKeys = PropertySourceUtils.getChangedPropertyNames(existing,
+                propertySource);
+        propertySources.replace(name, propertySource);
+        if (changedKeys == null || !changedKeys.isEmpty()) {
+            rebind(changedKeys);
+        }
+        return changedKeys;
+    }
+
+    /**
+     * Rebind the beans affected by the given changed properties and publish an
+     * {@link EnvironmentChangeEvent}.
+     * @param changedKeys the names of the changed properties, or {@code null} to
+     * rebind all beans
+     * @return the names of the beans that have been rebound
+     */
+    public synchronized Set<String> rebind(Set<String> changedKeys) {
+        Set<String> beanNames = this.binder.rebind(changedKeys);
+        if (logger.isInfoEnabled()) {
+            logger.info("Rebound " + beanNames + " for changed keys "
+                    + (changedKeys != null ? changedKeys : "(all)"));
+        }
+        if (this.applicationEventPublisher != null) {
+            this.applicationEventPublisher.publishEvent(
+                    new EnvironmentChangeEvent(this.environment, changedKeys, beanNames));
+        }
+        return beanNames;
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.rocket.summer.framework.boot.context.properties;
+
+import com.rocket.summer.framework.context.event.ApplicationEvent;
+import com.rocket.summer.framework.core.env.Environment;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Event published by the {@link ConfigurationPropertiesRebinder} after properties of
+ * the {@link Environment} have changed and the affected
+ * {@link ConfigurationProperties} beans have been rebound. The source of the event is
+ * the environment.
+ *
+ * @see ConfigurationPropertiesRebinder
+ */
+@SuppressWarnings("serial")
+public class EnvironmentChangeEvent extends ApplicationEvent {
+
+    private final Set<String> keys;
+
+    private final Set<String> beanNames;
+
+    /**
+     * Create a new {@link EnvironmentChangeEvent} instance.
+     * @param environment the environment that has changed
+     * @param keys the names of the changed properties, or {@code null} if unknown
+     * @param beanNames the names of the beans that have been rebound
+     */
+    public EnvironmentChangeEvent(Environment environment, Set<String> keys,
+                                  Set<String> beanNames) {
+        super(environment);
+        this.keys = (keys != null) ? Collections.unmodifiableSet(keys) : null;
+        this.beanNames = Collections.unmodifiableSet(beanNames);
+    }
+
+    /**
+     * Return the names of the changed properties.
+     * @return the property names, or {@code null} if they could not be determined
+     * (e.g. for a non-enumerable property source), in which case all beans have been
+     * rebound
+     */
+    public Set<String> getKeys() {
+        return this.keys;
+    }
+
+    /**
+     * Return the names of the {@link ConfigurationProperties} beans that have been
+     * rebound.
+     * @return the bean names
+     */
+    public Set<String> getBeanNames() {
+        return this.beanNames;
+    }
+
+}
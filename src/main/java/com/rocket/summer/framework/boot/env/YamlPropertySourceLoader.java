@@ -0,0 +1,218 @@
+package com.rocket.summer.framework.boot.env;
+
+import com.rocket.summer.framework.beans.factory.config.YamlProcessor;
+import com.rocket.summer.framework.core.env.MapPropertySource;
+import com.rocket.summer.framework.core.env.PropertySource;
+import com.rocket.summer.framework.core.io.Resource;
+import com.rocket.summer.framework.util.ClassUtils;
+import com.rocket.summer.framework.util.StringUtils;
+import org.yaml.snakeyaml.nodes.MappingNode;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeTuple;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.SequenceNode;
+import org.yaml.snakeyaml.reader.UnicodeReader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Strategy to load '.yml' (or '.yaml') files into a {@link PropertySource}.
+ *
+ * <p>Files may contain multiple documents, with documents restricted to specific
+ * profiles through a {@code spring.profiles} entry. Loading without a profile
+ * merges all documents that are not restricted to any profile, or only restricted
+ * through negated profiles (e.g. {@code !dev}); loading for a profile merges all
+ * documents that name the profile. Later documents override earlier ones.
+ *
+ * <p>Each resource is only read once per loader instance: the documents are kept
+ * as YAML node trees, and only documents matching a requested profile are actually
+ * turned into property values, so that sections for inactive profiles are never
+ * constructed or flattened.
+ *
+ * @author Dave Syer
+ * @author Phillip Webb
+ */
+public class YamlPropertySourceLoader implements PropertySourceLoader {
+
+    private static final boolean snakeYamlPresent = ClassUtils.isPresent(
+            "org.yaml.snakeyaml.Yaml", YamlPropertySourceLoader.class.getClassLoader());
+
+    private final Map<Resource, List<Document>> documentCache =
+            new ConcurrentHashMap<Resource, List<Document>>();
+
+    @Override
+    public String[] getFileExtensions() {
+        return new String[] { "yml", "yaml" };
+    }
+
+    @Override
+    public PropertySource<?> load(String name, Resource resource, String profile)
+            throws IOException {
+        if (snakeYamlPresent) {
+            Map<String, Object> source = new LinkedHashMap<String, Object>();
+            for (Document document : getDocuments(resource)) {
+                if (document.matches(profile)) {
+                    source.putAll(document.getProperties());
+                }
+            }
+            if (!source.isEmpty()) {
+                return new MapPropertySource(name, source);
+            }
+        }
+        return null;
+    }
+
+    private List<Document> getDocuments(Resource resource) throws IOException {
+        List<Document> documents = this.documentCache.get(resource);
+        if (documents == null) {
+            documents = new Processor().loadDocuments(resource);
+            this.documentCache.put(resource, documents);
+        }
+        return documents;
+    }
+
+    /**
+     * {@link YamlProcessor} that composes the documents of a resource up front,
+     * but only constructs and flattens their values on demand.
+     */
+    private static class Processor extends YamlProcessor {
+
+        public List<Document> loadDocuments(Resource resource) throws IOException {
+            List<Document> documents = new ArrayList<Document>();
+            Reader reader = new UnicodeReader(resource.getInputStream());
+            try {
+                for (Node node : createYaml().composeAll(reader)) {
+                    if (node != null) {
+                        documents.add(new Document(this, node, getProfiles(node)));
+                    }
+                }
+            }
+            finally {
+                reader.close();
+            }
+            return documents;
+        }
+
+        public Map<String, Object> getProperties(Node node) {
+            Object object = new DocumentConstructor().construct(node);
+            if (object == null) {
+                return Collections.emptyMap();
+            }
+            return getFlattenedMap(asMap(object));
+        }
+
+        private Set<String> getProfiles(Node node) {
+            if (node instanceof MappingNode) {
+                for (NodeTuple tuple : ((MappingNode) node).getValue()) {
+                    String key = getScalarValue(tuple.getKeyNode());
+                    if ("spring.profiles".equals(key)) {
+                        return asProfiles(tuple.getValueNode());
+                    }
+                    if ("spring".equals(key) && tuple.getValueNode() instanceof MappingNode) {
+                        for (NodeTuple nested : ((MappingNode) tuple.getValueNode()).getValue()) {
+                            if ("profiles".equals(getScalarValue(nested.getKeyNode()))) {
+                                return asProfiles(nested.getValueNode());
+                            }
+                        }
+                    }
+                }
+            }
+            return Collections.emptySet();
+        }
+
+        private Set<String> asProfiles(Node node) {
+            Set<String> profiles = new LinkedHashSet<String>();
+            if (node instanceof ScalarNode) {
+                profiles.addAll(StringUtils.commaDelimitedListToSet(
+                        StringUtils.trimAllWhitespace(((ScalarNode) node).getValue())));
+            }
+            else if (node instanceof SequenceNode) {
+                for (Node element : ((SequenceNode) node).getValue()) {
+                    String profile = getScalarValue(element);
+                    if (StringUtils.hasText(profile)) {
+                        profiles.add(profile.trim());
+                    }
+                }
+            }
+            profiles.remove("");
+            return profiles;
+        }
+
+        private String getScalarValue(Node node) {
+            return (node instanceof ScalarNode ? ((ScalarNode) node).getValue() : null);
+        }
+
+        /**
+         * Constructor for individual, already composed documents.
+         */
+        private static class DocumentConstructor extends StrictMapAppenderConstructor {
+
+            public Object construct(Node node) {
+                return constructDocument(node);
+            }
+
+        }
+
+    }
+
+    /**
+     * A single YAML document, with its values constructed on first access.
+     */
+    private static class Document {
+
+        private final Processor processor;
+
+        private final Set<String> profiles;
+
+        private Node node;
+
+        private Map<String, Object> properties;
+
+        Document(Processor processor, Node node, Set<String> profiles) {
+            this.processor = processor;
+            this.node = node;
+            this.profiles = profiles;
+        }
+
+        public boolean matches(String profile) {
+            if (this.profiles.isEmpty()) {
+                return (profile == null);
+            }
+            boolean negatedOnly = true;
+            for (String candidate : this.profiles) {
+                if (candidate.startsWith("!")) {
+                    if (candidate.substring(1).equals(profile)) {
+                        return false;
+                    }
+                }
+                else {
+                    negatedOnly = false;
+                    if (candidate.equals(profile)) {
+                        return true;
+                    }
+                }
+            }
+            return (profile == null && negatedOnly);
+        }
+
+        public synchronized Map<String, Object> getProperties() {
+            if (this.properties == null) {
+                this.properties = this.processor.getProperties(this.node);
+                // The node tree isn't needed any more
+                this.node = null;
+            }
+            return this.properties;
+        }
+
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.rocket.summer.framework.cglib.core;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.rocket.summer.framework.core.SpringProperties;
+import net.sf.cglib.core.AbstractClassGenerator;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.objectweb.asm.ClassReader;
+
+/**
+ * Support for generating CGLIB classes at build time instead of at runtime.
+ *
+ * <p>If the {@link #GENERATED_CLASSES_DIRECTORY_PROPERTY_NAME} property is set,
+ * every class generated through Spring's CGLIB generator strategies, i.e. enhanced
+ * {@code @Configuration} classes and CGLIB AOP proxies, is written to the given
+ * directory as a regular class file. Running the application (or a dedicated
+ * bootstrap of its contexts) with that property set as part of the build and
+ * packaging the directory's content along with the application classes makes
+ * the generated classes part of the artifact.
+ *
+ * <p>If the {@link #LOAD_PREGENERATED_CLASSES_PROPERTY_NAME} flag is set, class
+ * generators attempt to load a class with the name that they would generate
+ * before generating it, picking up such pregenerated classes instead of
+ * generating and defining them again at startup. This relies on generated class
+ * names being stable across runs for the same class structure and callback
+ * assignment, which is the case for the enhancers in this framework.
+ *
+ * @see SpringNamingPolicy
+ */
+public abstract class PregeneratedClassSupport {
+
+    /**
+     * System property that specifies a directory to write generated CGLIB classes to:
+     * "spring.cglib.generatedClassesDirectory".
+     */
+    public static final String GENERATED_CLASSES_DIRECTORY_PROPERTY_NAME = "spring.cglib.generatedClassesDirectory";
+
+    /**
+     * System property that instructs Spring to load pregenerated CGLIB classes from
+     * the class path, if available, instead of generating them:
+     * "spring.cglib.loadPregeneratedClasses".
+     */
+    public static final String LOAD_PREGENERATED_CLASSES_PROPERTY_NAME = "spring.cglib.loadPregeneratedClasses";
+
+
+    private static final Log logger = LogFactory.getLog(PregeneratedClassSupport.class);
+
+    private static final String generatedClassesDirectory =
+            SpringProperties.getProperty(GENERATED_CLASSES_DIRECTORY_PROPERTY_NAME);
+
+    private static final boolean loadPregeneratedClasses =
+            SpringProperties.getFlag(LOAD_PREGENERATED_CLASSES_PROPERTY_NAME);
+
+
+    /**
+     * Prepare the given class generator (e.g. an {@code Enhancer}) for loading
+     * a pregenerated class, if activated.
+     * @param generator the class generator to configure
+     */
+    public static void configure(AbstractClassGenerator generator) {
+        if (loadPregeneratedClasses) {
+            generator.setAttemptLoad(true);
+        }
+    }
+
+    /**
+     * Write the given generated class to the generated classes directory, if any.
+     * To be called by generator strategies with the final bytecode of each class.
+     * @param classFile the bytecode of the generated class
+     */
+    public static void writeGeneratedClass(byte[] classFile) {
+        if (generatedClassesDirectory == null) {
+            return;
+        }
+        String className = new ClassReader(classFile).getClassName();
+        File file = new File(generatedClassesDirectory, className + ".class");
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            logger.warn("Unable to create directory for generated class [" + file + "]");
+            return;
+        }
+        OutputStream out = null;
+        try {
+            out = new FileOutputStream(file);
+            out.write(classFile);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Wrote generated class [" + className.replace('/', '.') + "] to " + file);
+            }
+        }
+        catch (IOException ex) {
+            logger.warn("Unable to write generated class [" + file + "]", ex);
+        }
+        finally {
+            if (out != null) {
+                try {
+                    out.close();
+                }
+                catch (IOException ex) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+}
@@ -67,6 +67,12 @@ public interface ConfigurableApplicationContext extends ApplicationContext, Life
      */
     String SYSTEM_ENVIRONMENT_BEAN_NAME = "systemEnvironment";
 
+    /**
+     * Name of the shared SpEL expression cache in the factory.
+     * @see com.rocket.summer.framework.context.expression.ExpressionCache
+     */
+    String EXPRESSION_CACHE_BEAN_NAME = "expressionCache";
+
 
     /**
      * Set the unique id of this application context.
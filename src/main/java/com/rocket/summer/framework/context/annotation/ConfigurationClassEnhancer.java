@@ -9,6 +9,7 @@ import com.rocket.summer.framework.beans.factory.config.BeanDefinition;
 import com.rocket.summer.framework.beans.factory.config.BeanFactoryPostProcessor;
 import com.rocket.summer.framework.beans.factory.config.ConfigurableBeanFactory;
 import com.rocket.summer.framework.beans.factory.support.SimpleInstantiationStrategy;
+import com.rocket.summer.framework.cglib.core.PregeneratedClassSupport;
 import com.rocket.summer.framework.cglib.core.SpringNamingPolicy;
 import com.rocket.summer.framework.core.annotation.AnnotatedElementUtils;
 import com.rocket.summer.framework.objenesis.SpringObjenesis;
@@ -101,6 +102,7 @@ class ConfigurationClassEnhancer {
         enhancer.setStrategy(new BeanFactoryAwareGeneratorStrategy(classLoader));
         enhancer.setCallbackFilter(CALLBACK_FILTER);
         enhancer.setCallbackTypes(CALLBACK_FILTER.getCallbackTypes());
+        PregeneratedClassSupport.configure(enhancer);
         return enhancer;
     }
 
@@ -170,6 +172,25 @@ class ConfigurationClassEnhancer {
         public Class<?>[] getCallbackTypes() {
             return this.callbackTypes;
         }
+
+        /**
+         * Equality by callback types, keeping the hash code (and therefore the
+         * generated class names) stable across runs.
+         */
+        @Override
+        public boolean equals(Object other) {
+            return (this == other || (other instanceof ConditionalCallbackFilter &&
+                    Arrays.equals(this.callbackTypes, ((ConditionalCallbackFilter) other).callbackTypes)));
+        }
+
+        @Override
+        public int hashCode() {
+            int hashCode = 0;
+            for (Class<?> callbackType : this.callbackTypes) {
+                hashCode = 31 * hashCode + callbackType.getName().hashCode();
+            }
+            return hashCode;
+        }
     }
 
     /**
@@ -236,6 +257,12 @@ class ConfigurationClassEnhancer {
             return new TransformingClassGenerator(cg, transformer);
         }
 
+        @Override
+        protected byte[] transform(byte[] b) throws Exception {
+            PregeneratedClassSupport.writeGeneratedClass(b);
+            return b;
+        }
+
         @Override
         public byte[] generate(ClassGenerator cg) throws Exception {
             if (this.classLoader == null) {
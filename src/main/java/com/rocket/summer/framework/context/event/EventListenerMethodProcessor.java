@@ -17,6 +17,7 @@ import com.rocket.summer.framework.context.ApplicationContext;
 import com.rocket.summer.framework.context.ApplicationContextAware;
 import com.rocket.summer.framework.context.ApplicationListener;
 import com.rocket.summer.framework.context.ConfigurableApplicationContext;
+import com.rocket.summer.framework.context.expression.ExpressionCache;
 import com.rocket.summer.framework.core.MethodIntrospector;
 import com.rocket.summer.framework.core.annotation.AnnotatedElementUtils;
 import com.rocket.summer.framework.core.annotation.AnnotationAwareOrderComparator;
@@ -47,6 +48,11 @@ public class EventListenerMethodProcessor implements SmartInitializingSingleton,
         Assert.isTrue(applicationContext instanceof ConfigurableApplicationContext,
                 "ApplicationContext does not implement ConfigurableApplicationContext");
         this.applicationContext = (ConfigurableApplicationContext) applicationContext;
+        String cacheName = ConfigurableApplicationContext.EXPRESSION_CACHE_BEAN_NAME;
+        if (applicationContext.containsBean(cacheName) &&
+                applicationContext.isTypeMatch(cacheName, ExpressionCache.class)) {
+            this.evaluator.setExpressionCache(applicationContext.getBean(cacheName, ExpressionCache.class));
+        }
     }
 
     @Override
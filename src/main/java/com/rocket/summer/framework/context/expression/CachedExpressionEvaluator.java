@@ -23,6 +23,8 @@ public abstract class CachedExpressionEvaluator {
 
     private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
 
+    private ExpressionCache expressionCache;
+
 
     /**
      * Create a new instance with the specified {@link SpelExpressionParser}.
@@ -40,6 +42,24 @@ public abstract class CachedExpressionEvaluator {
     }
 
 
+    /**
+     * Specify a shared {@link ExpressionCache} to obtain expressions from,
+     * typically the one registered in the application context.
+     * <p>If set, expressions are parsed with the cache's parser and shared with
+     * other evaluators, rather than being held in this evaluator's own caches.
+     * @see com.rocket.summer.framework.context.ConfigurableApplicationContext#EXPRESSION_CACHE_BEAN_NAME
+     */
+    public void setExpressionCache(ExpressionCache expressionCache) {
+        this.expressionCache = expressionCache;
+    }
+
+    /**
+     * Return the shared {@link ExpressionCache}, if any.
+     */
+    public ExpressionCache getExpressionCache() {
+        return this.expressionCache;
+    }
+
     /**
      * Return the {@link SpelExpressionParser} to use.
      */
@@ -58,7 +78,8 @@ public abstract class CachedExpressionEvaluator {
 
     /**
      * Return the {@link Expression} for the specified SpEL value
-     * <p>Parse the expression if it hasn't been already.
+     * <p>Parse the expression if it hasn't been already. Delegates to the shared
+     * {@link ExpressionCache} instead of the given cache, if one has been specified.
      * @param cache the cache to use
      * @param elementKey the element on which the expression is defined
      * @param expression the expression to parse
@@ -66,6 +87,9 @@ public abstract class CachedExpressionEvaluator {
     protected Expression getExpression(Map<ExpressionKey, Expression> cache,
                                        AnnotatedElementKey elementKey, String expression) {
 
+        if (this.expressionCache != null) {
+            return this.expressionCache.getExpression(expression, null);
+        }
         ExpressionKey expressionKey = createKey(elementKey, expression);
         Expression expr = cache.get(expressionKey);
         if (expr == null) {
@@ -0,0 +1,184 @@
+package com.rocket.summer.framework.context.expression;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.rocket.summer.framework.expression.Expression;
+import com.rocket.summer.framework.expression.ExpressionParser;
+import com.rocket.summer.framework.expression.ParserContext;
+import com.rocket.summer.framework.expression.spel.SpelParserConfiguration;
+import com.rocket.summer.framework.expression.spel.standard.SpelCompiler;
+import com.rocket.summer.framework.expression.spel.standard.SpelExpressionParser;
+import com.rocket.summer.framework.util.ObjectUtils;
+
+/**
+ * Bounded cache of parsed SpEL expressions, scoped to an application context and
+ * shared by all of its expression evaluators: the {@link StandardBeanExpressionResolver}
+ * as well as {@link CachedExpressionEvaluator} subclasses. Since all of them obtain
+ * the same {@link Expression} instances for the same expression string, an expression
+ * gets compiled once and its compiled form is reused across evaluators.
+ *
+ * <p>Expressions are parsed with a {@link SpelExpressionParser} that compiles against
+ * the given class loader, typically the context's bean class loader. The least recently
+ * used expressions get evicted once the {@link #setCacheLimit cache limit} is reached.
+ * {@link #clear()} discards all expressions and releases the {@link SpelCompiler} for
+ * the class loader, so that compiled expression classes can be unloaded; the
+ * application context calls it on close.
+ *
+ * @see com.rocket.summer.framework.context.ConfigurableApplicationContext#EXPRESSION_CACHE_BEAN_NAME
+ */
+public class ExpressionCache {
+
+    /** Default maximum number of entries for the expression cache: 1024 */
+    public static final int DEFAULT_CACHE_LIMIT = 1024;
+
+
+    private final ClassLoader classLoader;
+
+    private final ExpressionParser parser;
+
+    /** The maximum number of entries in the cache */
+    private volatile int cacheLimit = DEFAULT_CACHE_LIMIT;
+
+    /** Fast access cache for Expressions, returning already parsed instances without a global lock */
+    private final Map<ExpressionKey, Expression> expressionAccessCache =
+            new ConcurrentHashMap<ExpressionKey, Expression>(256);
+
+    /** Map from expression key to Expression instance, synchronized for Expression parsing */
+    @SuppressWarnings("serial")
+    private final Map<ExpressionKey, Expression> expressionCreationCache =
+            new LinkedHashMap<ExpressionKey, Expression>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ExpressionKey, Expression> eldest) {
+                    if (size() > getCacheLimit()) {
+                        expressionAccessCache.remove(eldest.getKey());
+                        return true;
+                    }
+                    else {
+                        return false;
+                    }
+                }
+            };
+
+
+    /**
+     * Create a new {@code ExpressionCache} for the given class loader,
+     * using it as the basis for expression compilation.
+     * @param classLoader the class loader to compile against
+     * (may be {@code null} for the default class loader)
+     */
+    public ExpressionCache(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+        this.parser = new SpelExpressionParser(new SpelParserConfiguration(null, classLoader));
+    }
+
+
+    /**
+     * Specify the maximum number of entries for the expression cache.
+     * Default is 1024.
+     */
+    public void setCacheLimit(int cacheLimit) {
+        this.cacheLimit = cacheLimit;
+    }
+
+    /**
+     * Return the maximum number of entries for the expression cache.
+     */
+    public int getCacheLimit() {
+        return this.cacheLimit;
+    }
+
+    /**
+     * Return the shared parser that expressions get parsed with.
+     */
+    public ExpressionParser getParser() {
+        return this.parser;
+    }
+
+    /**
+     * Return the {@link Expression} for the given expression string,
+     * parsing it if it hasn't been already.
+     * @param expressionString the raw expression string to parse
+     * @param parserContext a context for influencing the expression parsing
+     * routine, or {@code null} for a plain (non-template) expression
+     * @return the parsed expression (shared by all callers)
+     */
+    public Expression getExpression(String expressionString, ParserContext parserContext) {
+        ExpressionKey key = new ExpressionKey(expressionString, parserContext);
+        Expression expression = this.expressionAccessCache.get(key);
+        if (expression == null) {
+            synchronized (this.expressionCreationCache) {
+                expression = this.expressionCreationCache.get(key);
+                if (expression == null) {
+                    expression = (parserContext != null ? this.parser.parseExpression(expressionString, parserContext) :
+                            this.parser.parseExpression(expressionString));
+                    if (this.cacheLimit > 0) {
+                        this.expressionAccessCache.put(key, expression);
+                        this.expressionCreationCache.put(key, expression);
+                    }
+                }
+            }
+        }
+        return expression;
+    }
+
+    /**
+     * Discard all cached expressions and release the {@link SpelCompiler}
+     * for this cache's class loader.
+     * @see SpelCompiler#release(ClassLoader)
+     */
+    public void clear() {
+        synchronized (this.expressionCreationCache) {
+            this.expressionAccessCache.clear();
+            this.expressionCreationCache.clear();
+        }
+        SpelCompiler.release(this.classLoader);
+    }
+
+
+    /**
+     * Key for an expression string parsed as plain expression or as template
+     * with specific prefix and suffix.
+     */
+    private static final class ExpressionKey {
+
+        private final String expressionString;
+
+        private final String templatePrefix;
+
+        private final String templateSuffix;
+
+        public ExpressionKey(String expressionString, ParserContext parserContext) {
+            this.expressionString = expressionString;
+            if (parserContext != null && parserContext.isTemplate()) {
+                this.templatePrefix = parserContext.getExpressionPrefix();
+                this.templateSuffix = parserContext.getExpressionSuffix();
+            }
+            else {
+                this.templatePrefix = null;
+                this.templateSuffix = null;
+            }
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ExpressionKey)) {
+                return false;
+            }
+            ExpressionKey otherKey = (ExpressionKey) other;
+            return (this.expressionString.equals(otherKey.expressionString) &&
+                    ObjectUtils.nullSafeEquals(this.templatePrefix, otherKey.templatePrefix) &&
+                    ObjectUtils.nullSafeEquals(this.templateSuffix, otherKey.templateSuffix));
+        }
+
+        @Override
+        public int hashCode() {
+            return this.expressionString.hashCode() * 29 + ObjectUtils.nullSafeHashCode(this.templatePrefix);
+        }
+    }
+
+}
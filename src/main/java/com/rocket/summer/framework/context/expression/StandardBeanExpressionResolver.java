@@ -45,7 +45,9 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
 
     private ExpressionParser expressionParser;
 
-    private final Map<String, Expression> expressionCache = new ConcurrentHashMap<String, Expression>(256);
+    private ExpressionCache expressionCache;
+
+    private final Map<String, Expression> localExpressionCache = new ConcurrentHashMap<String, Expression>(256);
 
     private final Map<BeanExpressionContext, StandardEvaluationContext> evaluationCache =
             new ConcurrentHashMap<BeanExpressionContext, StandardEvaluationContext>(8);
@@ -82,6 +84,18 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
         this.expressionParser = new SpelExpressionParser(new SpelParserConfiguration(null, beanClassLoader));
     }
 
+    /**
+     * Create a new {@code StandardBeanExpressionResolver} that obtains its expressions
+     * from the given shared cache, sharing their compiled form with other evaluators.
+     * @param expressionCache the context's shared expression cache
+     * @see #setExpressionCache
+     */
+    public StandardBeanExpressionResolver(ExpressionCache expressionCache) {
+        Assert.notNull(expressionCache, "ExpressionCache must not be null");
+        this.expressionParser = expressionCache.getParser();
+        this.expressionCache = expressionCache;
+    }
+
 
     /**
      * Set the prefix that an expression string starts with.
@@ -111,6 +125,18 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
     public void setExpressionParser(ExpressionParser expressionParser) {
         Assert.notNull(expressionParser, "ExpressionParser must not be null");
         this.expressionParser = expressionParser;
+        this.expressionCache = null;
+    }
+
+    /**
+     * Specify a shared {@link ExpressionCache} to obtain expressions from, instead of
+     * parsing them with a local parser and keeping them in a local cache.
+     * <p>The cache's parser takes the place of any parser specified before.
+     */
+    public void setExpressionCache(ExpressionCache expressionCache) {
+        Assert.notNull(expressionCache, "ExpressionCache must not be null");
+        this.expressionParser = expressionCache.getParser();
+        this.expressionCache = expressionCache;
     }
 
 
@@ -120,10 +146,16 @@ public class StandardBeanExpressionResolver implements BeanExpressionResolver {
             return value;
         }
         try {
-            Expression expr = this.expressionCache.get(value);
-            if (expr == null) {
-                expr = this.expressionParser.parseExpression(value, this.beanExpressionParserContext);
-                this.expressionCache.put(value, expr);
+            Expression expr;
+            if (this.expressionCache != null) {
+                expr = this.expressionCache.getExpression(value, this.beanExpressionParserContext);
+            }
+            else {
+                expr = this.localExpressionCache.get(value);
+                if (expr == null) {
+                    expr = this.expressionParser.parseExpression(value, this.beanExpressionParserContext);
+                    this.localExpressionCache.put(value, expr);
+                }
             }
             StandardEvaluationContext sec = this.evaluationCache.get(evalContext);
             if (sec == null) {
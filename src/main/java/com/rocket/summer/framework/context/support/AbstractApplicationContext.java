@@ -47,6 +47,7 @@ import com.rocket.summer.framework.context.event.ContextRefreshedEvent;
 import com.rocket.summer.framework.context.event.ContextStartedEvent;
 import com.rocket.summer.framework.context.event.ContextStoppedEvent;
 import com.rocket.summer.framework.context.event.SimpleApplicationEventMulticaster;
+import com.rocket.summer.framework.context.expression.ExpressionCache;
 import com.rocket.summer.framework.context.expression.StandardBeanExpressionResolver;
 import com.rocket.summer.framework.context.weaving.LoadTimeWeaverAware;
 import com.rocket.summer.framework.context.weaving.LoadTimeWeaverAwareProcessor;
@@ -184,6 +185,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
     /** MessageSource we delegate our implementation of this interface to */
     private MessageSource messageSource;
 
+    /** SpEL expression cache shared by this context's expression evaluators */
+    private ExpressionCache expressionCache;
+
     /** Helper class used in event publishing */
     private ApplicationEventMulticaster applicationEventMulticaster;
 
@@ -611,7 +615,11 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
     protected void prepareBeanFactory(ConfigurableListableBeanFactory beanFactory) {
         // Tell the internal bean factory to use the context's class loader etc.
         beanFactory.setBeanClassLoader(getClassLoader());
-        beanFactory.setBeanExpressionResolver(new StandardBeanExpressionResolver(beanFactory.getBeanClassLoader()));
+        if (this.expressionCache != null) {
+            this.expressionCache.clear();
+        }
+        this.expressionCache = new ExpressionCache(beanFactory.getBeanClassLoader());
+        beanFactory.setBeanExpressionResolver(new StandardBeanExpressionResolver(this.expressionCache));
         beanFactory.addPropertyEditorRegistrar(new ResourceEditorRegistrar(this, getEnvironment()));
 
         // Configure the bean factory with context callbacks.
@@ -650,6 +658,9 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
         if (!beanFactory.containsLocalBean(SYSTEM_ENVIRONMENT_BEAN_NAME)) {
             beanFactory.registerSingleton(SYSTEM_ENVIRONMENT_BEAN_NAME, getEnvironment().getSystemEnvironment());
         }
+        if (!beanFactory.containsLocalBean(EXPRESSION_CACHE_BEAN_NAME)) {
+            beanFactory.registerSingleton(EXPRESSION_CACHE_BEAN_NAME, this.expressionCache);
+        }
     }
 
     /**
@@ -995,6 +1006,12 @@ public abstract class AbstractApplicationContext extends DefaultResourceLoader
             // Close the state of this context itself.
             closeBeanFactory();
 
+            // Release parsed and compiled expressions, allowing compiled classes to be unloaded.
+            if (this.expressionCache != null) {
+                this.expressionCache.clear();
+                this.expressionCache = null;
+            }
+
             // Let subclasses do some final clean-up if they wish...
             onClose();
 
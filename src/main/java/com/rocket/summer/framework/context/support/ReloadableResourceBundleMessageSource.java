@@ -5,14 +5,26 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 
+import com.rocket.summer.framework.beans.factory.DisposableBean;
+import com.rocket.summer.framework.beans.factory.InitializingBean;
 import com.rocket.summer.framework.context.ResourceLoaderAware;
 import com.rocket.summer.framework.core.io.DefaultResourceLoader;
 import com.rocket.summer.framework.core.io.Resource;
@@ -47,6 +59,10 @@ import com.rocket.summer.framework.util.StringUtils;
  * "WEB-INF/messages_en.xml" etc. Note that message definitions in a <i>previous</i>
  * resource bundle will override ones in a later bundle, due to sequential lookup.
 
+ * <p>In {@link #setCompiled compiled} mode, all messages for a Locale are merged
+ * into a single immutable lookup table with pre-parsed MessageFormats, and files
+ * are checked for modifications by a background thread rather than on access.
+ *
  * <p>This MessageSource can easily be used outside of an
  * {@link com.rocket.summer.framework.context.ApplicationContext}: it will use a
  * {@link com.rocket.summer.framework.core.io.DefaultResourceLoader} as default,
@@ -69,12 +85,14 @@ import com.rocket.summer.framework.util.StringUtils;
  * @see java.util.ResourceBundle
  */
 public class ReloadableResourceBundleMessageSource extends AbstractResourceBasedMessageSource
-        implements ResourceLoaderAware {
+        implements ResourceLoaderAware, InitializingBean, DisposableBean {
 
     private static final String PROPERTIES_SUFFIX = ".properties";
 
     private static final String XML_SUFFIX = ".xml";
 
+    private static final long MIN_REFRESH_CHECK_INTERVAL = 1000;
+
 
     private Properties fileEncodings;
 
@@ -96,6 +114,21 @@ public class ReloadableResourceBundleMessageSource extends AbstractResourceBased
     private final ConcurrentMap<Locale, PropertiesHolder> cachedMergedProperties =
             new ConcurrentHashMap<Locale, PropertiesHolder>();
 
+    private boolean compiled = false;
+
+    private Locale[] compiledLocales = new Locale[0];
+
+    private int maxCompiledLocales = 32;
+
+    // Snapshot of compiled messages per locale, replaced as a whole
+    private volatile CompiledMessages compiledMessages;
+
+    private final Object compileMonitor = new Object();
+
+    private ScheduledExecutorService refreshChecker;
+
+    private boolean destroyed = false;
+
 
     /**
      * Set per-file charsets to use for parsing properties files.
@@ -126,6 +159,44 @@ public class ReloadableResourceBundleMessageSource extends AbstractResourceBased
         this.concurrentRefresh = concurrentRefresh;
     }
 
+    /**
+     * Specify whether to compile the messages of all basenames into an immutable
+     * lookup table per Locale, with all messages parsed into MessageFormats upfront.
+     * Default is "false".
+     * <p>Resolving a code then takes a single hash lookup on an immutable table;
+     * the pre-parsed MessageFormats get cloned for each use instead of being shared.
+     * Rather than checking file timestamps on access, a background thread checks the
+     * files at the {@link #setCacheSeconds cache interval} (at most once per second),
+     * recompiles all Locales in case of a modification and replaces the compiled
+     * messages in a single step. With the default cache setting of "-1", the
+     * compiled messages never get reloaded.
+     * @see #setCompiledLocales
+     */
+    public void setCompiled(boolean compiled) {
+        this.compiled = compiled;
+    }
+
+    /**
+     * Set the Locales to compile on initialization, in addition to the default
+     * Locale, when in {@link #setCompiled compiled} mode. Messages for any other
+     * Locale get compiled on first access.
+     */
+    public void setCompiledLocales(Locale... compiledLocales) {
+        this.compiledLocales = (compiledLocales != null ? compiledLocales : new Locale[0]);
+    }
+
+    /**
+     * Set the maximum number of Locales to compile on access, when in
+     * {@link #setCompiled compiled} mode. Default is 32.
+     * <p>Messages for further Locales, e.g. derived from arbitrary client
+     * Accept-Language headers, are resolved as in non-compiled mode instead.
+     * The default Locale and the specified {@link #setCompiledLocales compiled Locales}
+     * are always compiled on initialization, regardless of this limit.
+     */
+    public void setMaxCompiledLocales(int maxCompiledLocales) {
+        this.maxCompiledLocales = maxCompiledLocales;
+    }
+
     /**
      * Set the PropertiesPersister to use for parsing properties files.
      * <p>The default is a DefaultPropertiesPersister.
@@ -151,12 +222,48 @@ public class ReloadableResourceBundleMessageSource extends AbstractResourceBased
     }
 
 
+    /**
+     * Compiles the messages for the default Locale and the specified
+     * {@link #setCompiledLocales compiled Locales}, if in compiled mode.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        if (this.compiled) {
+            Set<Locale> locales = new LinkedHashSet<Locale>();
+            locales.add(Locale.getDefault());
+            locales.addAll(Arrays.asList(this.compiledLocales));
+            compileLocales(locales);
+        }
+    }
+
+    /**
+     * Stops checking compiled messages for modifications, for good: Locales
+     * compiled afterwards do not restart the check.
+     */
+    @Override
+    public void destroy() {
+        synchronized (this.compileMonitor) {
+            this.destroyed = true;
+            if (this.refreshChecker != null) {
+                this.refreshChecker.shutdownNow();
+                this.refreshChecker = null;
+            }
+        }
+    }
+
+
     /**
      * Resolves the given message code as key in the retrieved bundle files,
      * returning the value found in the bundle as-is (without MessageFormat parsing).
      */
     @Override
     protected String resolveCodeWithoutArguments(String code, Locale locale) {
+        if (this.compiled) {
+            CompiledBundle bundle = getCompiledBundle(locale);
+            if (bundle != null) {
+                return bundle.getMessage(code);
+            }
+        }
         if (getCacheMillis() < 0) {
             PropertiesHolder propHolder = getMergedProperties(locale);
             String result = propHolder.getProperty(code);
@@ -185,6 +292,12 @@ public class ReloadableResourceBundleMessageSource extends AbstractResourceBased
      */
     @Override
     protected MessageFormat resolveCode(String code, Locale locale) {
+        if (this.compiled) {
+            CompiledBundle bundle = getCompiledBundle(locale);
+            if (bundle != null) {
+                return bundle.getMessageFormat(code, locale);
+            }
+        }
         if (getCacheMillis() < 0) {
             PropertiesHolder propHolder = getMergedProperties(locale);
             MessageFormat result = propHolder.getMessageFormat(code, locale);
@@ -383,10 +496,7 @@ public class ReloadableResourceBundleMessageSource extends AbstractResourceBased
     protected PropertiesHolder refreshProperties(String filename, PropertiesHolder propHolder) {
         long refreshTimestamp = (getCacheMillis() < 0 ? -1 : System.currentTimeMillis());
 
-        Resource resource = this.resourceLoader.getResource(filename + PROPERTIES_SUFFIX);
-        if (!resource.exists()) {
-            resource = this.resourceLoader.getResource(filename + XML_SUFFIX);
-        }
+        Resource resource = getResource(filename);
 
         if (resource.exists()) {
             long fileTimestamp = -1;
@@ -437,6 +547,20 @@ public class ReloadableResourceBundleMessageSource extends AbstractResourceBased
         return propHolder;
     }
 
+    /**
+     * Return the properties file or, if not found, the XML file for the given
+     * bundle filename.
+     * @param filename the bundle filename (basename + Locale)
+     * @return the resource, which might not exist
+     */
+    private Resource getResource(String filename) {
+        Resource resource = this.resourceLoader.getResource(filename + PROPERTIES_SUFFIX);
+        if (!resource.exists()) {
+            resource = this.resourceLoader.getResource(filename + XML_SUFFIX);
+        }
+        return resource;
+    }
+
     /**
      * Load the properties from the given resource.
      * @param resource the resource to load from
@@ -496,6 +620,178 @@ public class ReloadableResourceBundleMessageSource extends AbstractResourceBased
     }
 
 
+    /**
+     * Return the compiled messages for the given Locale, compiling them if necessary.
+     * @return the compiled messages, or <code>null</code> if the Locale is not compiled
+     * and the {@link #setMaxCompiledLocales limit} of compiled Locales has been reached
+     */
+    private CompiledBundle getCompiledBundle(Locale locale) {
+        CompiledMessages compiledMessages = this.compiledMessages;
+        if (compiledMessages != null) {
+            CompiledBundle bundle = compiledMessages.bundles.get(locale);
+            if (bundle != null) {
+                return bundle;
+            }
+            if (compiledMessages.bundles.size() >= this.maxCompiledLocales) {
+                // Checked before taking the lock, so that uncompiled Locales do not contend.
+                return null;
+            }
+        }
+        return compileLocales(Collections.singleton(locale), this.maxCompiledLocales).bundles.get(locale);
+    }
+
+    /**
+     * Add the given Locales to the compiled messages, unless compiled already.
+     */
+    private CompiledMessages compileLocales(Collection<Locale> locales) {
+        return compileLocales(locales, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Add the given Locales to the compiled messages, unless compiled already
+     * or the given number of compiled Locales has been reached.
+     */
+    private CompiledMessages compileLocales(Collection<Locale> locales, int limit) {
+        synchronized (this.compileMonitor) {
+            CompiledMessages current = this.compiledMessages;
+            Map<Locale, CompiledBundle> bundles = new HashMap<Locale, CompiledBundle>();
+            Map<String, Long> fileTimestamps = new HashMap<String, Long>();
+            if (current != null) {
+                bundles.putAll(current.bundles);
+                fileTimestamps.putAll(current.fileTimestamps);
+            }
+            boolean added = false;
+            for (Locale locale : locales) {
+                if (!bundles.containsKey(locale) && bundles.size() < limit) {
+                    bundles.put(locale, compileBundle(locale, fileTimestamps));
+                    added = true;
+                }
+            }
+            if (!added && current != null) {
+                return current;
+            }
+            CompiledMessages compiledMessages = new CompiledMessages(bundles, fileTimestamps);
+            this.compiledMessages = compiledMessages;
+            if (this.refreshChecker == null && !this.destroyed && getCacheMillis() >= 0) {
+                startRefreshChecker();
+            }
+            return compiledMessages;
+        }
+    }
+
+    /**
+     * Recompile all compiled Locales if any of their files has been modified.
+     */
+    private void recompileIfModified() {
+        synchronized (this.compileMonitor) {
+            CompiledMessages current = this.compiledMessages;
+            if (current == null || !isModified(current)) {
+                return;
+            }
+            if (logger.isInfoEnabled()) {
+                logger.info("Recompiling messages for basenames " + getBasenameSet() +
+                        " after modification");
+            }
+            Map<Locale, CompiledBundle> bundles = new HashMap<Locale, CompiledBundle>();
+            Map<String, Long> fileTimestamps = new HashMap<String, Long>();
+            for (Locale locale : current.bundles.keySet()) {
+                bundles.put(locale, compileBundle(locale, fileTimestamps));
+            }
+            this.compiledMessages = new CompiledMessages(bundles, fileTimestamps);
+        }
+    }
+
+    private boolean isModified(CompiledMessages compiledMessages) {
+        for (Map.Entry<String, Long> entry : compiledMessages.fileTimestamps.entrySet()) {
+            if (getFileTimestamp(getResource(entry.getKey())) != entry.getValue()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void startRefreshChecker() {
+        this.refreshChecker = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "message-source-refresh-checker");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        long interval = Math.max(getCacheMillis(), MIN_REFRESH_CHECK_INTERVAL);
+        this.refreshChecker.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    recompileIfModified();
+                }
+                catch (RuntimeException ex) {
+                    logger.warn("Could not recompile messages for basenames " + getBasenameSet(), ex);
+                }
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Merge all resource bundles for the given Locale and parse their messages.
+     * @param locale the Locale to compile
+     * @param fileTimestamps map to record the timestamps of the files read
+     */
+    private CompiledBundle compileBundle(Locale locale, Map<String, Long> fileTimestamps) {
+        Properties mergedProps = newProperties();
+        String[] basenames = StringUtils.toStringArray(getBasenameSet());
+        for (int i = basenames.length - 1; i >= 0; i--) {
+            List<String> filenames = calculateAllFilenames(basenames[i], locale);
+            for (int j = filenames.size() - 1; j >= 0; j--) {
+                String filename = filenames.get(j);
+                Resource resource = getResource(filename);
+                fileTimestamps.put(filename, getFileTimestamp(resource));
+                if (resource.exists()) {
+                    try {
+                        mergedProps.putAll(loadProperties(resource, filename));
+                    }
+                    catch (IOException ex) {
+                        if (logger.isWarnEnabled()) {
+                            logger.warn("Could not parse properties file [" + resource.getFilename() + "]", ex);
+                        }
+                    }
+                }
+            }
+        }
+        Map<String, String> messages = new HashMap<String, String>();
+        Map<String, MessageFormat> messageFormats = new HashMap<String, MessageFormat>();
+        for (String code : mergedProps.stringPropertyNames()) {
+            String msg = mergedProps.getProperty(code);
+            messages.put(code, msg);
+            try {
+                messageFormats.put(code, createMessageFormat(msg, locale));
+            }
+            catch (IllegalArgumentException ex) {
+                // Invalid message format - left to fail when actually used with arguments
+            }
+        }
+        return new CompiledBundle(messages, messageFormats);
+    }
+
+    /**
+     * Return the last-modified timestamp of the given resource, -1 if it cannot be
+     * determined, or -2 if the resource does not exist.
+     */
+    private long getFileTimestamp(Resource resource) {
+        if (!resource.exists()) {
+            return -2;
+        }
+        try {
+            return resource.lastModified();
+        }
+        catch (IOException ex) {
+            // Probably a class path resource: assume that it doesn't change.
+            return -1;
+        }
+    }
+
+
     /**
      * Clear the resource bundle cache.
      * Subsequent resolve calls will lead to reloading of the properties files.
@@ -504,6 +800,7 @@ public class ReloadableResourceBundleMessageSource extends AbstractResourceBased
         logger.debug("Clearing entire resource bundle cache");
         this.cachedProperties.clear();
         this.cachedMergedProperties.clear();
+        this.compiledMessages = null;
     }
 
     /**
@@ -605,5 +902,52 @@ public class ReloadableResourceBundleMessageSource extends AbstractResourceBased
         }
     }
 
-}
 
+    /**
+     * Immutable snapshot of the compiled messages per Locale, along with the
+     * timestamps of the files they have been compiled from.
+     */
+    private static class CompiledMessages {
+
+        private final Map<Locale, CompiledBundle> bundles;
+
+        private final Map<String, Long> fileTimestamps;
+
+        public CompiledMessages(Map<Locale, CompiledBundle> bundles, Map<String, Long> fileTimestamps) {
+            this.bundles = bundles;
+            this.fileTimestamps = fileTimestamps;
+        }
+    }
+
+
+    /**
+     * Immutable table of the merged messages for a Locale, with pre-parsed
+     * MessageFormats.
+     */
+    private class CompiledBundle {
+
+        private final Map<String, String> messages;
+
+        private final Map<String, MessageFormat> messageFormats;
+
+        public CompiledBundle(Map<String, String> messages, Map<String, MessageFormat> messageFormats) {
+            this.messages = messages;
+            this.messageFormats = messageFormats;
+        }
+
+        public String getMessage(String code) {
+            return this.messages.get(code);
+        }
+
+        public MessageFormat getMessageFormat(String code, Locale locale) {
+            MessageFormat messageFormat = this.messageFormats.get(code);
+            if (messageFormat != null) {
+                // Cheaper than parsing, and not shared with concurrent callers
+                return (MessageFormat) messageFormat.clone();
+            }
+            String msg = this.messages.get(code);
+            return (msg != null ? createMessageFormat(msg, locale) : null);
+        }
+    }
+
+}
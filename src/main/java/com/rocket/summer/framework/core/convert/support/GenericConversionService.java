@@ -53,6 +53,10 @@ public class GenericConversionService implements ConfigurableConversionService {
     private final Map<ConverterCacheKey, GenericConverter> converterCache =
             new ConcurrentHashMap<ConverterCacheKey, GenericConverter>();
 
+    /** Converters for plain source and target types, keyed by source class and then target class */
+    private final Map<Class<?>, Map<Class<?>, GenericConverter>> plainConverterCache =
+            new ConcurrentHashMap<Class<?>, Map<Class<?>, GenericConverter>>();
+
 
     // implementing ConverterRegistry
 
@@ -195,6 +199,9 @@ public class GenericConversionService implements ConfigurableConversionService {
      * First queries this ConversionService's converter cache.
      * On a cache miss, then performs an exhaustive search for a matching converter.
      * If no converter matches, returns the default converter.
+     * <p>Converters for plain types, i.e. descriptors without annotations and without
+     * element, key or value types, are cached by source and target class, avoiding
+     * the allocation of a cache key for each lookup.
      * Subclasses may override.
      * @param sourceType the source type to convert from
      * @param targetType the target type to convert to
@@ -202,25 +209,26 @@ public class GenericConversionService implements ConfigurableConversionService {
      * @see #getDefaultConverter(TypeDescriptor, TypeDescriptor)
      */
     protected GenericConverter getConverter(TypeDescriptor sourceType, TypeDescriptor targetType) {
-        ConverterCacheKey key = new ConverterCacheKey(sourceType, targetType);
-        GenericConverter converter = this.converterCache.get(key);
-        if (converter != null) {
-            return (converter != NO_MATCH ? converter : null);
-        }
-        else {
-            converter = findConverterForClassPair(sourceType, targetType);
-            if (converter == null) {
-                converter = getDefaultConverter(sourceType, targetType);
-            }
-            if (converter != null) {
-                this.converterCache.put(key, converter);
-                return converter;
+        if (isPlainType(sourceType) && isPlainType(targetType)) {
+            Map<Class<?>, GenericConverter> targetConverters = this.plainConverterCache.get(sourceType.getType());
+            if (targetConverters == null) {
+                targetConverters = new ConcurrentHashMap<Class<?>, GenericConverter>(8);
+                this.plainConverterCache.put(sourceType.getType(), targetConverters);
             }
-            else {
-                this.converterCache.put(key, NO_MATCH);
-                return null;
+            GenericConverter converter = targetConverters.get(targetType.getType());
+            if (converter == null) {
+                converter = findConverter(sourceType, targetType);
+                targetConverters.put(targetType.getType(), converter);
             }
+            return (converter != NO_MATCH ? converter : null);
         }
+        ConverterCacheKey key = new ConverterCacheKey(sourceType, targetType);
+        GenericConverter converter = this.converterCache.get(key);
+        if (converter == null) {
+            converter = findConverter(sourceType, targetType);
+            this.converterCache.put(key, converter);
+        }
+        return (converter != NO_MATCH ? converter : null);
     }
 
     /**
@@ -255,6 +263,28 @@ public class GenericConversionService implements ConfigurableConversionService {
 
     private void invalidateCache() {
         this.converterCache.clear();
+        this.plainConverterCache.clear();
+    }
+
+    /**
+     * Determine whether the given descriptor is fully described by its class,
+     * i.e. equal to {@code TypeDescriptor.valueOf(type.getType())}.
+     */
+    private boolean isPlainType(TypeDescriptor type) {
+        return (type.getAnnotations().length == 0 && !type.isArray() && !type.isCollection() && !type.isMap());
+    }
+
+    /**
+     * Search for a converter for the given sourceType/targetType pair, falling back
+     * to the default converter.
+     * @return the converter, or {@code NO_MATCH} if none found
+     */
+    private GenericConverter findConverter(TypeDescriptor sourceType, TypeDescriptor targetType) {
+        GenericConverter converter = findConverterForClassPair(sourceType, targetType);
+        if (converter == null) {
+            converter = getDefaultConverter(sourceType, targetType);
+        }
+        return (converter != null ? converter : NO_MATCH);
     }
 
     private Map<Class<?>, MatchableConverters> getSourceConverterMap(Class<?> sourceType) {
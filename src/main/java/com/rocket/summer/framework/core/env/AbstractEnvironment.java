@@ -1,5 +1,6 @@
 package com.rocket.summer.framework.core.env;
 
+import com.rocket.summer.framework.core.SpringProperties;
 import com.rocket.summer.framework.core.convert.support.ConfigurableConversionService;
 import com.rocket.summer.framework.util.Assert;
 import com.rocket.summer.framework.util.StringUtils;
@@ -9,6 +10,7 @@ import org.apache.commons.logging.LogFactory;
 import java.security.AccessControlException;
 import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -34,7 +36,7 @@ import static java.lang.String.format;
  * @see ConfigurableEnvironment
  * @see StandardEnvironment
  */
-public abstract class AbstractEnvironment implements ConfigurableEnvironment {
+public abstract class AbstractEnvironment implements ConfigurableEnvironment, IndexedPropertyResolver {
 
     /**
      * Name of property to set to specify active profiles: {@value}. Value may be comma
@@ -59,6 +61,17 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
      */
     public static final String IGNORE_GETENV_PROPERTY_NAME = "spring.getenv.ignore";
 
+    /**
+     * System property that instructs Spring to resolve environment properties
+     * through an index over all enumerable property sources: {@value}.
+     * <p>The default is "false", searching all property sources for every key.
+     * Consider switching this flag to "true" for large numbers of property sources
+     * and properties, in particular with extensive relaxed property binding.
+     * @see #setIndexed
+     * @see PropertySourcesPropertyResolver#setIndexed
+     */
+    public static final String INDEXED_PROPERTIES_PROPERTY_NAME = "spring.env.indexed";
+
     /**
      * Name of property to set to specify profiles active by default: {@value}. Value may
      * be comma delimited.
@@ -91,7 +104,7 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
 
     private final MutablePropertySources propertySources = new MutablePropertySources(this.logger);
 
-    private final ConfigurablePropertyResolver propertyResolver =
+    private final PropertySourcesPropertyResolver propertyResolver =
             new PropertySourcesPropertyResolver(this.propertySources);
 
 
@@ -108,6 +121,7 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
             this.logger.debug(format("Initializing new %s", name));
         }
         customizePropertySources(this.propertySources);
+        this.propertyResolver.setIndexed(SpringProperties.getFlag(INDEXED_PROPERTIES_PROPERTY_NAME));
         if (this.logger.isDebugEnabled()) {
             this.logger.debug(format(
                     "Initialized %s with PropertySources %s", name, this.propertySources));
@@ -485,6 +499,28 @@ public abstract class AbstractEnvironment implements ConfigurableEnvironment {
         this.propertyResolver.setValueSeparator(valueSeparator);
     }
 
+    /**
+     * Set whether to resolve properties through an index over all enumerable
+     * property sources. Default is "false", unless the
+     * {@value #INDEXED_PROPERTIES_PROPERTY_NAME} flag has been set.
+     * @see PropertySourcesPropertyResolver#setIndexed
+     */
+    public void setIndexed(boolean indexed) {
+        this.propertyResolver.setIndexed(indexed);
+    }
+
+    public boolean isIndexed() {
+        return this.propertyResolver.isIndexed();
+    }
+
+    public String resolveRelaxedPropertyName(Iterable<String> candidateNames) {
+        return this.propertyResolver.resolveRelaxedPropertyName(candidateNames);
+    }
+
+    public Map<PropertySource<?>, List<String>> getPropertyNamesByPrefix(String... prefixes) {
+        return this.propertyResolver.getPropertyNamesByPrefix(prefixes);
+    }
+
 
     @Override
     public String toString() {
@@ -0,0 +1,44 @@
+package com.rocket.summer.framework.core.env;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Extension of the {@link PropertyResolver} interface for resolvers that may
+ * keep an index over their property sources, allowing for efficient lookups
+ * of property names in relaxed form.
+ *
+ * @see PropertySourcesPropertyResolver#setIndexed
+ * @see AbstractEnvironment#setIndexed
+ */
+public interface IndexedPropertyResolver extends PropertyResolver {
+
+    /**
+     * Return whether this resolver resolves properties through an index.
+     */
+    boolean isIndexed();
+
+    /**
+     * Determine the first of the given relaxed variants of a property name that
+     * is declared by any property source, i.e. the same name as checking
+     * {@link #containsProperty} for each candidate in turn would find, but with
+     * a single index lookup per candidate.
+     * @param candidateNames the variants of the property name, in order of preference
+     * @return the actual property name, or {@code null} if none found
+     */
+    String resolveRelaxedPropertyName(Iterable<String> candidateNames);
+
+    /**
+     * Return the names of all properties that start with any of the given prefixes
+     * in relaxed form, grouped by the property source declaring them.
+     * <p>Since separators are ignored, names that merely continue the last segment
+     * of a prefix match as well (e.g. "app.servers.port" for "app.server"):
+     * callers are expected to filter the returned names further.
+     * @param prefixes the name prefixes in any relaxed form
+     * @return the matching property names, in the order exposed by each property
+     * source, for every property source that could be indexed by name (in order
+     * of precedence); or {@code null} if this resolver does not keep an index
+     */
+    Map<PropertySource<?>, List<String>> getPropertyNamesByPrefix(String... prefixes);
+
+}
@@ -20,6 +20,11 @@ public class MapPropertySource extends EnumerablePropertySource<Map<String, Obje
         return this.source.get(name);
     }
 
+    @Override
+    public boolean containsProperty(String name) {
+        return this.source.containsKey(name);
+    }
+
     @Override
     public String[] getPropertyNames() {
         return this.source.keySet().toArray(EMPTY_NAMES_ARRAY);
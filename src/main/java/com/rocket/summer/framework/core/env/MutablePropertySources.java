@@ -7,6 +7,7 @@ import org.apache.commons.logging.LogFactory;
 
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Default implementation of the {@link PropertySources} interface.
@@ -30,6 +31,11 @@ public class MutablePropertySources implements PropertySources {
 
     private final LinkedList<PropertySource<?>> propertySourceList = new LinkedList<PropertySource<?>>();
 
+    /** Incremented on every modification, so that an index built concurrently gets discarded */
+    private final AtomicInteger modificationCount = new AtomicInteger();
+
+    private volatile VersionedIndex index;
+
 
     /**
      * Create a new {@link MutablePropertySources} object.
@@ -81,6 +87,7 @@ public class MutablePropertySources implements PropertySources {
         }
         removeIfPresent(propertySource);
         this.propertySourceList.addFirst(propertySource);
+        invalidateIndex();
     }
 
     /**
@@ -93,6 +100,7 @@ public class MutablePropertySources implements PropertySources {
         }
         removeIfPresent(propertySource);
         this.propertySourceList.addLast(propertySource);
+        invalidateIndex();
     }
 
     /**
@@ -141,7 +149,12 @@ public class MutablePropertySources implements PropertySources {
             logger.debug(String.format("Removing [%s] PropertySource", name));
         }
         int index = this.propertySourceList.indexOf(PropertySource.named(name));
-        return index == -1 ? null : this.propertySourceList.remove(index);
+        if (index == -1) {
+            return null;
+        }
+        PropertySource<?> removed = this.propertySourceList.remove(index);
+        invalidateIndex();
+        return removed;
     }
 
     /**
@@ -158,6 +171,7 @@ public class MutablePropertySources implements PropertySources {
         }
         int index = assertPresentAndGetIndex(name);
         this.propertySourceList.set(index, propertySource);
+        invalidateIndex();
     }
 
     /**
@@ -191,6 +205,7 @@ public class MutablePropertySources implements PropertySources {
     protected void removeIfPresent(PropertySource<?> propertySource) {
         if (this.propertySourceList.contains(propertySource)) {
             this.propertySourceList.remove(propertySource);
+            invalidateIndex();
         }
     }
 
@@ -200,6 +215,31 @@ public class MutablePropertySources implements PropertySources {
     private void addAtIndex(int index, PropertySource<?> propertySource) {
         removeIfPresent(propertySource);
         this.propertySourceList.add(index, propertySource);
+        invalidateIndex();
+    }
+
+    /**
+     * Return the index over the contained property sources, building it if
+     * necessary. The index gets dropped whenever a property source is added,
+     * removed or replaced, and is shared by all indexed resolvers working
+     * against this {@code MutablePropertySources} instance.
+     * @see PropertySourcesPropertyResolver#setIndexed
+     */
+    PropertySourcesIndex getIndex() {
+        int modificationCount = this.modificationCount.get();
+        VersionedIndex index = this.index;
+        if (index == null || index.modificationCount != modificationCount) {
+            // Possibly stale if a modification happens while building: never used then,
+            // since the modification count won't match anymore
+            index = new VersionedIndex(new PropertySourcesIndex(this), modificationCount);
+            this.index = index;
+        }
+        return index.index;
+    }
+
+    private void invalidateIndex() {
+        this.modificationCount.incrementAndGet();
+        this.index = null;
     }
 
     /**
@@ -214,4 +254,20 @@ public class MutablePropertySources implements PropertySources {
         return index;
     }
 
+
+    /**
+     * An index along with the modification count it has been built for.
+     */
+    private static class VersionedIndex {
+
+        final PropertySourcesIndex index;
+
+        final int modificationCount;
+
+        VersionedIndex(PropertySourcesIndex index, int modificationCount) {
+            this.index = index;
+            this.modificationCount = modificationCount;
+        }
+    }
+
 }
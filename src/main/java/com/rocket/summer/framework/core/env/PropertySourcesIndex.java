@@ -0,0 +1,283 @@
+package com.rocket.summer.framework.core.env;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Precedence-ordered index over a snapshot of {@link PropertySources}, used by
+ * {@link PropertySourcesPropertyResolver} in indexed mode.
+ *
+ * <p>Maps each property name exposed by an {@link EnumerablePropertySource} to
+ * the first property source that declares it. Property sources that cannot be indexed reliably - non-enumerable sources,
+ * {@link SystemEnvironmentPropertySource} with its name variants,
+ * {@link CommandLinePropertySource} with its non-option arguments - are still
+ * queried on every lookup, in their order of precedence.
+ *
+ * <p>For prefix lookups, a list of all indexed property names sorted by their
+ * normalized form (see {@link #normalizePropertyName}) gets built on first use.
+ *
+ * <p>The index reflects the property names at the time it has been built.
+ * It is dropped by {@link MutablePropertySources} whenever a property source gets
+ * added, removed or replaced; changes to the property names within an individual
+ * property source are not tracked.
+ *
+ * @see MutablePropertySources#getIndex()
+ */
+final class PropertySourcesIndex {
+
+    private final PropertySource<?>[] propertySources;
+
+    /** Positions of the property sources to be queried for every key */
+    private final int[] livePositions;
+
+    /** Positions of the property sources that could not be indexed by name at all */
+    private final int[] unindexedPositions;
+
+    private final Map<String, Integer> positions = new HashMap<String, Integer>();
+
+    /** All indexed property names, sorted by normalized name; built on first use */
+    private volatile IndexedName[] sortedNames;
+
+
+    PropertySourcesIndex(PropertySources propertySources) {
+        List<PropertySource<?>> sources = new ArrayList<PropertySource<?>>();
+        for (PropertySource<?> propertySource : propertySources) {
+            sources.add(propertySource);
+        }
+        this.propertySources = sources.toArray(new PropertySource<?>[sources.size()]);
+        List<Integer> live = new ArrayList<Integer>();
+        List<Integer> unindexed = new ArrayList<Integer>();
+        for (int i = 0; i < this.propertySources.length; i++) {
+            PropertySource<?> propertySource = this.propertySources[i];
+            String[] names = getPropertyNames(propertySource);
+            if (names == null) {
+                live.add(i);
+                unindexed.add(i);
+                continue;
+            }
+            boolean exactNames = !(propertySource instanceof SystemEnvironmentPropertySource ||
+                    propertySource instanceof CommandLinePropertySource);
+            if (!exactNames) {
+                live.add(i);
+                continue;
+            }
+            for (String name : names) {
+                if (!this.positions.containsKey(name)) {
+                    this.positions.put(name, i);
+                }
+            }
+        }
+        this.livePositions = toIntArray(live);
+        this.unindexedPositions = toIntArray(unindexed);
+    }
+
+
+    /**
+     * Return the property sources to search for the given key, in order of
+     * precedence: the sources that need to be queried for every key, up to the
+     * first property source declaring the key, followed by that property source
+     * and all sources of lower precedence (in case it holds a {@code null} value).
+     */
+    List<PropertySource<?>> getPropertySources(String key) {
+        Integer position = this.positions.get(key);
+        if (position == null) {
+            if (this.livePositions.length == 0) {
+                return Collections.emptyList();
+            }
+            List<PropertySource<?>> result = new ArrayList<PropertySource<?>>(this.livePositions.length);
+            for (int livePosition : this.livePositions) {
+                result.add(this.propertySources[livePosition]);
+            }
+            return result;
+        }
+        List<PropertySource<?>> result = new ArrayList<PropertySource<?>>();
+        for (int livePosition : this.livePositions) {
+            if (livePosition >= position) {
+                break;
+            }
+            result.add(this.propertySources[livePosition]);
+        }
+        result.addAll(Arrays.asList(this.propertySources).subList(position, this.propertySources.length));
+        return result;
+    }
+
+    /**
+     * Determine the first of the given candidate names that is declared by any
+     * property source: looked up in the index, and checked against the property
+     * sources that need to be queried for every key.
+     * @param candidateNames the candidate names, in order of preference
+     * @return the first declared candidate name, or {@code null} if none found
+     */
+    String resolveRelaxedPropertyName(Iterable<String> candidateNames) {
+        for (String candidateName : candidateNames) {
+            if (this.positions.containsKey(candidateName)) {
+                return candidateName;
+            }
+            for (int livePosition : this.livePositions) {
+                if (this.propertySources[livePosition].containsProperty(candidateName)) {
+                    return candidateName;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Return the names of all properties that start with any of the given prefixes
+     * in relaxed form, grouped by property source in order of precedence. Since
+     * the normalized form drops separators, the result may include names that
+     * merely share the normalized prefix (e.g. "ab.c" for prefix "a.b"): callers
+     * are expected to filter the names against their actual relaxed prefixes.
+     * <p>The returned map contains every property source that has been indexed
+     * by name, along with the matching names in the order exposed by the property
+     * source; property sources that could not be indexed are not contained at all.
+     * @param prefixes the name prefixes in any relaxed form
+     * @return the matching property names by property source
+     */
+    Map<PropertySource<?>, List<String>> getPropertyNamesByPrefix(String... prefixes) {
+        IndexedName[] sortedNames = getSortedNames();
+        Set<IndexedName> matches = new TreeSet<IndexedName>(PRECEDENCE_ORDER);
+        for (String prefix : prefixes) {
+            String normalizedPrefix = normalizePropertyName(prefix);
+            for (int i = lowerBound(sortedNames, normalizedPrefix); i < sortedNames.length; i++) {
+                if (!sortedNames[i].normalizedName.startsWith(normalizedPrefix)) {
+                    break;
+                }
+                matches.add(sortedNames[i]);
+            }
+        }
+        Map<PropertySource<?>, List<String>> result = new LinkedHashMap<PropertySource<?>, List<String>>();
+        for (int i = 0; i < this.propertySources.length; i++) {
+            if (Arrays.binarySearch(this.unindexedPositions, i) < 0) {
+                result.put(this.propertySources[i], new ArrayList<String>());
+            }
+        }
+        for (IndexedName match : matches) {
+            result.get(this.propertySources[match.position]).add(match.name);
+        }
+        return result;
+    }
+
+    private IndexedName[] getSortedNames() {
+        IndexedName[] sortedNames = this.sortedNames;
+        if (sortedNames == null) {
+            List<IndexedName> names = new ArrayList<IndexedName>();
+            for (int i = 0; i < this.propertySources.length; i++) {
+                if (Arrays.binarySearch(this.unindexedPositions, i) >= 0) {
+                    continue;
+                }
+                String[] propertyNames = getPropertyNames(this.propertySources[i]);
+                if (propertyNames != null) {
+                    for (int j = 0; j < propertyNames.length; j++) {
+                        names.add(new IndexedName(propertyNames[j],
+                                normalizePropertyName(propertyNames[j]), i, j));
+                    }
+                }
+            }
+            sortedNames = names.toArray(new IndexedName[names.size()]);
+            Arrays.sort(sortedNames, NORMALIZED_NAME_ORDER);
+            this.sortedNames = sortedNames;
+        }
+        return sortedNames;
+    }
+
+    private static int lowerBound(IndexedName[] sortedNames, String normalizedName) {
+        int low = 0;
+        int high = sortedNames.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedNames[mid].normalizedName.compareTo(normalizedName) < 0) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+
+    /**
+     * Normalize the given property name for relaxed matching: lower case,
+     * without any '-', '_' or '.' separators.
+     * @param name the property name
+     * @return the normalized property name
+     */
+    static String normalizePropertyName(String name) {
+        StringBuilder normalized = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char ch = name.charAt(i);
+            if (ch != '-' && ch != '_' && ch != '.') {
+                normalized.append(Character.toLowerCase(ch));
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static String[] getPropertyNames(PropertySource<?> propertySource) {
+        if (!(propertySource instanceof EnumerablePropertySource)) {
+            return null;
+        }
+        try {
+            return ((EnumerablePropertySource<?>) propertySource).getPropertyNames();
+        }
+        catch (IllegalStateException ex) {
+            // e.g. a CompositePropertySource with non-enumerable nested sources
+            return null;
+        }
+    }
+
+    private static int[] toIntArray(List<Integer> list) {
+        int[] result = new int[list.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = list.get(i);
+        }
+        return result;
+    }
+
+
+    private static final Comparator<IndexedName> NORMALIZED_NAME_ORDER = new Comparator<IndexedName>() {
+        @Override
+        public int compare(IndexedName name1, IndexedName name2) {
+            return name1.normalizedName.compareTo(name2.normalizedName);
+        }
+    };
+
+    private static final Comparator<IndexedName> PRECEDENCE_ORDER = new Comparator<IndexedName>() {
+        @Override
+        public int compare(IndexedName name1, IndexedName name2) {
+            if (name1.position != name2.position) {
+                return (name1.position < name2.position ? -1 : 1);
+            }
+            return (name1.ordinal < name2.ordinal ? -1 : (name1.ordinal == name2.ordinal ? 0 : 1));
+        }
+    };
+
+
+    private static class IndexedName {
+
+        private final String name;
+
+        private final String normalizedName;
+
+        private final int position;
+
+        private final int ordinal;
+
+        public IndexedName(String name, String normalizedName, int position, int ordinal) {
+            this.name = name;
+            this.normalizedName = normalizedName;
+            this.position = position;
+            this.ordinal = ordinal;
+        }
+    }
+
+}
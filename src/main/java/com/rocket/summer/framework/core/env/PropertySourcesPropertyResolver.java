@@ -3,22 +3,35 @@ package com.rocket.summer.framework.core.env;
 import com.rocket.summer.framework.core.convert.ConversionException;
 import com.rocket.summer.framework.util.ClassUtils;
 
+import java.util.List;
+import java.util.Map;
+
 import static java.lang.String.format;
 
 /**
  * {@link PropertyResolver} implementation that resolves property values against
  * an underlying set of {@link PropertySources}.
  *
+ * <p>By default, every lookup searches all property sources in order of precedence.
+ * In {@linkplain #setIndexed indexed} mode, lookups go through a
+ * {@link PropertySourcesIndex} over the names of all {@link EnumerablePropertySource}s
+ * instead; for {@link MutablePropertySources}, the index is shared by all indexed
+ * resolvers and gets rebuilt after property sources have been added, removed or replaced.
+ *
  * @author Chris Beams
  * @since 3.1
  * @see PropertySource
  * @see PropertySources
  * @see AbstractEnvironment
  */
-public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
+public class PropertySourcesPropertyResolver extends AbstractPropertyResolver implements IndexedPropertyResolver {
 
     private final PropertySources propertySources;
 
+    private boolean indexed = false;
+
+    private volatile PropertySourcesIndex index;
+
     /**
      * Create a new resolver against the given property sources.
      * @param propertySources the set of {@link PropertySource} objects to use
@@ -27,8 +40,69 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
         this.propertySources = propertySources;
     }
 
+
+    /**
+     * Set whether to resolve properties through an index over the names of all
+     * enumerable property sources, rather than searching all property sources
+     * for every key. Default is "false".
+     * <p>Switch this on for large numbers of property sources and properties,
+     * in particular for relaxed lookups through
+     * {@link #resolveRelaxedPropertyName}. Note that the index only reflects
+     * the property names at the time it has been built: property sources whose
+     * set of names changes need to be replaced in the {@link MutablePropertySources}.
+     */
+    public void setIndexed(boolean indexed) {
+        this.indexed = indexed;
+    }
+
+    public boolean isIndexed() {
+        return this.indexed;
+    }
+
+    public String resolveRelaxedPropertyName(Iterable<String> candidateNames) {
+        if (this.indexed) {
+            return getIndex().resolveRelaxedPropertyName(candidateNames);
+        }
+        for (String candidateName : candidateNames) {
+            if (containsProperty(candidateName)) {
+                return candidateName;
+            }
+        }
+        return null;
+    }
+
+    public Map<PropertySource<?>, List<String>> getPropertyNamesByPrefix(String... prefixes) {
+        if (this.indexed) {
+            return getIndex().getPropertyNamesByPrefix(prefixes);
+        }
+        return null;
+    }
+
+    /**
+     * Return the property sources to search for the given key, in order of precedence.
+     */
+    protected Iterable<PropertySource<?>> getPropertySources(String key) {
+        if (this.indexed) {
+            return getIndex().getPropertySources(key);
+        }
+        return this.propertySources;
+    }
+
+    private PropertySourcesIndex getIndex() {
+        if (this.propertySources instanceof MutablePropertySources) {
+            return ((MutablePropertySources) this.propertySources).getIndex();
+        }
+        PropertySourcesIndex index = this.index;
+        if (index == null) {
+            index = new PropertySourcesIndex(this.propertySources);
+            this.index = index;
+        }
+        return index;
+    }
+
+
     public boolean containsProperty(String key) {
-        for (PropertySource<?> propertySource : this.propertySources) {
+        for (PropertySource<?> propertySource : getPropertySources(key)) {
             if (propertySource.getProperty(key) != null) {
                 return true;
             }
@@ -49,7 +123,7 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
             logger.trace(format("getProperty(\"%s\", %s)", key, targetValueType.getSimpleName()));
         }
 
-        for (PropertySource<?> propertySource : this.propertySources) {
+        for (PropertySource<?> propertySource : getPropertySources(key)) {
             if (debugEnabled) {
                 logger.debug(format("Searching for key '%s' in [%s]", key, propertySource.getName()));
             }
@@ -85,7 +159,7 @@ public class PropertySourcesPropertyResolver extends AbstractPropertyResolver {
             logger.trace(format("getPropertyAsClass(\"%s\", %s)", key, targetValueType.getSimpleName()));
         }
 
-        for (PropertySource<?> propertySource : this.propertySources) {
+        for (PropertySource<?> propertySource : getPropertySources(key)) {
             if (debugEnabled) {
                 logger.debug(format("Searching for key '%s' in [%s]", key, propertySource.getName()));
             }
@@ -65,9 +65,16 @@ public class CodeFlow implements Opcodes {
 
     /**
      * When code generation requires an intermediate variable within a method,
-     * this method records the next available variable (variable 0 is 'this').
+     * this method records the next available variable (variable 0 is 'this',
+     * variables 1 and 2 are the target and the EvaluationContext).
      */
-    private int nextFreeVariableId = 1;
+    private int nextFreeVariableId = 3;
+
+    /**
+     * The variables holding the active context object, if it differs from the
+     * target - e.g. the current element while evaluating selection criteria.
+     */
+    private final Stack<Integer> activeContextObjects = new Stack<Integer>();
 
 
     /**
@@ -85,11 +92,31 @@ public class CodeFlow implements Opcodes {
 
     /**
      * Push the byte code to load the target (i.e. what was passed as the first argument
-     * to CompiledExpression.getValue(target, context))
+     * to CompiledExpression.getValue(target, context)), or the active context object
+     * if one has been pushed through {@link #pushActiveContextObject}.
      * @param mv the visitor into which the load instruction should be inserted
      */
     public void loadTarget(MethodVisitor mv) {
-        mv.visitVarInsn(ALOAD, 1);
+        mv.visitVarInsn(ALOAD, (this.activeContextObjects.isEmpty() ? 1 : this.activeContextObjects.peek()));
+    }
+
+    /**
+     * Make the value held in the given variable the active context object, i.e. the
+     * object loaded by {@link #loadTarget}, until {@link #popActiveContextObject} is
+     * called. Used by nodes that evaluate a sub-expression against each element of
+     * a collection, like selection and projection.
+     * @param variableId the variable holding the active context object
+     */
+    public void pushActiveContextObject(int variableId) {
+        this.activeContextObjects.push(variableId);
+    }
+
+    /**
+     * Restore the active context object that was in place before the last call
+     * to {@link #pushActiveContextObject}.
+     */
+    public void popActiveContextObject() {
+        this.activeContextObjects.pop();
     }
 
     /**
@@ -0,0 +1,346 @@
+package com.rocket.summer.framework.expression.spel;
+
+import com.rocket.summer.framework.util.Assert;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks the evaluation of SpEL expressions per expression string: how often an
+ * expression has been evaluated, whether it got compiled, which AST node kept it
+ * from being compiled, and how much time was spent in interpreted and in compiled
+ * evaluation. Allows for identifying frequently evaluated expressions that never
+ * compile, so that they can be rewritten.
+ *
+ * <p>Expressions get tracked when parsed with a {@link SpelParserConfiguration}
+ * that refers to a registry. Parsed expressions that share an expression string
+ * share their statistics. The number of tracked expression strings is limited,
+ * see {@link #setMaxExpressions}.
+ *
+ * <p>Can be exposed via JMX through {@link #registerMBean}.
+ *
+ * @see SpelParserConfiguration#getExpressionRegistry()
+ */
+public class SpelExpressionRegistry implements SpelExpressionRegistryMBean {
+
+    /**
+     * Default JMX object name for a registry.
+     */
+    public static final String DEFAULT_OBJECT_NAME =
+            "com.rocket.summer.framework.expression:type=SpelExpressionRegistry";
+
+    private static final int DEFAULT_MAX_EXPRESSIONS = 1024;
+
+
+    private final ConcurrentMap<String, ExpressionStatistics> statistics =
+            new ConcurrentHashMap<String, ExpressionStatistics>(64);
+
+    private volatile int maxExpressions = DEFAULT_MAX_EXPRESSIONS;
+
+    private ObjectName objectName;
+
+
+    /**
+     * Specify the maximum number of distinct expression strings to track.
+     * Expressions parsed beyond that limit are not tracked. Default is 1024.
+     */
+    public void setMaxExpressions(int maxExpressions) {
+        this.maxExpressions = maxExpressions;
+    }
+
+    /**
+     * Return the maximum number of distinct expression strings to track.
+     */
+    public int getMaxExpressions() {
+        return this.maxExpressions;
+    }
+
+    /**
+     * Return the statistics for the given expression string, creating them
+     * on first access.
+     * @param expressionString the expression string
+     * @return the statistics, or {@code null} if the maximum number of tracked
+     * expressions has been reached
+     */
+    public ExpressionStatistics getStatistics(String expressionString) {
+        ExpressionStatistics expressionStatistics = this.statistics.get(expressionString);
+        if (expressionStatistics == null) {
+            if (this.statistics.size() >= this.maxExpressions) {
+                return null;
+            }
+            expressionStatistics = new ExpressionStatistics(expressionString);
+            ExpressionStatistics existing = this.statistics.putIfAbsent(expressionString, expressionStatistics);
+            if (existing != null) {
+                expressionStatistics = existing;
+            }
+        }
+        return expressionStatistics;
+    }
+
+    /**
+     * Return the statistics for all tracked expressions, most frequently
+     * evaluated first.
+     */
+    public List<ExpressionStatistics> getAllStatistics() {
+        List<ExpressionStatistics> result = new ArrayList<ExpressionStatistics>(this.statistics.values());
+        Collections.sort(result, new Comparator<ExpressionStatistics>() {
+            @Override
+            public int compare(ExpressionStatistics stats1, ExpressionStatistics stats2) {
+                long count1 = stats1.getEvaluationCount();
+                long count2 = stats2.getEvaluationCount();
+                return (count1 > count2 ? -1 : (count1 < count2 ? 1 : 0));
+            }
+        });
+        return result;
+    }
+
+
+    @Override
+    public int getExpressionCount() {
+        return this.statistics.size();
+    }
+
+    @Override
+    public String[] getNonCompiledExpressions() {
+        List<String> result = new ArrayList<String>();
+        for (ExpressionStatistics expressionStatistics : getAllStatistics()) {
+            if (expressionStatistics.getCompilationStatus() != CompilationStatus.COMPILED) {
+                result.add(expressionStatistics.toString());
+            }
+        }
+        return result.toArray(new String[result.size()]);
+    }
+
+    /**
+     * Generate a JSON snapshot of the statistics for all tracked expressions.
+     * <p>This implementation doesn't use any JSON parsing libraries in order to
+     * avoid third-party library dependencies. It produces an array of expression
+     * description objects, most frequently evaluated first.
+     */
+    @Override
+    public String getStatisticsAsJson() {
+        StringBuilder result = new StringBuilder("[\n");
+        for (Iterator<ExpressionStatistics> it = getAllStatistics().iterator(); it.hasNext();) {
+            ExpressionStatistics stats = it.next();
+            result.append("{\n\"expression\": ");
+            appendString(result, stats.getExpressionString());
+            result.append(",\n\"status\": \"").append(stats.getCompilationStatus()).append("\",\n");
+            result.append("\"blockingNode\": ");
+            appendString(result, stats.getBlockingNode());
+            result.append(",\n\"interpretedCount\": ").append(stats.getInterpretedCount());
+            result.append(",\n\"interpretedTimeNanos\": ").append(stats.getInterpretedTimeNanos());
+            result.append(",\n\"compiledCount\": ").append(stats.getCompiledCount());
+            result.append(",\n\"compiledTimeNanos\": ").append(stats.getCompiledTimeNanos());
+            result.append("\n}");
+            if (it.hasNext()) {
+                result.append(",\n");
+            }
+        }
+        result.append("]");
+        return result.toString();
+    }
+
+    /**
+     * Reset the evaluation counts and timings for all tracked expressions.
+     * Compilation status information is retained.
+     */
+    @Override
+    public void reset() {
+        for (ExpressionStatistics expressionStatistics : this.statistics.values()) {
+            expressionStatistics.reset();
+        }
+    }
+
+    private static void appendString(StringBuilder result, String value) {
+        if (value == null) {
+            result.append("null");
+            return;
+        }
+        result.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char character = value.charAt(i);
+            if (character == '"' || character == '\\') {
+                result.append('\\').append(character);
+            }
+            else if (character < ' ') {
+                result.append(' ');
+            }
+            else {
+                result.append(character);
+            }
+        }
+        result.append('"');
+    }
+
+
+    /**
+     * Register this registry with the platform MBeanServer.
+     * @param objectName the JMX object name to use
+     * @see #DEFAULT_OBJECT_NAME
+     */
+    public synchronized void registerMBean(String objectName) {
+        Assert.state(this.objectName == null, "SpelExpressionRegistry MBean already registered");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(objectName);
+            server.registerMBean(this, name);
+            this.objectName = name;
+        }
+        catch (Exception ex) {
+            throw new IllegalStateException("Failed to register SpelExpressionRegistry MBean", ex);
+        }
+    }
+
+    /**
+     * Unregister this registry from the platform MBeanServer, if registered.
+     */
+    public synchronized void unregisterMBean() {
+        if (this.objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(this.objectName);
+            }
+            catch (Exception ex) {
+                throw new IllegalStateException("Failed to unregister SpelExpressionRegistry MBean", ex);
+            }
+            finally {
+                this.objectName = null;
+            }
+        }
+    }
+
+
+    /**
+     * Compilation status of a tracked expression.
+     */
+    public enum CompilationStatus {
+
+        /** Evaluated in interpreted form, not (or no longer) compiled */
+        INTERPRETED,
+
+        /** Evaluated in compiled form */
+        COMPILED,
+
+        /** Compilation has been attempted but was not possible so far */
+        NOT_COMPILABLE,
+
+        /** No longer considered for compilation after too many failed attempts */
+        ABANDONED
+    }
+
+
+    /**
+     * Evaluation statistics for a single expression string.
+     */
+    public static final class ExpressionStatistics {
+
+        private final String expressionString;
+
+        private final AtomicLong interpretedCount = new AtomicLong();
+
+        private final AtomicLong interpretedTimeNanos = new AtomicLong();
+
+        private final AtomicLong compiledCount = new AtomicLong();
+
+        private final AtomicLong compiledTimeNanos = new AtomicLong();
+
+        private volatile CompilationStatus compilationStatus = CompilationStatus.INTERPRETED;
+
+        private volatile String blockingNode;
+
+        ExpressionStatistics(String expressionString) {
+            this.expressionString = expressionString;
+        }
+
+        public String getExpressionString() {
+            return this.expressionString;
+        }
+
+        /**
+         * Record an interpreted evaluation that took the given time.
+         */
+        public void recordInterpretedEvaluation(long nanos) {
+            this.interpretedCount.incrementAndGet();
+            this.interpretedTimeNanos.addAndGet(nanos);
+        }
+
+        /**
+         * Record a compiled evaluation that took the given time.
+         */
+        public void recordCompiledEvaluation(long nanos) {
+            this.compiledCount.incrementAndGet();
+            this.compiledTimeNanos.addAndGet(nanos);
+        }
+
+        /**
+         * Record the outcome of a compilation attempt or a change of evaluation mode.
+         * @param compilationStatus the current compilation status
+         * @param blockingNode a description of the AST node that blocked compilation,
+         * or {@code null} if none
+         */
+        public void recordCompilationStatus(CompilationStatus compilationStatus, String blockingNode) {
+            this.compilationStatus = compilationStatus;
+            this.blockingNode = blockingNode;
+        }
+
+        public long getEvaluationCount() {
+            return this.interpretedCount.get() + this.compiledCount.get();
+        }
+
+        public long getInterpretedCount() {
+            return this.interpretedCount.get();
+        }
+
+        public long getInterpretedTimeNanos() {
+            return this.interpretedTimeNanos.get();
+        }
+
+        public long getCompiledCount() {
+            return this.compiledCount.get();
+        }
+
+        public long getCompiledTimeNanos() {
+            return this.compiledTimeNanos.get();
+        }
+
+        public CompilationStatus getCompilationStatus() {
+            return this.compilationStatus;
+        }
+
+        /**
+         * Return a description of the AST node that blocked the last compilation
+         * attempt, if any.
+         */
+        public String getBlockingNode() {
+            return this.blockingNode;
+        }
+
+        void reset() {
+            this.interpretedCount.set(0);
+            this.interpretedTimeNanos.set(0);
+            this.compiledCount.set(0);
+            this.compiledTimeNanos.set(0);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder(this.expressionString);
+            sb.append(" [evaluations=").append(getEvaluationCount());
+            sb.append(", status=").append(this.compilationStatus);
+            if (this.blockingNode != null) {
+                sb.append(", blockingNode=").append(this.blockingNode);
+            }
+            sb.append(']');
+            return sb.toString();
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.rocket.summer.framework.expression.spel;
+
+/**
+ * MBean operation interface for the {@link SpelExpressionRegistry}.
+ */
+public interface SpelExpressionRegistryMBean {
+
+    /**
+     * Return the number of distinct expressions being tracked.
+     */
+    int getExpressionCount();
+
+    /**
+     * Return a description of each tracked expression that is currently not
+     * compiled, most frequently evaluated first, including its compilation
+     * status and the AST node that blocked its compilation, if known.
+     */
+    String[] getNonCompiledExpressions();
+
+    /**
+     * Generate a JSON snapshot of the statistics for all tracked expressions.
+     */
+    String getStatisticsAsJson();
+
+    /**
+     * Reset the evaluation counts and timings for all tracked expressions.
+     */
+    void reset();
+
+}
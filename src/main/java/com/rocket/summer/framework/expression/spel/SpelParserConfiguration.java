@@ -1,6 +1,7 @@
 package com.rocket.summer.framework.expression.spel;
 
 import com.rocket.summer.framework.core.SpringProperties;
+import com.rocket.summer.framework.util.Assert;
 
 /**
  * Configuration object for the SpEL expression parser.
@@ -13,6 +14,18 @@ import com.rocket.summer.framework.core.SpringProperties;
  */
 public class SpelParserConfiguration {
 
+    /**
+     * Default number of interpreted evaluations before an expression gets compiled
+     * in {@link SpelCompilerMode#MIXED} mode.
+     */
+    public static final int DEFAULT_COMPILATION_THRESHOLD = 100;
+
+    /**
+     * Default number of failed compilation attempts before an expression is
+     * no longer considered for compilation.
+     */
+    public static final int DEFAULT_FAILED_COMPILATION_THRESHOLD = 100;
+
     private static final SpelCompilerMode defaultCompilerMode;
 
     static {
@@ -32,6 +45,12 @@ public class SpelParserConfiguration {
 
     private final int maximumAutoGrowSize;
 
+    private final int compilationThreshold;
+
+    private final int failedCompilationThreshold;
+
+    private final SpelExpressionRegistry expressionRegistry;
+
 
     /**
      * Create a new {@code SpelParserConfiguration} instance with default settings.
@@ -80,11 +99,58 @@ public class SpelParserConfiguration {
     public SpelParserConfiguration(SpelCompilerMode compilerMode, ClassLoader compilerClassLoader,
                                    boolean autoGrowNullReferences, boolean autoGrowCollections, int maximumAutoGrowSize) {
 
+        this(compilerMode, compilerClassLoader, autoGrowNullReferences, autoGrowCollections, maximumAutoGrowSize,
+                DEFAULT_COMPILATION_THRESHOLD, DEFAULT_FAILED_COMPILATION_THRESHOLD, null);
+    }
+
+    /**
+     * Create a new {@code SpelParserConfiguration} instance.
+     * @param compilerMode the compiler mode that parsers using this configuration object should use
+     * @param compilerClassLoader the ClassLoader to use as the basis for expression compilation
+     * @param compilationThreshold the number of interpreted evaluations before an expression
+     * gets compiled in {@link SpelCompilerMode#MIXED} mode
+     * @param failedCompilationThreshold the number of failed compilation attempts before
+     * an expression is no longer considered for compilation
+     * @param expressionRegistry the registry to track the evaluation of parsed expressions in
+     * (may be {@code null})
+     */
+    public SpelParserConfiguration(SpelCompilerMode compilerMode, ClassLoader compilerClassLoader,
+                                   int compilationThreshold, int failedCompilationThreshold,
+                                   SpelExpressionRegistry expressionRegistry) {
+
+        this(compilerMode, compilerClassLoader, false, false, Integer.MAX_VALUE,
+                compilationThreshold, failedCompilationThreshold, expressionRegistry);
+    }
+
+    /**
+     * Create a new {@code SpelParserConfiguration} instance.
+     * @param compilerMode the compiler mode that parsers using this configuration object should use
+     * @param compilerClassLoader the ClassLoader to use as the basis for expression compilation
+     * @param autoGrowNullReferences if null references should automatically grow
+     * @param autoGrowCollections if collections should automatically grow
+     * @param maximumAutoGrowSize the maximum size that the collection can auto grow
+     * @param compilationThreshold the number of interpreted evaluations before an expression
+     * gets compiled in {@link SpelCompilerMode#MIXED} mode
+     * @param failedCompilationThreshold the number of failed compilation attempts before
+     * an expression is no longer considered for compilation
+     * @param expressionRegistry the registry to track the evaluation of parsed expressions in
+     * (may be {@code null})
+     */
+    public SpelParserConfiguration(SpelCompilerMode compilerMode, ClassLoader compilerClassLoader,
+                                   boolean autoGrowNullReferences, boolean autoGrowCollections, int maximumAutoGrowSize,
+                                   int compilationThreshold, int failedCompilationThreshold,
+                                   SpelExpressionRegistry expressionRegistry) {
+
+        Assert.isTrue(compilationThreshold >= 0, "Compilation threshold must not be negative");
+        Assert.isTrue(failedCompilationThreshold >= 0, "Failed compilation threshold must not be negative");
         this.compilerMode = (compilerMode != null ? compilerMode : defaultCompilerMode);
         this.compilerClassLoader = compilerClassLoader;
         this.autoGrowNullReferences = autoGrowNullReferences;
         this.autoGrowCollections = autoGrowCollections;
         this.maximumAutoGrowSize = maximumAutoGrowSize;
+        this.compilationThreshold = compilationThreshold;
+        this.failedCompilationThreshold = failedCompilationThreshold;
+        this.expressionRegistry = expressionRegistry;
     }
 
 
@@ -123,5 +189,28 @@ public class SpelParserConfiguration {
         return this.maximumAutoGrowSize;
     }
 
+    /**
+     * Return the number of interpreted evaluations before an expression gets
+     * compiled in {@link SpelCompilerMode#MIXED} mode.
+     */
+    public int getCompilationThreshold() {
+        return this.compilationThreshold;
+    }
+
+    /**
+     * Return the number of failed compilation attempts before an expression
+     * is no longer considered for compilation.
+     */
+    public int getFailedCompilationThreshold() {
+        return this.failedCompilationThreshold;
+    }
+
+    /**
+     * Return the registry to track the evaluation of parsed expressions in, if any.
+     */
+    public SpelExpressionRegistry getExpressionRegistry() {
+        return this.expressionRegistry;
+    }
+
 }
 
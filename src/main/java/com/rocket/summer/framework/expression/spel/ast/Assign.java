@@ -1,8 +1,11 @@
 package com.rocket.summer.framework.expression.spel.ast;
 
+import com.rocket.summer.framework.expression.EvaluationContext;
 import com.rocket.summer.framework.expression.EvaluationException;
 import com.rocket.summer.framework.expression.TypedValue;
+import com.rocket.summer.framework.expression.spel.CodeFlow;
 import com.rocket.summer.framework.expression.spel.ExpressionState;
+import org.objectweb.asm.MethodVisitor;
 
 /**
  * Represents assignment. An alternative to calling {@code setValue}
@@ -24,6 +27,15 @@ public class Assign extends SpelNodeImpl {
 	public TypedValue getValueInternal(ExpressionState state) throws EvaluationException {
 		TypedValue newValue = this.children[1].getValueInternal(state);
 		getChild(0).setValue(state, newValue.getValue());
+		String valueDescriptor = this.children[1].exitTypeDescriptor;
+		if (this.children[0] instanceof VariableReference && valueDescriptor != null &&
+				((VariableReference) this.children[0]).isRegularVariable()) {
+			this.exitTypeDescriptor = (CodeFlow.isPrimitive(valueDescriptor) ?
+					CodeFlow.toBoxedDescriptor(valueDescriptor) : valueDescriptor);
+		}
+		else {
+			this.exitTypeDescriptor = null;
+		}
 		return newValue;
 	}
 
@@ -32,4 +44,29 @@ public class Assign extends SpelNodeImpl {
 		return getChild(0).toStringAST() + "=" + getChild(1).toStringAST();
 	}
 
+	/**
+	 * Assignments to variables are compilable, assignments to properties are not.
+	 */
+	@Override
+	public boolean isCompilable() {
+		return (this.exitTypeDescriptor != null && this.children[1].isCompilable());
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		String evaluationContextClassName = EvaluationContext.class.getName().replace('.', '/');
+		cf.enterCompilationScope();
+		this.children[1].generateCode(mv, cf);
+		CodeFlow.insertBoxIfNecessary(mv, cf.lastDescriptor());
+		cf.exitCompilationScope();
+		mv.visitInsn(DUP);
+		cf.loadEvaluationContext(mv);
+		mv.visitInsn(SWAP);
+		mv.visitLdcInsn(((VariableReference) this.children[0]).getName());
+		mv.visitInsn(SWAP);
+		mv.visitMethodInsn(INVOKEINTERFACE, evaluationContextClassName, "setVariable",
+				"(Ljava/lang/String;Ljava/lang/Object;)V", true);
+		cf.pushDescriptor(this.exitTypeDescriptor);
+	}
+
 }
@@ -1,12 +1,17 @@
 package com.rocket.summer.framework.expression.spel.ast;
 
+import java.lang.reflect.Modifier;
+
 import com.rocket.summer.framework.expression.AccessException;
 import com.rocket.summer.framework.expression.BeanResolver;
+import com.rocket.summer.framework.expression.EvaluationContext;
 import com.rocket.summer.framework.expression.EvaluationException;
 import com.rocket.summer.framework.expression.TypedValue;
+import com.rocket.summer.framework.expression.spel.CodeFlow;
 import com.rocket.summer.framework.expression.spel.ExpressionState;
 import com.rocket.summer.framework.expression.spel.SpelEvaluationException;
 import com.rocket.summer.framework.expression.spel.SpelMessage;
+import org.objectweb.asm.MethodVisitor;
 
 /**
  * Represents a bean reference to a type, for example <tt>@foo</tt> or <tt>@'foo.bar'</tt>.
@@ -36,7 +41,11 @@ public class BeanReference extends SpelNodeImpl {
 		}
 
 		try {
-			return new TypedValue(beanResolver.resolve(state.getEvaluationContext(), this.beanName));
+			Object bean = beanResolver.resolve(state.getEvaluationContext(), this.beanName);
+			// Only cast to public types in compiled code, see VariableReference
+			this.exitTypeDescriptor = (bean != null && Modifier.isPublic(bean.getClass().getModifiers()) ?
+					CodeFlow.toDescriptorFromObject(bean) : "Ljava/lang/Object");
+			return new TypedValue(bean);
 		}
 		catch (AccessException ex) {
 			throw new SpelEvaluationException(getStartPosition(), ex, SpelMessage.EXCEPTION_DURING_BEAN_RESOLUTION,
@@ -59,4 +68,24 @@ public class BeanReference extends SpelNodeImpl {
 		return sb.toString();
 	}
 
+	@Override
+	public boolean isCompilable() {
+		return (this.exitTypeDescriptor != null);
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		String evaluationContextClassName = EvaluationContext.class.getName().replace('.', '/');
+		String beanResolverClassName = BeanResolver.class.getName().replace('.', '/');
+		cf.loadEvaluationContext(mv);
+		mv.visitMethodInsn(INVOKEINTERFACE, evaluationContextClassName, "getBeanResolver",
+				"()L" + beanResolverClassName + ";", true);
+		cf.loadEvaluationContext(mv);
+		mv.visitLdcInsn(this.beanName);
+		mv.visitMethodInsn(INVOKEINTERFACE, beanResolverClassName, "resolve",
+				"(L" + evaluationContextClassName + ";Ljava/lang/String;)Ljava/lang/Object;", true);
+		CodeFlow.insertCheckCast(mv, this.exitTypeDescriptor);
+		cf.pushDescriptor(this.exitTypeDescriptor);
+	}
+
 }
@@ -64,6 +64,7 @@ public class InlineList extends SpelNodeImpl {
 				}
 			}
 			this.constant = new TypedValue(Collections.unmodifiableList(constantList));
+			this.exitTypeDescriptor = "Ljava/util/List";
 		}
 	}
 
@@ -165,6 +166,15 @@ public class InlineList extends SpelNodeImpl {
 			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "add", "(Ljava/lang/Object;)Z", true);
 			mv.visitInsn(POP);
 		}
+		// Expose an unmodifiable list, just like the interpreted constant
+		if (!nested) {
+			mv.visitFieldInsn(GETSTATIC, clazzname, constantFieldName, "Ljava/util/List;");
+		}
+		mv.visitMethodInsn(INVOKESTATIC, "java/util/Collections", "unmodifiableList",
+				"(Ljava/util/List;)Ljava/util/List;", false);
+		if (!nested) {
+			mv.visitFieldInsn(PUTSTATIC, clazzname, constantFieldName, "Ljava/util/List;");
+		}
 	}
 
 }
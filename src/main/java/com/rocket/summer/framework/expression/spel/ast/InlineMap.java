@@ -6,8 +6,11 @@ import java.util.Map;
 
 import com.rocket.summer.framework.expression.EvaluationException;
 import com.rocket.summer.framework.expression.TypedValue;
+import com.rocket.summer.framework.expression.spel.CodeFlow;
 import com.rocket.summer.framework.expression.spel.ExpressionState;
 import com.rocket.summer.framework.expression.spel.SpelNode;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
 
 /**
  * Represent a map in an expression, e.g. '{name:'foo',age:12}'
@@ -24,6 +27,7 @@ public class InlineMap extends SpelNodeImpl {
 	public InlineMap(int pos, SpelNodeImpl... args) {
 		super(pos, args);
 		checkIfConstant();
+		this.exitTypeDescriptor = "Ljava/util/Map";
 	}
 
 
@@ -143,4 +147,95 @@ public class InlineMap extends SpelNodeImpl {
 		return (Map<Object, Object>) this.constant.getValue();
 	}
 
+	/**
+	 * A constant map is compiled into a static field of the compiled expression class;
+	 * any other map is compilable if its keys and values are.
+	 */
+	@Override
+	public boolean isCompilable() {
+		if (isConstant()) {
+			return true;
+		}
+		for (int c = 0; c < this.children.length; c++) {
+			SpelNodeImpl child = this.children[c];
+			boolean propertyNameKey = (c % 2 == 0 && child instanceof PropertyOrFieldReference);
+			if (!propertyNameKey && !child.isCompilable()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		if (isConstant()) {
+			final String constantFieldName = "inlineMap$" + cf.nextFieldId();
+			final String className = cf.getClassName();
+
+			cf.registerNewField(new CodeFlow.FieldAdder() {
+				public void generateField(ClassWriter cw, CodeFlow codeflow) {
+					cw.visitField(ACC_PRIVATE|ACC_STATIC|ACC_FINAL, constantFieldName, "Ljava/util/Map;", null, null);
+				}
+			});
+
+			cf.registerNewClinit(new CodeFlow.ClinitAdder() {
+				public void generateCode(MethodVisitor mv, CodeFlow codeflow) {
+					generateMapCode(mv, codeflow);
+					mv.visitMethodInsn(INVOKESTATIC, "java/util/Collections", "unmodifiableMap",
+							"(Ljava/util/Map;)Ljava/util/Map;", false);
+					mv.visitFieldInsn(PUTSTATIC, className, constantFieldName, "Ljava/util/Map;");
+				}
+			});
+
+			mv.visitFieldInsn(GETSTATIC, className, constantFieldName, "Ljava/util/Map;");
+		}
+		else {
+			generateMapCode(mv, cf);
+		}
+		cf.pushDescriptor(this.exitTypeDescriptor);
+	}
+
+	/**
+	 * Generate code that builds a new map holding the keys and values of this node.
+	 * Nested constant lists and maps are built in place, rather than through their
+	 * generateCode() method which would register further static fields.
+	 */
+	private void generateMapCode(MethodVisitor mv, CodeFlow cf) {
+		mv.visitTypeInsn(NEW, "java/util/LinkedHashMap");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/util/LinkedHashMap", "<init>", "()V", false);
+		for (int c = 0; c < this.children.length; c++) {
+			mv.visitInsn(DUP);
+			SpelNodeImpl keyChild = this.children[c++];
+			if (keyChild instanceof PropertyOrFieldReference) {
+				mv.visitLdcInsn(((PropertyOrFieldReference) keyChild).getName());
+			}
+			else {
+				generateEntryCode(mv, cf, keyChild);
+			}
+			generateEntryCode(mv, cf, this.children[c]);
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "put",
+					"(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", true);
+			mv.visitInsn(POP);
+		}
+	}
+
+	private void generateEntryCode(MethodVisitor mv, CodeFlow cf, SpelNodeImpl child) {
+		if (isConstant() && child instanceof InlineList) {
+			((InlineList) child).generateClinitCode(cf.getClassName(), null, mv, cf, true);
+		}
+		else if (isConstant() && child instanceof InlineMap) {
+			InlineMap inlineMap = (InlineMap) child;
+			inlineMap.generateMapCode(mv, cf);
+			mv.visitMethodInsn(INVOKESTATIC, "java/util/Collections", "unmodifiableMap",
+					"(Ljava/util/Map;)Ljava/util/Map;", false);
+		}
+		else {
+			cf.enterCompilationScope();
+			child.generateCode(mv, cf);
+			CodeFlow.insertBoxIfNecessary(mv, cf.lastDescriptor());
+			cf.exitCompilationScope();
+		}
+	}
+
 }
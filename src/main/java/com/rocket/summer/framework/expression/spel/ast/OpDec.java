@@ -6,10 +6,12 @@ import java.math.BigInteger;
 import com.rocket.summer.framework.expression.EvaluationException;
 import com.rocket.summer.framework.expression.Operation;
 import com.rocket.summer.framework.expression.TypedValue;
+import com.rocket.summer.framework.expression.spel.CodeFlow;
 import com.rocket.summer.framework.expression.spel.ExpressionState;
 import com.rocket.summer.framework.expression.spel.SpelEvaluationException;
 import com.rocket.summer.framework.expression.spel.SpelMessage;
 import com.rocket.summer.framework.util.Assert;
+import org.objectweb.asm.MethodVisitor;
 
 /**
  * Decrement operator.  Can be used in a prefix or postfix form. This will throw
@@ -112,6 +114,7 @@ public class OpDec extends Operator {
 			returnValue = newValue;
 		}
 
+		this.exitTypeDescriptor = determineIncrementExitTypeDescriptor(operandValue);
 		return returnValue;
 	}
 
@@ -125,4 +128,14 @@ public class OpDec extends Operator {
 		return null;
 	}
 
+	@Override
+	public boolean isCompilable() {
+		return (this.exitTypeDescriptor != null);
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		generateIncrementCode(mv, cf, false, this.postfix);
+	}
+
 }
@@ -6,10 +6,12 @@ import java.math.BigInteger;
 import com.rocket.summer.framework.expression.EvaluationException;
 import com.rocket.summer.framework.expression.Operation;
 import com.rocket.summer.framework.expression.TypedValue;
+import com.rocket.summer.framework.expression.spel.CodeFlow;
 import com.rocket.summer.framework.expression.spel.ExpressionState;
 import com.rocket.summer.framework.expression.spel.SpelEvaluationException;
 import com.rocket.summer.framework.expression.spel.SpelMessage;
 import com.rocket.summer.framework.util.Assert;
+import org.objectweb.asm.MethodVisitor;
 
 /**
  * Increment operator. Can be used in a prefix or postfix form. This will throw
@@ -107,6 +109,7 @@ public class OpInc extends Operator {
 			returnValue = newValue;
 		}
 
+		this.exitTypeDescriptor = determineIncrementExitTypeDescriptor(value);
 		return returnValue;
 	}
 
@@ -120,4 +123,14 @@ public class OpInc extends Operator {
 		return null;
 	}
 
+	@Override
+	public boolean isCompilable() {
+		return (this.exitTypeDescriptor != null);
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		generateIncrementCode(mv, cf, true, this.postfix);
+	}
+
 }
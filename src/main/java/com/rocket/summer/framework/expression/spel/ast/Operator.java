@@ -231,6 +231,77 @@ public abstract class Operator extends SpelNodeImpl {
 		cf.pushDescriptor("Z");
 	}
 
+	/**
+	 * Determine the exit type descriptor for incrementing or decrementing the left
+	 * operand, given its current value. Only variables holding an int, long, float
+	 * or double value can be incremented or decremented by compiled code.
+	 * @param value the current value of the left operand
+	 * @return the boxed descriptor of the value, or {@code null} if not compilable
+	 */
+	protected String determineIncrementExitTypeDescriptor(Object value) {
+		SpelNodeImpl operand = getLeftOperand();
+		if (!(operand instanceof VariableReference) || !((VariableReference) operand).isRegularVariable()) {
+			return null;
+		}
+		if (value instanceof Integer || value instanceof Long || value instanceof Float || value instanceof Double) {
+			return CodeFlow.toDescriptorFromObject(value);
+		}
+		return null;
+	}
+
+	/**
+	 * Increment and decrement operators share very similar generated code, only differing
+	 * in the arithmetic instruction and in which value is returned.
+	 * @param increment whether to increment or to decrement the variable
+	 * @param postfix whether to return the original value rather than the new value
+	 * @see #determineIncrementExitTypeDescriptor
+	 */
+	protected void generateIncrementCode(MethodVisitor mv, CodeFlow cf, boolean increment, boolean postfix) {
+		String evaluationContextClassName = EvaluationContext.class.getName().replace('.', '/');
+		String variableName = ((VariableReference) getLeftOperand()).getName();
+		String descriptor = this.exitTypeDescriptor;
+		char targetType = CodeFlow.toPrimitiveTargetDesc(descriptor);
+
+		cf.loadEvaluationContext(mv);
+		mv.visitLdcInsn(variableName);
+		mv.visitMethodInsn(INVOKEINTERFACE, evaluationContextClassName, "lookupVariable",
+				"(Ljava/lang/String;)Ljava/lang/Object;", true);
+		CodeFlow.insertCheckCast(mv, descriptor);
+		mv.visitInsn(DUP);
+		CodeFlow.insertUnboxInsns(mv, targetType, descriptor);
+		if (targetType == 'D') {
+			mv.visitInsn(DCONST_1);
+			mv.visitInsn(increment ? DADD : DSUB);
+		}
+		else if (targetType == 'F') {
+			mv.visitInsn(FCONST_1);
+			mv.visitInsn(increment ? FADD : FSUB);
+		}
+		else if (targetType == 'J') {
+			mv.visitInsn(LCONST_1);
+			mv.visitInsn(increment ? LADD : LSUB);
+		}
+		else {
+			mv.visitInsn(ICONST_1);
+			mv.visitInsn(increment ? IADD : ISUB);
+		}
+		CodeFlow.insertBoxIfNecessary(mv, targetType);
+		// stack: original/new
+		if (!postfix) {
+			mv.visitInsn(SWAP);
+			mv.visitInsn(POP);
+			mv.visitInsn(DUP);
+		}
+		// stack: result/new
+		cf.loadEvaluationContext(mv);
+		mv.visitInsn(SWAP);
+		mv.visitLdcInsn(variableName);
+		mv.visitInsn(SWAP);
+		mv.visitMethodInsn(INVOKEINTERFACE, evaluationContextClassName, "setVariable",
+				"(Ljava/lang/String;Ljava/lang/Object;)V", true);
+		cf.pushDescriptor(descriptor);
+	}
+
 
 	/**
 	 * Perform an equality check for the given operand values.
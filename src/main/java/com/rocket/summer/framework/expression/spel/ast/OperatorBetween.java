@@ -3,11 +3,14 @@ package com.rocket.summer.framework.expression.spel.ast;
 import java.util.List;
 
 import com.rocket.summer.framework.expression.EvaluationException;
+import com.rocket.summer.framework.expression.EvaluationContext;
 import com.rocket.summer.framework.expression.TypeComparator;
+import com.rocket.summer.framework.expression.spel.CodeFlow;
 import com.rocket.summer.framework.expression.spel.ExpressionState;
 import com.rocket.summer.framework.expression.spel.SpelEvaluationException;
 import com.rocket.summer.framework.expression.spel.SpelMessage;
 import com.rocket.summer.framework.expression.spel.support.BooleanTypedValue;
+import org.objectweb.asm.MethodVisitor;
 
 /**
  * Represents the between operator. The left operand to between must be a single value and
@@ -22,6 +25,7 @@ public class OperatorBetween extends Operator {
 
 	public OperatorBetween(int pos, SpelNodeImpl... operands) {
 		super("between", pos, operands);
+		this.exitTypeDescriptor = "Z";
 	}
 
 
@@ -42,12 +46,8 @@ public class OperatorBetween extends Operator {
 					SpelMessage.BETWEEN_RIGHT_OPERAND_MUST_BE_TWO_ELEMENT_LIST);
 		}
 
-		List<?> list = (List<?>) right;
-		Object low = list.get(0);
-		Object high = list.get(1);
-		TypeComparator comp = state.getTypeComparator();
 		try {
-			return BooleanTypedValue.forValue(comp.compare(left, low) >= 0 && comp.compare(left, high) <= 0);
+			return BooleanTypedValue.forValue(between(state.getTypeComparator(), left, (List<?>) right));
 		}
 		catch (SpelEvaluationException ex) {
 			ex.setPosition(getStartPosition());
@@ -55,4 +55,49 @@ public class OperatorBetween extends Operator {
 		}
 	}
 
+	@Override
+	public boolean isCompilable() {
+		SpelNodeImpl left = getLeftOperand();
+		SpelNodeImpl right = getRightOperand();
+		return (left.isCompilable() && right.isCompilable() && left.exitTypeDescriptor != null &&
+				"Ljava/util/List".equals(right.exitTypeDescriptor));
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		String evaluationContextClassName = EvaluationContext.class.getName().replace('.', '/');
+		String typeComparatorClassName = TypeComparator.class.getName().replace('.', '/');
+		cf.loadEvaluationContext(mv);
+		mv.visitMethodInsn(INVOKEINTERFACE, evaluationContextClassName, "getTypeComparator",
+				"()L" + typeComparatorClassName + ";", true);
+
+		cf.enterCompilationScope();
+		getLeftOperand().generateCode(mv, cf);
+		CodeFlow.insertBoxIfNecessary(mv, cf.lastDescriptor());
+		cf.exitCompilationScope();
+		cf.enterCompilationScope();
+		getRightOperand().generateCode(mv, cf);
+		cf.exitCompilationScope();
+
+		String operatorClassName = OperatorBetween.class.getName().replace('.', '/');
+		mv.visitMethodInsn(INVOKESTATIC, operatorClassName, "between",
+				"(L" + typeComparatorClassName + ";Ljava/lang/Object;Ljava/util/List;)Z", false);
+		cf.pushDescriptor("Z");
+	}
+
+	/**
+	 * Determine whether the given value lies within the given range, inclusive of
+	 * both bounds. Also called from compiled expressions.
+	 * @param comparator the comparator to use
+	 * @param value the value to check
+	 * @param range a list holding the lower and the upper bound
+	 * @return {@code true} if the value is in the range specified, false otherwise
+	 */
+	public static boolean between(TypeComparator comparator, Object value, List<?> range) {
+		if (range.size() != 2) {
+			throw new SpelEvaluationException(SpelMessage.BETWEEN_RIGHT_OPERAND_MUST_BE_TWO_ELEMENT_LIST);
+		}
+		return (comparator.compare(value, range.get(0)) >= 0 && comparator.compare(value, range.get(1)) <= 0);
+	}
+
 }
@@ -7,10 +7,13 @@ import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 import com.rocket.summer.framework.expression.EvaluationException;
+import com.rocket.summer.framework.expression.spel.CodeFlow;
 import com.rocket.summer.framework.expression.spel.ExpressionState;
 import com.rocket.summer.framework.expression.spel.SpelEvaluationException;
 import com.rocket.summer.framework.expression.spel.SpelMessage;
 import com.rocket.summer.framework.expression.spel.support.BooleanTypedValue;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
 
 /**
  * Implements the matches operator. Matches takes two operands:
@@ -31,6 +34,7 @@ public class OperatorMatches extends Operator {
 
 	public OperatorMatches(int pos, SpelNodeImpl... operands) {
 		super("matches", pos, operands);
+		this.exitTypeDescriptor = "Z";
 	}
 
 
@@ -65,8 +69,7 @@ public class OperatorMatches extends Operator {
 				pattern = Pattern.compile(rightString);
 				this.patternCache.putIfAbsent(rightString, pattern);
 			}
-			Matcher matcher = pattern.matcher(new MatcherInput(left, new AccessCount()));
-			return BooleanTypedValue.forValue(matcher.matches());
+			return BooleanTypedValue.forValue(matches(pattern, left));
 		}
 		catch (PatternSyntaxException ex) {
 			throw new SpelEvaluationException(
@@ -78,6 +81,68 @@ public class OperatorMatches extends Operator {
 		}
 	}
 
+	/**
+	 * Compilable if the left operand is a reference (expected to be a String in compiled
+	 * code) and the regex is a String literal, which gets compiled into a {@link Pattern}
+	 * once per compiled expression class.
+	 */
+	@Override
+	public boolean isCompilable() {
+		SpelNodeImpl leftOp = getLeftOperand();
+		SpelNodeImpl rightOp = getRightOperand();
+		return (leftOp.isCompilable() && leftOp.exitTypeDescriptor != null &&
+				!CodeFlow.isPrimitive(leftOp.exitTypeDescriptor) &&
+				rightOp instanceof StringLiteral &&
+				this.patternCache.containsKey(((StringLiteral) rightOp).getLiteralValue().getValue()));
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		final String regex = (String) ((StringLiteral) getRightOperand()).getLiteralValue().getValue();
+		final String patternFieldName = "pattern$" + cf.nextFieldId();
+		final String className = cf.getClassName();
+
+		cf.registerNewField(new CodeFlow.FieldAdder() {
+			public void generateField(ClassWriter cw, CodeFlow codeflow) {
+				cw.visitField(ACC_PRIVATE|ACC_STATIC|ACC_FINAL, patternFieldName, "Ljava/util/regex/Pattern;", null, null);
+			}
+		});
+
+		cf.registerNewClinit(new CodeFlow.ClinitAdder() {
+			public void generateCode(MethodVisitor mv, CodeFlow codeflow) {
+				mv.visitLdcInsn(regex);
+				mv.visitMethodInsn(INVOKESTATIC, "java/util/regex/Pattern", "compile",
+						"(Ljava/lang/String;)Ljava/util/regex/Pattern;", false);
+				mv.visitFieldInsn(PUTSTATIC, className, patternFieldName, "Ljava/util/regex/Pattern;");
+			}
+		});
+
+		mv.visitFieldInsn(GETSTATIC, className, patternFieldName, "Ljava/util/regex/Pattern;");
+		cf.enterCompilationScope();
+		getLeftOperand().generateCode(mv, cf);
+		cf.exitCompilationScope();
+		if (!"Ljava/lang/String".equals(getLeftOperand().exitTypeDescriptor)) {
+			mv.visitTypeInsn(CHECKCAST, "java/lang/String");
+		}
+		String operatorClassName = OperatorMatches.class.getName().replace('.', '/');
+		mv.visitMethodInsn(INVOKESTATIC, operatorClassName, "matches",
+				"(Ljava/util/regex/Pattern;Ljava/lang/String;)Z", false);
+		cf.pushDescriptor("Z");
+	}
+
+	/**
+	 * Match the given input against the given pattern, giving up on patterns that
+	 * require excessive backtracking. Also called from compiled expressions.
+	 * @param pattern the pattern to match against
+	 * @param input the input to match
+	 * @return {@code true} if the entire input matches the pattern
+	 * @throws IllegalStateException if the pattern access threshold has been exceeded
+	 */
+	public static boolean matches(Pattern pattern, String input) {
+		Matcher matcher = pattern.matcher(new MatcherInput(input, new AccessCount()));
+		return matcher.matches();
+	}
+
 
 	private static class AccessCount {
 
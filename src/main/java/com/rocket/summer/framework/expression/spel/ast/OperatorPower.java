@@ -6,8 +6,11 @@ import java.math.BigInteger;
 import com.rocket.summer.framework.expression.EvaluationException;
 import com.rocket.summer.framework.expression.Operation;
 import com.rocket.summer.framework.expression.TypedValue;
+import com.rocket.summer.framework.expression.spel.CodeFlow;
 import com.rocket.summer.framework.expression.spel.ExpressionState;
 import com.rocket.summer.framework.util.NumberUtils;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
 
 /**
  * The power operator.
@@ -30,6 +33,7 @@ public class OperatorPower extends Operator {
 
 		Object leftOperand = leftOp.getValueInternal(state).getValue();
 		Object rightOperand = rightOp.getValueInternal(state).getValue();
+		this.exitTypeDescriptor = determineExitTypeDescriptor(leftOp.exitTypeDescriptor, rightOp.exitTypeDescriptor);
 
 		if (leftOperand instanceof Number && rightOperand instanceof Number) {
 			Number leftNumber = (Number) leftOperand;
@@ -62,4 +66,80 @@ public class OperatorPower extends Operator {
 		return state.operate(Operation.POWER, leftOperand, rightOperand);
 	}
 
+	/**
+	 * Determine the type of the result for operands of the given types: {@code double}
+	 * if either operand is a floating point number, {@code long} if either operand is a
+	 * long, and an {@code Integer} or {@code Long} depending on the magnitude of the
+	 * result otherwise.
+	 * @return the descriptor, or {@code null} if the operands are not supported numbers
+	 */
+	private static String determineExitTypeDescriptor(String leftDesc, String rightDesc) {
+		if (!CodeFlow.isPrimitiveOrUnboxableSupportedNumber(leftDesc) ||
+				!CodeFlow.isPrimitiveOrUnboxableSupportedNumber(rightDesc)) {
+			return null;
+		}
+		char left = CodeFlow.toPrimitiveTargetDesc(leftDesc);
+		char right = CodeFlow.toPrimitiveTargetDesc(rightDesc);
+		if (left == 'D' || left == 'F' || right == 'D' || right == 'F') {
+			return "D";
+		}
+		if (left == 'J' || right == 'J') {
+			return "J";
+		}
+		return "Ljava/lang/Number";
+	}
+
+	@Override
+	public boolean isCompilable() {
+		return (this.exitTypeDescriptor != null &&
+				getLeftOperand().isCompilable() && getRightOperand().isCompilable());
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		generateOperandCode(mv, cf, getLeftOperand());
+		generateOperandCode(mv, cf, getRightOperand());
+		mv.visitMethodInsn(INVOKESTATIC, "java/lang/Math", "pow", "(DD)D", false);
+		if ("J".equals(this.exitTypeDescriptor)) {
+			mv.visitInsn(D2L);
+		}
+		else if (!"D".equals(this.exitTypeDescriptor)) {
+			// Integer result unless out of int range
+			Label intResult = new Label();
+			Label endOfIf = new Label();
+			mv.visitInsn(DUP2);
+			mv.visitLdcInsn((double) Integer.MAX_VALUE);
+			mv.visitInsn(DCMPL);
+			mv.visitJumpInsn(IFLE, intResult);
+			mv.visitInsn(D2L);
+			mv.visitMethodInsn(INVOKESTATIC, "java/lang/Long", "valueOf", "(J)Ljava/lang/Long;", false);
+			mv.visitJumpInsn(GOTO, endOfIf);
+			mv.visitLabel(intResult);
+			mv.visitInsn(D2I);
+			mv.visitMethodInsn(INVOKESTATIC, "java/lang/Integer", "valueOf", "(I)Ljava/lang/Integer;", false);
+			mv.visitLabel(endOfIf);
+		}
+		cf.pushDescriptor(this.exitTypeDescriptor);
+	}
+
+	private static void generateOperandCode(MethodVisitor mv, CodeFlow cf, SpelNodeImpl operand) {
+		String operandDesc = operand.exitTypeDescriptor;
+		char targetDesc = CodeFlow.toPrimitiveTargetDesc(operandDesc);
+		cf.enterCompilationScope();
+		operand.generateCode(mv, cf);
+		cf.exitCompilationScope();
+		if (!CodeFlow.isPrimitive(operandDesc)) {
+			CodeFlow.insertUnboxInsns(mv, targetDesc, operandDesc);
+		}
+		if (targetDesc == 'I') {
+			mv.visitInsn(I2D);
+		}
+		else if (targetDesc == 'J') {
+			mv.visitInsn(L2D);
+		}
+		else if (targetDesc == 'F') {
+			mv.visitInsn(F2D);
+		}
+	}
+
 }
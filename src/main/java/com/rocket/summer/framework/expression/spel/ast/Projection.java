@@ -8,11 +8,14 @@ import java.util.Map;
 
 import com.rocket.summer.framework.expression.EvaluationException;
 import com.rocket.summer.framework.expression.TypedValue;
+import com.rocket.summer.framework.expression.spel.CodeFlow;
 import com.rocket.summer.framework.expression.spel.ExpressionState;
 import com.rocket.summer.framework.expression.spel.SpelEvaluationException;
 import com.rocket.summer.framework.expression.spel.SpelMessage;
 import com.rocket.summer.framework.util.ClassUtils;
 import com.rocket.summer.framework.util.ObjectUtils;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
 
 /**
  * Represents projection, where a given operation is performed on all elements in some
@@ -28,6 +31,9 @@ public class Projection extends SpelNodeImpl {
 
 	private final boolean nullSafe;
 
+	// The type of operand seen during interpretation, see mergeIterableOperandType
+	private volatile String operandType;
+
 
 	public Projection(boolean nullSafe, int pos, SpelNodeImpl expression) {
 		super(pos, expression);
@@ -48,6 +54,11 @@ public class Projection extends SpelNodeImpl {
 		boolean operandIsArray = ObjectUtils.isArray(operand);
 		// TypeDescriptor operandTypeDescriptor = op.getTypeDescriptor();
 
+		if (operand != null) {
+			this.operandType = mergeIterableOperandType(this.operandType, operand);
+			this.exitTypeDescriptor = (operandIsArray ? "Ljava/lang/Object" : "Ljava/util/List");
+		}
+
 		// When the input is a map, we push a special context object on the stack
 		// before calling the specified operation. This special context object
 		// has two fields 'key' and 'value' that refer to the map entries key
@@ -122,6 +133,70 @@ public class Projection extends SpelNodeImpl {
 		return "![" + getChild(0).toStringAST() + "]";
 	}
 
+	/**
+	 * Projection is compilable for Map and Iterable operands, as long as the projection
+	 * expression does not refer to the '#index' scope variable.
+	 */
+	@Override
+	public boolean isCompilable() {
+		SpelNodeImpl expression = this.children[0];
+		return (this.exitTypeDescriptor != null && this.operandType != null && this.operandType.length() > 0 &&
+				expression.isCompilable() && !"V".equals(expression.exitTypeDescriptor) &&
+				!containsVariableReference(expression, "index"));
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		int iteratorVariable = cf.nextFreeVariableId();
+		int elementVariable = cf.nextFreeVariableId();
+		int resultVariable = cf.nextFreeVariableId();
+		Label endOfProjection = new Label();
+
+		if (cf.lastDescriptor() == null) {
+			cf.loadTarget(mv);
+		}
+		if (this.nullSafe) {
+			Label operandNotNull = new Label();
+			mv.visitInsn(DUP);
+			mv.visitJumpInsn(IFNONNULL, operandNotNull);
+			// A null operand is the result of a null-safe projection
+			mv.visitJumpInsn(GOTO, endOfProjection);
+			mv.visitLabel(operandNotNull);
+		}
+		generateIteratorCode(mv, this.operandType, iteratorVariable);
+		mv.visitTypeInsn(NEW, "java/util/ArrayList");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/util/ArrayList", "<init>", "()V", false);
+		mv.visitVarInsn(ASTORE, resultVariable);
+
+		Label nextElement = new Label();
+		Label endOfLoop = new Label();
+		mv.visitLabel(nextElement);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "hasNext", "()Z", true);
+		mv.visitJumpInsn(IFEQ, endOfLoop);
+		mv.visitVarInsn(ALOAD, resultVariable);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "next", "()Ljava/lang/Object;", true);
+		mv.visitVarInsn(ASTORE, elementVariable);
+
+		// Evaluate the projection expression against the current element
+		cf.pushActiveContextObject(elementVariable);
+		cf.enterCompilationScope();
+		this.children[0].generateCode(mv, cf);
+		CodeFlow.insertBoxIfNecessary(mv, cf.lastDescriptor());
+		cf.exitCompilationScope();
+		cf.popActiveContextObject();
+
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "add", "(Ljava/lang/Object;)Z", true);
+		mv.visitInsn(POP);
+		mv.visitJumpInsn(GOTO, nextElement);
+		mv.visitLabel(endOfLoop);
+		mv.visitVarInsn(ALOAD, resultVariable);
+		mv.visitLabel(endOfProjection);
+		cf.pushDescriptor(this.exitTypeDescriptor);
+	}
+
 	private Class<?> determineCommonType(Class<?> oldType, Class<?> newType) {
 		if (oldType == null) {
 			return newType;
@@ -2,7 +2,9 @@ package com.rocket.summer.framework.expression.spel.ast;
 
 import com.rocket.summer.framework.expression.EvaluationException;
 import com.rocket.summer.framework.expression.TypedValue;
+import com.rocket.summer.framework.expression.spel.CodeFlow;
 import com.rocket.summer.framework.expression.spel.ExpressionState;
+import org.objectweb.asm.MethodVisitor;
 
 /**
  * Represents a dot separated sequence of strings that indicate a package qualified type
@@ -37,6 +39,7 @@ public class QualifiedIdentifier extends SpelNodeImpl {
 				sb.append(value);
 			}
 			this.value = new TypedValue(sb.toString());
+			this.exitTypeDescriptor = "Ljava/lang/String";
 		}
 		return this.value;
 	}
@@ -58,4 +61,15 @@ public class QualifiedIdentifier extends SpelNodeImpl {
 		return sb.toString();
 	}
 
+	@Override
+	public boolean isCompilable() {
+		return (this.value != null);
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		mv.visitLdcInsn(this.value.getValue());
+		cf.pushDescriptor(this.exitTypeDescriptor);
+	}
+
 }
@@ -9,12 +9,15 @@ import java.util.Map;
 
 import com.rocket.summer.framework.expression.EvaluationException;
 import com.rocket.summer.framework.expression.TypedValue;
+import com.rocket.summer.framework.expression.spel.CodeFlow;
 import com.rocket.summer.framework.expression.spel.ExpressionState;
 import com.rocket.summer.framework.expression.spel.SpelEvaluationException;
 import com.rocket.summer.framework.expression.spel.SpelMessage;
 import com.rocket.summer.framework.util.Assert;
 import com.rocket.summer.framework.util.ClassUtils;
 import com.rocket.summer.framework.util.ObjectUtils;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
 
 /**
  * Represents selection over a map or collection.
@@ -41,6 +44,9 @@ public class Selection extends SpelNodeImpl {
 
 	private final boolean nullSafe;
 
+	// The type of operand seen during interpretation, see mergeIterableOperandType
+	private volatile String operandType;
+
 
 	public Selection(boolean nullSafe, int variant, int pos, SpelNodeImpl expression) {
 		super(pos, expression);
@@ -61,6 +67,12 @@ public class Selection extends SpelNodeImpl {
 		Object operand = op.getValue();
 		SpelNodeImpl selectionCriteria = this.children[0];
 
+		if (operand != null) {
+			this.operandType = mergeIterableOperandType(this.operandType, operand);
+			this.exitTypeDescriptor = (operand instanceof Map ? "Ljava/util/Map" :
+					(this.variant == ALL ? "Ljava/util/List" : "Ljava/lang/Object"));
+		}
+
 		if (operand instanceof Map) {
 			Map<?, ?> mapdata = (Map<?, ?>) operand;
 			// TODO don't lose generic info for the new map
@@ -184,4 +196,143 @@ public class Selection extends SpelNodeImpl {
 		return sb.append(getChild(0).toStringAST()).append("]").toString();
 	}
 
+	/**
+	 * Selection is compilable for Map and Iterable operands, as long as the selection
+	 * criteria do not refer to the '#index' scope variable.
+	 */
+	@Override
+	public boolean isCompilable() {
+		SpelNodeImpl selectionCriteria = this.children[0];
+		return (this.exitTypeDescriptor != null && this.operandType != null && this.operandType.length() > 0 &&
+				selectionCriteria.isCompilable() &&
+				CodeFlow.isBooleanCompatible(selectionCriteria.exitTypeDescriptor) &&
+				!containsVariableReference(selectionCriteria, "index"));
+	}
+
+	@Override
+	public void generateCode(MethodVisitor mv, CodeFlow cf) {
+		boolean mapOperand = "java/util/Map".equals(this.operandType);
+		int iteratorVariable = cf.nextFreeVariableId();
+		int elementVariable = cf.nextFreeVariableId();
+		int resultVariable = cf.nextFreeVariableId();
+		Label endOfSelection = new Label();
+
+		if (cf.lastDescriptor() == null) {
+			cf.loadTarget(mv);
+		}
+		if (this.nullSafe) {
+			Label operandNotNull = new Label();
+			mv.visitInsn(DUP);
+			mv.visitJumpInsn(IFNONNULL, operandNotNull);
+			// A null operand is the result of a null-safe selection
+			mv.visitJumpInsn(GOTO, endOfSelection);
+			mv.visitLabel(operandNotNull);
+		}
+		generateIteratorCode(mv, this.operandType, iteratorVariable);
+
+		if (this.variant == ALL) {
+			String resultType = (mapOperand ? "java/util/HashMap" : "java/util/ArrayList");
+			mv.visitTypeInsn(NEW, resultType);
+			mv.visitInsn(DUP);
+			mv.visitMethodInsn(INVOKESPECIAL, resultType, "<init>", "()V", false);
+			mv.visitVarInsn(ASTORE, resultVariable);
+		}
+		else if (this.variant == LAST) {
+			mv.visitInsn(ACONST_NULL);
+			mv.visitVarInsn(ASTORE, resultVariable);
+		}
+
+		Label nextElement = new Label();
+		Label endOfLoop = new Label();
+		mv.visitLabel(nextElement);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "hasNext", "()Z", true);
+		mv.visitJumpInsn(IFEQ, endOfLoop);
+		mv.visitVarInsn(ALOAD, iteratorVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Iterator", "next", "()Ljava/lang/Object;", true);
+		mv.visitVarInsn(ASTORE, elementVariable);
+
+		// Evaluate the selection criteria against the current element
+		cf.pushActiveContextObject(elementVariable);
+		cf.enterCompilationScope();
+		this.children[0].generateCode(mv, cf);
+		cf.unboxBooleanIfNecessary(mv);
+		cf.exitCompilationScope();
+		cf.popActiveContextObject();
+		mv.visitJumpInsn(IFEQ, nextElement);
+
+		if (this.variant == FIRST) {
+			if (mapOperand) {
+				generateSingleEntryMapCode(mv, elementVariable);
+			}
+			else {
+				mv.visitVarInsn(ALOAD, elementVariable);
+			}
+			mv.visitJumpInsn(GOTO, endOfSelection);
+		}
+		else if (this.variant == LAST) {
+			mv.visitVarInsn(ALOAD, elementVariable);
+			mv.visitVarInsn(ASTORE, resultVariable);
+		}
+		else if (mapOperand) {
+			mv.visitVarInsn(ALOAD, resultVariable);
+			generateEntryKeyAndValueCode(mv, elementVariable);
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "put",
+					"(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", true);
+			mv.visitInsn(POP);
+		}
+		else {
+			mv.visitVarInsn(ALOAD, resultVariable);
+			mv.visitVarInsn(ALOAD, elementVariable);
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/List", "add", "(Ljava/lang/Object;)Z", true);
+			mv.visitInsn(POP);
+		}
+		mv.visitJumpInsn(GOTO, nextElement);
+		mv.visitLabel(endOfLoop);
+
+		if (this.variant == FIRST) {
+			mv.visitInsn(ACONST_NULL);
+		}
+		else if (this.variant == LAST && mapOperand) {
+			Label lastEntryFound = new Label();
+			mv.visitVarInsn(ALOAD, resultVariable);
+			mv.visitJumpInsn(IFNONNULL, lastEntryFound);
+			mv.visitInsn(ACONST_NULL);
+			mv.visitJumpInsn(GOTO, endOfSelection);
+			mv.visitLabel(lastEntryFound);
+			generateSingleEntryMapCode(mv, resultVariable);
+		}
+		else {
+			mv.visitVarInsn(ALOAD, resultVariable);
+		}
+		mv.visitLabel(endOfSelection);
+		cf.pushDescriptor(this.exitTypeDescriptor);
+	}
+
+	/**
+	 * Generate code that pushes a new map holding the Map.Entry in the given variable.
+	 */
+	private static void generateSingleEntryMapCode(MethodVisitor mv, int entryVariable) {
+		mv.visitTypeInsn(NEW, "java/util/HashMap");
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, "java/util/HashMap", "<init>", "()V", false);
+		mv.visitInsn(DUP);
+		generateEntryKeyAndValueCode(mv, entryVariable);
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "put",
+				"(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;", true);
+		mv.visitInsn(POP);
+	}
+
+	/**
+	 * Generate code that pushes the key and the value of the Map.Entry in the given variable.
+	 */
+	private static void generateEntryKeyAndValueCode(MethodVisitor mv, int entryVariable) {
+		mv.visitVarInsn(ALOAD, entryVariable);
+		mv.visitTypeInsn(CHECKCAST, "java/util/Map$Entry");
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map$Entry", "getKey", "()Ljava/lang/Object;", true);
+		mv.visitVarInsn(ALOAD, entryVariable);
+		mv.visitTypeInsn(CHECKCAST, "java/util/Map$Entry");
+		mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map$Entry", "getValue", "()Ljava/lang/Object;", true);
+	}
+
 }
@@ -3,6 +3,7 @@ package com.rocket.summer.framework.expression.spel.ast;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.util.Map;
 
 import com.rocket.summer.framework.expression.EvaluationException;
 import com.rocket.summer.framework.expression.TypedValue;
@@ -280,4 +281,55 @@ public abstract class SpelNodeImpl implements SpelNode, Opcodes {
 		}
 		cf.exitCompilationScope();
 	}
+
+	/**
+	 * Determine whether the given node or any of its descendants references the variable
+	 * with the given name, e.g. a scope variable like '#index' that is only available
+	 * to interpreted evaluation.
+	 */
+	protected static boolean containsVariableReference(SpelNode node, String variableName) {
+		if (node instanceof VariableReference && ((VariableReference) node).getName().equals(variableName)) {
+			return true;
+		}
+		for (int i = 0; i < node.getChildCount(); i++) {
+			if (containsVariableReference(node.getChild(i), variableName)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Merge the type of the given collection operand into the operand type seen so far
+	 * by a node that iterates over its operand: the internal name of {@code Map} or
+	 * {@code Iterable} as long as all operands were of the same kind, or an empty String
+	 * for arrays, other objects and mixed operands.
+	 * @param operandType the operand type seen so far, or {@code null} if none
+	 * @param operand the current (non-null) operand
+	 * @see #generateIteratorCode
+	 */
+	protected static String mergeIterableOperandType(String operandType, Object operand) {
+		String type = (operand instanceof Map ? "java/util/Map" : (operand instanceof Iterable ? "java/lang/Iterable" : ""));
+		return (operandType == null || operandType.equals(type) ? type : "");
+	}
+
+	/**
+	 * Generate code that replaces the operand on top of the stack with an Iterator over
+	 * its elements - or its entries, for a Map - and stores it in the given variable.
+	 * @param mv the method visitor where code should be generated
+	 * @param operandType the operand type, as determined by {@link #mergeIterableOperandType}
+	 * @param iteratorVariable the variable to store the Iterator in
+	 */
+	protected static void generateIteratorCode(MethodVisitor mv, String operandType, int iteratorVariable) {
+		mv.visitTypeInsn(CHECKCAST, operandType);
+		if ("java/util/Map".equals(operandType)) {
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Map", "entrySet", "()Ljava/util/Set;", true);
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/util/Set", "iterator", "()Ljava/util/Iterator;", true);
+		}
+		else {
+			mv.visitMethodInsn(INVOKEINTERFACE, "java/lang/Iterable", "iterator", "()Ljava/util/Iterator;", true);
+		}
+		mv.visitVarInsn(ASTORE, iteratorVariable);
+	}
+
 }
@@ -49,7 +49,9 @@ public class VariableReference extends SpelNodeImpl {
 	@Override
 	public TypedValue getValueInternal(ExpressionState state) throws SpelEvaluationException {
 		if (this.name.equals(THIS)) {
-			return state.getActiveContextObject();
+			TypedValue result = state.getActiveContextObject();
+			this.exitTypeDescriptor = determineExitTypeDescriptor(result.getValue());
+			return result;
 		}
 		if (this.name.equals(ROOT)) {
 			TypedValue result = state.getRootContextObject();
@@ -57,19 +59,35 @@ public class VariableReference extends SpelNodeImpl {
 			return result;
 		}
 		TypedValue result = state.lookupVariable(this.name);
-		Object value = result.getValue();
+		this.exitTypeDescriptor = determineExitTypeDescriptor(result.getValue());
+		// a null value will mean either the value was null or the variable was not found
+		return result;
+	}
+
+	private String determineExitTypeDescriptor(Object value) {
 		if (value == null || !Modifier.isPublic(value.getClass().getModifiers())) {
 			// If the type is not public then when generateCode produces a checkcast to it
 			// then an IllegalAccessError will occur.
 			// If resorting to Object isn't sufficient, the hierarchy could be traversed for 
 			// the first public type.
-			this.exitTypeDescriptor = "Ljava/lang/Object";
-		}
-		else {
-			this.exitTypeDescriptor = CodeFlow.toDescriptorFromObject(value);
+			return "Ljava/lang/Object";
 		}
-		// a null value will mean either the value was null or the variable was not found
-		return result;
+		return CodeFlow.toDescriptorFromObject(value);
+	}
+
+	/**
+	 * Return the name of the referenced variable.
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Return whether this reference denotes a regular variable, as opposed to
+	 * the #this and #root context object references.
+	 */
+	boolean isRegularVariable() {
+		return !(this.name.equals(THIS) || this.name.equals(ROOT));
 	}
 
 	@Override
@@ -131,10 +149,14 @@ public class VariableReference extends SpelNodeImpl {
 		if (this.name.equals(ROOT)) {
 			mv.visitVarInsn(ALOAD,1);
 		}
+		else if (this.name.equals(THIS)) {
+			cf.loadTarget(mv);
+		}
 		else {
-			mv.visitVarInsn(ALOAD, 2);
+			cf.loadEvaluationContext(mv);
 			mv.visitLdcInsn(name);
-			mv.visitMethodInsn(INVOKEINTERFACE, "org/springframework/expression/EvaluationContext", "lookupVariable", "(Ljava/lang/String;)Ljava/lang/Object;",true);
+			String evaluationContextClassName = EvaluationContext.class.getName().replace('.', '/');
+			mv.visitMethodInsn(INVOKEINTERFACE, evaluationContextClassName, "lookupVariable", "(Ljava/lang/String;)Ljava/lang/Object;",true);
 		}
 		CodeFlow.insertCheckCast(mv,this.exitTypeDescriptor);
 		cf.pushDescriptor(this.exitTypeDescriptor);
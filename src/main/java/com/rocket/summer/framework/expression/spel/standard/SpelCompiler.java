@@ -11,6 +11,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
+import com.rocket.summer.framework.expression.EvaluationContext;
+import com.rocket.summer.framework.expression.EvaluationException;
 import com.rocket.summer.framework.expression.Expression;
 import com.rocket.summer.framework.expression.spel.CodeFlow;
 import com.rocket.summer.framework.expression.spel.CompiledExpression;
@@ -22,8 +24,6 @@ import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.Opcodes;
 
-import static jdk.internal.org.objectweb.asm.Opcodes.*;
-
 /**
  * A SpelCompiler will take a regular parsed expression and create (and load) a class
  * containing byte code that does the same thing as that expression. The compiled form of
@@ -119,23 +119,25 @@ public class SpelCompiler implements Opcodes {
     private Class<? extends CompiledExpression> createExpressionClass(SpelNodeImpl expressionToCompile) {
         // Create class outline 'spel/ExNNN extends com.rocket.summer.framework.expression.spel.CompiledExpression'
         String clazzName = "spel/Ex" + getNextSuffix();
+        String compiledExpressionClassName = CompiledExpression.class.getName().replace('.', '/');
+        String evaluationContextClassName = EvaluationContext.class.getName().replace('.', '/');
+        String evaluationExceptionClassName = EvaluationException.class.getName().replace('.', '/');
         ClassWriter cw = new ExpressionClassWriter();
-        cw.visit(V1_5, ACC_PUBLIC, clazzName, null, "org/springframework/expression/spel/CompiledExpression", null);
+        cw.visit(V1_5, ACC_PUBLIC, clazzName, null, compiledExpressionClassName, null);
 
         // Create default constructor
         MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null, null);
         mv.visitCode();
         mv.visitVarInsn(ALOAD, 0);
-        mv.visitMethodInsn(INVOKESPECIAL, "org/springframework/expression/spel/CompiledExpression",
-                "<init>", "()V", false);
+        mv.visitMethodInsn(INVOKESPECIAL, compiledExpressionClassName, "<init>", "()V", false);
         mv.visitInsn(RETURN);
         mv.visitMaxs(1, 1);
         mv.visitEnd();
 
         // Create getValue() method
         mv = cw.visitMethod(ACC_PUBLIC, "getValue",
-                "(Ljava/lang/Object;Lorg/springframework/expression/EvaluationContext;)Ljava/lang/Object;", null,
-                new String[ ]{"org/springframework/expression/EvaluationException"});
+                "(Ljava/lang/Object;L" + evaluationContextClassName + ";)Ljava/lang/Object;", null,
+                new String[ ]{evaluationExceptionClassName});
         mv.visitCode();
 
         CodeFlow cf = new CodeFlow(clazzName, cw);
@@ -190,6 +192,21 @@ public class SpelCompiler implements Opcodes {
         }
     }
 
+    /**
+     * Release the compiler for the given class loader, if any, so that its child
+     * class loader and the compiled expression classes loaded by it can be garbage
+     * collected once the expressions using them are no longer referenced.
+     * <p>Expressions compiled before keep working. Subsequent compilations for the
+     * same class loader use a fresh compiler.
+     * @param classLoader the ClassLoader that has been used as the basis for compilation
+     */
+    public static void release(ClassLoader classLoader) {
+        ClassLoader clToUse = (classLoader != null ? classLoader : ClassUtils.getDefaultClassLoader());
+        synchronized (compilers) {
+            compilers.remove(clToUse);
+        }
+    }
+
     /**
      * Request that an attempt is made to compile the specified expression. It may fail if
      * components of the expression are not suitable for compilation or the data types
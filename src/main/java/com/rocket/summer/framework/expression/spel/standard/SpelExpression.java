@@ -10,12 +10,16 @@ import com.rocket.summer.framework.expression.spel.CompiledExpression;
 import com.rocket.summer.framework.expression.spel.ExpressionState;
 import com.rocket.summer.framework.expression.spel.SpelCompilerMode;
 import com.rocket.summer.framework.expression.spel.SpelEvaluationException;
+import com.rocket.summer.framework.expression.spel.SpelExpressionRegistry;
+import com.rocket.summer.framework.expression.spel.SpelExpressionRegistry.CompilationStatus;
+import com.rocket.summer.framework.expression.spel.SpelExpressionRegistry.ExpressionStatistics;
 import com.rocket.summer.framework.expression.spel.SpelMessage;
 import com.rocket.summer.framework.expression.spel.SpelNode;
 import com.rocket.summer.framework.expression.spel.SpelParserConfiguration;
 import com.rocket.summer.framework.expression.spel.ast.SpelNodeImpl;
 import com.rocket.summer.framework.expression.spel.support.StandardEvaluationContext;
 import com.rocket.summer.framework.util.Assert;
+
 /**
  * A {@code SpelExpression} represents a parsed (valid) expression that is ready to be
  * evaluated in a specified context. An expression can be evaluated standalone or in a
@@ -28,13 +32,6 @@ import com.rocket.summer.framework.util.Assert;
  */
 public class SpelExpression implements Expression {
 
-    // Number of times to interpret an expression before compiling it
-    private static final int INTERPRETED_COUNT_THRESHOLD = 100;
-
-    // Number of times to try compiling an expression before giving up
-    private static final int FAILED_ATTEMPTS_THRESHOLD = 100;
-
-
     private final String expression;
 
     private final SpelNodeImpl ast;
@@ -55,6 +52,9 @@ public class SpelExpression implements Expression {
     // give up trying to compile it when it just doesn't seem to be possible.
     private volatile int failedAttempts = 0;
 
+    // Evaluation statistics, if tracked in an expression registry
+    private final ExpressionStatistics statistics;
+
 
     /**
      * Construct an expression, only used by the parser.
@@ -63,6 +63,8 @@ public class SpelExpression implements Expression {
         this.expression = expression;
         this.ast = ast;
         this.configuration = configuration;
+        SpelExpressionRegistry registry = configuration.getExpressionRegistry();
+        this.statistics = (registry != null ? registry.getStatistics(expression) : null);
     }
 
 
@@ -114,7 +116,7 @@ public class SpelExpression implements Expression {
         }
 
         ExpressionState expressionState = new ExpressionState(getEvaluationContext(), this.configuration);
-        Object result = this.ast.getValue(expressionState);
+        Object result = interpret(expressionState).getValue();
         checkCompile(expressionState);
         return result;
     }
@@ -148,7 +150,7 @@ public class SpelExpression implements Expression {
         }
 
         ExpressionState expressionState = new ExpressionState(getEvaluationContext(), this.configuration);
-        TypedValue typedResultValue = this.ast.getTypedValue(expressionState);
+        TypedValue typedResultValue = interpret(expressionState);
         checkCompile(expressionState);
         return ExpressionUtils.convertTypedValue(
                 expressionState.getEvaluationContext(), typedResultValue, expectedResultType);
@@ -175,7 +177,7 @@ public class SpelExpression implements Expression {
 
         ExpressionState expressionState =
                 new ExpressionState(getEvaluationContext(), toTypedValue(rootObject), this.configuration);
-        Object result = this.ast.getValue(expressionState);
+        Object result = interpret(expressionState).getValue();
         checkCompile(expressionState);
         return result;
     }
@@ -209,7 +211,7 @@ public class SpelExpression implements Expression {
 
         ExpressionState expressionState =
                 new ExpressionState(getEvaluationContext(), toTypedValue(rootObject), this.configuration);
-        TypedValue typedResultValue = this.ast.getTypedValue(expressionState);
+        TypedValue typedResultValue = interpret(expressionState);
         checkCompile(expressionState);
         return ExpressionUtils.convertTypedValue(
                 expressionState.getEvaluationContext(), typedResultValue, expectedResultType);
@@ -237,7 +239,7 @@ public class SpelExpression implements Expression {
         }
 
         ExpressionState expressionState = new ExpressionState(context, this.configuration);
-        Object result = this.ast.getValue(expressionState);
+        Object result = interpret(expressionState).getValue();
         checkCompile(expressionState);
         return result;
     }
@@ -271,7 +273,7 @@ public class SpelExpression implements Expression {
         }
 
         ExpressionState expressionState = new ExpressionState(context, this.configuration);
-        TypedValue typedResultValue = this.ast.getTypedValue(expressionState);
+        TypedValue typedResultValue = interpret(expressionState);
         checkCompile(expressionState);
         return ExpressionUtils.convertTypedValue(context, typedResultValue, expectedResultType);
     }
@@ -298,7 +300,7 @@ public class SpelExpression implements Expression {
         }
 
         ExpressionState expressionState = new ExpressionState(context, toTypedValue(rootObject), this.configuration);
-        Object result = this.ast.getValue(expressionState);
+        Object result = interpret(expressionState).getValue();
         checkCompile(expressionState);
         return result;
     }
@@ -334,7 +336,7 @@ public class SpelExpression implements Expression {
         }
 
         ExpressionState expressionState = new ExpressionState(context, toTypedValue(rootObject), this.configuration);
-        TypedValue typedResultValue = this.ast.getTypedValue(expressionState);
+        TypedValue typedResultValue = interpret(expressionState);
         checkCompile(expressionState);
         return ExpressionUtils.convertTypedValue(context, typedResultValue, expectedResultType);
     }
@@ -431,6 +433,20 @@ public class SpelExpression implements Expression {
     }
 
 
+    /**
+     * Evaluate the expression in interpreted form, recording the time taken
+     * if evaluation statistics are being tracked.
+     */
+    private TypedValue interpret(ExpressionState expressionState) {
+        if (this.statistics == null) {
+            return this.ast.getTypedValue(expressionState);
+        }
+        long startTime = System.nanoTime();
+        TypedValue result = this.ast.getTypedValue(expressionState);
+        this.statistics.recordInterpretedEvaluation(System.nanoTime() - startTime);
+        return result;
+    }
+
     /**
      * Compile the expression if it has been evaluated more than the threshold number
      * of times to trigger compilation.
@@ -447,7 +463,7 @@ public class SpelExpression implements Expression {
             }
             else {
                 // compilerMode = SpelCompilerMode.MIXED
-                if (this.interpretedCount > INTERPRETED_COUNT_THRESHOLD) {
+                if (this.interpretedCount > this.configuration.getCompilationThreshold()) {
                     compileExpression();
                 }
             }
@@ -457,11 +473,12 @@ public class SpelExpression implements Expression {
 
     /**
      * Perform expression compilation. This will only succeed once exit descriptors for all nodes have
-     * been determined. If the compilation fails and has failed more than 100 times the expression is
-     * no longer considered suitable for compilation.
+     * been determined. If the compilation fails and has failed more often than the configured
+     * {@link SpelParserConfiguration#getFailedCompilationThreshold() threshold} (100 by default),
+     * the expression is no longer considered suitable for compilation.
      */
     public boolean compileExpression() {
-        if (this.failedAttempts > FAILED_ATTEMPTS_THRESHOLD) {
+        if (this.failedAttempts > this.configuration.getFailedCompilationThreshold()) {
             // Don't try again
             return false;
         }
@@ -472,10 +489,21 @@ public class SpelExpression implements Expression {
                     return true;
                 }
                 SpelCompiler compiler = SpelCompiler.getCompiler(this.configuration.getCompilerClassLoader());
-                this.compiledAst = compiler.compile(this.ast);
-                if (this.compiledAst == null) {
+                CompiledExpression compiledAst = compiler.compile(this.ast);
+                if (compiledAst == null) {
                     this.failedAttempts++;
+                    if (this.statistics != null) {
+                        boolean abandoned = (this.failedAttempts > this.configuration.getFailedCompilationThreshold());
+                        this.statistics.recordCompilationStatus((abandoned ? CompilationStatus.ABANDONED :
+                                CompilationStatus.NOT_COMPILABLE), describeBlockingNode(this.ast));
+                    }
                 }
+                else if (this.statistics != null) {
+                    this.statistics.recordCompilationStatus(CompilationStatus.COMPILED, null);
+                    compiledAst = new TimedCompiledExpression(compiledAst, this.statistics,
+                            this.configuration.getCompilerMode() == SpelCompilerMode.MIXED);
+                }
+                this.compiledAst = compiledAst;
             }
         }
         return (this.compiledAst != null);
@@ -490,6 +518,31 @@ public class SpelExpression implements Expression {
         this.compiledAst = null;
         this.interpretedCount = 0;
         this.failedAttempts = 0;
+        if (this.statistics != null) {
+            this.statistics.recordCompilationStatus(CompilationStatus.INTERPRETED, null);
+        }
+    }
+
+    /**
+     * Describe the AST node that keeps the given AST from being compiled: the first
+     * non-compilable node whose children are all compilable, or the given node itself
+     * if it is compilable but code generation opted out.
+     */
+    private static String describeBlockingNode(SpelNodeImpl ast) {
+        SpelNodeImpl node = ast;
+        boolean descended = true;
+        while (descended) {
+            descended = false;
+            for (int i = 0; i < node.getChildCount(); i++) {
+                SpelNodeImpl child = (SpelNodeImpl) node.getChild(i);
+                if (!child.isCompilable()) {
+                    node = child;
+                    descended = true;
+                    break;
+                }
+            }
+        }
+        return node.getClass().getSimpleName() + " '" + node.toStringAST() + "'";
     }
 
     /**
@@ -513,5 +566,48 @@ public class SpelExpression implements Expression {
         return (object != null ? new TypedValue(object) : TypedValue.NULL);
     }
 
-}
 
+
+    /**
+     * CompiledExpression decorator that records the time taken by compiled evaluations.
+     */
+    private static class TimedCompiledExpression extends CompiledExpression {
+
+        private final CompiledExpression delegate;
+
+        private final ExpressionStatistics statistics;
+
+        private final boolean revertOnFailure;
+
+        public TimedCompiledExpression(CompiledExpression delegate, ExpressionStatistics statistics,
+                boolean revertOnFailure) {
+
+            this.delegate = delegate;
+            this.statistics = statistics;
+            this.revertOnFailure = revertOnFailure;
+        }
+
+        @Override
+        public Object getValue(Object target, EvaluationContext context) throws EvaluationException {
+            long startTime = System.nanoTime();
+            try {
+                Object result = this.delegate.getValue(target, context);
+                this.statistics.recordCompiledEvaluation(System.nanoTime() - startTime);
+                return result;
+            }
+            catch (RuntimeException ex) {
+                if (this.revertOnFailure) {
+                    this.statistics.recordCompilationStatus(CompilationStatus.INTERPRETED, null);
+                }
+                throw ex;
+            }
+            catch (Error err) {
+                if (this.revertOnFailure) {
+                    this.statistics.recordCompilationStatus(CompilationStatus.INTERPRETED, null);
+                }
+                throw err;
+            }
+        }
+    }
+
+}
@@ -13,6 +13,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+import com.rocket.summer.framework.beans.MemberAccessor;
+import com.rocket.summer.framework.context.BeansException;
 import com.rocket.summer.framework.core.MethodParameter;
 import com.rocket.summer.framework.core.convert.Property;
 import com.rocket.summer.framework.core.convert.TypeDescriptor;
@@ -23,6 +25,7 @@ import com.rocket.summer.framework.expression.PropertyAccessor;
 import com.rocket.summer.framework.expression.TypedValue;
 import com.rocket.summer.framework.expression.spel.CodeFlow;
 import com.rocket.summer.framework.expression.spel.CompilablePropertyAccessor;
+import com.rocket.summer.framework.util.ClassUtils;
 import com.rocket.summer.framework.util.ReflectionUtils;
 import com.rocket.summer.framework.util.StringUtils;
 import org.objectweb.asm.MethodVisitor;
@@ -122,7 +125,7 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
             // The readerCache will only contain gettable properties (let's not worry about setters for now).
             Property property = new Property(type, method, null);
             TypeDescriptor typeDescriptor = new TypeDescriptor(property);
-            this.readerCache.put(cacheKey, new InvokerPair(method, typeDescriptor));
+            this.readerCache.put(cacheKey, new InvokerPair(method, typeDescriptor, getMemberAccessor(type, method, target)));
             this.typeDescriptorCache.put(cacheKey, typeDescriptor);
             return true;
         }
@@ -130,7 +133,7 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
             Field field = findField(name, type, target);
             if (field != null) {
                 TypeDescriptor typeDescriptor = new TypeDescriptor(field);
-                this.readerCache.put(cacheKey, new InvokerPair(field, typeDescriptor));
+                this.readerCache.put(cacheKey, new InvokerPair(field, typeDescriptor, getMemberAccessor(type, field, target)));
                 this.typeDescriptorCache.put(cacheKey, typeDescriptor);
                 return true;
             }
@@ -166,7 +169,7 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
                     // The readerCache will only contain gettable properties (let's not worry about setters for now).
                     Property property = new Property(type, method, null);
                     TypeDescriptor typeDescriptor = new TypeDescriptor(property);
-                    invoker = new InvokerPair(method, typeDescriptor);
+                    invoker = new InvokerPair(method, typeDescriptor, getMemberAccessor(type, method, target));
                     this.lastReadInvokerPair = invoker;
                     this.readerCache.put(cacheKey, invoker);
                 }
@@ -174,7 +177,7 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
             if (method != null) {
                 try {
                     ReflectionUtils.makeAccessible(method);
-                    Object value = method.invoke(target);
+                    Object value = (invoker.accessor != null ? invoker.accessor.get(target) : method.invoke(target));
                     return new TypedValue(value, invoker.typeDescriptor.narrow(value));
                 }
                 catch (Exception ex) {
@@ -188,7 +191,7 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
             if (field == null) {
                 field = findField(name, type, target);
                 if (field != null) {
-                    invoker = new InvokerPair(field, new TypeDescriptor(field));
+                    invoker = new InvokerPair(field, new TypeDescriptor(field), getMemberAccessor(type, field, target));
                     this.lastReadInvokerPair = invoker;
                     this.readerCache.put(cacheKey, invoker);
                 }
@@ -196,7 +199,7 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
             if (field != null) {
                 try {
                     ReflectionUtils.makeAccessible(field);
-                    Object value = field.get(target);
+                    Object value = (invoker.accessor != null ? invoker.accessor.get(target) : field.get(target));
                     return new TypedValue(value, invoker.typeDescriptor.narrow(value));
                 }
                 catch (Exception ex) {
@@ -280,7 +283,13 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
             if (method != null) {
                 try {
                     ReflectionUtils.makeAccessible(method);
-                    method.invoke(target, possiblyConvertedNewValue);
+                    MemberAccessor accessor = getMemberAccessor(type, method, target);
+                    if (accessor != null) {
+                        accessor.set(target, possiblyConvertedNewValue);
+                    }
+                    else {
+                        method.invoke(target, possiblyConvertedNewValue);
+                    }
                     return;
                 }
                 catch (Exception ex) {
@@ -301,7 +310,13 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
             if (field != null) {
                 try {
                     ReflectionUtils.makeAccessible(field);
-                    field.set(target, possiblyConvertedNewValue);
+                    MemberAccessor accessor = getMemberAccessor(type, field, target);
+                    if (accessor != null) {
+                        accessor.set(target, possiblyConvertedNewValue);
+                    }
+                    else {
+                        field.set(target, possiblyConvertedNewValue);
+                    }
                     return;
                 }
                 catch (Exception ex) {
@@ -522,7 +537,8 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
             if (method == null) {
                 method = findGetterForProperty(name, clazz, target);
                 if (method != null) {
-                    invocationTarget = new InvokerPair(method, new TypeDescriptor(new MethodParameter(method, -1)));
+                    invocationTarget = new InvokerPair(method, new TypeDescriptor(new MethodParameter(method, -1)),
+                            getMemberAccessor(clazz, method, target));
                     ReflectionUtils.makeAccessible(method);
                     this.readerCache.put(cacheKey, invocationTarget);
                 }
@@ -537,7 +553,7 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
             if (field == null) {
                 field = findField(name, clazz, target instanceof Class);
                 if (field != null) {
-                    invocationTarget = new InvokerPair(field, new TypeDescriptor(field));
+                    invocationTarget = new InvokerPair(field, new TypeDescriptor(field), getMemberAccessor(clazz, field, target));
                     ReflectionUtils.makeAccessible(field);
                     this.readerCache.put(cacheKey, invocationTarget);
                 }
@@ -551,9 +567,29 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
     }
 
 
+    /**
+     * Return the generated accessor for the given member, if accessor generation is active
+     * and the target is not a class (i.e. the member is not accessed statically).
+     * @see MemberAccessor#forMember
+     */
+    private static MemberAccessor getMemberAccessor(Class<?> type, Member member, Object target) {
+        if (target instanceof Class) {
+            return null;
+        }
+        try {
+            return MemberAccessor.forMember(type, member);
+        }
+        catch (BeansException ex) {
+            // Introspection failure - fall back to reflection
+            return null;
+        }
+    }
+
+
     /**
      * Captures the member (method/field) to call reflectively to access a property value
-     * and the type descriptor for the value returned by the reflective call.
+     * and the type descriptor for the value returned by the reflective call, along with
+     * a generated accessor to call the member through, if available.
      */
     private static class InvokerPair {
 
@@ -561,9 +597,12 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 
         final TypeDescriptor typeDescriptor;
 
-        public InvokerPair(Member member, TypeDescriptor typeDescriptor) {
+        final MemberAccessor accessor;
+
+        public InvokerPair(Member member, TypeDescriptor typeDescriptor, MemberAccessor accessor) {
             this.member = member;
             this.typeDescriptor = typeDescriptor;
+            this.accessor = accessor;
         }
     }
 
@@ -633,11 +672,38 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 
         private final boolean needsToBeMadeAccessible;
 
+        private final MemberAccessor accessor;
+
+        // The member to access from compiled code: for a public method declared on a
+        // non-public class (e.g. a Map.Entry implementation), the interface method
+        private final Member compilableMember;
+
         OptimalPropertyAccessor(InvokerPair target) {
             this.member = target.member;
             this.typeDescriptor = target.typeDescriptor;
+            this.accessor = target.accessor;
             this.needsToBeMadeAccessible = (!Modifier.isPublic(this.member.getModifiers()) ||
                     !Modifier.isPublic(this.member.getDeclaringClass().getModifiers()));
+            this.compilableMember = determineCompilableMember(this.member);
+        }
+
+        private static Member determineCompilableMember(Member member) {
+            if (member instanceof Method && Modifier.isPublic(member.getModifiers()) &&
+                    !Modifier.isStatic(member.getModifiers()) &&
+                    !Modifier.isPublic(member.getDeclaringClass().getModifiers())) {
+                Method method = (Method) member;
+                for (Class<?> ifc : ClassUtils.getAllInterfacesForClassAsSet(method.getDeclaringClass())) {
+                    if (Modifier.isPublic(ifc.getModifiers())) {
+                        try {
+                            return ifc.getMethod(method.getName(), method.getParameterTypes());
+                        }
+                        catch (NoSuchMethodException ex) {
+                            // Try next interface
+                        }
+                    }
+                }
+            }
+            return member;
         }
 
         @Override
@@ -678,7 +744,7 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
                     if (this.needsToBeMadeAccessible && !method.isAccessible()) {
                         method.setAccessible(true);
                     }
-                    Object value = method.invoke(target);
+                    Object value = (this.accessor != null ? this.accessor.get(target) : method.invoke(target));
                     return new TypedValue(value, this.typeDescriptor.narrow(value));
                 }
                 catch (Exception ex) {
@@ -691,7 +757,7 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
                     if (this.needsToBeMadeAccessible && !field.isAccessible()) {
                         field.setAccessible(true);
                     }
-                    Object value = field.get(target);
+                    Object value = (this.accessor != null ? this.accessor.get(target) : field.get(target));
                     return new TypedValue(value, this.typeDescriptor.narrow(value));
                 }
                 catch (Exception ex) {
@@ -712,8 +778,8 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 
         @Override
         public boolean isCompilable() {
-            return (Modifier.isPublic(this.member.getModifiers()) &&
-                    Modifier.isPublic(this.member.getDeclaringClass().getModifiers()));
+            return (Modifier.isPublic(this.compilableMember.getModifiers()) &&
+                    Modifier.isPublic(this.compilableMember.getDeclaringClass().getModifiers()));
         }
 
         @Override
@@ -728,9 +794,11 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
 
         @Override
         public void generateCode(String propertyName, MethodVisitor mv, CodeFlow cf) {
-            boolean isStatic = Modifier.isStatic(this.member.getModifiers());
+            Member member = this.compilableMember;
+            boolean isStatic = Modifier.isStatic(member.getModifiers());
+            boolean isInterface = member.getDeclaringClass().isInterface();
             String descriptor = cf.lastDescriptor();
-            String classDesc = this.member.getDeclaringClass().getName().replace('.', '/');
+            String classDesc = member.getDeclaringClass().getName().replace('.', '/');
 
             if (!isStatic) {
                 if (descriptor == null) {
@@ -748,13 +816,20 @@ public class ReflectivePropertyAccessor implements PropertyAccessor {
                 }
             }
 
-            if (this.member instanceof Method) {
-                mv.visitMethodInsn((isStatic ? INVOKESTATIC : INVOKEVIRTUAL), classDesc, this.member.getName(),
-                        CodeFlow.createSignatureDescriptor((Method) this.member), false);
+            if (member instanceof Method) {
+                mv.visitMethodInsn((isStatic ? INVOKESTATIC : (isInterface ? INVOKEINTERFACE : INVOKEVIRTUAL)),
+                        classDesc, member.getName(), CodeFlow.createSignatureDescriptor((Method) member), isInterface);
+                Class<?> returnType = ((Method) member).getReturnType();
+                Class<?> propertyType = getPropertyType();
+                if (returnType != propertyType && !propertyType.isPrimitive()) {
+                    // Interface method with a less specific (e.g. erased) return type than
+                    // the property type exposed as exit type descriptor
+                    CodeFlow.insertCheckCast(mv, CodeFlow.toDescriptor(propertyType));
+                }
             }
             else {
-                mv.visitFieldInsn((isStatic ? GETSTATIC : GETFIELD), classDesc, this.member.getName(),
-                        CodeFlow.toJvmDescriptor(((Field) this.member).getType()));
+                mv.visitFieldInsn((isStatic ? GETSTATIC : GETFIELD), classDesc, member.getName(),
+                        CodeFlow.toJvmDescriptor(((Field) member).getType()));
             }
         }
     }
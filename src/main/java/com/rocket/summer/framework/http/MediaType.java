@@ -226,6 +226,22 @@ public class MediaType extends MimeType implements Serializable {
 
     private static final String PARAM_QUALITY_FACTOR = "q";
 
+    private static final ConcurrentLruCache<String, MediaType> cachedMediaTypes =
+            new ConcurrentLruCache<String, MediaType>(64, new ConcurrentLruCache.Generator<String, MediaType>() {
+                @Override
+                public MediaType generate(String mediaType) {
+                    return parseMediaTypeInternal(mediaType);
+                }
+            });
+
+    private static final ConcurrentLruCache<String, ParsedMediaTypes> cachedMediaTypeLists =
+            new ConcurrentLruCache<String, ParsedMediaTypes>(128, new ConcurrentLruCache.Generator<String, ParsedMediaTypes>() {
+                @Override
+                public ParsedMediaTypes generate(String mediaTypes) {
+                    return new ParsedMediaTypes(mediaTypes);
+                }
+            });
+
 
     static {
         ALL = valueOf(ALL_VALUE);
@@ -422,11 +438,20 @@ public class MediaType extends MimeType implements Serializable {
 
     /**
      * Parse the given String into a single {@code MediaType}.
+     * <p>Recently parsed {@code MediaType} are cached for further retrieval.
      * @param mediaType the string to parse
      * @return the media type
      * @throws InvalidMediaTypeException if the media type value cannot be parsed
      */
     public static MediaType parseMediaType(String mediaType) {
+        // do not cache multipart media types with random boundaries
+        if (mediaType == null || mediaType.startsWith("multipart")) {
+            return parseMediaTypeInternal(mediaType);
+        }
+        return cachedMediaTypes.get(mediaType);
+    }
+
+    private static MediaType parseMediaTypeInternal(String mediaType) {
         MimeType type;
         try {
             type = MimeTypeUtils.parseMimeType(mediaType);
@@ -446,19 +471,14 @@ public class MediaType extends MimeType implements Serializable {
      * Parse the given comma-separated string into a list of {@code MediaType} objects.
      * <p>This method can be used to parse an Accept or Content-Type header.
      * @param mediaTypes the string to parse
-     * @return the list of media types
+     * @return the list of media types, free to be modified by the caller
      * @throws InvalidMediaTypeException if the media type value cannot be parsed
      */
     public static List<MediaType> parseMediaTypes(String mediaTypes) {
         if (!StringUtils.hasLength(mediaTypes)) {
             return Collections.emptyList();
         }
-        String[] tokens = StringUtils.tokenizeToStringArray(mediaTypes, ",");
-        List<MediaType> result = new ArrayList<MediaType>(tokens.length);
-        for (String token : tokens) {
-            result.add(parseMediaType(token));
-        }
-        return result;
+        return new ArrayList<MediaType>(cachedMediaTypeLists.get(mediaTypes).mediaTypes);
     }
 
     /**
@@ -486,6 +506,56 @@ public class MediaType extends MimeType implements Serializable {
         }
     }
 
+    /**
+     * Parse the given comma-separated string into a list of {@code MediaType}
+     * objects, {@linkplain #sortBySpecificityAndQuality sorted by specificity and
+     * quality}, as needed for an Accept header.
+     * <p>Recently parsed header values are cached along with their sorted form,
+     * so the returned list is shared and cannot be modified.
+     * @param mediaTypes the string to parse
+     * @return the unmodifiable, sorted list of media types
+     * @throws InvalidMediaTypeException if the media type value cannot be parsed
+     * @see #sortBySpecificityAndQuality(List)
+     */
+    public static List<MediaType> parseMediaTypesSortedBySpecificityAndQuality(String mediaTypes) {
+        if (!StringUtils.hasLength(mediaTypes)) {
+            return Collections.emptyList();
+        }
+        return cachedMediaTypeLists.get(mediaTypes).getSortedBySpecificityAndQuality();
+    }
+
+    /**
+     * Variant of {@link #parseMediaTypesSortedBySpecificityAndQuality(String)} for
+     * header values that a container has split up into multiple strings.
+     * @param mediaTypes the strings to parse
+     * @return the unmodifiable, sorted list of media types
+     * @throws InvalidMediaTypeException if the media type value cannot be parsed
+     */
+    public static List<MediaType> parseMediaTypesSortedBySpecificityAndQuality(List<String> mediaTypes) {
+        if (CollectionUtils.isEmpty(mediaTypes)) {
+            return Collections.emptyList();
+        }
+        return parseMediaTypesSortedBySpecificityAndQuality(mediaTypes.size() == 1 ?
+                mediaTypes.get(0) : StringUtils.collectionToDelimitedString(mediaTypes, ","));
+    }
+
+    /**
+     * Parse the given comma-separated string into a list of {@code MediaType}
+     * objects, {@linkplain #sortByQualityValue sorted by quality value}.
+     * <p>Recently parsed header values are cached along with their sorted form,
+     * so the returned list is shared and cannot be modified.
+     * @param mediaTypes the string to parse
+     * @return the unmodifiable, sorted list of media types
+     * @throws InvalidMediaTypeException if the media type value cannot be parsed
+     * @see #sortByQualityValue(List)
+     */
+    public static List<MediaType> parseMediaTypesSortedByQualityValue(String mediaTypes) {
+        if (!StringUtils.hasLength(mediaTypes)) {
+            return Collections.emptyList();
+        }
+        return cachedMediaTypeLists.get(mediaTypes).getSortedByQualityValue();
+    }
+
     /**
      * Return a string representation of the given list of {@code MediaType} objects.
      * <p>This method can be used to for an {@code Accept} or {@code Content-Type} header.
@@ -632,4 +702,48 @@ public class MediaType extends MimeType implements Serializable {
         }
     };
 
+
+    /**
+     * Immutable result of parsing a header value, with lazily computed sorted forms.
+     */
+    private static class ParsedMediaTypes {
+
+        final List<MediaType> mediaTypes;
+
+        private volatile List<MediaType> sortedBySpecificityAndQuality;
+
+        private volatile List<MediaType> sortedByQualityValue;
+
+        ParsedMediaTypes(String mediaTypes) {
+            String[] tokens = StringUtils.tokenizeToStringArray(mediaTypes, ",");
+            List<MediaType> result = new ArrayList<MediaType>(tokens.length);
+            for (String token : tokens) {
+                result.add(parseMediaType(token));
+            }
+            this.mediaTypes = Collections.unmodifiableList(result);
+        }
+
+        List<MediaType> getSortedBySpecificityAndQuality() {
+            List<MediaType> sorted = this.sortedBySpecificityAndQuality;
+            if (sorted == null) {
+                sorted = new ArrayList<MediaType>(this.mediaTypes);
+                sortBySpecificityAndQuality(sorted);
+                sorted = Collections.unmodifiableList(sorted);
+                this.sortedBySpecificityAndQuality = sorted;
+            }
+            return sorted;
+        }
+
+        List<MediaType> getSortedByQualityValue() {
+            List<MediaType> sorted = this.sortedByQualityValue;
+            if (sorted == null) {
+                sorted = new ArrayList<MediaType>(this.mediaTypes);
+                sortByQualityValue(sorted);
+                sorted = Collections.unmodifiableList(sorted);
+                this.sortedByQualityValue = sorted;
+            }
+            return sorted;
+        }
+    }
+
 }
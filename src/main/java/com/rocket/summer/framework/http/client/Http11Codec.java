@@ -0,0 +1,748 @@
+package com.rocket.summer.framework.http.client;
+
+import com.rocket.summer.framework.http.HttpHeaders;
+import com.rocket.summer.framework.util.StringUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal HTTP/1.1 message codec shared by the pooled request factories:
+ * writes request heads, parses response heads and frames message bodies
+ * according to {@code Content-Length} or chunked transfer encoding.
+ *
+ * @see PooledClientHttpRequestFactory
+ */
+abstract class Http11Codec {
+
+    static final Charset ASCII = Charset.forName("US-ASCII");
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private static final int MAX_LINE_LENGTH = 8192;
+
+
+    /**
+     * Return the route key for the given URI, e.g. "http://example.com:80".
+     */
+    static String routeFor(URI uri) {
+        String scheme = uri.getScheme();
+        if (!"http".equalsIgnoreCase(scheme)) {
+            throw new IllegalArgumentException("Only plain 'http' URIs are supported: " + uri);
+        }
+        if (uri.getHost() == null) {
+            throw new IllegalArgumentException("URI without host: " + uri);
+        }
+        return "http://" + uri.getHost() + ":" + (uri.getPort() != -1 ? uri.getPort() : 80);
+    }
+
+    /**
+     * Encode the request line and headers, including the terminating empty line.
+     * @throws IllegalArgumentException if a header name or value contains a CR or LF
+     */
+    static byte[] encodeRequestHead(String method, URI uri, HttpHeaders headers) {
+        StringBuilder builder = new StringBuilder(256);
+        String path = uri.getRawPath();
+        builder.append(method).append(' ').append(StringUtils.hasLength(path) ? path : "/");
+        if (uri.getRawQuery() != null) {
+            builder.append('?').append(uri.getRawQuery());
+        }
+        builder.append(" HTTP/1.1\r\n");
+        if (!headers.containsKey("Host")) {
+            builder.append("Host: ").append(uri.getHost());
+            if (uri.getPort() != -1 && uri.getPort() != 80) {
+                builder.append(':').append(uri.getPort());
+            }
+            builder.append("\r\n");
+        }
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            String name = entry.getKey();
+            assertNoLineBreak(name, name);
+            for (String value : entry.getValue()) {
+                assertNoLineBreak(name, value);
+                builder.append(name).append(": ").append(value).append("\r\n");
+            }
+        }
+        builder.append("\r\n");
+        return builder.toString().getBytes(ASCII);
+    }
+
+    private static void assertNoLineBreak(String headerName, String text) {
+        if (text != null && (text.indexOf('\r') != -1 || text.indexOf('\n') != -1)) {
+            throw new IllegalArgumentException("Header [" + headerName + "] must not contain CR or LF characters");
+        }
+    }
+
+    /**
+     * Whether the given method may carry a request body.
+     */
+    static boolean permitsRequestBody(String method) {
+        return ("POST".equals(method) || "PUT".equals(method) ||
+                "PATCH".equals(method) || "DELETE".equals(method));
+    }
+
+    /**
+     * Read the status line and headers of a response from the given stream.
+     */
+    static ResponseHead readResponseHead(InputStream in) throws IOException {
+        String statusLine = readLine(in);
+        // Skip interim 1xx responses such as "100 Continue"
+        while (statusLine.startsWith("HTTP/") && statusLine.length() > 9 && statusLine.charAt(9) == '1') {
+            while (readLine(in).length() > 0) {
+                // discard interim headers
+            }
+            statusLine = readLine(in);
+        }
+        if (!statusLine.startsWith("HTTP/1.") || statusLine.length() < 12) {
+            throw new IOException("Invalid HTTP status line: " + statusLine);
+        }
+        boolean http10 = statusLine.startsWith("HTTP/1.0");
+        int statusCode;
+        try {
+            statusCode = Integer.parseInt(statusLine.substring(9, 12));
+        }
+        catch (NumberFormatException ex) {
+            throw new IOException("Invalid HTTP status line: " + statusLine);
+        }
+        String statusText = (statusLine.length() > 13 ? statusLine.substring(13) : "");
+
+        HttpHeaders headers = new HttpHeaders();
+        String line;
+        while ((line = readLine(in)).length() > 0) {
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                headers.add(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+            }
+        }
+        return new ResponseHead(statusCode, statusText, headers, http10);
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder builder = new StringBuilder(64);
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                int length = builder.length();
+                if (length > 0 && builder.charAt(length - 1) == '\r') {
+                    builder.setLength(length - 1);
+                }
+                return builder.toString();
+            }
+            if (builder.length() >= MAX_LINE_LENGTH) {
+                throw new IOException("HTTP header line too long");
+            }
+            builder.append((char) b);
+        }
+        throw new EOFException("Connection closed before end of HTTP header line");
+    }
+
+
+    /**
+     * Parsed status line and headers of a response.
+     */
+    static final class ResponseHead {
+
+        final int statusCode;
+
+        final String statusText;
+
+        final HttpHeaders headers;
+
+        final boolean http10;
+
+        ResponseHead(int statusCode, String statusText, HttpHeaders headers, boolean http10) {
+            this.statusCode = statusCode;
+            this.statusText = statusText;
+            this.headers = headers;
+            this.http10 = http10;
+        }
+
+        /**
+         * Whether the connection may be reused after this response has been consumed.
+         */
+        boolean isKeepAlive(String requestMethod) {
+            String connection = this.headers.getFirst("Connection");
+            if (connection != null && connection.toLowerCase().contains("close")) {
+                return false;
+            }
+            if (this.http10) {
+                return (connection != null && connection.toLowerCase().contains("keep-alive"));
+            }
+            return (isChunked() || getContentLength() >= 0 || !hasBody(requestMethod));
+        }
+
+        /**
+         * Return the keep-alive timeout announced by the server in milliseconds, or -1.
+         */
+        long getKeepAliveTimeout() {
+            String keepAlive = this.headers.getFirst("Keep-Alive");
+            if (keepAlive != null) {
+                for (String param : StringUtils.tokenizeToStringArray(keepAlive, ",")) {
+                    if (param.startsWith("timeout=")) {
+                        try {
+                            return Long.parseLong(param.substring(8).trim()) * 1000;
+                        }
+                        catch (NumberFormatException ex) {
+                            return -1;
+                        }
+                    }
+                }
+            }
+            return -1;
+        }
+
+        boolean isChunked() {
+            String encoding = this.headers.getFirst("Transfer-Encoding");
+            return (encoding != null && encoding.toLowerCase().contains("chunked"));
+        }
+
+        long getContentLength() {
+            return this.headers.getContentLength();
+        }
+
+        boolean hasBody(String requestMethod) {
+            return !("HEAD".equals(requestMethod) || this.statusCode == 204 || this.statusCode == 304 ||
+                    (this.statusCode >= 100 && this.statusCode < 200));
+        }
+    }
+
+
+    /**
+     * Read a response body as framed by the given head. The returned stream reports
+     * whether the body was consumed completely, which is required for connection reuse.
+     */
+    static BodyInputStream bodyInputStream(InputStream in, ResponseHead head, String requestMethod) {
+        if (!head.hasBody(requestMethod)) {
+            return new FixedLengthInputStream(in, 0);
+        }
+        if (head.isChunked()) {
+            return new ChunkedInputStream(in);
+        }
+        long contentLength = head.getContentLength();
+        if (contentLength >= 0) {
+            return new FixedLengthInputStream(in, contentLength);
+        }
+        return new UntilCloseInputStream(in);
+    }
+
+
+    /**
+     * Base class for response body streams.
+     */
+    abstract static class BodyInputStream extends InputStream {
+
+        protected final InputStream in;
+
+        protected BodyInputStream(InputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * Whether the end of the body has been reached.
+         */
+        abstract boolean isComplete();
+
+        /**
+         * Whether the connection can be reused once the body is complete.
+         */
+        boolean isReusable() {
+            return true;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int count = read(single, 0, 1);
+            return (count == -1 ? -1 : single[0] & 0xFF);
+        }
+
+        @Override
+        public void close() {
+            // the connection is released by the response
+        }
+    }
+
+
+    private static class FixedLengthInputStream extends BodyInputStream {
+
+        private long remaining;
+
+        FixedLengthInputStream(InputStream in, long length) {
+            super(in);
+            this.remaining = length;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (this.remaining <= 0) {
+                return -1;
+            }
+            int count = this.in.read(b, off, (int) Math.min(len, this.remaining));
+            if (count == -1) {
+                throw new EOFException("Connection closed with " + this.remaining + " bytes of body remaining");
+            }
+            this.remaining -= count;
+            return count;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(this.in.available(), this.remaining);
+        }
+
+        @Override
+        boolean isComplete() {
+            return (this.remaining <= 0);
+        }
+    }
+
+
+    private static class ChunkedInputStream extends BodyInputStream {
+
+        private long chunkRemaining = 0;
+
+        private boolean eof = false;
+
+        ChunkedInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (this.eof) {
+                return -1;
+            }
+            if (this.chunkRemaining == 0) {
+                String sizeLine = readLine(this.in);
+                int extension = sizeLine.indexOf(';');
+                if (extension != -1) {
+                    sizeLine = sizeLine.substring(0, extension);
+                }
+                try {
+                    this.chunkRemaining = Long.parseLong(sizeLine.trim(), 16);
+                }
+                catch (NumberFormatException ex) {
+                    throw new IOException("Invalid chunk size: " + sizeLine);
+                }
+                if (this.chunkRemaining == 0) {
+                    // Skip trailers up to the final empty line
+                    while (readLine(this.in).length() > 0) {
+                    }
+                    this.eof = true;
+                    return -1;
+                }
+            }
+            int count = this.in.read(b, off, (int) Math.min(len, this.chunkRemaining));
+            if (count == -1) {
+                throw new EOFException("Connection closed in the middle of a chunk");
+            }
+            this.chunkRemaining -= count;
+            if (this.chunkRemaining == 0) {
+                readLine(this.in);
+            }
+            return count;
+        }
+
+        @Override
+        boolean isComplete() {
+            return this.eof;
+        }
+    }
+
+
+    private static class UntilCloseInputStream extends BodyInputStream {
+
+        private boolean eof = false;
+
+        UntilCloseInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (this.eof) {
+                return -1;
+            }
+            int count = this.in.read(b, off, len);
+            if (count == -1) {
+                this.eof = true;
+            }
+            return count;
+        }
+
+        @Override
+        boolean isComplete() {
+            return this.eof;
+        }
+
+        @Override
+        boolean isReusable() {
+            return false;
+        }
+    }
+
+
+    /**
+     * {@link OutputStream} writing chunked transfer encoding, without closing
+     * the underlying stream.
+     */
+    static class ChunkedOutputStream extends FilterOutputStream {
+
+        private final byte[] buffer;
+
+        private int count = 0;
+
+        private boolean finished = false;
+
+        ChunkedOutputStream(OutputStream out, int chunkSize) {
+            super(out);
+            this.buffer = new byte[chunkSize > 0 ? chunkSize : 4096];
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (this.count == this.buffer.length) {
+                writeChunk(this.buffer, 0, this.count);
+                this.count = 0;
+            }
+            this.buffer[this.count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (this.count + len <= this.buffer.length) {
+                System.arraycopy(b, off, this.buffer, this.count, len);
+                this.count += len;
+                return;
+            }
+            if (this.count > 0) {
+                writeChunk(this.buffer, 0, this.count);
+                this.count = 0;
+            }
+            if (len >= this.buffer.length) {
+                writeChunk(b, off, len);
+            }
+            else {
+                System.arraycopy(b, off, this.buffer, 0, len);
+                this.count = len;
+            }
+        }
+
+        private void writeChunk(byte[] b, int off, int len) throws IOException {
+            this.out.write(Integer.toHexString(len).getBytes(ASCII));
+            this.out.write(CRLF);
+            this.out.write(b, off, len);
+            this.out.write(CRLF);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (this.count > 0) {
+                writeChunk(this.buffer, 0, this.count);
+                this.count = 0;
+            }
+            this.out.flush();
+        }
+
+        /**
+         * Write any pending data followed by the terminating chunk.
+         */
+        public void finish() throws IOException {
+            if (!this.finished) {
+                this.finished = true;
+                if (this.count > 0) {
+                    writeChunk(this.buffer, 0, this.count);
+                    this.count = 0;
+                }
+                this.out.write('0');
+                this.out.write(CRLF);
+                this.out.write(CRLF);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+            this.out.flush();
+        }
+    }
+
+
+    /**
+     * {@link OutputStream} enforcing a declared {@code Content-Length},
+     * without closing the underlying stream.
+     */
+    static class FixedLengthOutputStream extends FilterOutputStream {
+
+        private long remaining;
+
+        FixedLengthOutputStream(OutputStream out, long length) {
+            super(out);
+            this.remaining = length;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (len > this.remaining) {
+                throw new IOException("Request body exceeds declared Content-Length");
+            }
+            this.out.write(b, off, len);
+            this.remaining -= len;
+        }
+
+        public void finish() throws IOException {
+            if (this.remaining > 0) {
+                throw new IOException("Request body shorter than declared Content-Length: " +
+                        this.remaining + " bytes missing");
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.out.flush();
+        }
+    }
+
+
+    /**
+     * Incremental, non-blocking decoder of a single response: fed with whatever
+     * bytes arrive on a connection until {@link #isComplete()} returns {@code true}.
+     */
+    static class ResponseDecoder {
+
+        private enum State {HEAD, FIXED_LENGTH, CHUNK_SIZE, CHUNK_DATA, CHUNK_DATA_END, TRAILER, UNTIL_CLOSE, COMPLETE}
+
+        private final String requestMethod;
+
+        private byte[] buffer = new byte[4096];
+
+        private int length = 0;
+
+        private int position = 0;
+
+        private State state = State.HEAD;
+
+        private ResponseHead head;
+
+        private final BodyBuffer body = new BodyBuffer();
+
+        private long remaining;
+
+        ResponseDecoder(String requestMethod) {
+            this.requestMethod = requestMethod;
+        }
+
+        /**
+         * Whether any response bytes have been received yet.
+         */
+        boolean hasReceivedData() {
+            return (this.length > 0 || this.head != null);
+        }
+
+        boolean isComplete() {
+            return (this.state == State.COMPLETE);
+        }
+
+        ResponseHead getHead() {
+            return this.head;
+        }
+
+        byte[] getBody() {
+            return this.body.toByteArray();
+        }
+
+        /**
+         * Whether the connection can be reused for another exchange.
+         */
+        boolean isReusable() {
+            return (this.state == State.COMPLETE && this.position == this.length &&
+                    this.head.isKeepAlive(this.requestMethod) && !isUntilClose());
+        }
+
+        private boolean isUntilClose() {
+            return (this.head.hasBody(this.requestMethod) && !this.head.isChunked() && this.head.getContentLength() < 0);
+        }
+
+        /**
+         * Consume the given bytes.
+         * @return {@code true} if the response is complete
+         */
+        boolean feed(byte[] data, int offset, int count) throws IOException {
+            if (this.length + count > this.buffer.length) {
+                compact();
+                if (this.length + count > this.buffer.length) {
+                    byte[] newBuffer = new byte[Math.max(this.buffer.length * 2, this.length + count)];
+                    System.arraycopy(this.buffer, 0, newBuffer, 0, this.length);
+                    this.buffer = newBuffer;
+                }
+            }
+            System.arraycopy(data, offset, this.buffer, this.length, count);
+            this.length += count;
+            decode();
+            return isComplete();
+        }
+
+        /**
+         * Signal that the server closed the connection.
+         * @return {@code true} if the response is complete
+         * @throws EOFException if the connection was closed prematurely
+         */
+        boolean endOfInput() throws IOException {
+            if (this.state == State.UNTIL_CLOSE) {
+                this.state = State.COMPLETE;
+            }
+            if (this.state != State.COMPLETE) {
+                throw new EOFException("Connection closed before end of response");
+            }
+            return true;
+        }
+
+        private void compact() {
+            if (this.position > 0) {
+                System.arraycopy(this.buffer, this.position, this.buffer, 0, this.length - this.position);
+                this.length -= this.position;
+                this.position = 0;
+            }
+        }
+
+        private void decode() throws IOException {
+            while (true) {
+                switch (this.state) {
+                    case HEAD:
+                        int end = indexOfHeadEnd();
+                        if (end == -1) {
+                            if (this.length - this.position > 64 * 1024) {
+                                throw new IOException("HTTP response head too large");
+                            }
+                            return;
+                        }
+                        if (end - this.position > 9 && this.buffer[this.position + 9] == '1') {
+                            // Skip interim 1xx responses such as "100 Continue"
+                            this.position = end;
+                            continue;
+                        }
+                        ResponseHead parsed = readResponseHead(
+                                new ByteArrayInputStream(this.buffer, this.position, end - this.position));
+                        this.position = end;
+                        this.head = parsed;
+                        if (!parsed.hasBody(this.requestMethod)) {
+                            this.state = State.COMPLETE;
+                        }
+                        else if (parsed.isChunked()) {
+                            this.state = State.CHUNK_SIZE;
+                        }
+                        else if (parsed.getContentLength() >= 0) {
+                            this.remaining = parsed.getContentLength();
+                            this.state = (this.remaining > 0 ? State.FIXED_LENGTH : State.COMPLETE);
+                        }
+                        else {
+                            this.state = State.UNTIL_CLOSE;
+                        }
+                        break;
+                    case FIXED_LENGTH:
+                    case CHUNK_DATA:
+                        int available = (int) Math.min(this.length - this.position, this.remaining);
+                        if (available == 0) {
+                            return;
+                        }
+                        this.body.write(this.buffer, this.position, available);
+                        this.position += available;
+                        this.remaining -= available;
+                        if (this.remaining == 0) {
+                            this.state = (this.state == State.FIXED_LENGTH ? State.COMPLETE : State.CHUNK_DATA_END);
+                        }
+                        break;
+                    case CHUNK_SIZE:
+                        String sizeLine = readBufferedLine();
+                        if (sizeLine == null) {
+                            return;
+                        }
+                        int extension = sizeLine.indexOf(';');
+                        if (extension != -1) {
+                            sizeLine = sizeLine.substring(0, extension);
+                        }
+                        try {
+                            this.remaining = Long.parseLong(sizeLine.trim(), 16);
+                        }
+                        catch (NumberFormatException ex) {
+                            throw new IOException("Invalid chunk size: " + sizeLine);
+                        }
+                        this.state = (this.remaining > 0 ? State.CHUNK_DATA : State.TRAILER);
+                        break;
+                    case CHUNK_DATA_END:
+                        if (readBufferedLine() == null) {
+                            return;
+                        }
+                        this.state = State.CHUNK_SIZE;
+                        break;
+                    case TRAILER:
+                        String trailer = readBufferedLine();
+                        if (trailer == null) {
+                            return;
+                        }
+                        if (trailer.length() == 0) {
+                            this.state = State.COMPLETE;
+                        }
+                        break;
+                    case UNTIL_CLOSE:
+                        this.body.write(this.buffer, this.position, this.length - this.position);
+                        this.position = this.length;
+                        return;
+                    case COMPLETE:
+                        return;
+                }
+            }
+        }
+
+        private int indexOfHeadEnd() {
+            for (int i = this.position; i + 3 < this.length; i++) {
+                if (this.buffer[i] == '\r' && this.buffer[i + 1] == '\n' &&
+                        this.buffer[i + 2] == '\r' && this.buffer[i + 3] == '\n') {
+                    return i + 4;
+                }
+            }
+            return -1;
+        }
+
+        private String readBufferedLine() {
+            for (int i = this.position; i + 1 < this.length; i++) {
+                if (this.buffer[i] == '\r' && this.buffer[i + 1] == '\n') {
+                    String line = new String(this.buffer, this.position, i - this.position, ASCII);
+                    this.position = i + 2;
+                    return line;
+                }
+            }
+            return null;
+        }
+    }
+
+
+    /**
+     * Buffer used to collect a request body before sending it with a known length.
+     */
+    static class BodyBuffer extends ByteArrayOutputStream {
+
+        BodyBuffer() {
+            super(1024);
+        }
+
+        byte[] getBuffer() {
+            return this.buf;
+        }
+    }
+
+}
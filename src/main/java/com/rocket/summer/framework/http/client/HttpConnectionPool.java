@@ -0,0 +1,518 @@
+package com.rocket.summer.framework.http.client;
+
+import com.rocket.summer.framework.beans.factory.DisposableBean;
+import com.rocket.summer.framework.util.Assert;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool of keep-alive HTTP/1.1 connections, partitioned by route
+ * ({@code scheme://host:port}), with a limit per route and in total.
+ *
+ * <p>Idle connections are reused most-recently-used first, validated before
+ * reuse, and closed once they exceed the {@link #setIdleTimeout idle timeout},
+ * the keep-alive timeout announced by the server, or the
+ * {@link #setMaxRequestsPerConnection maximum number of requests}. Expired
+ * connections are evicted on lease as well as by a background evictor running
+ * every {@link #setEvictionInterval eviction interval}.
+ *
+ * <p>Leased connections are tracked against the request or response currently
+ * owning them: a connection whose owner gets garbage collected without releasing
+ * it (e.g. a request abandoned before execution, or a response never closed) is
+ * closed and its slot reclaimed on the next lease or eviction run.
+ *
+ * <p>Pool-level statistics are exposed through {@link #getMetrics()}.
+ *
+ * @see PooledClientHttpRequestFactory
+ */
+public class HttpConnectionPool implements DisposableBean {
+
+    private static final Log logger = LogFactory.getLog(HttpConnectionPool.class);
+
+
+    private int maxTotal = 200;
+
+    private int maxPerRoute = 20;
+
+    private long idleTimeout = 60000;
+
+    private int maxRequestsPerConnection = 0;
+
+    private int connectTimeout = -1;
+
+    private long leaseTimeout = -1;
+
+    private long evictionInterval = 30000;
+
+    private final Object lock = new Object();
+
+    private final Map<String, RoutePool> routes = new LinkedHashMap<String, RoutePool>();
+
+    private int totalLeased = 0;
+
+    private int totalIdle = 0;
+
+    private ScheduledExecutorService evictor;
+
+    private boolean closed = false;
+
+    private final Map<PooledHttpConnection, OwnerReference> leaseOwners =
+            new ConcurrentHashMap<PooledHttpConnection, OwnerReference>();
+
+    private final ReferenceQueue<Object> abandonedOwners = new ReferenceQueue<Object>();
+
+
+    /**
+     * Set the maximum number of connections across all routes, leased or idle.
+     * Default is 200.
+     */
+    public void setMaxTotal(int maxTotal) {
+        Assert.isTrue(maxTotal > 0, "'maxTotal' must be positive");
+        this.maxTotal = maxTotal;
+    }
+
+    public int getMaxTotal() {
+        return this.maxTotal;
+    }
+
+    /**
+     * Set the maximum number of connections per route, leased or idle.
+     * This acts as a per-host concurrency limit. Default is 20.
+     */
+    public void setMaxPerRoute(int maxPerRoute) {
+        Assert.isTrue(maxPerRoute > 0, "'maxPerRoute' must be positive");
+        this.maxPerRoute = maxPerRoute;
+    }
+
+    public int getMaxPerRoute() {
+        return this.maxPerRoute;
+    }
+
+    /**
+     * Set the time in milliseconds after which an idle connection is closed.
+     * A value of 0 keeps idle connections open until the server closes them.
+     * Default is 60 seconds.
+     */
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public long getIdleTimeout() {
+        return this.idleTimeout;
+    }
+
+    /**
+     * Set the maximum number of requests sent over a single connection before
+     * it is closed. Default is 0, meaning unlimited.
+     */
+    public void setMaxRequestsPerConnection(int maxRequestsPerConnection) {
+        this.maxRequestsPerConnection = maxRequestsPerConnection;
+    }
+
+    public int getMaxRequestsPerConnection() {
+        return this.maxRequestsPerConnection;
+    }
+
+    /**
+     * Set the connect timeout in milliseconds for new connections.
+     * A timeout value of 0 specifies an infinite timeout.
+     * <p>Default is the system's default timeout.
+     */
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public int getConnectTimeout() {
+        return this.connectTimeout;
+    }
+
+    /**
+     * Set the maximum time in milliseconds to wait for a connection when the
+     * route or the pool is exhausted. Default is -1, waiting indefinitely.
+     */
+    public void setLeaseTimeout(long leaseTimeout) {
+        this.leaseTimeout = leaseTimeout;
+    }
+
+    public long getLeaseTimeout() {
+        return this.leaseTimeout;
+    }
+
+    /**
+     * Set the interval in milliseconds at which expired idle connections are
+     * evicted in the background. A value of 0 disables background eviction, in
+     * which case connections are only evicted on lease. Default is 30 seconds.
+     */
+    public void setEvictionInterval(long evictionInterval) {
+        this.evictionInterval = evictionInterval;
+    }
+
+    public long getEvictionInterval() {
+        return this.evictionInterval;
+    }
+
+
+    /**
+     * Lease a connection for the given URI, reusing an idle connection to the
+     * same route if possible, or opening a new one.
+     * @param uri the request URI
+     * @return the leased connection, to be {@linkplain #release released} after use
+     * @throws IOException if no connection could be opened, or the lease timed out
+     */
+    PooledHttpConnection lease(URI uri) throws IOException {
+        reclaimAbandonedConnections();
+        String route = Http11Codec.routeFor(uri);
+        long start = System.nanoTime();
+        long deadline = (this.leaseTimeout >= 0 ? start + TimeUnit.MILLISECONDS.toNanos(this.leaseTimeout) : -1);
+        List<PooledHttpConnection> toClose = new ArrayList<PooledHttpConnection>();
+        RoutePool routePool;
+        PooledHttpConnection connection = null;
+
+        try {
+            synchronized (this.lock) {
+                Assert.state(!this.closed, "HttpConnectionPool has been closed");
+                startEvictorIfNecessary();
+                routePool = getRoutePool(route);
+                routePool.pending++;
+                try {
+                    while (true) {
+                        connection = pollIdle(routePool, toClose);
+                        if (connection != null) {
+                            routePool.reused++;
+                            break;
+                        }
+                        if (routePool.leased + routePool.idle.size() < this.maxPerRoute) {
+                            if (this.totalLeased + this.totalIdle >= this.maxTotal) {
+                                closeOldestIdle(toClose);
+                            }
+                            if (this.totalLeased + this.totalIdle < this.maxTotal) {
+                                // Reserve a slot; the connection is opened outside of the lock
+                                break;
+                            }
+                        }
+                        waitForRelease(deadline, route);
+                    }
+                    routePool.leased++;
+                    this.totalLeased++;
+                    routePool.leaseWaitNanos += System.nanoTime() - start;
+                    routePool.leases++;
+                }
+                finally {
+                    routePool.pending--;
+                }
+            }
+        }
+        finally {
+            closeAll(toClose);
+        }
+
+        if (connection == null) {
+            try {
+                connection = PooledHttpConnection.open(route,
+                        new InetSocketAddress(uri.getHost(), (uri.getPort() != -1 ? uri.getPort() : 80)),
+                        this.connectTimeout);
+            }
+            catch (IOException ex) {
+                synchronized (this.lock) {
+                    routePool.leased--;
+                    this.totalLeased--;
+                    this.lock.notifyAll();
+                }
+                throw ex;
+            }
+            synchronized (this.lock) {
+                routePool.created++;
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Opened new connection for route [" + route + "]");
+            }
+        }
+        connection.markLeased();
+        return connection;
+    }
+
+    /**
+     * Return a leased connection to the pool.
+     * @param connection the connection leased from this pool
+     * @param reusable whether the connection is in a state to be reused for another
+     * exchange (i.e. the response was fully consumed and the server did not ask to close)
+     * @param keepAliveTimeout the keep-alive timeout announced by the server in
+     * milliseconds, or -1 if none
+     */
+    void release(PooledHttpConnection connection, boolean reusable, long keepAliveTimeout) {
+        this.leaseOwners.remove(connection);
+        boolean keep = (reusable && (this.maxRequestsPerConnection <= 0 ||
+                connection.getRequestCount() < this.maxRequestsPerConnection));
+        synchronized (this.lock) {
+            RoutePool routePool = getRoutePool(connection.getRoute());
+            routePool.leased--;
+            this.totalLeased--;
+            routePool.requests++;
+            if (keep && !this.closed) {
+                connection.markReleased(keepAliveTimeout);
+                routePool.idle.push(connection);
+                this.totalIdle++;
+            }
+            else {
+                routePool.closed++;
+            }
+            this.lock.notifyAll();
+        }
+        if (!keep || this.closed) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Register the given object as the current owner of a leased connection,
+     * replacing any previous owner. Should the owner become unreachable before the
+     * connection is {@linkplain #release released}, the connection is closed.
+     * @param connection the connection leased from this pool
+     * @param owner the request or response responsible for releasing the connection
+     */
+    void trackOwner(PooledHttpConnection connection, Object owner) {
+        this.leaseOwners.put(connection, new OwnerReference(owner, connection, this.abandonedOwners));
+    }
+
+    /**
+     * Close all leased connections whose owner has been garbage collected
+     * without releasing them.
+     */
+    void reclaimAbandonedConnections() {
+        OwnerReference reference;
+        while ((reference = (OwnerReference) this.abandonedOwners.poll()) != null) {
+            if (this.leaseOwners.remove(reference.connection, reference)) {
+                if (logger.isWarnEnabled()) {
+                    logger.warn("Closing connection for route [" + reference.connection.getRoute() +
+                            "] that was never released: request abandoned or response not closed");
+                }
+                release(reference.connection, false, -1);
+            }
+        }
+    }
+
+    /**
+     * Close all idle connections that have expired.
+     */
+    public void closeExpiredConnections() {
+        List<PooledHttpConnection> toClose = new ArrayList<PooledHttpConnection>();
+        long now = System.currentTimeMillis();
+        synchronized (this.lock) {
+            for (RoutePool routePool : this.routes.values()) {
+                Iterator<PooledHttpConnection> it = routePool.idle.iterator();
+                while (it.hasNext()) {
+                    PooledHttpConnection connection = it.next();
+                    if (connection.isExpired(now, this.idleTimeout)) {
+                        it.remove();
+                        this.totalIdle--;
+                        routePool.evicted++;
+                        toClose.add(connection);
+                    }
+                }
+            }
+        }
+        closeAll(toClose);
+    }
+
+    /**
+     * Close all idle connections, regardless of their age.
+     */
+    public void closeIdleConnections() {
+        List<PooledHttpConnection> toClose = new ArrayList<PooledHttpConnection>();
+        synchronized (this.lock) {
+            for (RoutePool routePool : this.routes.values()) {
+                routePool.evicted += routePool.idle.size();
+                toClose.addAll(routePool.idle);
+                routePool.idle.clear();
+            }
+            this.totalIdle = 0;
+        }
+        closeAll(toClose);
+    }
+
+    /**
+     * Return a snapshot of the current pool statistics.
+     */
+    public HttpConnectionPoolMetrics getMetrics() {
+        synchronized (this.lock) {
+            Map<String, HttpConnectionPoolMetrics.RouteMetrics> routeMetrics =
+                    new LinkedHashMap<String, HttpConnectionPoolMetrics.RouteMetrics>(this.routes.size());
+            for (Map.Entry<String, RoutePool> entry : this.routes.entrySet()) {
+                RoutePool pool = entry.getValue();
+                routeMetrics.put(entry.getKey(), new HttpConnectionPoolMetrics.RouteMetrics(
+                        entry.getKey(), pool.leased, pool.idle.size(), pool.pending, pool.created, pool.reused,
+                        pool.closed, pool.evicted, pool.requests,
+                        (pool.leases > 0 ? pool.leaseWaitNanos / pool.leases : 0)));
+            }
+            return new HttpConnectionPoolMetrics(this.maxTotal, this.maxPerRoute,
+                    this.totalLeased, this.totalIdle, routeMetrics);
+        }
+    }
+
+    /**
+     * Close all idle connections and stop background eviction. Leased connections
+     * are closed once they are released.
+     */
+    @Override
+    public void destroy() {
+        synchronized (this.lock) {
+            this.closed = true;
+            if (this.evictor != null) {
+                this.evictor.shutdownNow();
+                this.evictor = null;
+            }
+            this.lock.notifyAll();
+        }
+        closeIdleConnections();
+    }
+
+
+    private RoutePool getRoutePool(String route) {
+        RoutePool routePool = this.routes.get(route);
+        if (routePool == null) {
+            routePool = new RoutePool();
+            this.routes.put(route, routePool);
+        }
+        return routePool;
+    }
+
+    private PooledHttpConnection pollIdle(RoutePool routePool, List<PooledHttpConnection> toClose) {
+        long now = System.currentTimeMillis();
+        PooledHttpConnection connection;
+        while ((connection = routePool.idle.poll()) != null) {
+            this.totalIdle--;
+            if (connection.isExpired(now, this.idleTimeout) || connection.isStale()) {
+                routePool.evicted++;
+                toClose.add(connection);
+            }
+            else {
+                return connection;
+            }
+        }
+        return null;
+    }
+
+    private void closeOldestIdle(List<PooledHttpConnection> toClose) {
+        RoutePool oldestPool = null;
+        PooledHttpConnection oldest = null;
+        for (RoutePool routePool : this.routes.values()) {
+            PooledHttpConnection candidate = routePool.idle.peekLast();
+            if (candidate != null && (oldest == null || candidate.getLastUsedAt() < oldest.getLastUsedAt())) {
+                oldest = candidate;
+                oldestPool = routePool;
+            }
+        }
+        if (oldest != null) {
+            oldestPool.idle.pollLast();
+            oldestPool.evicted++;
+            this.totalIdle--;
+            toClose.add(oldest);
+        }
+    }
+
+    private void waitForRelease(long deadline, String route) throws IOException {
+        try {
+            if (deadline == -1) {
+                this.lock.wait();
+            }
+            else {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new IOException("Timeout waiting for connection to route [" + route + "]");
+                }
+                TimeUnit.NANOSECONDS.timedWait(this.lock, remaining);
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for connection to route [" + route + "]");
+        }
+        Assert.state(!this.closed, "HttpConnectionPool has been closed");
+    }
+
+    private void startEvictorIfNecessary() {
+        if (this.evictor == null && this.evictionInterval > 0) {
+            this.evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable runnable) {
+                    Thread thread = new Thread(runnable, "HttpConnectionPool-evictor");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            this.evictor.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    reclaimAbandonedConnections();
+                    closeExpiredConnections();
+                }
+            }, this.evictionInterval, this.evictionInterval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void closeAll(List<PooledHttpConnection> connections) {
+        for (PooledHttpConnection connection : connections) {
+            connection.close();
+        }
+    }
+
+
+    /**
+     * Weak reference to the current owner of a leased connection.
+     */
+    private static class OwnerReference extends WeakReference<Object> {
+
+        final PooledHttpConnection connection;
+
+        OwnerReference(Object owner, PooledHttpConnection connection, ReferenceQueue<Object> queue) {
+            super(owner, queue);
+            this.connection = connection;
+        }
+    }
+
+
+    /**
+     * Connections and statistics for a single route; guarded by the pool lock.
+     */
+    private static class RoutePool {
+
+        final Deque<PooledHttpConnection> idle = new ArrayDeque<PooledHttpConnection>();
+
+        int leased;
+
+        int pending;
+
+        long created;
+
+        long reused;
+
+        long closed;
+
+        long evicted;
+
+        long requests;
+
+        long leases;
+
+        long leaseWaitNanos;
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.rocket.summer.framework.http.client;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the statistics of an {@link HttpConnectionPool},
+ * in total and per route.
+ *
+ * @see HttpConnectionPool#getMetrics()
+ */
+public class HttpConnectionPoolMetrics {
+
+    private final int maxTotal;
+
+    private final int maxPerRoute;
+
+    private final int leased;
+
+    private final int idle;
+
+    private final Map<String, RouteMetrics> routes;
+
+
+    HttpConnectionPoolMetrics(int maxTotal, int maxPerRoute, int leased, int idle, Map<String, RouteMetrics> routes) {
+        this.maxTotal = maxTotal;
+        this.maxPerRoute = maxPerRoute;
+        this.leased = leased;
+        this.idle = idle;
+        this.routes = Collections.unmodifiableMap(routes);
+    }
+
+
+    public int getMaxTotal() {
+        return this.maxTotal;
+    }
+
+    public int getMaxPerRoute() {
+        return this.maxPerRoute;
+    }
+
+    /**
+     * Return the number of connections currently in use.
+     */
+    public int getLeased() {
+        return this.leased;
+    }
+
+    /**
+     * Return the number of connections currently idle in the pool.
+     */
+    public int getIdle() {
+        return this.idle;
+    }
+
+    /**
+     * Return the statistics per route, keyed by {@code scheme://host:port}.
+     */
+    public Map<String, RouteMetrics> getRoutes() {
+        return this.routes;
+    }
+
+    @Override
+    public String toString() {
+        return "HttpConnectionPoolMetrics [leased=" + this.leased + ", idle=" + this.idle +
+                ", maxTotal=" + this.maxTotal + ", maxPerRoute=" + this.maxPerRoute + ", routes=" + this.routes.values() + "]";
+    }
+
+
+    /**
+     * Statistics of a single route.
+     */
+    public static class RouteMetrics {
+
+        private final String route;
+
+        private final int leased;
+
+        private final int idle;
+
+        private final int pending;
+
+        private final long connectionsCreated;
+
+        private final long connectionsReused;
+
+        private final long connectionsClosed;
+
+        private final long connectionsEvicted;
+
+        private final long requests;
+
+        private final long averageLeaseWaitNanos;
+
+        RouteMetrics(String route, int leased, int idle, int pending, long connectionsCreated,
+                     long connectionsReused, long connectionsClosed, long connectionsEvicted,
+                     long requests, long averageLeaseWaitNanos) {
+
+            this.route = route;
+            this.leased = leased;
+            this.idle = idle;
+            this.pending = pending;
+            this.connectionsCreated = connectionsCreated;
+            this.connectionsReused = connectionsReused;
+            this.connectionsClosed = connectionsClosed;
+            this.connectionsEvicted = connectionsEvicted;
+            this.requests = requests;
+            this.averageLeaseWaitNanos = averageLeaseWaitNanos;
+        }
+
+        public String getRoute() {
+            return this.route;
+        }
+
+        public int getLeased() {
+            return this.leased;
+        }
+
+        public int getIdle() {
+            return this.idle;
+        }
+
+        /**
+         * Return the number of callers currently waiting for a connection.
+         */
+        public int getPending() {
+            return this.pending;
+        }
+
+        public long getConnectionsCreated() {
+            return this.connectionsCreated;
+        }
+
+        /**
+         * Return the number of leases served by an existing keep-alive connection.
+         */
+        public long getConnectionsReused() {
+            return this.connectionsReused;
+        }
+
+        /**
+         * Return the number of connections closed after use, e.g. on
+         * {@code Connection: close} or an incompletely consumed response.
+         */
+        public long getConnectionsClosed() {
+            return this.connectionsClosed;
+        }
+
+        /**
+         * Return the number of idle connections evicted as expired or stale.
+         */
+        public long getConnectionsEvicted() {
+            return this.connectionsEvicted;
+        }
+
+        /**
+         * Return the number of completed exchanges.
+         */
+        public long getRequests() {
+            return this.requests;
+        }
+
+        public long getAverageLeaseWaitNanos() {
+            return this.averageLeaseWaitNanos;
+        }
+
+        @Override
+        public String toString() {
+            return this.route + " [leased=" + this.leased + ", idle=" + this.idle + ", pending=" + this.pending +
+                    ", created=" + this.connectionsCreated + ", reused=" + this.connectionsReused +
+                    ", closed=" + this.connectionsClosed + ", evicted=" + this.connectionsEvicted +
+                    ", requests=" + this.requests + "]";
+        }
+    }
+
+}
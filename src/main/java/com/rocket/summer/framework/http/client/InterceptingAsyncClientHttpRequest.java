@@ -8,7 +8,6 @@ import com.rocket.summer.framework.util.concurrent.ListenableFuture;
 
 import java.io.IOException;
 import java.net.URI;
-import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -51,7 +50,7 @@ class InterceptingAsyncClientHttpRequest extends AbstractBufferingAsyncClientHtt
     protected ListenableFuture<ClientHttpResponse> executeInternal(HttpHeaders headers, byte[] body)
             throws IOException {
 
-        return new AsyncRequestExecution().executeAsync(this, body);
+        return new AsyncRequestExecution(0).executeAsync(this, body);
     }
 
     @Override
@@ -65,21 +64,25 @@ class InterceptingAsyncClientHttpRequest extends AbstractBufferingAsyncClientHtt
     }
 
 
+    /**
+     * Execution positioned after a given interceptor. An interceptor may execute
+     * the rest of the chain more than once, e.g. to retry or hedge a request.
+     */
     private class AsyncRequestExecution implements AsyncClientHttpRequestExecution {
 
-        private Iterator<AsyncClientHttpRequestInterceptor> iterator;
+        private final int index;
 
-        public AsyncRequestExecution() {
-            this.iterator = interceptors.iterator();
+        public AsyncRequestExecution(int index) {
+            this.index = index;
         }
 
         @Override
         public ListenableFuture<ClientHttpResponse> executeAsync(HttpRequest request, byte[] body)
                 throws IOException {
 
-            if (this.iterator.hasNext()) {
-                AsyncClientHttpRequestInterceptor interceptor = this.iterator.next();
-                return interceptor.intercept(request, body, this);
+            if (this.index < interceptors.size()) {
+                AsyncClientHttpRequestInterceptor interceptor = interceptors.get(this.index);
+                return interceptor.intercept(request, body, new AsyncRequestExecution(this.index + 1));
             }
             else {
                 URI uri = request.getURI();
@@ -9,7 +9,6 @@ import com.rocket.summer.framework.util.StreamUtils;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.URI;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -52,24 +51,28 @@ class InterceptingClientHttpRequest extends AbstractBufferingClientHttpRequest {
 
     @Override
     protected final ClientHttpResponse executeInternal(HttpHeaders headers, byte[] bufferedOutput) throws IOException {
-        InterceptingRequestExecution requestExecution = new InterceptingRequestExecution();
+        InterceptingRequestExecution requestExecution = new InterceptingRequestExecution(0);
         return requestExecution.execute(this, bufferedOutput);
     }
 
 
+    /**
+     * Execution positioned after a given interceptor. An interceptor may execute
+     * the rest of the chain more than once, e.g. to retry a request.
+     */
     private class InterceptingRequestExecution implements ClientHttpRequestExecution {
 
-        private final Iterator<ClientHttpRequestInterceptor> iterator;
+        private final int index;
 
-        public InterceptingRequestExecution() {
-            this.iterator = interceptors.iterator();
+        public InterceptingRequestExecution(int index) {
+            this.index = index;
         }
 
         @Override
         public ClientHttpResponse execute(HttpRequest request, final byte[] body) throws IOException {
-            if (this.iterator.hasNext()) {
-                ClientHttpRequestInterceptor nextInterceptor = this.iterator.next();
-                return nextInterceptor.intercept(request, body, this);
+            if (this.index < interceptors.size()) {
+                ClientHttpRequestInterceptor nextInterceptor = interceptors.get(this.index);
+                return nextInterceptor.intercept(request, body, new InterceptingRequestExecution(this.index + 1));
             }
             else {
                 ClientHttpRequest delegate = requestFactory.createRequest(request.getURI(), request.getMethod());
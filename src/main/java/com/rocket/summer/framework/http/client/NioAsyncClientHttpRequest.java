@@ -0,0 +1,49 @@
+package com.rocket.summer.framework.http.client;
+
+import com.rocket.summer.framework.http.HttpHeaders;
+import com.rocket.summer.framework.http.HttpMethod;
+import com.rocket.summer.framework.util.concurrent.ListenableFuture;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * {@link AsyncClientHttpRequest} implementation that buffers the request body and
+ * hands the exchange to the NIO event loop of a {@link NioClientHttpRequestFactory}.
+ *
+ * @see NioClientHttpRequestFactory#createAsyncRequest(URI, HttpMethod)
+ */
+final class NioAsyncClientHttpRequest extends AbstractBufferingAsyncClientHttpRequest {
+
+    private final NioClientHttpRequestFactory requestFactory;
+
+    private final URI uri;
+
+    private final HttpMethod method;
+
+
+    NioAsyncClientHttpRequest(NioClientHttpRequestFactory requestFactory, URI uri, HttpMethod method) {
+        this.requestFactory = requestFactory;
+        this.uri = uri;
+        this.method = method;
+    }
+
+
+    @Override
+    public HttpMethod getMethod() {
+        return this.method;
+    }
+
+    @Override
+    public URI getURI() {
+        return this.uri;
+    }
+
+    @Override
+    protected ListenableFuture<ClientHttpResponse> executeInternal(HttpHeaders headers, byte[] bufferedOutput)
+            throws IOException {
+
+        return this.requestFactory.execute(this.uri, this.method, headers, bufferedOutput);
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.rocket.summer.framework.http.client;
+
+import com.rocket.summer.framework.http.HttpHeaders;
+import com.rocket.summer.framework.http.HttpMethod;
+import com.rocket.summer.framework.util.concurrent.ListenableFuture;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link ClientHttpRequest} implementation that executes the exchange on the NIO
+ * event loop of a {@link NioClientHttpRequestFactory} and waits for its completion.
+ *
+ * @see NioClientHttpRequestFactory#createRequest(URI, HttpMethod)
+ */
+final class NioClientHttpRequest extends AbstractBufferingClientHttpRequest {
+
+    private final NioClientHttpRequestFactory requestFactory;
+
+    private final URI uri;
+
+    private final HttpMethod method;
+
+
+    NioClientHttpRequest(NioClientHttpRequestFactory requestFactory, URI uri, HttpMethod method) {
+        this.requestFactory = requestFactory;
+        this.uri = uri;
+        this.method = method;
+    }
+
+
+    @Override
+    public HttpMethod getMethod() {
+        return this.method;
+    }
+
+    @Override
+    public URI getURI() {
+        return this.uri;
+    }
+
+    @Override
+    protected ClientHttpResponse executeInternal(HttpHeaders headers, byte[] bufferedOutput) throws IOException {
+        ListenableFuture<ClientHttpResponse> future =
+                this.requestFactory.execute(this.uri, this.method, headers, bufferedOutput);
+        try {
+            // Wait in bounded steps, so that a terminated event loop cannot leave us hanging
+            while (true) {
+                try {
+                    return future.get(NioEventLoop.MAX_SELECT_TIMEOUT, TimeUnit.MILLISECONDS);
+                }
+                catch (TimeoutException ex) {
+                    if (this.requestFactory.isEventLoopTerminated() && !future.isDone()) {
+                        future.cancel(true);
+                        throw new IOException("NIO event loop terminated before completing " +
+                                this.method + " request for \"" + this.uri + "\"");
+                    }
+                }
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for response from " + this.uri);
+        }
+        catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("I/O error on " + this.method + " request for \"" + this.uri + "\"", cause);
+        }
+    }
+
+}
@@ -0,0 +1,233 @@
+package com.rocket.summer.framework.http.client;
+
+import com.rocket.summer.framework.beans.factory.DisposableBean;
+import com.rocket.summer.framework.http.HttpHeaders;
+import com.rocket.summer.framework.http.HttpMethod;
+import com.rocket.summer.framework.util.Assert;
+import com.rocket.summer.framework.util.concurrent.ListenableFuture;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link AsyncClientHttpRequestFactory} implementation performing non-blocking
+ * HTTP/1.1 exchanges on NIO socket channels driven by a single selector thread,
+ * rather than occupying one executor thread per in-flight request.
+ *
+ * <p>Keep-alive connections are pooled per route. Completed responses are handed
+ * over to a separate {@linkplain #setCallbackExecutor callback executor},
+ * so that future callbacks and message conversion performed by
+ * {@link com.rocket.summer.framework.web.client.AsyncRestTemplate} never block
+ * the I/O thread. Response bodies are fully read into memory before the returned
+ * future completes.
+ *
+ * <p>Also implements {@link ClientHttpRequestFactory}, with synchronous requests
+ * simply waiting for the asynchronous exchange to complete.
+ *
+ * <p>Only plain {@code http} URIs are supported.
+ */
+public class NioClientHttpRequestFactory
+        implements ClientHttpRequestFactory, AsyncClientHttpRequestFactory, DisposableBean {
+
+    private static final AtomicInteger instanceCount = new AtomicInteger();
+
+
+    private int maxConnectionsPerRoute = 20;
+
+    private long idleTimeout = 60000;
+
+    private int maxRequestsPerConnection = 0;
+
+    private int connectTimeout = -1;
+
+    private int readTimeout = -1;
+
+    private Executor callbackExecutor;
+
+    private ExecutorService defaultCallbackExecutor;
+
+    private volatile NioEventLoop eventLoop;
+
+    private final Object eventLoopMonitor = new Object();
+
+
+    /**
+     * Set the maximum number of connections kept open per route. Further
+     * exchanges queue up until a connection becomes available. Default is 20.
+     */
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        Assert.isTrue(maxConnectionsPerRoute > 0, "maxConnectionsPerRoute must be greater than 0");
+        this.maxConnectionsPerRoute = maxConnectionsPerRoute;
+    }
+
+    public int getMaxConnectionsPerRoute() {
+        return this.maxConnectionsPerRoute;
+    }
+
+    /**
+     * Set the time in milliseconds after which idle connections are closed.
+     * Default is 60 seconds; 0 keeps idle connections until the server closes them.
+     */
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public long getIdleTimeout() {
+        return this.idleTimeout;
+    }
+
+    /**
+     * Set the maximum number of exchanges per connection before it is closed.
+     * Default is 0, for no limit.
+     */
+    public void setMaxRequestsPerConnection(int maxRequestsPerConnection) {
+        this.maxRequestsPerConnection = maxRequestsPerConnection;
+    }
+
+    public int getMaxRequestsPerConnection() {
+        return this.maxRequestsPerConnection;
+    }
+
+    /**
+     * Set the connect timeout in milliseconds. A value of 0 or less specifies
+     * an infinite timeout, which is the default.
+     */
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public int getConnectTimeout() {
+        return this.connectTimeout;
+    }
+
+    /**
+     * Set the timeout in milliseconds for an exchange to complete once the
+     * connection is established. A value of 0 or less specifies an infinite
+     * timeout, which is the default.
+     */
+    public void setReadTimeout(int readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    public int getReadTimeout() {
+        return this.readTimeout;
+    }
+
+    /**
+     * Set the executor on which returned futures are completed, and thus on which
+     * their callbacks run. Must be set before the first request is executed.
+     * <p>By default, a thread pool sized to the number of available processors
+     * is used. Callbacks never run on the I/O thread: should the executor reject
+     * a task, the future gets completed on a separate overflow thread instead.
+     */
+    public void setCallbackExecutor(Executor callbackExecutor) {
+        Assert.notNull(callbackExecutor, "Executor must not be null");
+        this.callbackExecutor = callbackExecutor;
+    }
+
+    /**
+     * Return a snapshot of the connection statistics per route.
+     */
+    public HttpConnectionPoolMetrics getMetrics() {
+        return getEventLoop().getMetrics();
+    }
+
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        Http11Codec.routeFor(uri);
+        return new NioClientHttpRequest(this, uri, httpMethod);
+    }
+
+    @Override
+    public AsyncClientHttpRequest createAsyncRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        Http11Codec.routeFor(uri);
+        return new NioAsyncClientHttpRequest(this, uri, httpMethod);
+    }
+
+    /**
+     * Submit the given exchange to the event loop.
+     */
+    ListenableFuture<ClientHttpResponse> execute(URI uri, HttpMethod method, HttpHeaders headers, byte[] body) {
+        if (headers.getContentLength() < 0 && (body.length > 0 || Http11Codec.permitsRequestBody(method.name()))) {
+            headers.setContentLength(body.length);
+        }
+        byte[] head = Http11Codec.encodeRequestHead(method.name(), uri, headers);
+        return getEventLoop().execute(uri, method, head, body);
+    }
+
+    /**
+     * Return whether the event loop has terminated, failing all exchanges it had
+     * been handed.
+     */
+    boolean isEventLoopTerminated() {
+        NioEventLoop eventLoop = this.eventLoop;
+        return (eventLoop != null && !eventLoop.isAlive());
+    }
+
+    private NioEventLoop getEventLoop() {
+        NioEventLoop eventLoop = this.eventLoop;
+        if (eventLoop == null) {
+            synchronized (this.eventLoopMonitor) {
+                eventLoop = this.eventLoop;
+                if (eventLoop == null) {
+                    int instance = instanceCount.incrementAndGet();
+                    Executor executor = this.callbackExecutor;
+                    if (executor == null) {
+                        this.defaultCallbackExecutor = createDefaultCallbackExecutor(instance);
+                        executor = this.defaultCallbackExecutor;
+                    }
+                    try {
+                        eventLoop = new NioEventLoop(this, executor, "nio-http-client-" + instance);
+                    }
+                    catch (IOException ex) {
+                        throw new IllegalStateException("Failed to open NIO selector", ex);
+                    }
+                    this.eventLoop = eventLoop;
+                }
+            }
+        }
+        return eventLoop;
+    }
+
+    private ExecutorService createDefaultCallbackExecutor(final int instance) {
+        int poolSize = Runtime.getRuntime().availableProcessors();
+        ThreadFactory threadFactory = new ThreadFactory() {
+            private final AtomicInteger threadCount = new AtomicInteger();
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable,
+                        "nio-http-client-" + instance + "-callback-" + this.threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<Runnable>(), threadFactory);
+    }
+
+
+    /**
+     * Shut down the event loop, closing all connections and failing any
+     * exchanges still in progress.
+     */
+    @Override
+    public void destroy() {
+        synchronized (this.eventLoopMonitor) {
+            if (this.eventLoop != null) {
+                this.eventLoop.shutdown();
+            }
+            if (this.defaultCallbackExecutor != null) {
+                this.defaultCallbackExecutor.shutdown();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.rocket.summer.framework.http.client;
+
+import com.rocket.summer.framework.http.HttpHeaders;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+/**
+ * {@link ClientHttpResponse} implementation holding a response fully read by the
+ * NIO event loop of a {@link NioClientHttpRequestFactory}. The connection has
+ * already been returned to the pool, so closing the response is a no-op.
+ */
+final class NioClientHttpResponse extends AbstractClientHttpResponse {
+
+    private final Http11Codec.ResponseHead head;
+
+    private final byte[] body;
+
+
+    NioClientHttpResponse(Http11Codec.ResponseHead head, byte[] body) {
+        this.head = head;
+        this.body = body;
+    }
+
+
+    @Override
+    public int getRawStatusCode() {
+        return this.head.statusCode;
+    }
+
+    @Override
+    public String getStatusText() {
+        return this.head.statusText;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return this.head.headers;
+    }
+
+    @Override
+    public InputStream getBody() {
+        return new ByteArrayInputStream(this.body);
+    }
+
+    @Override
+    public void close() {
+    }
+
+}
@@ -0,0 +1,657 @@
+package com.rocket.summer.framework.http.client;
+
+import com.rocket.summer.framework.http.HttpMethod;
+import com.rocket.summer.framework.util.concurrent.SettableListenableFuture;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Single-threaded selector loop performing HTTP/1.1 exchanges on non-blocking
+ * socket channels, with a per-route pool of keep-alive connections.
+ *
+ * <p>All connection state is confined to the loop thread; other threads only
+ * submit exchanges. Completed responses are handed to the callback executor, so
+ * that listeners (e.g. message conversion in
+ * {@link com.rocket.summer.framework.web.client.AsyncRestTemplate}) never run on,
+ * and never block, the I/O thread.
+ *
+ * @see NioClientHttpRequestFactory
+ */
+class NioEventLoop implements Runnable {
+
+    private static final Log logger = LogFactory.getLog(NioEventLoop.class);
+
+    static final long MAX_SELECT_TIMEOUT = 1000;
+
+
+    private final NioClientHttpRequestFactory config;
+
+    private final Executor callbackExecutor;
+
+    private final Selector selector;
+
+    private final Thread thread;
+
+    private final Queue<Exchange> submissions = new ConcurrentLinkedQueue<Exchange>();
+
+    private final Map<String, RouteState> routes = new LinkedHashMap<String, RouteState>();
+
+    private final Set<NioConnection> busyConnections = new HashSet<NioConnection>();
+
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(64 * 1024);
+
+    private volatile boolean running = true;
+
+    /** Completes futures rejected by the callback executor; created on demand */
+    private ExecutorService overflowExecutor;
+
+
+    NioEventLoop(NioClientHttpRequestFactory config, Executor callbackExecutor, String threadName) throws IOException {
+        this.config = config;
+        this.callbackExecutor = callbackExecutor;
+        this.selector = Selector.open();
+        this.thread = new Thread(this, threadName);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+
+    /**
+     * Submit an exchange from any thread.
+     * @return the future completed with the response on the callback executor
+     */
+    SettableListenableFuture<ClientHttpResponse> execute(URI uri, HttpMethod method, byte[] head, byte[] body) {
+        Exchange exchange = new Exchange(uri, Http11Codec.routeFor(uri), method, head, body);
+        if (!this.running) {
+            exchange.future.setException(new IOException("NioClientHttpRequestFactory has been shut down"));
+            return exchange.future;
+        }
+        this.submissions.add(exchange);
+        if (!this.running && this.submissions.remove(exchange)) {
+            // Shut down concurrently: the loop may have drained the queue already.
+            exchange.future.setException(new IOException("NioClientHttpRequestFactory has been shut down"));
+            return exchange.future;
+        }
+        this.selector.wakeup();
+        return exchange.future;
+    }
+
+    /**
+     * Return whether the loop thread is still processing exchanges.
+     */
+    boolean isAlive() {
+        return this.thread.isAlive();
+    }
+
+    /**
+     * Return a snapshot of the connection statistics. Values are read without
+     * synchronizing with the loop thread and may be slightly out of date.
+     */
+    HttpConnectionPoolMetrics getMetrics() {
+        Map<String, HttpConnectionPoolMetrics.RouteMetrics> routeMetrics =
+                new LinkedHashMap<String, HttpConnectionPoolMetrics.RouteMetrics>();
+        int leased = 0;
+        int idle = 0;
+        synchronized (this.routes) {
+            for (RouteState state : this.routes.values()) {
+                int routeIdle = state.idleCount;
+                int routeLeased = state.open - routeIdle;
+                leased += routeLeased;
+                idle += routeIdle;
+                routeMetrics.put(state.route, new HttpConnectionPoolMetrics.RouteMetrics(state.route,
+                        routeLeased, routeIdle, state.pendingCount, state.created, state.reused, state.closed,
+                        state.evicted, state.requests, 0));
+            }
+        }
+        return new HttpConnectionPoolMetrics(Integer.MAX_VALUE, this.config.getMaxConnectionsPerRoute(),
+                leased, idle, routeMetrics);
+    }
+
+    void shutdown() {
+        this.running = false;
+        this.selector.wakeup();
+    }
+
+
+    @Override
+    public void run() {
+        try {
+            while (this.running) {
+                this.selector.select(MAX_SELECT_TIMEOUT);
+                processSubmissions();
+                Iterator<SelectionKey> it = this.selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    try {
+                        processKey(key);
+                    }
+                    catch (RuntimeException ex) {
+                        logger.error("Unexpected failure on connection to " +
+                                ((NioConnection) key.attachment()).state.route, ex);
+                        abort((NioConnection) key.attachment(), ex);
+                    }
+                }
+                checkTimeouts();
+            }
+        }
+        catch (IOException ex) {
+            logger.error("I/O failure in NIO HTTP client event loop", ex);
+        }
+        catch (ClosedSelectorException ex) {
+            // shut down
+        }
+        finally {
+            // Also when failing unexpectedly, so that no further exchanges get queued
+            this.running = false;
+            closeAll();
+        }
+    }
+
+    private void processSubmissions() {
+        Exchange exchange;
+        while ((exchange = this.submissions.poll()) != null) {
+            try {
+                dispatch(exchange);
+            }
+            catch (RuntimeException ex) {
+                logger.error("Unexpected failure dispatching request to " + exchange.route, ex);
+                fail(exchange, ex);
+            }
+        }
+    }
+
+    private void dispatch(Exchange exchange) {
+        RouteState state = getRouteState(exchange.route);
+        long now = System.currentTimeMillis();
+        NioConnection connection;
+        while ((connection = state.idle.pollFirst()) != null) {
+            state.idleCount--;
+            if (connection.isExpired(now, this.config.getIdleTimeout()) ||
+                    !connection.key.isValid() || !connection.channel.isOpen()) {
+                state.evicted++;
+                closeConnection(connection);
+                continue;
+            }
+            state.reused++;
+            start(connection, exchange);
+            return;
+        }
+        if (state.open < this.config.getMaxConnectionsPerRoute()) {
+            openConnection(state, exchange);
+        }
+        else {
+            state.pending.add(exchange);
+            state.pendingCount++;
+        }
+    }
+
+    private void openConnection(RouteState state, Exchange exchange) {
+        SocketChannel channel = null;
+        NioConnection connection = null;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            channel.socket().setKeepAlive(true);
+            connection = new NioConnection(state, channel);
+            state.open++;
+            state.created++;
+            connection.current = exchange;
+            int connectTimeout = this.config.getConnectTimeout();
+            connection.deadline = (connectTimeout > 0 ? System.currentTimeMillis() + connectTimeout : Long.MAX_VALUE);
+            this.busyConnections.add(connection);
+            URI uri = exchange.uri;
+            InetSocketAddress address = new InetSocketAddress(uri.getHost(), (uri.getPort() != -1 ? uri.getPort() : 80));
+            if (channel.connect(address)) {
+                connection.key = channel.register(this.selector, 0, connection);
+                start(connection, exchange);
+            }
+            else {
+                connection.key = channel.register(this.selector, SelectionKey.OP_CONNECT, connection);
+            }
+        }
+        catch (IOException ex) {
+            if (connection != null) {
+                this.busyConnections.remove(connection);
+                state.closed++;
+                closeConnection(connection);
+            }
+            else if (channel != null) {
+                try {
+                    channel.close();
+                }
+                catch (IOException closeEx) {
+                    // ignore
+                }
+            }
+            fail(exchange, ex);
+            dispatchPending(state);
+        }
+    }
+
+    private void start(NioConnection connection, Exchange exchange) {
+        connection.current = exchange;
+        connection.requests++;
+        connection.decoder = new Http11Codec.ResponseDecoder(exchange.method.name());
+        connection.outbound = new ByteBuffer[] {ByteBuffer.wrap(exchange.head), ByteBuffer.wrap(exchange.body)};
+        int readTimeout = this.config.getReadTimeout();
+        connection.deadline = (readTimeout > 0 ? System.currentTimeMillis() + readTimeout : Long.MAX_VALUE);
+        this.busyConnections.add(connection);
+        connection.key.interestOps(SelectionKey.OP_WRITE);
+    }
+
+    private void processKey(SelectionKey key) {
+        NioConnection connection = (NioConnection) key.attachment();
+        try {
+            if (!key.isValid()) {
+                return;
+            }
+            if (key.isConnectable()) {
+                connection.channel.finishConnect();
+                start(connection, connection.current);
+                return;
+            }
+            if (key.isWritable()) {
+                connection.channel.write(connection.outbound);
+                if (!connection.outbound[1].hasRemaining()) {
+                    connection.outbound = null;
+                    key.interestOps(SelectionKey.OP_READ);
+                }
+            }
+            if (key.isReadable()) {
+                read(connection);
+            }
+        }
+        catch (CancelledKeyException ex) {
+            // connection closed concurrently
+        }
+        catch (IOException ex) {
+            handleFailure(connection, ex);
+        }
+    }
+
+    private void read(NioConnection connection) throws IOException {
+        while (true) {
+            this.readBuffer.clear();
+            int count = connection.channel.read(this.readBuffer);
+            if (count == 0) {
+                return;
+            }
+            if (connection.current == null) {
+                // Data or EOF on an idle connection: it can no longer be reused
+                RouteState state = connection.state;
+                if (state.idle.remove(connection)) {
+                    state.idleCount--;
+                }
+                state.evicted++;
+                closeConnection(connection);
+                return;
+            }
+            if (count == -1) {
+                connection.decoder.endOfInput();
+                complete(connection, false);
+                return;
+            }
+            if (connection.decoder.feed(this.readBuffer.array(), 0, count)) {
+                complete(connection, connection.decoder.isReusable());
+                return;
+            }
+        }
+    }
+
+    private void complete(NioConnection connection, boolean reusable) {
+        Exchange exchange = connection.current;
+        Http11Codec.ResponseDecoder decoder = connection.decoder;
+        Http11Codec.ResponseHead head = decoder.getHead();
+        RouteState state = connection.state;
+        state.requests++;
+        release(connection, reusable, head.getKeepAliveTimeout());
+        succeed(exchange, new NioClientHttpResponse(head, decoder.getBody()));
+        dispatchPending(state);
+    }
+
+    private void release(NioConnection connection, boolean reusable, long keepAliveTimeout) {
+        this.busyConnections.remove(connection);
+        connection.current = null;
+        connection.decoder = null;
+        int maxRequests = this.config.getMaxRequestsPerConnection();
+        if (reusable && this.running && (maxRequests <= 0 || connection.requests < maxRequests)) {
+            connection.lastUsedAt = System.currentTimeMillis();
+            connection.expiresAt = (keepAliveTimeout > 0 ? connection.lastUsedAt + keepAliveTimeout : Long.MAX_VALUE);
+            connection.deadline = Long.MAX_VALUE;
+            // Keep listening so that a server-side close is noticed while idle
+            connection.key.interestOps(SelectionKey.OP_READ);
+            connection.state.idle.addFirst(connection);
+            connection.state.idleCount++;
+        }
+        else {
+            connection.state.closed++;
+            closeConnection(connection);
+        }
+    }
+
+    private void handleFailure(NioConnection connection, IOException ex) {
+        Exchange exchange = connection.current;
+        RouteState state = connection.state;
+        boolean retry = (exchange != null && !exchange.retried && connection.requests > 1 &&
+                (connection.decoder == null || !connection.decoder.hasReceivedData()) &&
+                exchange.method != HttpMethod.POST && exchange.method != HttpMethod.PATCH);
+        this.busyConnections.remove(connection);
+        connection.current = null;
+        if (state.idle.remove(connection)) {
+            // Failure while idle, e.g. a reset by the peer
+            state.idleCount--;
+        }
+        state.closed++;
+        closeConnection(connection);
+        if (exchange != null) {
+            if (retry) {
+                // The server may have closed the reused idle connection in the meantime
+                exchange.retried = true;
+                dispatch(exchange);
+                return;
+            }
+            fail(exchange, ex);
+        }
+        dispatchPending(state);
+    }
+
+    /**
+     * Close the given connection after an unexpected failure, without retrying
+     * its current exchange.
+     */
+    private void abort(NioConnection connection, RuntimeException ex) {
+        if (!connection.channel.isOpen()) {
+            return;
+        }
+        connection.requests = 0;
+        try {
+            handleFailure(connection, new IOException(ex.toString(), ex));
+        }
+        catch (RuntimeException nested) {
+            logger.error("Failed to clean up connection to " + connection.state.route, nested);
+        }
+    }
+
+    private void dispatchPending(RouteState state) {
+        while (!state.pending.isEmpty() &&
+                (!state.idle.isEmpty() || state.open < this.config.getMaxConnectionsPerRoute())) {
+            state.pendingCount--;
+            dispatch(state.pending.poll());
+        }
+    }
+
+    private void checkTimeouts() {
+        long now = System.currentTimeMillis();
+        if (!this.busyConnections.isEmpty()) {
+            List<NioConnection> timedOut = null;
+            for (NioConnection connection : this.busyConnections) {
+                if (now >= connection.deadline) {
+                    if (timedOut == null) {
+                        timedOut = new ArrayList<NioConnection>();
+                    }
+                    timedOut.add(connection);
+                }
+            }
+            if (timedOut != null) {
+                for (NioConnection connection : timedOut) {
+                    IOException ex = (connection.key != null && (connection.key.interestOps() & SelectionKey.OP_CONNECT) != 0 ?
+                            new ConnectException("Connect timed out to " + connection.state.route) :
+                            new SocketTimeoutException("Read timed out from " + connection.state.route));
+                    connection.requests = 0;  // no retry after a timeout
+                    handleFailure(connection, ex);
+                }
+            }
+        }
+        long idleTimeout = this.config.getIdleTimeout();
+        for (RouteState state : this.routes.values()) {
+            Iterator<NioConnection> it = state.idle.iterator();
+            while (it.hasNext()) {
+                NioConnection connection = it.next();
+                if (connection.isExpired(now, idleTimeout)) {
+                    it.remove();
+                    state.idleCount--;
+                    state.evicted++;
+                    closeConnection(connection);
+                }
+            }
+        }
+    }
+
+    private void succeed(final Exchange exchange, final ClientHttpResponse response) {
+        executeCallback(new Runnable() {
+            @Override
+            public void run() {
+                exchange.future.set(response);
+            }
+        });
+    }
+
+    private void fail(final Exchange exchange, final Throwable failure) {
+        executeCallback(new Runnable() {
+            @Override
+            public void run() {
+                exchange.future.setException(failure);
+            }
+        });
+    }
+
+    /**
+     * Complete a future on the callback executor or, if that rejects the task,
+     * on the overflow thread: listeners must never run on the loop thread.
+     */
+    private void executeCallback(Runnable callback) {
+        try {
+            this.callbackExecutor.execute(callback);
+        }
+        catch (RejectedExecutionException ex) {
+            if (this.overflowExecutor == null) {
+                logger.warn("Callback executor rejected completion of a request - " +
+                        "completing futures on an overflow thread from now on whenever rejected");
+                this.overflowExecutor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, NioEventLoop.this.thread.getName() + "-overflow");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            }
+            this.overflowExecutor.execute(callback);
+        }
+    }
+
+    private RouteState getRouteState(String route) {
+        RouteState state = this.routes.get(route);
+        if (state == null) {
+            state = new RouteState(route);
+            synchronized (this.routes) {
+                this.routes.put(route, state);
+            }
+        }
+        return state;
+    }
+
+    private void closeConnection(NioConnection connection) {
+        connection.state.open--;
+        if (connection.key != null) {
+            connection.key.cancel();
+        }
+        try {
+            connection.channel.close();
+        }
+        catch (IOException ex) {
+            // ignore
+        }
+    }
+
+    private void closeAll() {
+        IOException shutdown = new IOException("NioClientHttpRequestFactory has been shut down");
+        Exchange exchange;
+        while ((exchange = this.submissions.poll()) != null) {
+            fail(exchange, shutdown);
+        }
+        for (NioConnection connection : new ArrayList<NioConnection>(this.busyConnections)) {
+            if (connection.current != null) {
+                fail(connection.current, shutdown);
+            }
+            closeConnection(connection);
+        }
+        this.busyConnections.clear();
+        for (RouteState state : this.routes.values()) {
+            for (NioConnection connection : state.idle) {
+                closeConnection(connection);
+            }
+            state.idle.clear();
+            state.idleCount = 0;
+            for (Exchange pending : state.pending) {
+                fail(pending, shutdown);
+            }
+            state.pending.clear();
+            state.pendingCount = 0;
+        }
+        try {
+            this.selector.close();
+        }
+        catch (IOException ex) {
+            // ignore
+        }
+        // Exchanges submitted while closing; later ones are failed by execute itself
+        while ((exchange = this.submissions.poll()) != null) {
+            fail(exchange, shutdown);
+        }
+        if (this.overflowExecutor != null) {
+            // Still runs the callbacks queued above
+            this.overflowExecutor.shutdown();
+        }
+    }
+
+
+    /**
+     * A single request/response exchange.
+     */
+    private static class Exchange {
+
+        final URI uri;
+
+        final String route;
+
+        final HttpMethod method;
+
+        final byte[] head;
+
+        final byte[] body;
+
+        final SettableListenableFuture<ClientHttpResponse> future = new SettableListenableFuture<ClientHttpResponse>();
+
+        boolean retried;
+
+        Exchange(URI uri, String route, HttpMethod method, byte[] head, byte[] body) {
+            this.uri = uri;
+            this.route = route;
+            this.method = method;
+            this.head = head;
+            this.body = body;
+        }
+    }
+
+
+    /**
+     * Connections and statistics of a single route. Mutated on the loop thread only;
+     * the counters are volatile so that metrics can be read from other threads.
+     */
+    private static class RouteState {
+
+        final String route;
+
+        final Deque<NioConnection> idle = new ArrayDeque<NioConnection>();
+
+        final Queue<Exchange> pending = new ArrayDeque<Exchange>();
+
+        volatile int open;
+
+        volatile int idleCount;
+
+        volatile int pendingCount;
+
+        volatile long created;
+
+        volatile long reused;
+
+        volatile long closed;
+
+        volatile long evicted;
+
+        volatile long requests;
+
+        RouteState(String route) {
+            this.route = route;
+        }
+    }
+
+
+    /**
+     * A non-blocking connection and the state of its current exchange.
+     */
+    private static class NioConnection {
+
+        final RouteState state;
+
+        final SocketChannel channel;
+
+        SelectionKey key;
+
+        Exchange current;
+
+        ByteBuffer[] outbound;
+
+        Http11Codec.ResponseDecoder decoder;
+
+        int requests;
+
+        long deadline = Long.MAX_VALUE;
+
+        long lastUsedAt = System.currentTimeMillis();
+
+        long expiresAt = Long.MAX_VALUE;
+
+        NioConnection(RouteState state, SocketChannel channel) {
+            this.state = state;
+            this.channel = channel;
+        }
+
+        boolean isExpired(long now, long idleTimeout) {
+            return (now >= this.expiresAt || (idleTimeout > 0 && now - this.lastUsedAt >= idleTimeout));
+        }
+    }
+
+}
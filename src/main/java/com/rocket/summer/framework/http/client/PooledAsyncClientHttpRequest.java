@@ -0,0 +1,71 @@
+package com.rocket.summer.framework.http.client;
+
+import com.rocket.summer.framework.core.task.AsyncListenableTaskExecutor;
+import com.rocket.summer.framework.http.HttpHeaders;
+import com.rocket.summer.framework.http.HttpMethod;
+import com.rocket.summer.framework.util.concurrent.ListenableFuture;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.concurrent.Callable;
+
+/**
+ * {@link AsyncClientHttpRequest} implementation that buffers the request body and
+ * executes the exchange over a pooled connection on a task executor. Created via the
+ * {@link PooledClientHttpRequestFactory}.
+ *
+ * @see PooledClientHttpRequestFactory#createAsyncRequest(URI, HttpMethod)
+ */
+final class PooledAsyncClientHttpRequest extends AbstractBufferingAsyncClientHttpRequest {
+
+    private final HttpConnectionPool connectionPool;
+
+    private final URI uri;
+
+    private final HttpMethod method;
+
+    private final int readTimeout;
+
+    private final AsyncListenableTaskExecutor taskExecutor;
+
+
+    PooledAsyncClientHttpRequest(HttpConnectionPool connectionPool, URI uri, HttpMethod method,
+                                 int readTimeout, AsyncListenableTaskExecutor taskExecutor) {
+
+        this.connectionPool = connectionPool;
+        this.uri = uri;
+        this.method = method;
+        this.readTimeout = readTimeout;
+        this.taskExecutor = taskExecutor;
+    }
+
+
+    @Override
+    public HttpMethod getMethod() {
+        return this.method;
+    }
+
+    @Override
+    public URI getURI() {
+        return this.uri;
+    }
+
+    @Override
+    protected ListenableFuture<ClientHttpResponse> executeInternal(
+            final HttpHeaders headers, final byte[] bufferedOutput) throws IOException {
+
+        return this.taskExecutor.submitListenable(new Callable<ClientHttpResponse>() {
+            @Override
+            public ClientHttpResponse call() throws Exception {
+                PooledClientHttpRequest request = new PooledClientHttpRequest(
+                        connectionPool, uri, method, readTimeout, true, 0);
+                request.getHeaders().putAll(headers);
+                if (bufferedOutput.length > 0) {
+                    request.getBody().write(bufferedOutput);
+                }
+                return request.execute();
+            }
+        });
+    }
+
+}
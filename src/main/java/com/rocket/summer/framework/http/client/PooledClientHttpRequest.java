@@ -0,0 +1,264 @@
+package com.rocket.summer.framework.http.client;
+
+import com.rocket.summer.framework.http.HttpHeaders;
+import com.rocket.summer.framework.http.HttpMethod;
+import com.rocket.summer.framework.util.StreamUtils;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+
+/**
+ * {@link ClientHttpRequest} implementation that sends the request over a keep-alive
+ * connection leased from an {@link HttpConnectionPool}. Created via the
+ * {@link PooledClientHttpRequestFactory}.
+ *
+ * <p>In streaming mode the request head is sent as soon as the body is requested, and
+ * the body is written straight to the connection, either with the declared
+ * {@code Content-Length} or using chunked transfer encoding. Should writing the body
+ * fail, the connection is closed right away; should the request be abandoned before
+ * execution, the pool closes the connection once the request is garbage collected.
+ *
+ * @see PooledClientHttpRequestFactory#createRequest(URI, HttpMethod)
+ */
+final class PooledClientHttpRequest extends AbstractClientHttpRequest {
+
+    private final HttpConnectionPool connectionPool;
+
+    private final URI uri;
+
+    private final HttpMethod method;
+
+    private final int readTimeout;
+
+    private final boolean bufferRequestBody;
+
+    private final int chunkSize;
+
+    private PooledHttpConnection connection;
+
+    private OutputStream body;
+
+    private boolean bodyFailed = false;
+
+    private boolean responseStarted = false;
+
+
+    PooledClientHttpRequest(HttpConnectionPool connectionPool, URI uri, HttpMethod method,
+                            int readTimeout, boolean bufferRequestBody, int chunkSize) {
+
+        this.connectionPool = connectionPool;
+        this.uri = uri;
+        this.method = method;
+        this.readTimeout = readTimeout;
+        this.bufferRequestBody = bufferRequestBody;
+        this.chunkSize = chunkSize;
+    }
+
+
+    @Override
+    public HttpMethod getMethod() {
+        return this.method;
+    }
+
+    @Override
+    public URI getURI() {
+        return this.uri;
+    }
+
+    @Override
+    protected OutputStream getBodyInternal(HttpHeaders headers) throws IOException {
+        if (this.body == null) {
+            if (this.bufferRequestBody) {
+                this.body = new Http11Codec.BodyBuffer();
+            }
+            else {
+                long contentLength = headers.getContentLength();
+                if (contentLength < 0) {
+                    headers.set("Transfer-Encoding", "chunked");
+                }
+                sendHead(headers);
+                OutputStream out = this.connection.getOutputStream();
+                this.body = new StreamingBody(contentLength >= 0 ?
+                        new Http11Codec.FixedLengthOutputStream(out, contentLength) :
+                        new Http11Codec.ChunkedOutputStream(out, this.chunkSize));
+            }
+        }
+        return StreamUtils.nonClosing(this.body);
+    }
+
+    @Override
+    protected ClientHttpResponse executeInternal(HttpHeaders headers) throws IOException {
+        if (this.body == null || this.body instanceof Http11Codec.BodyBuffer) {
+            return executeWithBufferedBody(headers, (Http11Codec.BodyBuffer) this.body);
+        }
+        if (this.bodyFailed) {
+            throw new IOException("Cannot execute request: writing the request body failed");
+        }
+        ((StreamingBody) this.body).finish();
+        try {
+            return receiveResponse();
+        }
+        catch (IOException ex) {
+            this.connectionPool.release(this.connection, false, -1);
+            throw ex;
+        }
+    }
+
+    private ClientHttpResponse executeWithBufferedBody(HttpHeaders headers, Http11Codec.BodyBuffer buffer)
+            throws IOException {
+
+        int length = (buffer != null ? buffer.size() : 0);
+        if (headers.getContentLength() < 0 && (length > 0 || Http11Codec.permitsRequestBody(this.method.name()))) {
+            headers.setContentLength(length);
+        }
+        try {
+            return exchange(headers, buffer, length);
+        }
+        catch (IOException ex) {
+            if (this.connection == null || this.connection.getRequestCount() <= 1 || this.responseStarted ||
+                    ex instanceof SocketTimeoutException ||
+                    this.method == HttpMethod.POST || this.method == HttpMethod.PATCH) {
+                throw ex;
+            }
+            // The server may have closed the reused idle connection in the meantime, failing
+            // the write or the first read: retry idempotent requests once on a fresh connection
+            return exchange(headers, buffer, length);
+        }
+    }
+
+    private ClientHttpResponse exchange(HttpHeaders headers, Http11Codec.BodyBuffer buffer, int length)
+            throws IOException {
+
+        sendHead(headers);
+        try {
+            if (length > 0) {
+                this.connection.getOutputStream().write(buffer.getBuffer(), 0, length);
+            }
+            return receiveResponse();
+        }
+        catch (IOException ex) {
+            this.connectionPool.release(this.connection, false, -1);
+            throw ex;
+        }
+    }
+
+    private void sendHead(HttpHeaders headers) throws IOException {
+        this.connection = this.connectionPool.lease(this.uri);
+        this.connectionPool.trackOwner(this.connection, this);
+        try {
+            this.connection.setReadTimeout(this.readTimeout);
+            this.connection.getOutputStream().write(Http11Codec.encodeRequestHead(this.method.name(), this.uri, headers));
+        }
+        catch (IOException ex) {
+            this.connectionPool.release(this.connection, false, -1);
+            throw ex;
+        }
+    }
+
+    private ClientHttpResponse receiveResponse() throws IOException {
+        this.connection.getOutputStream().flush();
+        InputStream in = this.connection.getInputStream();
+        in.mark(1);
+        if (in.read() == -1) {
+            throw new EOFException("Connection closed by server before sending a response");
+        }
+        this.responseStarted = true;
+        in.reset();
+        Http11Codec.ResponseHead head = Http11Codec.readResponseHead(in);
+        PooledClientHttpResponse response =
+                new PooledClientHttpResponse(this.connectionPool, this.connection, head, this.method.name());
+        this.connectionPool.trackOwner(this.connection, response);
+        return response;
+    }
+
+    private void bodyFailed() {
+        if (!this.bodyFailed) {
+            this.bodyFailed = true;
+            this.connectionPool.release(this.connection, false, -1);
+        }
+    }
+
+
+    /**
+     * Streaming request body that releases the connection as soon as a write fails,
+     * leaving the request in a state where it can no longer be executed.
+     */
+    private class StreamingBody extends OutputStream {
+
+        private final OutputStream delegate;
+
+        StreamingBody(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            assertWritable();
+            try {
+                this.delegate.write(b);
+            }
+            catch (IOException ex) {
+                bodyFailed();
+                throw ex;
+            }
+            catch (RuntimeException ex) {
+                bodyFailed();
+                throw ex;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            assertWritable();
+            try {
+                this.delegate.write(b, off, len);
+            }
+            catch (IOException ex) {
+                bodyFailed();
+                throw ex;
+            }
+            catch (RuntimeException ex) {
+                bodyFailed();
+                throw ex;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            assertWritable();
+            try {
+                this.delegate.flush();
+            }
+            catch (IOException ex) {
+                bodyFailed();
+                throw ex;
+            }
+        }
+
+        void finish() throws IOException {
+            try {
+                if (this.delegate instanceof Http11Codec.ChunkedOutputStream) {
+                    ((Http11Codec.ChunkedOutputStream) this.delegate).finish();
+                }
+                else {
+                    ((Http11Codec.FixedLengthOutputStream) this.delegate).finish();
+                }
+            }
+            catch (IOException ex) {
+                bodyFailed();
+                throw ex;
+            }
+        }
+
+        private void assertWritable() throws IOException {
+            if (bodyFailed) {
+                throw new IOException("Request body cannot be written: a previous write failed");
+            }
+        }
+    }
+
+}
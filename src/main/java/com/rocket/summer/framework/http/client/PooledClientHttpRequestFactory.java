@@ -0,0 +1,148 @@
+package com.rocket.summer.framework.http.client;
+
+import com.rocket.summer.framework.beans.factory.DisposableBean;
+import com.rocket.summer.framework.core.task.AsyncListenableTaskExecutor;
+import com.rocket.summer.framework.http.HttpMethod;
+import com.rocket.summer.framework.util.Assert;
+
+import java.io.IOException;
+import java.net.URI;
+
+/**
+ * {@link ClientHttpRequestFactory} implementation that reuses keep-alive HTTP/1.1
+ * connections from an {@link HttpConnectionPool}, built on NIO socket channels.
+ *
+ * <p>In contrast to {@link SimpleClientHttpRequestFactory}, connections are pooled
+ * per route with configurable limits, idle eviction and keep-alive tuning, and
+ * pool-level statistics are available through {@link #getMetrics()}. Request bodies
+ * are streamed to the connection by default.
+ *
+ * <p>Only plain {@code http} URIs are supported.
+ *
+ * @see HttpConnectionPool
+ */
+public class PooledClientHttpRequestFactory
+        implements ClientHttpRequestFactory, AsyncClientHttpRequestFactory, DisposableBean {
+
+    private static final int DEFAULT_CHUNK_SIZE = 4096;
+
+
+    private final HttpConnectionPool connectionPool;
+
+    private int readTimeout = -1;
+
+    private boolean bufferRequestBody = false;
+
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    private AsyncListenableTaskExecutor taskExecutor;
+
+
+    /**
+     * Create a new {@code PooledClientHttpRequestFactory} with a default
+     * {@link HttpConnectionPool}.
+     */
+    public PooledClientHttpRequestFactory() {
+        this(new HttpConnectionPool());
+    }
+
+    /**
+     * Create a new {@code PooledClientHttpRequestFactory} using the given pool.
+     * @param connectionPool the connection pool to use, possibly shared
+     */
+    public PooledClientHttpRequestFactory(HttpConnectionPool connectionPool) {
+        Assert.notNull(connectionPool, "HttpConnectionPool must not be null");
+        this.connectionPool = connectionPool;
+    }
+
+
+    /**
+     * Return the underlying connection pool, e.g. for tuning its limits.
+     */
+    public HttpConnectionPool getConnectionPool() {
+        return this.connectionPool;
+    }
+
+    /**
+     * Set the connect timeout in milliseconds for new connections.
+     * A timeout value of 0 specifies an infinite timeout.
+     * <p>This is a shortcut for {@code getConnectionPool().setConnectTimeout(...)}.
+     */
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectionPool.setConnectTimeout(connectTimeout);
+    }
+
+    /**
+     * Set the read timeout in milliseconds. A timeout value of 0 specifies an
+     * infinite timeout. Default is the system's default timeout.
+     */
+    public void setReadTimeout(int readTimeout) {
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Indicate whether this request factory should buffer the
+     * {@linkplain ClientHttpRequest#getBody() request body} internally.
+     * <p>Default is {@code false}: the request head is sent when the body is first
+     * requested and the body is streamed to the connection, either with its declared
+     * {@code Content-Length} or using chunked transfer encoding. Buffered requests to
+     * an idempotent method are retried once if a reused connection turns out closed.
+     */
+    public void setBufferRequestBody(boolean bufferRequestBody) {
+        this.bufferRequestBody = bufferRequestBody;
+    }
+
+    /**
+     * Set the number of bytes to write in each chunk when streaming request bodies
+     * of unknown length. Default is 4096.
+     */
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Set the task executor for this request factory. Setting this property is required
+     * for {@linkplain #createAsyncRequest(URI, HttpMethod) creating asynchronous requests}.
+     * @param taskExecutor the task executor
+     */
+    public void setTaskExecutor(AsyncListenableTaskExecutor taskExecutor) {
+        this.taskExecutor = taskExecutor;
+    }
+
+    /**
+     * Return a snapshot of the connection pool statistics.
+     */
+    public HttpConnectionPoolMetrics getMetrics() {
+        return this.connectionPool.getMetrics();
+    }
+
+
+    @Override
+    public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        Http11Codec.routeFor(uri);
+        return new PooledClientHttpRequest(this.connectionPool, uri, httpMethod,
+                this.readTimeout, this.bufferRequestBody, this.chunkSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>Setting the {@link #setTaskExecutor taskExecutor} property is required before calling this method.
+     */
+    @Override
+    public AsyncClientHttpRequest createAsyncRequest(URI uri, HttpMethod httpMethod) throws IOException {
+        Assert.state(this.taskExecutor != null, "Asynchronous execution requires TaskExecutor to be set");
+        Http11Codec.routeFor(uri);
+        return new PooledAsyncClientHttpRequest(this.connectionPool, uri, httpMethod,
+                this.readTimeout, this.taskExecutor);
+    }
+
+
+    /**
+     * Shut down the underlying connection pool.
+     */
+    @Override
+    public void destroy() {
+        this.connectionPool.destroy();
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.rocket.summer.framework.http.client;
+
+import com.rocket.summer.framework.http.HttpHeaders;
+import com.rocket.summer.framework.util.StreamUtils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * {@link ClientHttpResponse} implementation reading from a pooled keep-alive
+ * connection. Closing the response drains any unread body content and returns
+ * the connection to its {@link HttpConnectionPool} for reuse.
+ *
+ * @see PooledClientHttpRequest
+ */
+final class PooledClientHttpResponse extends AbstractClientHttpResponse {
+
+    private final HttpConnectionPool connectionPool;
+
+    private final PooledHttpConnection connection;
+
+    private final Http11Codec.ResponseHead head;
+
+    private final String requestMethod;
+
+    private Http11Codec.BodyInputStream body;
+
+    private InputStream exposedBody;
+
+    private boolean released = false;
+
+
+    PooledClientHttpResponse(HttpConnectionPool connectionPool, PooledHttpConnection connection,
+                             Http11Codec.ResponseHead head, String requestMethod) {
+
+        this.connectionPool = connectionPool;
+        this.connection = connection;
+        this.head = head;
+        this.requestMethod = requestMethod;
+    }
+
+
+    @Override
+    public int getRawStatusCode() {
+        return this.head.statusCode;
+    }
+
+    @Override
+    public String getStatusText() {
+        return this.head.statusText;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        return this.head.headers;
+    }
+
+    @Override
+    public InputStream getBody() throws IOException {
+        if (this.exposedBody == null) {
+            this.exposedBody = new ResponseBodyInputStream(getBodyStream(), this);
+        }
+        return this.exposedBody;
+    }
+
+    private Http11Codec.BodyInputStream getBodyStream() {
+        if (this.body == null) {
+            this.body = Http11Codec.bodyInputStream(this.connection.getInputStream(), this.head, this.requestMethod);
+        }
+        return this.body;
+    }
+
+    @Override
+    public void close() {
+        if (this.released) {
+            return;
+        }
+        this.released = true;
+        boolean reusable = this.head.isKeepAlive(this.requestMethod);
+        Http11Codec.BodyInputStream bodyStream = getBodyStream();
+        if (reusable && bodyStream.isReusable() && !bodyStream.isComplete()) {
+            try {
+                StreamUtils.drain(bodyStream);
+            }
+            catch (IOException ex) {
+                reusable = false;
+            }
+        }
+        reusable = (reusable && bodyStream.isReusable() && bodyStream.isComplete());
+        this.connectionPool.release(this.connection, reusable, this.head.getKeepAliveTimeout());
+    }
+
+
+    /**
+     * Body stream keeping the response reachable while the body is being read,
+     * since the response is tracked by the pool as the owner of the connection.
+     */
+    private static class ResponseBodyInputStream extends FilterInputStream {
+
+        @SuppressWarnings("unused")
+        private final PooledClientHttpResponse response;
+
+        ResponseBodyInputStream(InputStream in, PooledClientHttpResponse response) {
+            super(in);
+            this.response = response;
+        }
+    }
+
+}
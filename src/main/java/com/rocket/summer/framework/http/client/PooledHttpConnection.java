@@ -0,0 +1,159 @@
+package com.rocket.summer.framework.http.client;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * A keep-alive HTTP/1.1 connection managed by an {@link HttpConnectionPool},
+ * backed by a {@link SocketChannel} in blocking mode.
+ *
+ * @see HttpConnectionPool
+ */
+class PooledHttpConnection {
+
+    private final String route;
+
+    private final SocketChannel channel;
+
+    private final InputStream inputStream;
+
+    private final OutputStream outputStream;
+
+    private final long createdAt;
+
+    private long lastUsedAt;
+
+    private long expiresAt = Long.MAX_VALUE;
+
+    private int requestCount;
+
+
+    PooledHttpConnection(String route, SocketChannel channel) throws IOException {
+        this.route = route;
+        this.channel = channel;
+        // The socket adaptor streams honour SO_TIMEOUT, unlike Channels.newInputStream
+        this.inputStream = new BufferedInputStream(channel.socket().getInputStream(), 8192);
+        this.outputStream = new BufferedOutputStream(channel.socket().getOutputStream(), 8192);
+        this.createdAt = System.currentTimeMillis();
+        this.lastUsedAt = this.createdAt;
+    }
+
+
+    /**
+     * Open a new connection to the given address.
+     */
+    static PooledHttpConnection open(String route, InetSocketAddress address, int connectTimeout)
+            throws IOException {
+
+        SocketChannel channel = SocketChannel.open();
+        try {
+            channel.socket().setTcpNoDelay(true);
+            channel.socket().setKeepAlive(true);
+            channel.socket().connect(address, Math.max(connectTimeout, 0));
+            return new PooledHttpConnection(route, channel);
+        }
+        catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+
+    public String getRoute() {
+        return this.route;
+    }
+
+    public InputStream getInputStream() {
+        return this.inputStream;
+    }
+
+    public OutputStream getOutputStream() {
+        return this.outputStream;
+    }
+
+    public int getRequestCount() {
+        return this.requestCount;
+    }
+
+    public long getLastUsedAt() {
+        return this.lastUsedAt;
+    }
+
+    /**
+     * Set the read timeout for the next exchange; 0 means infinite.
+     */
+    public void setReadTimeout(int readTimeout) throws IOException {
+        this.channel.socket().setSoTimeout(Math.max(readTimeout, 0));
+    }
+
+    /**
+     * Record the start of a new exchange on this connection.
+     */
+    void markLeased() {
+        this.requestCount++;
+        this.lastUsedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Record the end of an exchange, optionally applying a server keep-alive timeout.
+     */
+    void markReleased(long keepAliveTimeout) {
+        this.lastUsedAt = System.currentTimeMillis();
+        this.expiresAt = (keepAliveTimeout > 0 ? this.lastUsedAt + keepAliveTimeout : Long.MAX_VALUE);
+    }
+
+    /**
+     * Whether this idle connection has exceeded the given idle timeout
+     * or the keep-alive timeout announced by the server.
+     */
+    boolean isExpired(long now, long idleTimeout) {
+        return (now >= this.expiresAt || (idleTimeout > 0 && now - this.lastUsedAt >= idleTimeout));
+    }
+
+    /**
+     * Check whether the server has closed this idle connection (or sent unexpected
+     * data on it), in which case it must not be reused.
+     */
+    boolean isStale() {
+        if (!this.channel.isOpen() || !this.channel.isConnected()) {
+            return true;
+        }
+        try {
+            if (this.inputStream.available() > 0) {
+                return true;
+            }
+            this.channel.configureBlocking(false);
+            try {
+                ByteBuffer probe = ByteBuffer.allocate(1);
+                return (this.channel.read(probe) != 0);
+            }
+            finally {
+                this.channel.configureBlocking(true);
+            }
+        }
+        catch (IOException ex) {
+            return true;
+        }
+    }
+
+    void close() {
+        try {
+            this.channel.close();
+        }
+        catch (IOException ex) {
+            // ignore
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "PooledHttpConnection [" + this.route + ", requests=" + this.requestCount + "]";
+    }
+
+}
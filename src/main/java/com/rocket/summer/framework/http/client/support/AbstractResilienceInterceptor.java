@@ -0,0 +1,155 @@
+package com.rocket.summer.framework.http.client.support;
+
+import com.rocket.summer.framework.beans.factory.DisposableBean;
+import com.rocket.summer.framework.http.HttpMethod;
+import com.rocket.summer.framework.http.HttpRequest;
+import com.rocket.summer.framework.http.client.ClientHttpResponse;
+import com.rocket.summer.framework.util.Assert;
+import com.rocket.summer.framework.util.concurrent.ListenableFuture;
+import com.rocket.summer.framework.util.concurrent.ListenableFutureCallback;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base class for the client-side resilience interceptors in this package,
+ * recording the latency of every exchange passing through the interceptor
+ * into per-route {@link LatencyHistogram LatencyHistograms}.
+ *
+ * <p>Also manages the scheduler used by subclasses to delay asynchronous
+ * work, such as retry backoff or the launch of hedged requests.
+ *
+ * @see RouteLatencyMetrics
+ */
+public abstract class AbstractResilienceInterceptor implements DisposableBean {
+
+    protected final Log logger = LogFactory.getLog(getClass());
+
+    private RouteLatencyMetrics latencyMetrics = new RouteLatencyMetrics();
+
+    private ScheduledExecutorService scheduledExecutor;
+
+    private boolean defaultScheduledExecutor;
+
+    private final Object scheduledExecutorMonitor = new Object();
+
+
+    /**
+     * Set the registry to record latencies into, e.g. to share a single
+     * registry between several interceptors. By default, each interceptor
+     * uses a registry of its own.
+     */
+    public void setLatencyMetrics(RouteLatencyMetrics latencyMetrics) {
+        Assert.notNull(latencyMetrics, "RouteLatencyMetrics must not be null");
+        this.latencyMetrics = latencyMetrics;
+    }
+
+    /**
+     * Return the per-route latencies of the exchanges seen by this interceptor,
+     * as observed by its caller.
+     */
+    public RouteLatencyMetrics getLatencyMetrics() {
+        return this.latencyMetrics;
+    }
+
+    /**
+     * Set the executor to schedule delayed asynchronous work with.
+     * <p>By default, a single daemon thread is created on first use and shut
+     * down on {@link #destroy()}. Scheduled tasks only submit requests and
+     * never block.
+     */
+    public void setScheduledExecutor(ScheduledExecutorService scheduledExecutor) {
+        Assert.notNull(scheduledExecutor, "ScheduledExecutorService must not be null");
+        synchronized (this.scheduledExecutorMonitor) {
+            this.scheduledExecutor = scheduledExecutor;
+            this.defaultScheduledExecutor = false;
+        }
+    }
+
+    protected ScheduledExecutorService getScheduledExecutor() {
+        synchronized (this.scheduledExecutorMonitor) {
+            if (this.scheduledExecutor == null) {
+                final String threadName = getClass().getSimpleName() + "-scheduler";
+                this.scheduledExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                    @Override
+                    public Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+                this.defaultScheduledExecutor = true;
+            }
+            return this.scheduledExecutor;
+        }
+    }
+
+    /**
+     * Shut down the default scheduler, if one was created.
+     */
+    @Override
+    public void destroy() {
+        synchronized (this.scheduledExecutorMonitor) {
+            if (this.defaultScheduledExecutor) {
+                this.scheduledExecutor.shutdownNow();
+                this.scheduledExecutor = null;
+                this.defaultScheduledExecutor = false;
+            }
+        }
+    }
+
+
+    /**
+     * Record the latency of an exchange started at the given time.
+     * @param route the route of the request
+     * @param startNanos the start time as obtained from {@link System#nanoTime()}
+     */
+    protected void recordLatency(String route, long startNanos) {
+        this.latencyMetrics.record(route, System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record the latency of an asynchronous exchange once the given future completes.
+     */
+    protected void recordLatency(final String route, final long startNanos, ListenableFuture<ClientHttpResponse> future) {
+        future.addCallback(new ListenableFutureCallback<ClientHttpResponse>() {
+            @Override
+            public void onSuccess(ClientHttpResponse result) {
+                recordLatency(route, startNanos);
+            }
+            @Override
+            public void onFailure(Throwable ex) {
+                recordLatency(route, startNanos);
+            }
+        });
+    }
+
+    /**
+     * Determine the route of the given request.
+     * @see RouteLatencyMetrics#routeFor(HttpRequest)
+     */
+    protected String routeFor(HttpRequest request) {
+        return RouteLatencyMetrics.routeFor(request);
+    }
+
+    /**
+     * Whether the given method is idempotent, and a request may thus safely
+     * be sent more than once.
+     */
+    protected static boolean isIdempotent(HttpMethod method) {
+        return (method != HttpMethod.POST && method != HttpMethod.PATCH);
+    }
+
+    /**
+     * Adapt the given failure of an asynchronous exchange to an {@link IOException}.
+     */
+    protected static IOException asIOException(Throwable ex) {
+        return (ex instanceof IOException ? (IOException) ex : new IOException(ex.getMessage(), ex));
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.rocket.summer.framework.http.client.support;
+
+import java.io.IOException;
+
+/**
+ * Exception thrown by the {@link BulkheadInterceptor} when the maximum number
+ * of concurrent requests to a route has been reached.
+ */
+@SuppressWarnings("serial")
+public class BulkheadFullException extends IOException {
+
+    private final String route;
+
+
+    public BulkheadFullException(String route, int maxConcurrentRequests) {
+        super("Bulkhead for " + route + " is full: " + maxConcurrentRequests + " concurrent requests in progress");
+        this.route = route;
+    }
+
+
+    /**
+     * Return the route the request was rejected for.
+     */
+    public String getRoute() {
+        return this.route;
+    }
+
+}
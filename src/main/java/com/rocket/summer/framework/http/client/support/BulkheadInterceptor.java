@@ -0,0 +1,251 @@
+package com.rocket.summer.framework.http.client.support;
+
+import com.rocket.summer.framework.http.HttpHeaders;
+import com.rocket.summer.framework.http.HttpRequest;
+import com.rocket.summer.framework.http.HttpStatus;
+import com.rocket.summer.framework.http.client.AsyncClientHttpRequestExecution;
+import com.rocket.summer.framework.http.client.AsyncClientHttpRequestInterceptor;
+import com.rocket.summer.framework.http.client.ClientHttpRequestExecution;
+import com.rocket.summer.framework.http.client.ClientHttpRequestInterceptor;
+import com.rocket.summer.framework.http.client.ClientHttpResponse;
+import com.rocket.summer.framework.util.Assert;
+import com.rocket.summer.framework.util.concurrent.ListenableFuture;
+import com.rocket.summer.framework.util.concurrent.ListenableFutureCallback;
+import com.rocket.summer.framework.util.concurrent.SettableListenableFuture;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Interceptor limiting the number of concurrent requests per route, so that
+ * a single slow downstream service cannot exhaust the threads or connections
+ * shared with all others.
+ *
+ * <p>A permit is held from the start of the exchange until the response is
+ * {@linkplain ClientHttpResponse#close() closed} or the exchange fails.
+ * Synchronous requests may wait up to the configured
+ * {@linkplain #setMaxWaitTime maximum wait time} for a permit; asynchronous
+ * requests never block and are rejected right away. Rejected requests fail
+ * with a {@link BulkheadFullException}.
+ */
+public class BulkheadInterceptor extends AbstractResilienceInterceptor
+        implements ClientHttpRequestInterceptor, AsyncClientHttpRequestInterceptor {
+
+    private final ConcurrentMap<String, Semaphore> bulkheads = new ConcurrentHashMap<String, Semaphore>(16);
+
+    private final ConcurrentMap<String, AtomicLong> rejections = new ConcurrentHashMap<String, AtomicLong>(16);
+
+    private int maxConcurrentRequests = 20;
+
+    private long maxWaitTime = 0;
+
+
+    /**
+     * Set the maximum number of concurrent requests per route. Default is 20.
+     * <p>Applies to routes first seen after this property has been set.
+     */
+    public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+        Assert.isTrue(maxConcurrentRequests > 0, "maxConcurrentRequests must be greater than 0");
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    public int getMaxConcurrentRequests() {
+        return this.maxConcurrentRequests;
+    }
+
+    /**
+     * Set the maximum time in milliseconds a synchronous request waits for a
+     * permit. Default is 0, rejecting requests as soon as the bulkhead is full.
+     */
+    public void setMaxWaitTime(long maxWaitTime) {
+        this.maxWaitTime = maxWaitTime;
+    }
+
+    public long getMaxWaitTime() {
+        return this.maxWaitTime;
+    }
+
+    /**
+     * Return the number of requests to the given route currently in progress.
+     */
+    public int getConcurrentRequests(String route) {
+        Semaphore semaphore = this.bulkheads.get(route);
+        return (semaphore != null ? this.maxConcurrentRequests - semaphore.availablePermits() : 0);
+    }
+
+    /**
+     * Return the number of requests to the given route rejected so far.
+     */
+    public long getRejectedRequests(String route) {
+        AtomicLong count = this.rejections.get(route);
+        return (count != null ? count.get() : 0);
+    }
+
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+
+        String route = routeFor(request);
+        long startNanos = System.nanoTime();
+        Semaphore semaphore = getBulkhead(route);
+        boolean acquired;
+        try {
+            acquired = (this.maxWaitTime > 0 ?
+                    semaphore.tryAcquire(this.maxWaitTime, TimeUnit.MILLISECONDS) : semaphore.tryAcquire());
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for bulkhead permit for " + route);
+        }
+        if (!acquired) {
+            throw reject(route);
+        }
+        try {
+            return new PermitReleasingResponse(execution.execute(request, body), semaphore);
+        }
+        catch (IOException ex) {
+            semaphore.release();
+            throw ex;
+        }
+        catch (RuntimeException ex) {
+            semaphore.release();
+            throw ex;
+        }
+        finally {
+            recordLatency(route, startNanos);
+        }
+    }
+
+    @Override
+    public ListenableFuture<ClientHttpResponse> intercept(HttpRequest request, byte[] body,
+                                                          AsyncClientHttpRequestExecution execution) throws IOException {
+
+        String route = routeFor(request);
+        long startNanos = System.nanoTime();
+        final Semaphore semaphore = getBulkhead(route);
+        if (!semaphore.tryAcquire()) {
+            throw reject(route);
+        }
+        ListenableFuture<ClientHttpResponse> future;
+        try {
+            future = execution.executeAsync(request, body);
+        }
+        catch (IOException ex) {
+            semaphore.release();
+            throw ex;
+        }
+        catch (RuntimeException ex) {
+            semaphore.release();
+            throw ex;
+        }
+        final SettableListenableFuture<ClientHttpResponse> result = new SettableListenableFuture<ClientHttpResponse>();
+        future.addCallback(new ListenableFutureCallback<ClientHttpResponse>() {
+            @Override
+            public void onSuccess(ClientHttpResponse response) {
+                ClientHttpResponse releasingResponse = new PermitReleasingResponse(response, semaphore);
+                if (!result.set(releasingResponse)) {
+                    releasingResponse.close();
+                }
+            }
+            @Override
+            public void onFailure(Throwable ex) {
+                semaphore.release();
+                result.setException(ex);
+            }
+        });
+        recordLatency(route, startNanos, future);
+        return result;
+    }
+
+    private Semaphore getBulkhead(String route) {
+        Semaphore semaphore = this.bulkheads.get(route);
+        if (semaphore == null) {
+            semaphore = new Semaphore(this.maxConcurrentRequests);
+            Semaphore existing = this.bulkheads.putIfAbsent(route, semaphore);
+            if (existing != null) {
+                semaphore = existing;
+            }
+        }
+        return semaphore;
+    }
+
+    private BulkheadFullException reject(String route) {
+        AtomicLong count = this.rejections.get(route);
+        if (count == null) {
+            count = new AtomicLong();
+            AtomicLong existing = this.rejections.putIfAbsent(route, count);
+            if (existing != null) {
+                count = existing;
+            }
+        }
+        count.incrementAndGet();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Rejecting request to " + route + ": bulkhead full");
+        }
+        return new BulkheadFullException(route, this.maxConcurrentRequests);
+    }
+
+
+    /**
+     * Response decorator releasing the bulkhead permit when closed.
+     */
+    private static class PermitReleasingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+
+        private final Semaphore semaphore;
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitReleasingResponse(ClientHttpResponse delegate, Semaphore semaphore) {
+            this.delegate = delegate;
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public HttpStatus getStatusCode() throws IOException {
+            return this.delegate.getStatusCode();
+        }
+
+        @Override
+        public int getRawStatusCode() throws IOException {
+            return this.delegate.getRawStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return this.delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return this.delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return this.delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                this.delegate.close();
+            }
+            finally {
+                if (this.released.compareAndSet(false, true)) {
+                    this.semaphore.release();
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,333 @@
+package com.rocket.summer.framework.http.client.support;
+
+import com.rocket.summer.framework.http.HttpRequest;
+import com.rocket.summer.framework.http.client.AsyncClientHttpRequestExecution;
+import com.rocket.summer.framework.http.client.AsyncClientHttpRequestInterceptor;
+import com.rocket.summer.framework.http.client.ClientHttpRequestExecution;
+import com.rocket.summer.framework.http.client.ClientHttpRequestInterceptor;
+import com.rocket.summer.framework.http.client.ClientHttpResponse;
+import com.rocket.summer.framework.util.Assert;
+import com.rocket.summer.framework.util.concurrent.ListenableFuture;
+import com.rocket.summer.framework.util.concurrent.ListenableFutureCallback;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interceptor implementing a circuit breaker per route.
+ *
+ * <p>While <em>closed</em>, the outcome of the most recent exchanges is tracked
+ * in a sliding window. Once the failure rate within the window reaches the
+ * {@linkplain #setFailureRateThreshold threshold}, the circuit <em>opens</em> and
+ * requests fail immediately with a {@link CircuitBreakerOpenException}, instead
+ * of piling up on an unhealthy downstream service. After the
+ * {@linkplain #setOpenStateDuration open state duration}, the circuit turns
+ * <em>half-open</em> and lets a limited number of probe requests through: the
+ * circuit closes again if all of them succeed, and re-opens on the first failure.
+ *
+ * <p>I/O errors and responses with a 5xx status code count as failures by
+ * default; see {@link #isFailure(ClientHttpResponse)} and {@link #isFailure(Throwable)}.
+ */
+public class CircuitBreakerInterceptor extends AbstractResilienceInterceptor
+        implements ClientHttpRequestInterceptor, AsyncClientHttpRequestInterceptor {
+
+    /**
+     * The state of a circuit.
+     */
+    public enum State {
+
+        /** Requests pass, outcomes are tracked. */
+        CLOSED,
+
+        /** Requests are rejected. */
+        OPEN,
+
+        /** A limited number of probe requests pass. */
+        HALF_OPEN
+    }
+
+
+    private final ConcurrentMap<String, Circuit> circuits = new ConcurrentHashMap<String, Circuit>(16);
+
+    private int slidingWindowSize = 20;
+
+    private int minimumNumberOfCalls = 10;
+
+    private int failureRateThreshold = 50;
+
+    private long openStateDuration = 30000;
+
+    private int permittedCallsInHalfOpenState = 3;
+
+
+    /**
+     * Set the number of most recent exchanges to compute the failure rate from.
+     * Default is 20.
+     */
+    public void setSlidingWindowSize(int slidingWindowSize) {
+        Assert.isTrue(slidingWindowSize > 0, "slidingWindowSize must be greater than 0");
+        this.slidingWindowSize = slidingWindowSize;
+    }
+
+    /**
+     * Set the minimum number of exchanges within the sliding window before the
+     * failure rate is evaluated. Default is 10.
+     */
+    public void setMinimumNumberOfCalls(int minimumNumberOfCalls) {
+        this.minimumNumberOfCalls = minimumNumberOfCalls;
+    }
+
+    /**
+     * Set the failure rate in percent at which the circuit opens. Default is 50.
+     */
+    public void setFailureRateThreshold(int failureRateThreshold) {
+        Assert.isTrue(failureRateThreshold > 0 && failureRateThreshold <= 100,
+                "failureRateThreshold must be between 1 and 100");
+        this.failureRateThreshold = failureRateThreshold;
+    }
+
+    /**
+     * Set the time in milliseconds the circuit stays open before probe requests
+     * are let through. Default is 30 seconds.
+     */
+    public void setOpenStateDuration(long openStateDuration) {
+        this.openStateDuration = openStateDuration;
+    }
+
+    /**
+     * Set the number of probe requests let through in half-open state, all of
+     * which need to succeed for the circuit to close. Default is 3.
+     */
+    public void setPermittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+        Assert.isTrue(permittedCallsInHalfOpenState > 0, "permittedCallsInHalfOpenState must be greater than 0");
+        this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+    }
+
+    /**
+     * Return the current state of the circuit for the given route.
+     */
+    public State getState(String route) {
+        Circuit circuit = this.circuits.get(route);
+        return (circuit != null ? circuit.getState() : State.CLOSED);
+    }
+
+    /**
+     * Close the circuit for the given route and forget its recorded outcomes.
+     */
+    public void reset(String route) {
+        this.circuits.remove(route);
+    }
+
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+
+        String route = routeFor(request);
+        long startNanos = System.nanoTime();
+        Circuit circuit = getCircuit(route);
+        int generation = circuit.tryAcquirePermission();
+        if (generation < 0) {
+            throw new CircuitBreakerOpenException(route);
+        }
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            circuit.onResult(generation, !isFailure(response));
+            return response;
+        }
+        catch (IOException ex) {
+            circuit.onResult(generation, !isFailure(ex));
+            throw ex;
+        }
+        catch (RuntimeException ex) {
+            circuit.onResult(generation, !isFailure(ex));
+            throw ex;
+        }
+        finally {
+            recordLatency(route, startNanos);
+        }
+    }
+
+    @Override
+    public ListenableFuture<ClientHttpResponse> intercept(HttpRequest request, byte[] body,
+                                                          AsyncClientHttpRequestExecution execution) throws IOException {
+
+        String route = routeFor(request);
+        long startNanos = System.nanoTime();
+        final Circuit circuit = getCircuit(route);
+        final int generation = circuit.tryAcquirePermission();
+        if (generation < 0) {
+            throw new CircuitBreakerOpenException(route);
+        }
+        ListenableFuture<ClientHttpResponse> future;
+        try {
+            future = execution.executeAsync(request, body);
+        }
+        catch (IOException ex) {
+            circuit.onResult(generation, !isFailure(ex));
+            throw ex;
+        }
+        catch (RuntimeException ex) {
+            circuit.onResult(generation, !isFailure(ex));
+            throw ex;
+        }
+        future.addCallback(new ListenableFutureCallback<ClientHttpResponse>() {
+            @Override
+            public void onSuccess(ClientHttpResponse response) {
+                boolean failure;
+                try {
+                    failure = isFailure(response);
+                }
+                catch (IOException ex) {
+                    failure = true;
+                }
+                circuit.onResult(generation, !failure);
+            }
+            @Override
+            public void onFailure(Throwable ex) {
+                circuit.onResult(generation, !isFailure(ex));
+            }
+        });
+        recordLatency(route, startNanos, future);
+        return future;
+    }
+
+    /**
+     * Determine whether the given response counts as a failure of the route.
+     * <p>The default implementation considers 5xx status codes as failures.
+     */
+    protected boolean isFailure(ClientHttpResponse response) throws IOException {
+        return (response.getRawStatusCode() >= 500);
+    }
+
+    /**
+     * Determine whether the given exception counts as a failure of the route.
+     * <p>The default implementation considers all exceptions as failures,
+     * except for rejections by a {@link BulkheadInterceptor} further down
+     * the chain, which do not reflect the health of the route.
+     */
+    protected boolean isFailure(Throwable ex) {
+        return !(ex instanceof BulkheadFullException);
+    }
+
+    private Circuit getCircuit(String route) {
+        Circuit circuit = this.circuits.get(route);
+        if (circuit == null) {
+            circuit = new Circuit(route);
+            Circuit existing = this.circuits.putIfAbsent(route, circuit);
+            if (existing != null) {
+                circuit = existing;
+            }
+        }
+        return circuit;
+    }
+
+
+    /**
+     * State machine of a single route, with a ring buffer of recent outcomes.
+     */
+    private class Circuit {
+
+        private final String route;
+
+        private final boolean[] window = new boolean[slidingWindowSize];
+
+        private int windowPosition;
+
+        private int windowCalls;
+
+        private int windowFailures;
+
+        private State state = State.CLOSED;
+
+        /** Incremented on every state transition, to tell outcomes of earlier states apart */
+        private int generation;
+
+        private long openedAt;
+
+        private int halfOpenPermits;
+
+        private int halfOpenSuccesses;
+
+        Circuit(String route) {
+            this.route = route;
+        }
+
+        synchronized State getState() {
+            return this.state;
+        }
+
+        /**
+         * Try to obtain permission for a call.
+         * @return the generation of the state the call has been permitted in,
+         * to be passed to {@link #onResult}, or -1 if the call is not permitted
+         */
+        synchronized int tryAcquirePermission() {
+            if (this.state == State.OPEN) {
+                if (System.currentTimeMillis() - this.openedAt < openStateDuration) {
+                    return -1;
+                }
+                transitionTo(State.HALF_OPEN);
+            }
+            if (this.state == State.HALF_OPEN) {
+                if (this.halfOpenPermits >= permittedCallsInHalfOpenState) {
+                    return -1;
+                }
+                this.halfOpenPermits++;
+            }
+            return this.generation;
+        }
+
+        synchronized void onResult(int generation, boolean success) {
+            if (generation != this.generation) {
+                // Late outcome of a call permitted before the last state transition
+                return;
+            }
+            if (this.state == State.HALF_OPEN) {
+                if (!success) {
+                    transitionTo(State.OPEN);
+                }
+                else if (++this.halfOpenSuccesses >= permittedCallsInHalfOpenState) {
+                    transitionTo(State.CLOSED);
+                }
+            }
+            else if (this.state == State.CLOSED) {
+                if (this.windowCalls == this.window.length) {
+                    if (this.window[this.windowPosition]) {
+                        this.windowFailures--;
+                    }
+                }
+                else {
+                    this.windowCalls++;
+                }
+                this.window[this.windowPosition] = !success;
+                if (!success) {
+                    this.windowFailures++;
+                }
+                this.windowPosition = (this.windowPosition + 1) % this.window.length;
+                if (this.windowCalls >= minimumNumberOfCalls &&
+                        this.windowFailures * 100 >= failureRateThreshold * this.windowCalls) {
+                    transitionTo(State.OPEN);
+                }
+            }
+        }
+
+        private void transitionTo(State newState) {
+            if (logger.isInfoEnabled()) {
+                logger.info("Circuit breaker for " + this.route + " changing from " + this.state + " to " + newState +
+                        (newState == State.OPEN && this.state == State.CLOSED ?
+                                " (" + this.windowFailures + " failures in last " + this.windowCalls + " calls)" : ""));
+            }
+            this.state = newState;
+            this.generation = (this.generation + 1) & Integer.MAX_VALUE;
+            this.openedAt = System.currentTimeMillis();
+            this.halfOpenPermits = 0;
+            this.halfOpenSuccesses = 0;
+            this.windowPosition = 0;
+            this.windowCalls = 0;
+            this.windowFailures = 0;
+        }
+    }
+
+}
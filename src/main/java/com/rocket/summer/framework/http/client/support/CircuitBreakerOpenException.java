@@ -0,0 +1,28 @@
+package com.rocket.summer.framework.http.client.support;
+
+import java.io.IOException;
+
+/**
+ * Exception thrown by the {@link CircuitBreakerInterceptor} when requests to
+ * a route are rejected because its circuit is open.
+ */
+@SuppressWarnings("serial")
+public class CircuitBreakerOpenException extends IOException {
+
+    private final String route;
+
+
+    public CircuitBreakerOpenException(String route) {
+        super("Circuit breaker for " + route + " is open");
+        this.route = route;
+    }
+
+
+    /**
+     * Return the route the request was rejected for.
+     */
+    public String getRoute() {
+        return this.route;
+    }
+
+}
@@ -0,0 +1,225 @@
+package com.rocket.summer.framework.http.client.support;
+
+import com.rocket.summer.framework.http.HttpRequest;
+import com.rocket.summer.framework.http.client.AsyncClientHttpRequestExecution;
+import com.rocket.summer.framework.http.client.AsyncClientHttpRequestInterceptor;
+import com.rocket.summer.framework.http.client.ClientHttpResponse;
+import com.rocket.summer.framework.util.Assert;
+import com.rocket.summer.framework.util.concurrent.ListenableFuture;
+import com.rocket.summer.framework.util.concurrent.ListenableFutureCallback;
+import com.rocket.summer.framework.util.concurrent.SettableListenableFuture;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous interceptor sending hedged requests to reduce tail latency:
+ * if a request with an idempotent method has not completed after the
+ * {@linkplain #setHedgeDelay hedge delay}, an identical request is sent, and
+ * whichever response arrives first is used. Responses of the losing requests
+ * are closed as soon as they arrive.
+ *
+ * <p>The hedge delay may adapt to the observed latency of the route by setting
+ * a {@linkplain #setHedgeDelayPercentile percentile}, e.g. 95: only the slowest
+ * 5% of requests are then hedged, at the cost of about 5% additional load.
+ * An attempt failing early triggers the next hedge right away.
+ *
+ * <p>Hedging only applies to {@link AsyncClientHttpRequestInterceptor
+ * asynchronous} requests, since hedging a synchronous request would occupy an
+ * additional thread per hedge.
+ */
+public class HedgingInterceptor extends AbstractResilienceInterceptor implements AsyncClientHttpRequestInterceptor {
+
+    private int maxHedgedRequests = 1;
+
+    private long hedgeDelay = 100;
+
+    private double hedgeDelayPercentile = 0;
+
+    private long minimumSampleCount = 100;
+
+    private final RouteLatencyMetrics attemptLatencyMetrics = new RouteLatencyMetrics();
+
+
+    /**
+     * Set the maximum number of hedged requests in addition to the original one.
+     * Default is 1.
+     */
+    public void setMaxHedgedRequests(int maxHedgedRequests) {
+        Assert.isTrue(maxHedgedRequests >= 0, "maxHedgedRequests must not be negative");
+        this.maxHedgedRequests = maxHedgedRequests;
+    }
+
+    /**
+     * Set the fixed delay in milliseconds before sending a hedged request, also
+     * used while too few latencies have been observed for the configured
+     * {@linkplain #setHedgeDelayPercentile percentile}. Default is 100.
+     */
+    public void setHedgeDelay(long hedgeDelay) {
+        this.hedgeDelay = hedgeDelay;
+    }
+
+    /**
+     * Derive the hedge delay from the given percentile of the latencies of
+     * individual attempts to the route, e.g. 95. Default is 0, for the fixed
+     * {@linkplain #setHedgeDelay hedge delay}.
+     */
+    public void setHedgeDelayPercentile(double hedgeDelayPercentile) {
+        Assert.isTrue(hedgeDelayPercentile >= 0 && hedgeDelayPercentile < 100,
+                "hedgeDelayPercentile must be between 0 and 100");
+        this.hedgeDelayPercentile = hedgeDelayPercentile;
+    }
+
+    /**
+     * Set the number of latencies to observe for a route before the
+     * {@linkplain #setHedgeDelayPercentile percentile} is used. Default is 100.
+     */
+    public void setMinimumSampleCount(long minimumSampleCount) {
+        this.minimumSampleCount = minimumSampleCount;
+    }
+
+    /**
+     * Return the per-route latencies of individual attempts, as opposed to the
+     * {@linkplain #getLatencyMetrics() latencies seen by the caller}.
+     */
+    public RouteLatencyMetrics getAttemptLatencyMetrics() {
+        return this.attemptLatencyMetrics;
+    }
+
+
+    @Override
+    public ListenableFuture<ClientHttpResponse> intercept(HttpRequest request, byte[] body,
+                                                          AsyncClientHttpRequestExecution execution) throws IOException {
+
+        String route = routeFor(request);
+        long startNanos = System.nanoTime();
+        if (!isIdempotent(request.getMethod()) || this.maxHedgedRequests == 0) {
+            ListenableFuture<ClientHttpResponse> future = execution.executeAsync(request, body);
+            recordLatency(route, startNanos, future);
+            return future;
+        }
+        Hedge hedge = new Hedge(route, request, body, execution);
+        hedge.launch();
+        recordLatency(route, startNanos, hedge.result);
+        return hedge.result;
+    }
+
+    /**
+     * Determine the delay in milliseconds before hedging a request to the given route.
+     */
+    protected long getHedgeDelay(String route) {
+        if (this.hedgeDelayPercentile > 0) {
+            LatencyHistogram histogram = this.attemptLatencyMetrics.getHistogram(route);
+            if (histogram.getCount() >= this.minimumSampleCount) {
+                return Math.max(1, TimeUnit.MICROSECONDS.toMillis(histogram.getPercentileMicros(this.hedgeDelayPercentile)));
+            }
+        }
+        return this.hedgeDelay;
+    }
+
+
+    /**
+     * The attempts of a single hedged request, completing one result future.
+     */
+    private class Hedge {
+
+        private final String route;
+
+        private final HttpRequest request;
+
+        private final byte[] body;
+
+        private final AsyncClientHttpRequestExecution execution;
+
+        final SettableListenableFuture<ClientHttpResponse> result = new SettableListenableFuture<ClientHttpResponse>();
+
+        private int launched;
+
+        private int outstanding;
+
+        Hedge(String route, HttpRequest request, byte[] body, AsyncClientHttpRequestExecution execution) {
+            this.route = route;
+            this.request = request;
+            this.body = body;
+            this.execution = execution;
+        }
+
+        void launch() {
+            synchronized (this) {
+                if (this.result.isDone() || this.launched > maxHedgedRequests) {
+                    return;
+                }
+                this.launched++;
+                this.outstanding++;
+                if (this.launched > 1 && logger.isDebugEnabled()) {
+                    logger.debug("Sending hedged request " + (this.launched - 1) + " for " +
+                            this.request.getMethod() + " " + this.request.getURI());
+                }
+            }
+            final long startNanos = System.nanoTime();
+            ListenableFuture<ClientHttpResponse> future;
+            try {
+                future = this.execution.executeAsync(this.request, this.body);
+            }
+            catch (Throwable ex) {
+                onFailure(ex);
+                return;
+            }
+            scheduleNext();
+            future.addCallback(new ListenableFutureCallback<ClientHttpResponse>() {
+                @Override
+                public void onSuccess(ClientHttpResponse response) {
+                    attemptLatencyMetrics.record(route, System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                    synchronized (Hedge.this) {
+                        outstanding--;
+                    }
+                    if (!result.set(response)) {
+                        response.close();
+                    }
+                }
+                @Override
+                public void onFailure(Throwable ex) {
+                    Hedge.this.onFailure(ex);
+                }
+            });
+        }
+
+        private void scheduleNext() {
+            synchronized (this) {
+                if (this.launched > maxHedgedRequests) {
+                    return;
+                }
+            }
+            try {
+                getScheduledExecutor().schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        launch();
+                    }
+                }, getHedgeDelay(this.route), TimeUnit.MILLISECONDS);
+            }
+            catch (RuntimeException ex) {
+                // no hedging then - the outstanding attempt still completes the result
+                logger.debug("Failed to schedule hedged request", ex);
+            }
+        }
+
+        private void onFailure(Throwable ex) {
+            boolean launchNext;
+            synchronized (this) {
+                this.outstanding--;
+                if (this.outstanding > 0) {
+                    return;
+                }
+                launchNext = (this.launched <= maxHedgedRequests);
+            }
+            if (launchNext) {
+                launch();
+            }
+            else {
+                this.result.setException(ex);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+package com.rocket.summer.framework.http.client.support;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of request latencies with microsecond resolution.
+ *
+ * <p>Values are counted in log-linear buckets: each power of two is split into
+ * eight sub-buckets, bounding the relative error of reported percentiles to
+ * 12.5% regardless of magnitude, at a fixed footprint of a few kilobytes.
+ * Recording is a single atomic increment, so a histogram can be updated from
+ * any number of request threads.
+ *
+ * @see RouteLatencyMetrics
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final AtomicLong total = new AtomicLong();
+
+    private final AtomicLong max = new AtomicLong();
+
+
+    /**
+     * Record a single latency.
+     * @param duration the observed duration
+     * @param unit the unit of the duration
+     */
+    public void record(long duration, TimeUnit unit) {
+        long micros = Math.max(0, unit.toMicros(duration));
+        this.buckets.incrementAndGet(bucketIndex(micros));
+        this.count.incrementAndGet();
+        this.total.addAndGet(micros);
+        long currentMax;
+        while (micros > (currentMax = this.max.get())) {
+            if (this.max.compareAndSet(currentMax, micros)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Return the number of recorded latencies.
+     */
+    public long getCount() {
+        return this.count.get();
+    }
+
+    /**
+     * Return the mean latency in microseconds, or 0 if nothing was recorded.
+     */
+    public long getMeanMicros() {
+        long count = this.count.get();
+        return (count > 0 ? this.total.get() / count : 0);
+    }
+
+    /**
+     * Return the maximum latency in microseconds.
+     */
+    public long getMaxMicros() {
+        return this.max.get();
+    }
+
+    /**
+     * Return the latency in microseconds below which the given percentage
+     * of recorded latencies fall, or 0 if nothing was recorded.
+     * @param percentile the percentile between 0 and 100, e.g. {@code 99.9}
+     */
+    public long getPercentileMicros(double percentile) {
+        long count = 0;
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = this.buckets.get(i);
+            count += counts[i];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100 * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(rank, 1)) {
+                return Math.min(bucketUpperBound(i), this.max.get());
+            }
+        }
+        return this.max.get();
+    }
+
+    /**
+     * Clear all recorded latencies. Not atomic with respect to concurrent recording.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            this.buckets.set(i, 0);
+        }
+        this.count.set(0);
+        this.total.set(0);
+        this.max.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "[count=" + getCount() + ", mean=" + formatMillis(getMeanMicros()) +
+                ", p50=" + formatMillis(getPercentileMicros(50)) + ", p90=" + formatMillis(getPercentileMicros(90)) +
+                ", p99=" + formatMillis(getPercentileMicros(99)) + ", p999=" + formatMillis(getPercentileMicros(99.9)) +
+                ", max=" + formatMillis(getMaxMicros()) + "]";
+    }
+
+
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKET_COUNT;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((SUB_BUCKET_COUNT + subBucket) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+    }
+
+    private static String formatMillis(long micros) {
+        return (micros / 1000) + "." + String.format("%03d", micros % 1000) + "ms";
+    }
+
+}
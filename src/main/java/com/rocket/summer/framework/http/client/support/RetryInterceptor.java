@@ -0,0 +1,275 @@
+package com.rocket.summer.framework.http.client.support;
+
+import com.rocket.summer.framework.http.HttpRequest;
+import com.rocket.summer.framework.http.client.AsyncClientHttpRequestExecution;
+import com.rocket.summer.framework.http.client.AsyncClientHttpRequestInterceptor;
+import com.rocket.summer.framework.http.client.ClientHttpRequestExecution;
+import com.rocket.summer.framework.http.client.ClientHttpRequestInterceptor;
+import com.rocket.summer.framework.http.client.ClientHttpResponse;
+import com.rocket.summer.framework.util.Assert;
+import com.rocket.summer.framework.util.concurrent.ListenableFuture;
+import com.rocket.summer.framework.util.concurrent.ListenableFutureCallback;
+import com.rocket.summer.framework.util.concurrent.SettableListenableFuture;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Interceptor retrying requests with an idempotent method after an I/O error
+ * or a response with a retryable status code (by default 502, 503 and 504).
+ *
+ * <p>Retries are delayed by an exponential backoff with "full jitter": the delay
+ * before attempt {@code n} is chosen uniformly at random between 0 and
+ * {@code min(maxBackoff, initialBackoff * multiplier^(n-2))}, which keeps clients
+ * that failed together from retrying in lockstep. Synchronous requests sleep
+ * in the calling thread; asynchronous retries are scheduled without blocking.
+ *
+ * <p>Should be registered <em>before</em> a {@link CircuitBreakerInterceptor}
+ * or {@link BulkheadInterceptor}, so that each attempt is subject to those.
+ * Requests rejected by an open circuit are not retried.
+ */
+public class RetryInterceptor extends AbstractResilienceInterceptor
+        implements ClientHttpRequestInterceptor, AsyncClientHttpRequestInterceptor {
+
+    private int maxAttempts = 3;
+
+    private long initialBackoff = 100;
+
+    private long maxBackoff = 2000;
+
+    private double multiplier = 2;
+
+    private int[] retryableStatusCodes = new int[] {502, 503, 504};
+
+
+    /**
+     * Set the maximum number of attempts, including the initial one. Default is 3.
+     */
+    public void setMaxAttempts(int maxAttempts) {
+        Assert.isTrue(maxAttempts > 0, "maxAttempts must be greater than 0");
+        this.maxAttempts = maxAttempts;
+    }
+
+    public int getMaxAttempts() {
+        return this.maxAttempts;
+    }
+
+    /**
+     * Set the upper bound in milliseconds of the delay before the first retry.
+     * Default is 100.
+     */
+    public void setInitialBackoff(long initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    /**
+     * Set the maximum upper bound in milliseconds of the delay before a retry.
+     * Default is 2000.
+     */
+    public void setMaxBackoff(long maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Set the factor the backoff bound grows by with each retry. Default is 2.
+     */
+    public void setMultiplier(double multiplier) {
+        Assert.isTrue(multiplier >= 1, "multiplier must be at least 1");
+        this.multiplier = multiplier;
+    }
+
+    /**
+     * Set the response status codes that trigger a retry. Default is 502, 503 and 504.
+     */
+    public void setRetryableStatusCodes(int... retryableStatusCodes) {
+        Assert.notNull(retryableStatusCodes, "Status codes must not be null");
+        this.retryableStatusCodes = retryableStatusCodes.clone();
+        Arrays.sort(this.retryableStatusCodes);
+    }
+
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+
+        String route = routeFor(request);
+        long startNanos = System.nanoTime();
+        boolean idempotent = isIdempotent(request.getMethod());
+        try {
+            for (int attempt = 1; ; attempt++) {
+                boolean lastAttempt = (!idempotent || attempt >= this.maxAttempts);
+                ClientHttpResponse response;
+                try {
+                    response = execution.execute(request, body);
+                }
+                catch (IOException ex) {
+                    if (lastAttempt || !isRetryable(ex)) {
+                        throw ex;
+                    }
+                    logRetry(request, attempt, ex.toString());
+                    sleep(attempt, route);
+                    continue;
+                }
+                if (!lastAttempt && isRetryable(response)) {
+                    logRetry(request, attempt, "status " + response.getRawStatusCode());
+                    response.close();
+                    sleep(attempt, route);
+                    continue;
+                }
+                return response;
+            }
+        }
+        finally {
+            recordLatency(route, startNanos);
+        }
+    }
+
+    @Override
+    public ListenableFuture<ClientHttpResponse> intercept(HttpRequest request, byte[] body,
+                                                          AsyncClientHttpRequestExecution execution) throws IOException {
+
+        String route = routeFor(request);
+        long startNanos = System.nanoTime();
+        if (!isIdempotent(request.getMethod()) || this.maxAttempts == 1) {
+            ListenableFuture<ClientHttpResponse> future = execution.executeAsync(request, body);
+            recordLatency(route, startNanos, future);
+            return future;
+        }
+        AsyncRetry retry = new AsyncRetry(request, body, execution);
+        retry.attempt(1);
+        recordLatency(route, startNanos, retry.result);
+        return retry.result;
+    }
+
+    /**
+     * Determine whether the given response should be retried.
+     */
+    protected boolean isRetryable(ClientHttpResponse response) throws IOException {
+        return (Arrays.binarySearch(this.retryableStatusCodes, response.getRawStatusCode()) >= 0);
+    }
+
+    /**
+     * Determine whether the given failure should be retried. The default
+     * implementation retries all I/O errors except for rejections by an open
+     * circuit breaker.
+     */
+    protected boolean isRetryable(Throwable ex) {
+        return (ex instanceof IOException && !(ex instanceof CircuitBreakerOpenException));
+    }
+
+    /**
+     * Compute the delay in milliseconds before the attempt following the given one.
+     */
+    protected long getBackoff(int attempt) {
+        double bound = Math.min(this.maxBackoff, this.initialBackoff * Math.pow(this.multiplier, attempt - 1));
+        return (bound > 0 ? ThreadLocalRandom.current().nextLong((long) bound + 1) : 0);
+    }
+
+    private void sleep(int attempt, String route) throws InterruptedIOException {
+        try {
+            Thread.sleep(getBackoff(attempt));
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry request to " + route);
+        }
+    }
+
+    private void logRetry(HttpRequest request, int attempt, String reason) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Retrying " + request.getMethod() + " " + request.getURI() + " after attempt " + attempt +
+                    " of " + this.maxAttempts + " failed: " + reason);
+        }
+    }
+
+
+    /**
+     * A chain of asynchronous attempts completing a single result future.
+     */
+    private class AsyncRetry {
+
+        private final HttpRequest request;
+
+        private final byte[] body;
+
+        private final AsyncClientHttpRequestExecution execution;
+
+        final SettableListenableFuture<ClientHttpResponse> result = new SettableListenableFuture<ClientHttpResponse>();
+
+        AsyncRetry(HttpRequest request, byte[] body, AsyncClientHttpRequestExecution execution) {
+            this.request = request;
+            this.body = body;
+            this.execution = execution;
+        }
+
+        void attempt(final int attempt) {
+            if (this.result.isDone()) {
+                return;
+            }
+            ListenableFuture<ClientHttpResponse> future;
+            try {
+                future = this.execution.executeAsync(this.request, this.body);
+            }
+            catch (Throwable ex) {
+                onFailure(attempt, ex);
+                return;
+            }
+            future.addCallback(new ListenableFutureCallback<ClientHttpResponse>() {
+                @Override
+                public void onSuccess(ClientHttpResponse response) {
+                    boolean retry;
+                    try {
+                        retry = (attempt < maxAttempts && isRetryable(response));
+                        if (retry) {
+                            logRetry(request, attempt, "status " + response.getRawStatusCode());
+                        }
+                    }
+                    catch (IOException ex) {
+                        response.close();
+                        AsyncRetry.this.onFailure(attempt, ex);
+                        return;
+                    }
+                    if (retry) {
+                        response.close();
+                        scheduleAttempt(attempt + 1);
+                    }
+                    else if (!result.set(response)) {
+                        response.close();
+                    }
+                }
+                @Override
+                public void onFailure(Throwable ex) {
+                    AsyncRetry.this.onFailure(attempt, ex);
+                }
+            });
+        }
+
+        private void onFailure(int attempt, Throwable ex) {
+            if (attempt < maxAttempts && isRetryable(ex)) {
+                logRetry(this.request, attempt, ex.toString());
+                scheduleAttempt(attempt + 1);
+            }
+            else {
+                this.result.setException(ex);
+            }
+        }
+
+        private void scheduleAttempt(final int attempt) {
+            try {
+                getScheduledExecutor().schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        attempt(attempt);
+                    }
+                }, getBackoff(attempt - 1), TimeUnit.MILLISECONDS);
+            }
+            catch (RuntimeException ex) {
+                this.result.setException(ex);
+            }
+        }
+    }
+
+}
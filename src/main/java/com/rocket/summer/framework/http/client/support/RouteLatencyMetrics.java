@@ -0,0 +1,93 @@
+package com.rocket.summer.framework.http.client.support;
+
+import com.rocket.summer.framework.http.HttpRequest;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of {@link LatencyHistogram LatencyHistograms} per route, a route being
+ * the {@code scheme://host:port} of the request URI.
+ *
+ * <p>Each of the resilience interceptors in this package records into its own
+ * instance by default; a single instance may also be shared between them.
+ *
+ * @see AbstractResilienceInterceptor#setLatencyMetrics
+ */
+public class RouteLatencyMetrics {
+
+    private final ConcurrentMap<String, LatencyHistogram> histograms =
+            new ConcurrentHashMap<String, LatencyHistogram>(16);
+
+
+    /**
+     * Record the latency of an exchange with the given route.
+     * @param route the route, as returned by {@link #routeFor(URI)}
+     * @param duration the observed duration
+     * @param unit the unit of the duration
+     */
+    public void record(String route, long duration, TimeUnit unit) {
+        getHistogram(route).record(duration, unit);
+    }
+
+    /**
+     * Return the histogram for the given route, creating it if necessary.
+     */
+    public LatencyHistogram getHistogram(String route) {
+        LatencyHistogram histogram = this.histograms.get(route);
+        if (histogram == null) {
+            histogram = new LatencyHistogram();
+            LatencyHistogram existing = this.histograms.putIfAbsent(route, histogram);
+            if (existing != null) {
+                histogram = existing;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * Return all histograms, keyed and sorted by route.
+     */
+    public Map<String, LatencyHistogram> getHistograms() {
+        return Collections.unmodifiableMap(new TreeMap<String, LatencyHistogram>(this.histograms));
+    }
+
+    /**
+     * Remove all histograms.
+     */
+    public void clear() {
+        this.histograms.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "RouteLatencyMetrics " + getHistograms();
+    }
+
+
+    /**
+     * Determine the route of the given request.
+     */
+    public static String routeFor(HttpRequest request) {
+        return routeFor(request.getURI());
+    }
+
+    /**
+     * Determine the route of the given URI, i.e. its scheme, host and port
+     * (using the default port of the scheme if none is specified).
+     */
+    public static String routeFor(URI uri) {
+        String scheme = (uri.getScheme() != null ? uri.getScheme().toLowerCase() : "http");
+        int port = uri.getPort();
+        if (port == -1) {
+            port = ("https".equals(scheme) ? 443 : 80);
+        }
+        return scheme + "://" + uri.getHost() + ":" + port;
+    }
+
+}
@@ -36,15 +36,22 @@ public class AntPathMatcher implements PathMatcher {
     /** Default path separator: "/" */
     public static final String DEFAULT_PATH_SEPARATOR = "/";
 
+    private static final int CACHE_TURNOFF_THRESHOLD = 65536;
+
     private String pathSeparator = DEFAULT_PATH_SEPARATOR;
 
     private final Map<String, AntPathStringMatcher> stringMatcherCache =
             new ConcurrentHashMap<String, AntPathStringMatcher>();
 
+    private final Map<String, String[]> tokenizedPatternCache = new ConcurrentHashMap<String, String[]>(256);
+
+    private volatile boolean cachePatterns = true;
+
 
     /** Set the path separator to use for pattern parsing. Default is "/", as in Ant. */
     public void setPathSeparator(String pathSeparator) {
         this.pathSeparator = (pathSeparator != null ? pathSeparator : DEFAULT_PATH_SEPARATOR);
+        this.tokenizedPatternCache.clear();
     }
 
 
@@ -60,6 +67,26 @@ public class AntPathMatcher implements PathMatcher {
         return doMatch(pattern, path, false, null);
     }
 
+    /**
+     * Variant of {@link #match(String, String)} for a path that has already been
+     * split into its segments, as done once per request by
+     * {@link com.rocket.summer.framework.web.util.ParsedRequestPath}.
+     * @param pattern the pattern to match against
+     * @param path the path String to test
+     * @param pathSegments the segments of the given path, as tokenized by
+     * {@link StringUtils#tokenizeToStringArray(String, String)} with the default
+     * path separator; ignored if a custom path separator has been set, and never modified
+     * @return <code>true</code> if the supplied <code>path</code> matched,
+     * <code>false</code> if it didn't
+     */
+    public boolean match(String pattern, String path, String[] pathSegments) {
+        if (getClass() != AntPathMatcher.class || !DEFAULT_PATH_SEPARATOR.equals(this.pathSeparator)) {
+            // doMatch may have been overridden, or the segments don't apply: don't bypass it.
+            return match(pattern, path);
+        }
+        return doMatch(pattern, path, pathSegments, true, null);
+    }
+
 
     /**
      * Actually match the given <code>path</code> against the given <code>pattern</code>.
@@ -72,12 +99,20 @@ public class AntPathMatcher implements PathMatcher {
     protected boolean doMatch(String pattern, String path, boolean fullMatch,
                               Map<String, String> uriTemplateVariables) {
 
+        return doMatch(pattern, path, null, fullMatch, uriTemplateVariables);
+    }
+
+    private boolean doMatch(String pattern, String path, String[] pathDirs, boolean fullMatch,
+                            Map<String, String> uriTemplateVariables) {
+
         if (path.startsWith(this.pathSeparator) != pattern.startsWith(this.pathSeparator)) {
             return false;
         }
 
-        String[] pattDirs = StringUtils.tokenizeToStringArray(pattern, this.pathSeparator);
-        String[] pathDirs = StringUtils.tokenizeToStringArray(path, this.pathSeparator);
+        String[] pattDirs = tokenizePattern(pattern);
+        if (pathDirs == null) {
+            pathDirs = StringUtils.tokenizeToStringArray(path, this.pathSeparator);
+        }
 
         int pattIdxStart = 0;
         int pattIdxEnd = pattDirs.length - 1;
@@ -196,6 +231,29 @@ public class AntPathMatcher implements PathMatcher {
         return true;
     }
 
+    /**
+     * Tokenize the given pattern into its directories, caching the result since
+     * the same mapping patterns get matched against every incoming path.
+     * <p>Caching is turned off once the cache grows beyond 65536 entries, which
+     * indicates patterns generated at runtime rather than a fixed set of mappings.
+     */
+    private String[] tokenizePattern(String pattern) {
+        String[] tokenized = (this.cachePatterns ? this.tokenizedPatternCache.get(pattern) : null);
+        if (tokenized == null) {
+            tokenized = StringUtils.tokenizeToStringArray(pattern, this.pathSeparator);
+            if (this.cachePatterns) {
+                if (this.tokenizedPatternCache.size() >= CACHE_TURNOFF_THRESHOLD) {
+                    this.cachePatterns = false;
+                    this.tokenizedPatternCache.clear();
+                }
+                else {
+                    this.tokenizedPatternCache.put(pattern, tokenized);
+                }
+            }
+        }
+        return tokenized;
+    }
+
     /**
      * Tests whether or not a string matches against a pattern. The pattern may contain two special characters:<br> '*'
      * means zero or more characters<br> '?' means one and only one character
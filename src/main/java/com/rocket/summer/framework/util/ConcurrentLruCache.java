@@ -0,0 +1,170 @@
+package com.rocket.summer.framework.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Simple LRU (Least Recently Used) cache, bounded by a specified cache limit.
+ *
+ * <p>This implementation is backed by a {@code ConcurrentHashMap} for storing
+ * the cached values and a {@code ConcurrentLinkedDeque} for ordering the keys
+ * and choosing the least recently used key when the cache is at full capacity.
+ * As long as the cache is not full, cache hits do not take any lock.
+ *
+ * @param <K> the type of the key used for cache retrieval
+ * @param <V> the type of the cached values
+ * @see #get
+ */
+public class ConcurrentLruCache<K, V> {
+
+    /**
+     * Strategy for generating the value of a key not contained in the cache.
+     */
+    public interface Generator<K, V> {
+
+        /**
+         * Generate the value for the given key.
+         */
+        V generate(K key);
+    }
+
+
+    private final int sizeLimit;
+
+    private final Generator<K, V> generator;
+
+    private final ConcurrentHashMap<K, V> cache = new ConcurrentHashMap<K, V>();
+
+    private final ConcurrentLinkedDeque<K> queue = new ConcurrentLinkedDeque<K>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile int size;
+
+
+    /**
+     * Create a new cache instance with the given limit and generator function.
+     * @param sizeLimit the maximum number of entries in the cache
+     * (0 indicates no caching, always generating a new value)
+     * @param generator a function to generate a new value for a given key
+     */
+    public ConcurrentLruCache(int sizeLimit, Generator<K, V> generator) {
+        Assert.isTrue(sizeLimit >= 0, "Cache size limit must not be negative");
+        Assert.notNull(generator, "Generator must not be null");
+        this.sizeLimit = sizeLimit;
+        this.generator = generator;
+    }
+
+
+    /**
+     * Retrieve an entry from the cache, potentially triggering generation
+     * of the value. Values failing to generate are not cached.
+     * @param key the key to retrieve the entry for
+     * @return the cached or newly generated value
+     */
+    public V get(K key) {
+        if (this.sizeLimit == 0) {
+            return this.generator.generate(key);
+        }
+
+        V cached = this.cache.get(key);
+        if (cached != null) {
+            if (this.size < this.sizeLimit) {
+                return cached;
+            }
+            this.lock.readLock().lock();
+            try {
+                if (this.queue.removeLastOccurrence(key)) {
+                    this.queue.offer(key);
+                }
+                return cached;
+            }
+            finally {
+                this.lock.readLock().unlock();
+            }
+        }
+
+        this.lock.writeLock().lock();
+        try {
+            // Retrying in case of concurrent reads on the same key
+            cached = this.cache.get(key);
+            if (cached != null) {
+                if (this.queue.removeLastOccurrence(key)) {
+                    this.queue.offer(key);
+                }
+                return cached;
+            }
+            // Generate value first, to prevent size inconsistency
+            V value = this.generator.generate(key);
+            if (this.size == this.sizeLimit) {
+                K leastUsed = this.queue.poll();
+                if (leastUsed != null) {
+                    this.cache.remove(leastUsed);
+                }
+            }
+            this.queue.offer(key);
+            this.cache.put(key, value);
+            this.size = this.cache.size();
+            return value;
+        }
+        finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Determine whether the given key is present in this cache.
+     */
+    public boolean contains(K key) {
+        return this.cache.containsKey(key);
+    }
+
+    /**
+     * Immediately remove the given key and any associated value.
+     * @return {@code true} if the key was present before
+     */
+    public boolean remove(K key) {
+        this.lock.writeLock().lock();
+        try {
+            boolean wasPresent = (this.cache.remove(key) != null);
+            this.queue.remove(key);
+            this.size = this.cache.size();
+            return wasPresent;
+        }
+        finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Immediately remove all entries from this cache.
+     */
+    public void clear() {
+        this.lock.writeLock().lock();
+        try {
+            this.cache.clear();
+            this.queue.clear();
+            this.size = 0;
+        }
+        finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Return the current size of the cache.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Return the maximum number of entries in the cache.
+     */
+    public int sizeLimit() {
+        return this.sizeLimit;
+    }
+
+}
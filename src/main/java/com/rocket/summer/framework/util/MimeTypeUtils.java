@@ -25,6 +25,14 @@ public abstract class MimeTypeUtils {
 
     private static Charset US_ASCII = Charset.forName("US-ASCII");
 
+    private static final ConcurrentLruCache<String, MimeType> cachedMimeTypes =
+            new ConcurrentLruCache<String, MimeType>(64, new ConcurrentLruCache.Generator<String, MimeType>() {
+                @Override
+                public MimeType generate(String mimeType) {
+                    return parseMimeTypeInternal(mimeType);
+                }
+            });
+
     /**
      * Comparator used by {@link #sortBySpecificity(List)}.
      */
@@ -207,6 +215,7 @@ public abstract class MimeTypeUtils {
 
     /**
      * Parse the given String into a single {@code MimeType}.
+     * <p>Recently parsed {@code MimeType} are cached for further retrieval.
      * @param mimeType the string to parse
      * @return the mime type
      * @throws InvalidMimeTypeException if the string cannot be parsed
@@ -215,7 +224,14 @@ public abstract class MimeTypeUtils {
         if (!StringUtils.hasLength(mimeType)) {
             throw new InvalidMimeTypeException(mimeType, "'mimeType' must not be empty");
         }
+        // do not cache multipart mime types with random boundaries
+        if (mimeType.startsWith("multipart")) {
+            return parseMimeTypeInternal(mimeType);
+        }
+        return cachedMimeTypes.get(mimeType);
+    }
 
+    private static MimeType parseMimeTypeInternal(String mimeType) {
         int index = mimeType.indexOf(';');
         String fullType = (index >= 0 ? mimeType.substring(0, index) : mimeType).trim();
         if (fullType.isEmpty()) {
@@ -125,6 +125,8 @@ public class DataBinder implements PropertyEditorRegistry, TypeConverter {
 
     private final List<Validator> validators = new ArrayList<Validator>();
 
+    private boolean useBindingPlan = true;
+
 
     /**
      * Create a new DataBinder instance, with default object name.
@@ -472,6 +474,27 @@ public class DataBinder implements PropertyEditorRegistry, TypeConverter {
         getPropertyAccessor().setExtractOldValueForEditor(extractOldValueForEditor);
     }
 
+    /**
+     * Set whether to bind simple top-level property values through a
+     * {@link PropertyBindingPlan} precomputed for the target class, whenever
+     * values get converted through a ConversionService and no custom
+     * PropertyEditors are registered.
+     * <p>Default is "true". Turn this off to always go through the
+     * {@link #getPropertyAccessor() property accessor}, e.g. for a
+     * BindingResult with a custom BeanWrapper.
+     * @see #setConversionService
+     */
+    public void setUseBindingPlan(boolean useBindingPlan) {
+        this.useBindingPlan = useBindingPlan;
+    }
+
+    /**
+     * Return whether to bind simple property values through a precomputed plan.
+     */
+    public boolean isUseBindingPlan() {
+        return this.useBindingPlan;
+    }
+
     /**
      * Set the strategy to use for resolving errors into message codes.
      * Applies the given strategy to the underlying errors holder.
@@ -811,6 +834,29 @@ public class DataBinder implements PropertyEditorRegistry, TypeConverter {
      * @see BindingErrorProcessor#processPropertyAccessException
      */
     protected void applyPropertyValues(MutablePropertyValues mpvs) {
+        List<PropertyAccessException> planExceptions = null;
+        PropertyBindingPlan plan = getBindingPlan();
+        if (plan != null) {
+            // Bind simple String values through the precomputed plan,
+            // leaving everything else to regular property access.
+            ConversionService conversionService = getPropertyAccessor().getConversionService();
+            MutablePropertyValues remaining = new MutablePropertyValues();
+            for (PropertyValue pv : mpvs.getPropertyValueList()) {
+                PropertyBindingPlan.PropertyBinding binding = plan.getBinding(pv.getName());
+                try {
+                    if (binding == null || !binding.bind(getTarget(), pv.getValue(), conversionService)) {
+                        remaining.addPropertyValue(pv);
+                    }
+                }
+                catch (PropertyAccessException ex) {
+                    if (planExceptions == null) {
+                        planExceptions = new LinkedList<PropertyAccessException>();
+                    }
+                    planExceptions.add(ex);
+                }
+            }
+            mpvs = remaining;
+        }
         try {
             // Bind request parameters onto target object.
             getPropertyAccessor().setPropertyValues(mpvs, isIgnoreUnknownFields(), isIgnoreInvalidFields());
@@ -821,6 +867,29 @@ public class DataBinder implements PropertyEditorRegistry, TypeConverter {
                 getBindingErrorProcessor().processPropertyAccessException(pae, getInternalBindingResult());
             }
         }
+        if (planExceptions != null) {
+            for (PropertyAccessException pae : planExceptions) {
+                getBindingErrorProcessor().processPropertyAccessException(pae, getInternalBindingResult());
+            }
+        }
+    }
+
+    /**
+     * Return the {@link PropertyBindingPlan} for the target class if it can be used
+     * for binding: that is, with standard bean property access, values converted
+     * through a ConversionService and no custom PropertyEditors registered.
+     * @return the binding plan, or {@code null} if not applicable
+     */
+    private PropertyBindingPlan getBindingPlan() {
+        if (getTarget() == null || !isUseBindingPlan()) {
+            return null;
+        }
+        ConfigurablePropertyAccessor accessor = getPropertyAccessor();
+        if (accessor.getClass() != BeanWrapperImpl.class || accessor.getConversionService() == null ||
+                ((BeanWrapperImpl) accessor).hasCustomEditors()) {
+            return null;
+        }
+        return PropertyBindingPlan.forClass(((BeanWrapperImpl) accessor).getWrappedClass());
     }
 
 
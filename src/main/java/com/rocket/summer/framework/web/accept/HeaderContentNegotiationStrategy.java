@@ -34,9 +34,7 @@ public class HeaderContentNegotiationStrategy implements ContentNegotiationStrat
 
         List<String> headerValues = Arrays.asList(headerValueArray);
         try {
-            List<MediaType> mediaTypes = MediaType.parseMediaTypes(headerValues);
-            MediaType.sortBySpecificityAndQuality(mediaTypes);
-            return mediaTypes;
+            return MediaType.parseMediaTypesSortedBySpecificityAndQuality(headerValues);
         }
         catch (InvalidMediaTypeException ex) {
             throw new HttpMediaTypeNotAcceptableException(
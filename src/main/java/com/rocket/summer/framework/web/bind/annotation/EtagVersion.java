@@ -0,0 +1,39 @@
+package com.rocket.summer.framework.web.bind.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Declares a cheap version key for the response of a handler method, used as its
+ * {@code ETag}. The key is evaluated <em>before</em> the handler is invoked, so that
+ * a request whose {@code If-None-Match} header matches is answered with
+ * {@code 304 "Not Modified"} without running the handler at all.
+ *
+ * <p>The {@link #value} is a SpEL expression evaluated against the current request:
+ * URI template variables are available as variables (e.g. {@code #id}) as well as
+ * through the {@code pathVariables} root property, request parameters through
+ * {@code params}, the request itself through {@code request}, and beans through
+ * {@code @beanName} references. A {@code null} result disables the check for the
+ * current request.
+ *
+ * <p>May also be declared on the type level, applying to all handler methods of
+ * the controller that do not declare their own.
+ *
+ * @see com.rocket.summer.framework.web.servlet.handler.EtagVersionInterceptor
+ * @see com.rocket.summer.framework.web.filter.ShallowEtagHeaderFilter
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface EtagVersion {
+
+    /**
+     * SpEL expression computing the version key of the response.
+     */
+    String value();
+
+    /**
+     * Whether the generated {@code ETag} should be weak, as per RFC 7232.
+     */
+    boolean weak() default false;
+
+}
@@ -1,5 +1,6 @@
 package com.rocket.summer.framework.web.context.request;
 
+import com.rocket.summer.framework.aop.scope.ScopedTargetCache;
 import com.rocket.summer.framework.util.Assert;
 
 import java.util.LinkedHashMap;
@@ -21,6 +22,12 @@ public abstract class AbstractRequestAttributes implements RequestAttributes {
 
     private volatile boolean requestActive = true;
 
+    /** Whether the destruction callbacks have been executed, guarded by the callback map */
+    private boolean destructionCallbacksExecuted = false;
+
+    /** Request-scoped proxy targets resolved during this request */
+    private ScopedTargetCache requestTargetCache;
+
 
     /**
      * Signal that the request has been completed.
@@ -31,6 +38,42 @@ public abstract class AbstractRequestAttributes implements RequestAttributes {
         executeRequestDestructionCallbacks();
         updateAccessedSessionAttributes();
         this.requestActive = false;
+        invalidateScopedTargetCache(SCOPE_REQUEST);
+    }
+
+    /**
+     * Signal that this request context has been completed, handing its request
+     * destruction callbacks over to the given context for the same request
+     * instead of executing them, since request-scoped objects created through
+     * this context remain exposed by the request itself.
+     * <p>Accessed session attributes are updated right away. If the given
+     * context has already executed its own callbacks, e.g. since the request has
+     * been processed asynchronously, the callbacks are executed right here instead.
+     * @param owner the context of the request processing to hand over to
+     */
+    final void requestCompleted(AbstractRequestAttributes owner) {
+        Map<String, Runnable> callbacks;
+        synchronized (this.requestDestructionCallbacks) {
+            callbacks = new LinkedHashMap<String, Runnable>(this.requestDestructionCallbacks);
+            this.requestDestructionCallbacks.clear();
+        }
+        if (!callbacks.isEmpty()) {
+            boolean handedOver = false;
+            synchronized (owner.requestDestructionCallbacks) {
+                if (!owner.destructionCallbacksExecuted) {
+                    owner.requestDestructionCallbacks.putAll(callbacks);
+                    handedOver = true;
+                }
+            }
+            if (!handedOver) {
+                for (Runnable callback : callbacks.values()) {
+                    callback.run();
+                }
+            }
+        }
+        updateAccessedSessionAttributes();
+        this.requestActive = false;
+        invalidateScopedTargetCache(SCOPE_REQUEST);
     }
 
     /**
@@ -41,6 +84,52 @@ public abstract class AbstractRequestAttributes implements RequestAttributes {
         return this.requestActive;
     }
 
+    /**
+     * Return the cache for scoped proxy targets resolved from the given scope
+     * during this request.
+     * <p>Only the request scope is cached: session attributes may be changed by
+     * concurrent requests or disappear with the session at any time, without
+     * this request noticing.
+     * <p>The cache is cleared whenever request attributes get set or removed through
+     * this object. Request attributes replaced directly on the underlying request,
+     * e.g. through <code>HttpServletRequest.setAttribute</code>, go unnoticed: a
+     * scoped proxy keeps using the target resolved before, until the next change
+     * through this object.
+     * @param scope the scope identifier
+     * @return the cache, or <code>null</code> if the request is not active anymore
+     * or the given scope is not cached
+     * @see com.rocket.summer.framework.aop.scope.ScopedBeanTargetSource
+     */
+    public final ScopedTargetCache getScopedTargetCache(int scope) {
+        if (scope != SCOPE_REQUEST || !isRequestActive()) {
+            return null;
+        }
+        synchronized (this.requestDestructionCallbacks) {
+            if (this.requestTargetCache == null) {
+                this.requestTargetCache = new ScopedTargetCache();
+            }
+            return this.requestTargetCache;
+        }
+    }
+
+    /**
+     * Clear the cached scoped proxy targets for the given scope.
+     * To be called by subclasses whenever attributes in that scope change.
+     * @param scope the scope identifier
+     */
+    protected final void invalidateScopedTargetCache(int scope) {
+        if (scope != SCOPE_REQUEST) {
+            return;
+        }
+        ScopedTargetCache cache;
+        synchronized (this.requestDestructionCallbacks) {
+            cache = this.requestTargetCache;
+        }
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
     /**
      * Register the given callback as to be executed after request completion.
      * @param name the name of the attribute to register the callback for
@@ -75,6 +164,7 @@ public abstract class AbstractRequestAttributes implements RequestAttributes {
                 runnable.run();
             }
             this.requestDestructionCallbacks.clear();
+            this.destructionCallbacksExecuted = true;
         }
     }
 
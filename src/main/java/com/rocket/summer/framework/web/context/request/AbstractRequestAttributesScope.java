@@ -1,5 +1,7 @@
 package com.rocket.summer.framework.web.context.request;
 
+import com.rocket.summer.framework.aop.scope.ScopedTargetCache;
+import com.rocket.summer.framework.aop.scope.TargetCachingScope;
 import com.rocket.summer.framework.beans.factory.ObjectFactory;
 import com.rocket.summer.framework.beans.factory.config.Scope;
 
@@ -13,12 +15,15 @@ import com.rocket.summer.framework.beans.factory.config.Scope;
  * <p>Subclasses may wish to override the {@link #get} and {@link #remove}
  * methods to add synchronization around the call back into this super class.
  *
+ * <p>Scoped proxies may cache resolved targets for the current request
+ * through {@link #getScopedTargetCache()}.
+ *
  * @author Rod Johnson
  * @author Juergen Hoeller
  * @author Rob Harrop
  * @since 2.0
  */
-public abstract class AbstractRequestAttributesScope implements Scope {
+public abstract class AbstractRequestAttributesScope implements TargetCachingScope {
 
     public Object get(String name, ObjectFactory objectFactory) {
         RequestAttributes attributes = RequestContextHolder.currentRequestAttributes();
@@ -52,6 +57,14 @@ public abstract class AbstractRequestAttributesScope implements Scope {
         return attributes.resolveReference(key);
     }
 
+    public ScopedTargetCache getScopedTargetCache() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof AbstractRequestAttributes) {
+            return ((AbstractRequestAttributes) attributes).getScopedTargetCache(getScope());
+        }
+        return null;
+    }
+
 
     /**
      * Template method that determines the actual target scope.
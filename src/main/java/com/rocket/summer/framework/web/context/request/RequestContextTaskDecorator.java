@@ -0,0 +1,65 @@
+package com.rocket.summer.framework.web.context.request;
+
+import com.rocket.summer.framework.core.task.TaskDecorator;
+
+/**
+ * {@link TaskDecorator} that carries the {@link RequestAttributes} of the
+ * submitting thread over to the thread executing the task, e.g. for use with
+ * a pooled executor that request handling code submits tasks to.
+ *
+ * <p>The RequestAttributes are captured when a task gets decorated and bound
+ * for the duration of the task only; the executing thread's previous binding
+ * is restored afterwards. Unlike exposing the request through an
+ * {@link java.lang.InheritableThreadLocal}, this doesn't leave request state
+ * behind in pooled threads.
+ *
+ * <p>For {@link ServletRequestAttributes}, each task works on its own
+ * ServletRequestAttributes instance for the same request and response, so that
+ * it remains usable once the submitting thread has completed its own context,
+ * e.g. with asynchronous processing. At the end of the task, accessed session
+ * attributes get updated, and destruction callbacks of request-scoped beans
+ * created by the task are handed over to the submitting thread's context: such
+ * beans stay stored on the request and get destroyed along with the others when
+ * that context completes. Should it have completed already, as is common with
+ * asynchronous processing, they get destroyed on the task's thread instead.
+ *
+ * @see RequestContextHolder
+ * @see com.rocket.summer.framework.core.task.SimpleAsyncTaskExecutor#setTaskDecorator
+ * @see com.rocket.summer.framework.web.context.request.async.WebAsyncManager
+ */
+public class RequestContextTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(final Runnable runnable) {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return runnable;
+        }
+        return new Runnable() {
+            @Override
+            public void run() {
+                RequestAttributes previousAttributes = RequestContextHolder.getRequestAttributes();
+                ServletRequestAttributes taskAttributes = null;
+                if (attributes instanceof ServletRequestAttributes) {
+                    ServletRequestAttributes servletAttributes = (ServletRequestAttributes) attributes;
+                    taskAttributes = new ServletRequestAttributes(
+                            servletAttributes.getRequest(), servletAttributes.getResponse());
+                    RequestContextHolder.setRequestAttributes(taskAttributes);
+                }
+                else {
+                    RequestContextHolder.setRequestAttributes(attributes);
+                }
+                try {
+                    runnable.run();
+                }
+                finally {
+                    if (taskAttributes != null) {
+                        taskAttributes.requestCompleted((ServletRequestAttributes) attributes);
+                    }
+                    RequestContextHolder.setRequestAttributes(previousAttributes);
+                }
+            }
+        };
+    }
+
+}
@@ -158,6 +158,7 @@ public class ServletRequestAttributes extends AbstractRequestAttributes {
             this.sessionAttributesToUpdate.remove(name);
             session.setAttribute(name, value);
         }
+        invalidateScopedTargetCache(scope);
     }
 
     @Override
@@ -182,6 +183,7 @@ public class ServletRequestAttributes extends AbstractRequestAttributes {
                 }
             }
         }
+        invalidateScopedTargetCache(scope);
     }
 
     @Override
@@ -4,6 +4,7 @@ import com.rocket.summer.framework.core.task.AsyncTaskExecutor;
 import com.rocket.summer.framework.core.task.SimpleAsyncTaskExecutor;
 import com.rocket.summer.framework.util.Assert;
 import com.rocket.summer.framework.web.context.request.RequestAttributes;
+import com.rocket.summer.framework.web.context.request.RequestContextTaskDecorator;
 import com.rocket.summer.framework.web.util.UrlPathHelper;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -53,6 +54,9 @@ public final class WebAsyncManager {
     private static final DeferredResultProcessingInterceptor timeoutDeferredResultInterceptor =
             new TimeoutDeferredResultProcessingInterceptor();
 
+    private static final RequestContextTaskDecorator requestContextTaskDecorator =
+            new RequestContextTaskDecorator();
+
 
     private AsyncWebRequest asyncWebRequest;
 
@@ -305,21 +309,33 @@ public final class WebAsyncManager {
         interceptorChain.applyBeforeConcurrentHandling(this.asyncWebRequest, callable);
         startAsyncProcessing(processingContext);
         try {
-            Future<?> future = this.taskExecutor.submit(new Runnable() {
+            // Expose the current request to the Callable and the interceptors,
+            // completing the task's request context before dispatching.
+            final Object[] result = new Object[1];
+            final Runnable processing = requestContextTaskDecorator.decorate(new Runnable() {
                 @Override
                 public void run() {
-                    Object result = null;
                     try {
                         interceptorChain.applyPreProcess(asyncWebRequest, callable);
-                        result = callable.call();
+                        result[0] = callable.call();
                     }
                     catch (Throwable ex) {
-                        result = ex;
+                        result[0] = ex;
                     }
                     finally {
-                        result = interceptorChain.applyPostProcess(asyncWebRequest, callable, result);
+                        result[0] = interceptorChain.applyPostProcess(asyncWebRequest, callable, result[0]);
+                    }
+                }
+            });
+            Future<?> future = this.taskExecutor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        processing.run();
+                    }
+                    finally {
+                        setConcurrentResultAndDispatch(result[0]);
                     }
-                    setConcurrentResultAndDispatch(result);
                 }
             });
             interceptorChain.setTaskFuture(future);
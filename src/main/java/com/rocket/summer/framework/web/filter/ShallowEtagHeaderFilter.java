@@ -0,0 +1,448 @@
+package com.rocket.summer.framework.web.filter;
+
+import com.rocket.summer.framework.util.Assert;
+import com.rocket.summer.framework.web.context.request.ServletWebRequest;
+import com.rocket.summer.framework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * {@link javax.servlet.Filter} that generates an {@code ETag} value based on the
+ * content on the response. This ETag is compared to the {@code If-None-Match}
+ * header of the request. If these headers are equal, the response content is
+ * not sent, but rather a {@code 304 "Not Modified"} status instead.
+ *
+ * <p>The ETag is an MD5 hash that is updated incrementally as the body is written,
+ * so no second pass over the content is needed once the handler has completed.
+ * Bodies larger than {@link #setMaxBufferSize "maxBufferSize"} are streamed through
+ * to the client unbuffered and without an ETag, as are responses that already carry
+ * an ETag, e.g. one set by {@link ServletWebRequest#checkNotModified(String)} or by
+ * the {@link com.rocket.summer.framework.web.servlet.handler.EtagVersionInterceptor}
+ * ("deep" ETags, evaluated before the handler is invoked).
+ *
+ * <p>Since the ETag is based on the response content, the response is still
+ * rendered by the handler: this filter only saves bandwidth, not server performance.
+ *
+ * @see com.rocket.summer.framework.web.servlet.handler.EtagVersionInterceptor
+ */
+public class ShallowEtagHeaderFilter extends OncePerRequestFilter {
+
+    /** Default maximum number of bytes buffered for ETag calculation: 1 MB */
+    public static final int DEFAULT_MAX_BUFFER_SIZE = 1024 * 1024;
+
+    private static final String HEADER_ETAG = "ETag";
+
+    private static final String HEADER_CACHE_CONTROL = "Cache-Control";
+
+    private static final String DIRECTIVE_NO_STORE = "no-store";
+
+
+    private boolean writeWeakETag = false;
+
+    private int maxBufferSize = DEFAULT_MAX_BUFFER_SIZE;
+
+
+    /**
+     * Set whether the ETag value written to the response should be weak, as per RFC 7232.
+     * <p>Should be configured using an {@code <init-param>} for parameter name
+     * "writeWeakETag" in the filter definition in {@code web.xml}.
+     * @see <a href="https://tools.ietf.org/html/rfc7232#section-2.3">RFC 7232 section 2.3</a>
+     */
+    public void setWriteWeakETag(boolean writeWeakETag) {
+        this.writeWeakETag = writeWeakETag;
+    }
+
+    /**
+     * Return whether the ETag value written to the response should be weak.
+     */
+    public boolean isWriteWeakETag() {
+        return this.writeWeakETag;
+    }
+
+    /**
+     * Set the maximum number of body bytes to buffer for ETag calculation.
+     * Larger bodies are written through to the client as they are produced,
+     * without an ETag. Default is 1 MB.
+     */
+    public void setMaxBufferSize(int maxBufferSize) {
+        Assert.isTrue(maxBufferSize >= 0, "'maxBufferSize' must not be negative");
+        this.maxBufferSize = maxBufferSize;
+    }
+
+    /**
+     * Return the maximum number of body bytes buffered for ETag calculation.
+     */
+    public int getMaxBufferSize() {
+        return this.maxBufferSize;
+    }
+
+
+    /**
+     * The default value is "false" so that the filter may delay the generation of
+     * an ETag until the last asynchronously dispatched thread.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (!isEligibleMethod(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        HttpServletResponse responseToUse = response;
+        if (!isAsyncDispatch(request) && WebUtils.getNativeResponse(response, EtagResponseWrapper.class) == null) {
+            responseToUse = new EtagResponseWrapper(response, this.maxBufferSize);
+        }
+
+        try {
+            filterChain.doFilter(request, responseToUse);
+        }
+        finally {
+            if (!isAsyncStarted(request)) {
+                updateResponse(request, responseToUse);
+            }
+        }
+    }
+
+    private void updateResponse(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        EtagResponseWrapper responseWrapper = WebUtils.getNativeResponse(response, EtagResponseWrapper.class);
+        Assert.notNull(responseWrapper, "EtagResponseWrapper not found");
+        HttpServletResponse rawResponse = (HttpServletResponse) responseWrapper.getResponse();
+
+        if (responseWrapper.isPassThrough()) {
+            responseWrapper.flushPending();
+            return;
+        }
+
+        if (isEligibleForEtag(rawResponse)) {
+            String responseETag = generateETagHeaderValue(responseWrapper.getDigest(), this.writeWeakETag);
+            if (new ServletWebRequest(request, rawResponse).checkNotModified(responseETag)) {
+                if (logger.isTraceEnabled()) {
+                    logger.trace("ETag [" + responseETag + "] equal to If-None-Match, sending 304");
+                }
+                responseWrapper.discardContent();
+                return;
+            }
+            if (logger.isTraceEnabled()) {
+                logger.trace("Response ETag [" + responseETag + "]");
+            }
+        }
+        responseWrapper.flushPending();
+    }
+
+    private boolean isEligibleMethod(HttpServletRequest request) {
+        String method = request.getMethod();
+        return ("GET".equals(method) || "HEAD".equals(method));
+    }
+
+    /**
+     * Indicates whether the given response is eligible for ETag generation.
+     * <p>The default implementation returns {@code true} for {@code 200} responses
+     * that do not carry an ETag yet and do not contain a "no-store" cache directive.
+     * @param response the HTTP response
+     * @return {@code true} if eligible for ETag generation, {@code false} otherwise
+     */
+    protected boolean isEligibleForEtag(HttpServletResponse response) {
+        if (response.getStatus() != HttpServletResponse.SC_OK || response.getHeader(HEADER_ETAG) != null) {
+            return false;
+        }
+        String cacheControl = response.getHeader(HEADER_CACHE_CONTROL);
+        return (cacheControl == null || !cacheControl.contains(DIRECTIVE_NO_STORE));
+    }
+
+    /**
+     * Generate the ETag header value from the given response body digest.
+     * <p>The default implementation hex-encodes the MD5 digest, prefixed with "0"
+     * to distinguish it from ETags generated from a version key.
+     * @param digest the MD5 digest of the response body
+     * @param isWeak whether the generated ETag should be weak
+     * @return the ETag header value
+     */
+    protected String generateETagHeaderValue(byte[] digest, boolean isWeak) {
+        StringBuilder builder = new StringBuilder(37);
+        if (isWeak) {
+            builder.append("W/");
+        }
+        builder.append("\"0");
+        for (byte b : digest) {
+            builder.append(HEX_CHARS[(b >> 4) & 0x0f]).append(HEX_CHARS[b & 0x0f]);
+        }
+        builder.append('"');
+        return builder.toString();
+    }
+
+    private static final char[] HEX_CHARS =
+            {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'};
+
+
+    /**
+     * {@link HttpServletResponse} wrapper that digests the body as it is written,
+     * buffering it up to a threshold and writing it through once that is exceeded.
+     */
+    private static class EtagResponseWrapper extends HttpServletResponseWrapper {
+
+        private final int maxBufferSize;
+
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream(1024);
+
+        private final MessageDigest digest;
+
+        private final ServletOutputStream outputStream = new DigestingServletOutputStream();
+
+        private PrintWriter writer;
+
+        private boolean passThrough;
+
+        private Integer contentLength;
+
+        public EtagResponseWrapper(HttpServletResponse response, int maxBufferSize) {
+            super(response);
+            this.maxBufferSize = maxBufferSize;
+            try {
+                this.digest = MessageDigest.getInstance("MD5");
+            }
+            catch (NoSuchAlgorithmException ex) {
+                throw new IllegalStateException("Could not find MessageDigest with algorithm \"MD5\"", ex);
+            }
+        }
+
+        public boolean isPassThrough() {
+            return this.passThrough;
+        }
+
+        public byte[] getDigest() {
+            return this.digest.digest();
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            if (this.passThrough) {
+                super.setContentLength(len);
+            }
+            else {
+                this.contentLength = len;
+            }
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            switchToPassThrough(false);
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            switchToPassThrough(false);
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            switchToPassThrough(false);
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            super.setHeader(name, value);
+            if (HEADER_ETAG.equalsIgnoreCase(name)) {
+                switchToPassThroughQuietly();
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            super.addHeader(name, value);
+            if (HEADER_ETAG.equalsIgnoreCase(name)) {
+                switchToPassThroughQuietly();
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return this.outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (this.writer == null) {
+                String characterEncoding = getCharacterEncoding();
+                this.writer = (characterEncoding != null ? new ResponsePrintWriter(characterEncoding) :
+                        new ResponsePrintWriter(WebUtils.DEFAULT_CHARACTER_ENCODING));
+            }
+            return this.writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            // Flushing while buffering would commit the response before the ETag is known
+            if (this.passThrough) {
+                flushWriter();
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            if (!this.passThrough) {
+                this.content.reset();
+                this.digest.reset();
+            }
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            if (!this.passThrough) {
+                this.content.reset();
+                this.digest.reset();
+                this.contentLength = null;
+            }
+        }
+
+        private void flushWriter() {
+            if (this.writer != null) {
+                this.writer.flush();
+            }
+        }
+
+        private void switchToPassThroughQuietly() {
+            try {
+                switchToPassThrough(true);
+            }
+            catch (IOException ex) {
+                throw new IllegalStateException("Failed to write buffered content", ex);
+            }
+        }
+
+        /**
+         * Stop buffering and write everything from now on directly to the response.
+         * @param copyContent whether to write the content buffered so far
+         */
+        private void switchToPassThrough(boolean copyContent) throws IOException {
+            if (this.passThrough) {
+                return;
+            }
+            flushWriter();
+            this.passThrough = true;
+            if (this.contentLength != null) {
+                super.setContentLength(this.contentLength);
+            }
+            if (copyContent && this.content.size() > 0) {
+                this.content.writeTo(getResponse().getOutputStream());
+            }
+            this.content.reset();
+        }
+
+        /**
+         * Write any buffered content to the response, setting its length.
+         */
+        public void flushPending() throws IOException {
+            flushWriter();
+            if (!this.passThrough) {
+                this.passThrough = true;
+                if (!getResponse().isCommitted()) {
+                    getResponse().setContentLength(this.content.size());
+                }
+                this.content.writeTo(getResponse().getOutputStream());
+                this.content.reset();
+            }
+        }
+
+        /**
+         * Drop any buffered content, e.g. for a {@code 304} response.
+         */
+        public void discardContent() {
+            flushWriter();
+            this.content.reset();
+            this.passThrough = true;
+        }
+
+
+        private class DigestingServletOutputStream extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                if (passThrough) {
+                    getResponse().getOutputStream().write(b);
+                    return;
+                }
+                if (content.size() + 1 > maxBufferSize) {
+                    switchToPassThrough(true);
+                    getResponse().getOutputStream().write(b);
+                    return;
+                }
+                content.write(b);
+                digest.update((byte) b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                if (passThrough) {
+                    getResponse().getOutputStream().write(b, off, len);
+                    return;
+                }
+                if (content.size() + len > maxBufferSize) {
+                    switchToPassThrough(true);
+                    getResponse().getOutputStream().write(b, off, len);
+                    return;
+                }
+                content.write(b, off, len);
+                digest.update(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (passThrough) {
+                    getResponse().getOutputStream().flush();
+                }
+            }
+        }
+
+
+        private class ResponsePrintWriter extends PrintWriter {
+
+            public ResponsePrintWriter(String characterEncoding) throws UnsupportedEncodingException {
+                super(new OutputStreamWriter(outputStream, characterEncoding));
+            }
+
+            @Override
+            public void write(char[] buf, int off, int len) {
+                super.write(buf, off, len);
+                super.flush();
+            }
+
+            @Override
+            public void write(String s, int off, int len) {
+                super.write(s, off, len);
+                super.flush();
+            }
+
+            @Override
+            public void write(int c) {
+                super.write(c);
+                super.flush();
+            }
+        }
+    }
+
+}
@@ -48,6 +48,18 @@ public interface HandlerMapping {
      */
     String PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE = HandlerMapping.class.getName() + ".pathWithinHandlerMapping";
 
+    /**
+     * Name of the {@link HttpServletRequest} attribute that contains the
+     * {@link com.rocket.summer.framework.web.util.ParsedRequestPath} resolved for
+     * the current request, i.e. its decoded request URI and lookup path.
+     * <p>Set by handler mappings that resolve the lookup path through a
+     * {@link com.rocket.summer.framework.web.util.UrlPathHelper}; downstream
+     * components should rather call
+     * {@link com.rocket.summer.framework.web.util.UrlPathHelper#getParsedRequestPath},
+     * which reuses this attribute whenever it still applies.
+     */
+    String PARSED_REQUEST_PATH_ATTRIBUTE = com.rocket.summer.framework.web.util.UrlPathHelper.PARSED_REQUEST_PATH_ATTRIBUTE;
+
     /**
      * Name of the {@link HttpServletRequest} attribute that contains the set of producible MediaTypes
      * applicable to the mapped handler.
@@ -5,6 +5,7 @@ import com.rocket.summer.framework.core.io.ResourceLoader;
 import com.rocket.summer.framework.util.Assert;
 import com.rocket.summer.framework.util.CollectionUtils;
 import com.rocket.summer.framework.web.servlet.resource.PathResourceResolver;
+import com.rocket.summer.framework.web.servlet.resource.ResourceContentCache;
 import com.rocket.summer.framework.web.servlet.resource.ResourceHttpRequestHandler;
 
 import java.util.ArrayList;
@@ -30,6 +31,8 @@ public class ResourceHandlerRegistration {
 
     private ResourceChainRegistration resourceChainRegistration;
 
+    private ResourceContentCache resourceContentCache;
+
     /**
      * Create a {@link ResourceHandlerRegistration} instance.
      * @param resourceLoader a resource loader for turning a String location into a {@link Resource}
@@ -86,6 +89,18 @@ public class ResourceHandlerRegistration {
         return this;
     }
 
+    /**
+     * Keep the content of small, frequently requested resources in the given
+     * {@link ResourceContentCache}, serving them along with a strong ETag without
+     * touching their locations again.
+     * @param resourceContentCache the cache to use; may be shared across registrations
+     * @return the same {@link ResourceHandlerRegistration} instance for chained method invocation
+     */
+    public ResourceHandlerRegistration setResourceContentCache(ResourceContentCache resourceContentCache) {
+        this.resourceContentCache = resourceContentCache;
+        return this;
+    }
+
     /**
      * Returns the URL path patterns for the resource handler.
      */
@@ -103,6 +118,9 @@ public class ResourceHandlerRegistration {
         if (cachePeriod != null) {
             requestHandler.setCacheSeconds(cachePeriod);
         }
+        if (resourceContentCache != null) {
+            requestHandler.setResourceContentCache(resourceContentCache);
+        }
         return requestHandler;
     }
 
@@ -11,6 +11,7 @@ import com.rocket.summer.framework.web.context.support.WebApplicationObjectSuppo
 import com.rocket.summer.framework.web.servlet.HandlerExecutionChain;
 import com.rocket.summer.framework.web.servlet.HandlerInterceptor;
 import com.rocket.summer.framework.web.servlet.HandlerMapping;
+import com.rocket.summer.framework.web.util.ParsedRequestPath;
 import com.rocket.summer.framework.web.util.UrlPathHelper;
 
 import javax.servlet.http.HttpServletRequest;
@@ -319,10 +320,12 @@ public abstract class AbstractHandlerMapping extends WebApplicationObjectSupport
 
         chain.addInterceptors(getAdaptedInterceptors());
 
-        String lookupPath = urlPathHelper.getLookupPathForRequest(request);
-        for (MappedInterceptor mappedInterceptor : mappedInterceptors) {
-            if (mappedInterceptor.matches(lookupPath, pathMatcher)) {
-                chain.addInterceptor(mappedInterceptor.getInterceptor());
+        if (!mappedInterceptors.isEmpty()) {
+            ParsedRequestPath requestPath = urlPathHelper.getParsedRequestPath(request);
+            for (MappedInterceptor mappedInterceptor : mappedInterceptors) {
+                if (mappedInterceptor.matches(requestPath, pathMatcher)) {
+                    chain.addInterceptor(mappedInterceptor.getInterceptor());
+                }
             }
         }
 
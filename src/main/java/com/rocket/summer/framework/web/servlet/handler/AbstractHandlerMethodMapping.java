@@ -12,8 +12,10 @@ import com.rocket.summer.framework.web.servlet.HandlerMapping;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Abstract base class for {@link HandlerMapping} implementations that define a
@@ -37,6 +39,31 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
 
     private final MultiValueMap<String, T> urlMap = new LinkedMultiValueMap<String, T>();
 
+    /** The maximum number of entries in the match cache, 0 for no caching */
+    private volatile int matchCacheLimit = 0;
+
+    /** Fast access cache for lookup results, returning already cached matches without a global lock */
+    private final Map<Object, CachedMatch> matchAccessCache = new ConcurrentHashMap<Object, CachedMatch>(256);
+
+    /** Incremented on every clearing of the match cache, guarded by the match creation cache */
+    private int matchCacheGeneration = 0;
+
+    /** Map from match cache key to cached match, synchronized for match creation */
+    @SuppressWarnings("serial")
+    private final Map<Object, CachedMatch> matchCreationCache =
+            new LinkedHashMap<Object, CachedMatch>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Object, CachedMatch> eldest) {
+                    if (size() > getMatchCacheLimit()) {
+                        matchAccessCache.remove(eldest.getKey());
+                        return true;
+                    }
+                    else {
+                        return false;
+                    }
+                }
+            };
+
 
     /**
      * Whether to detect handler methods in beans in ancestor ApplicationContexts.
@@ -50,6 +77,27 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
         this.detectHandlerMethodsInAncestorContexts = detectHandlerMethodsInAncestorContexts;
     }
 
+    /**
+     * Specify the maximum number of lookup results to cache, keyed by
+     * {@link #getMatchCacheKey}. A cache hit skips {@link #lookupHandlerMethod}
+     * and replays the request attributes that {@link #handleMatch} exposed for
+     * the original lookup, so these attribute values must be treated as read-only.
+     * <p>Default is 0: no caching. Worth enabling when traffic concentrates on a
+     * limited set of URLs; the cache is cleared whenever mappings are registered
+     * or unregistered.
+     */
+    public void setMatchCacheLimit(int matchCacheLimit) {
+        this.matchCacheLimit = matchCacheLimit;
+        clearMatchCache();
+    }
+
+    /**
+     * Return the maximum number of lookup results to cache.
+     */
+    public int getMatchCacheLimit() {
+        return this.matchCacheLimit;
+    }
+
     /**
      * Return a map with all handler methods and their mappings.
      */
@@ -169,6 +217,32 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
                 this.urlMap.add(pattern, mapping);
             }
         }
+        clearMatchCache();
+    }
+
+    /**
+     * Unregister the given mapping and its handler method, if registered.
+     * @param mapping the mapping to unregister
+     */
+    protected void unregisterHandlerMethod(T mapping) {
+        HandlerMethod handlerMethod = this.handlerMethods.remove(mapping);
+        if (handlerMethod == null) {
+            return;
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info("Unmapped \"" + mapping + "\" from " + handlerMethod);
+        }
+
+        for (String pattern : getMappingPathPatterns(mapping)) {
+            List<T> directMappings = this.urlMap.get(pattern);
+            if (directMappings != null) {
+                directMappings.remove(mapping);
+                if (directMappings.isEmpty()) {
+                    this.urlMap.remove(pattern);
+                }
+            }
+        }
+        clearMatchCache();
     }
 
     /**
@@ -186,7 +260,8 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
             logger.debug("Looking up handler method for path " + lookupPath);
         }
 
-        HandlerMethod handlerMethod = lookupHandlerMethod(lookupPath, request);
+        HandlerMethod handlerMethod = (getMatchCacheLimit() > 0 ?
+                lookupCachedHandlerMethod(lookupPath, request) : lookupHandlerMethod(lookupPath, request));
 
         if (logger.isDebugEnabled()) {
             if (handlerMethod != null) {
@@ -210,6 +285,74 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
      * @see #handleNoMatch(Set, String, HttpServletRequest)
      */
     protected HandlerMethod lookupHandlerMethod(String lookupPath, HttpServletRequest request) throws Exception {
+        Match bestMatch = findBestMatch(lookupPath, request);
+        if (bestMatch != null) {
+            handleMatch(bestMatch.mapping, lookupPath, request);
+            return bestMatch.handlerMethod;
+        }
+        else {
+            return handleNoMatch(handlerMethods.keySet(), lookupPath, request);
+        }
+    }
+
+    /**
+     * Variant of {@link #lookupHandlerMethod} that goes through the match cache,
+     * provided that a {@linkplain #getMatchCacheKey cache key} can be determined.
+     */
+    private HandlerMethod lookupCachedHandlerMethod(String lookupPath, HttpServletRequest request) throws Exception {
+        int generation;
+        synchronized (this.matchCreationCache) {
+            generation = this.matchCacheGeneration;
+        }
+        Object cacheKey = getMatchCacheKey(lookupPath, request);
+        if (cacheKey == null) {
+            return lookupHandlerMethod(lookupPath, request);
+        }
+        CachedMatch cachedMatch = this.matchAccessCache.get(cacheKey);
+        if (cachedMatch == null) {
+            Match bestMatch = findBestMatch(lookupPath, request);
+            if (bestMatch != null) {
+                AttributeRecordingRequest recordingRequest = new AttributeRecordingRequest(request);
+                handleMatch(bestMatch.mapping, lookupPath, recordingRequest);
+                cachedMatch = new CachedMatch(bestMatch.handlerMethod, recordingRequest.getAttributes());
+            }
+            else {
+                HandlerMethod handlerMethod = handleNoMatch(handlerMethods.keySet(), lookupPath, request);
+                if (handlerMethod != null) {
+                    // Not a regular match: don't cache it.
+                    return handlerMethod;
+                }
+                cachedMatch = CachedMatch.NO_MATCH;
+            }
+            synchronized (this.matchCreationCache) {
+                // Not if the mappings changed in the meantime: the match may be outdated.
+                if (generation == this.matchCacheGeneration) {
+                    this.matchAccessCache.put(cacheKey, cachedMatch);
+                    this.matchCreationCache.put(cacheKey, cachedMatch);
+                }
+            }
+            return cachedMatch.handlerMethod;
+        }
+
+        if (logger.isTraceEnabled()) {
+            logger.trace("Using cached match for [" + lookupPath + "]: " + cachedMatch.handlerMethod);
+        }
+        for (Map.Entry<String, Object> attribute : cachedMatch.attributes.entrySet()) {
+            if (attribute.getValue() != null) {
+                request.setAttribute(attribute.getKey(), copyAttributeValue(attribute.getValue()));
+            }
+            else {
+                request.removeAttribute(attribute.getKey());
+            }
+        }
+        return cachedMatch.handlerMethod;
+    }
+
+    /**
+     * Find the best-matching mapping for the current request, if any.
+     * @throws IllegalStateException if the best match is ambiguous
+     */
+    private Match findBestMatch(String lookupPath, HttpServletRequest request) {
         List<Match> matches = new ArrayList<Match>();
 
         List<T> directPathMatches = this.urlMap.get(lookupPath);
@@ -242,12 +385,9 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
                 }
             }
 
-            handleMatch(bestMatch.mapping, lookupPath, request);
-            return bestMatch.handlerMethod;
-        }
-        else {
-            return handleNoMatch(handlerMethods.keySet(), lookupPath, request);
+            return bestMatch;
         }
+        return null;
     }
 
     private void addMatchingMappings(Collection<T> mappings, List<Match> matches, HttpServletRequest request) {
@@ -276,6 +416,32 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
      */
     protected abstract Comparator<T> getMappingComparator(HttpServletRequest request);
 
+    /**
+     * Determine the key under which the lookup result for the current request
+     * may be cached, if {@linkplain #setMatchCacheLimit match caching} is enabled.
+     * <p>The key needs to capture everything that matching and ranking of the
+     * registered mappings depend on, typically the lookup path, the HTTP method
+     * and any request headers or parameters referenced by the mappings.
+     * <p>The default implementation returns {@code null}: no caching.
+     * @param lookupPath mapping lookup path within the current servlet mapping
+     * @param request the current request
+     * @return the cache key, or {@code null} if the result must not be cached
+     */
+    protected Object getMatchCacheKey(String lookupPath, HttpServletRequest request) {
+        return null;
+    }
+
+    /**
+     * Clear the cache of lookup results.
+     */
+    protected void clearMatchCache() {
+        synchronized (this.matchCreationCache) {
+            this.matchCacheGeneration++;
+            this.matchAccessCache.clear();
+            this.matchCreationCache.clear();
+        }
+    }
+
     /**
      * Invoked when a matching mapping is found.
      * @param mapping the matching mapping
@@ -321,6 +487,75 @@ public abstract class AbstractHandlerMethodMapping<T> extends AbstractHandlerMap
     }
 
 
+    /**
+     * A cached lookup result: the handler method plus the request attributes
+     * exposed by {@link #handleMatch}, with {@code null} for removed attributes.
+     */
+    private static class CachedMatch {
+
+        private static final CachedMatch NO_MATCH =
+                new CachedMatch(null, Collections.<String, Object>emptyMap());
+
+        private final HandlerMethod handlerMethod;
+
+        private final Map<String, Object> attributes;
+
+        private CachedMatch(HandlerMethod handlerMethod, Map<String, Object> attributes) {
+            this.handlerMethod = handlerMethod;
+            this.attributes = new LinkedHashMap<String, Object>(attributes.size());
+            for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+                this.attributes.put(attribute.getKey(), copyAttributeValue(attribute.getValue()));
+            }
+        }
+    }
+
+    /**
+     * Copy an attribute value exposed by {@link #handleMatch}, so that the mutable
+     * maps and sets among them are never shared between requests via the match cache.
+     */
+    private static Object copyAttributeValue(Object value) {
+        if (value instanceof Map) {
+            return new LinkedHashMap<Object, Object>((Map<?, ?>) value);
+        }
+        if (value instanceof Set) {
+            return new LinkedHashSet<Object>((Set<?>) value);
+        }
+        if (value instanceof List) {
+            return new ArrayList<Object>((List<?>) value);
+        }
+        return value;
+    }
+
+
+    /**
+     * Request wrapper that records attribute changes for replaying them on cache hits.
+     */
+    private static class AttributeRecordingRequest extends HttpServletRequestWrapper {
+
+        private final Map<String, Object> attributes = new LinkedHashMap<String, Object>(8);
+
+        public AttributeRecordingRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            super.setAttribute(name, value);
+            this.attributes.put(name, value);
+        }
+
+        @Override
+        public void removeAttribute(String name) {
+            super.removeAttribute(name);
+            this.attributes.put(name, null);
+        }
+
+        public Map<String, Object> getAttributes() {
+            return this.attributes;
+        }
+    }
+
+
     private class MatchComparator implements Comparator<Match> {
 
         private final Comparator<T> comparator;
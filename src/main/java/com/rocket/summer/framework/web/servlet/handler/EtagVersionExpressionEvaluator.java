@@ -0,0 +1,51 @@
+package com.rocket.summer.framework.web.servlet.handler;
+
+import com.rocket.summer.framework.beans.factory.BeanFactory;
+import com.rocket.summer.framework.context.expression.AnnotatedElementKey;
+import com.rocket.summer.framework.context.expression.BeanFactoryResolver;
+import com.rocket.summer.framework.context.expression.CachedExpressionEvaluator;
+import com.rocket.summer.framework.expression.EvaluationContext;
+import com.rocket.summer.framework.expression.Expression;
+import com.rocket.summer.framework.expression.spel.support.StandardEvaluationContext;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Utility class handling the SpEL expression parsing for
+ * {@link com.rocket.summer.framework.web.bind.annotation.EtagVersion}.
+ * Meant to be used as a reusable, thread-safe component.
+ *
+ * @see CachedExpressionEvaluator
+ */
+class EtagVersionExpressionEvaluator extends CachedExpressionEvaluator {
+
+    private final Map<ExpressionKey, Expression> versionCache = new ConcurrentHashMap<ExpressionKey, Expression>(64);
+
+
+    /**
+     * Create the {@link EvaluationContext} for the given request.
+     */
+    public EvaluationContext createEvaluationContext(HttpServletRequest request,
+                                                     Map<String, String> pathVariables, BeanFactory beanFactory) {
+
+        StandardEvaluationContext evaluationContext =
+                new StandardEvaluationContext(new EtagVersionRootObject(request, pathVariables));
+        for (Map.Entry<String, String> entry : pathVariables.entrySet()) {
+            evaluationContext.setVariable(entry.getKey(), entry.getValue());
+        }
+        if (beanFactory != null) {
+            evaluationContext.setBeanResolver(new BeanFactoryResolver(beanFactory));
+        }
+        return evaluationContext;
+    }
+
+    /**
+     * Evaluate the version key defined by the specified expression.
+     */
+    public Object version(String versionExpression, AnnotatedElementKey elementKey, EvaluationContext evalContext) {
+        return getExpression(this.versionCache, elementKey, versionExpression).getValue(evalContext);
+    }
+
+}
@@ -0,0 +1,135 @@
+package com.rocket.summer.framework.web.servlet.handler;
+
+import com.rocket.summer.framework.beans.factory.BeanFactory;
+import com.rocket.summer.framework.beans.factory.BeanFactoryAware;
+import com.rocket.summer.framework.context.ConfigurableApplicationContext;
+import com.rocket.summer.framework.context.expression.AnnotatedElementKey;
+import com.rocket.summer.framework.context.expression.ExpressionCache;
+import com.rocket.summer.framework.core.annotation.AnnotatedElementUtils;
+import com.rocket.summer.framework.web.bind.annotation.EtagVersion;
+import com.rocket.summer.framework.web.context.request.ServletWebRequest;
+import com.rocket.summer.framework.web.method.HandlerMethod;
+import com.rocket.summer.framework.web.servlet.HandlerMapping;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interceptor that computes "deep" ETags for handler methods annotated with
+ * {@link EtagVersion}, before the handler is invoked. If the request's
+ * {@code If-None-Match} header matches, a {@code 304 "Not Modified"} response is
+ * sent right away and the handler is skipped entirely; otherwise the {@code ETag}
+ * header is set and the handler proceeds as usual.
+ *
+ * <p>Responses carrying such an ETag are streamed through unbuffered by the
+ * {@link com.rocket.summer.framework.web.filter.ShallowEtagHeaderFilter}, which
+ * only computes content-based ETags for the remaining handlers.
+ *
+ * @see EtagVersion
+ * @see com.rocket.summer.framework.web.filter.ShallowEtagHeaderFilter
+ */
+public class EtagVersionInterceptor extends HandlerInterceptorAdapter implements BeanFactoryAware {
+
+    private static final Log logger = LogFactory.getLog(EtagVersionInterceptor.class);
+
+    private static final EtagVersion NO_VERSION = NoVersion.class.getAnnotation(EtagVersion.class);
+
+    private final EtagVersionExpressionEvaluator evaluator = new EtagVersionExpressionEvaluator();
+
+    private final Map<AnnotatedElementKey, EtagVersion> versionCache =
+            new ConcurrentHashMap<AnnotatedElementKey, EtagVersion>(64);
+
+    private BeanFactory beanFactory;
+
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+        String cacheName = ConfigurableApplicationContext.EXPRESSION_CACHE_BEAN_NAME;
+        if (beanFactory.containsBean(cacheName) && beanFactory.isTypeMatch(cacheName, ExpressionCache.class)) {
+            this.evaluator.setExpressionCache(beanFactory.getBean(cacheName, ExpressionCache.class));
+        }
+    }
+
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return true;
+        }
+
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        AnnotatedElementKey elementKey = new AnnotatedElementKey(handlerMethod.getMethod(), handlerMethod.getBeanType());
+        EtagVersion etagVersion = getEtagVersion(elementKey, handlerMethod);
+        if (etagVersion == NO_VERSION) {
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, String> pathVariables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (pathVariables == null) {
+            pathVariables = Collections.emptyMap();
+        }
+        Object version = this.evaluator.version(etagVersion.value(), elementKey,
+                this.evaluator.createEvaluationContext(request, pathVariables, this.beanFactory));
+        if (version == null) {
+            return true;
+        }
+
+        String etag = generateETagHeaderValue(version, etagVersion.weak());
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            if (logger.isTraceEnabled()) {
+                logger.trace("ETag [" + etag + "] equal to If-None-Match, skipping " + handlerMethod);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Generate the ETag header value from the given version key.
+     * @param version the evaluated version key (never {@code null})
+     * @param isWeak whether the generated ETag should be weak
+     * @return the ETag header value
+     */
+    protected String generateETagHeaderValue(Object version, boolean isWeak) {
+        String value = "\"" + version + "\"";
+        return (isWeak ? "W/" + value : value);
+    }
+
+    private EtagVersion getEtagVersion(AnnotatedElementKey elementKey, HandlerMethod handlerMethod) {
+        EtagVersion etagVersion = this.versionCache.get(elementKey);
+        if (etagVersion == null) {
+            etagVersion = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getMethod(), EtagVersion.class);
+            if (etagVersion == null) {
+                etagVersion = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), EtagVersion.class);
+            }
+            if (etagVersion == null) {
+                etagVersion = NO_VERSION;
+            }
+            this.versionCache.put(elementKey, etagVersion);
+        }
+        return etagVersion;
+    }
+
+
+    /**
+     * Holder for the marker annotation cached for handlers without {@link EtagVersion}.
+     */
+    @EtagVersion("")
+    private static class NoVersion {
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.rocket.summer.framework.web.servlet.handler;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Map;
+
+/**
+ * Root object used during {@link com.rocket.summer.framework.web.bind.annotation.EtagVersion}
+ * expression evaluation.
+ */
+class EtagVersionRootObject {
+
+    private final HttpServletRequest request;
+
+    private final Map<String, String> pathVariables;
+
+    public EtagVersionRootObject(HttpServletRequest request, Map<String, String> pathVariables) {
+        this.request = request;
+        this.pathVariables = pathVariables;
+    }
+
+    public HttpServletRequest getRequest() {
+        return this.request;
+    }
+
+    public Map<String, String> getPathVariables() {
+        return this.pathVariables;
+    }
+
+    public Map<String, String[]> getParams() {
+        return this.request.getParameterMap();
+    }
+
+}
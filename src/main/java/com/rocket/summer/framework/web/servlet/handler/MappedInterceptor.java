@@ -3,6 +3,7 @@ package com.rocket.summer.framework.web.servlet.handler;
 import com.rocket.summer.framework.util.PathMatcher;
 import com.rocket.summer.framework.web.context.request.WebRequestInterceptor;
 import com.rocket.summer.framework.web.servlet.HandlerInterceptor;
+import com.rocket.summer.framework.web.util.ParsedRequestPath;
 
 /**
  * Holds information about a HandlerInterceptor mapped to a path into the application.
@@ -72,5 +73,25 @@ public final class MappedInterceptor {
             return false;
         }
     }
+
+    /**
+     * Returns {@code true} if the interceptor applies to the given request path,
+     * matching against its already split lookup path segments where possible.
+     * @param requestPath the current request path
+     * @param pathMatcher a path matcher for path pattern matching
+     */
+    public boolean matches(ParsedRequestPath requestPath, PathMatcher pathMatcher) {
+        if (pathPatterns == null) {
+            return true;
+        }
+        else {
+            for (String pathPattern : pathPatterns) {
+                if (requestPath.matches(pathPattern, pathMatcher)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
 
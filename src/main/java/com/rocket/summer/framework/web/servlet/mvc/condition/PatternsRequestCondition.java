@@ -3,6 +3,7 @@ package com.rocket.summer.framework.web.servlet.mvc.condition;
 import com.rocket.summer.framework.util.AntPathMatcher;
 import com.rocket.summer.framework.util.PathMatcher;
 import com.rocket.summer.framework.util.StringUtils;
+import com.rocket.summer.framework.web.util.ParsedRequestPath;
 import com.rocket.summer.framework.web.util.UrlPathHelper;
 
 import javax.servlet.http.HttpServletRequest;
@@ -155,10 +156,11 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
         if (this.patterns.isEmpty()) {
             return this;
         }
-        String lookupPath = this.urlPathHelper.getLookupPathForRequest(request);
+        ParsedRequestPath requestPath = this.urlPathHelper.getParsedRequestPath(request);
+        String lookupPath = requestPath.getLookupPath();
         List<String> matches = new ArrayList<String>();
         for (String pattern : patterns) {
-            String match = getMatchingPattern(pattern, lookupPath);
+            String match = getMatchingPattern(pattern, requestPath);
             if (match != null) {
                 matches.add(match);
             }
@@ -169,7 +171,8 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
                         this.useTrailingSlashMatch);
     }
 
-    private String getMatchingPattern(String pattern, String lookupPath) {
+    private String getMatchingPattern(String pattern, ParsedRequestPath requestPath) {
+        String lookupPath = requestPath.getLookupPath();
         if (pattern.equals(lookupPath)) {
             return pattern;
         }
@@ -179,7 +182,7 @@ public final class PatternsRequestCondition extends AbstractRequestCondition<Pat
                 return pattern + ".*";
             }
         }
-        if (this.pathMatcher.match(pattern, lookupPath)) {
+        if (requestPath.matches(pattern, this.pathMatcher)) {
             return pattern;
         }
         boolean endsWithSlash = pattern.endsWith("/");
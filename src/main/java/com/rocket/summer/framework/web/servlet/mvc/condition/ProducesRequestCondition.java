@@ -163,7 +163,6 @@ public final class ProducesRequestCondition extends AbstractRequestCondition<Pro
      */
     public int compareTo(ProducesRequestCondition other, HttpServletRequest request) {
         List<MediaType> acceptedMediaTypes = getAcceptedMediaTypes(request);
-        MediaType.sortByQualityValue(acceptedMediaTypes);
 
         for (MediaType acceptedMediaType : acceptedMediaTypes) {
             int thisIndex = this.indexOfEqualMediaType(acceptedMediaType);
@@ -186,7 +185,7 @@ public final class ProducesRequestCondition extends AbstractRequestCondition<Pro
     private static List<MediaType> getAcceptedMediaTypes(HttpServletRequest request) {
         String acceptHeader = request.getHeader("Accept");
         if (StringUtils.hasLength(acceptHeader)) {
-            return MediaType.parseMediaTypes(acceptHeader);
+            return MediaType.parseMediaTypesSortedByQualityValue(acceptHeader);
         }
         else {
             return Collections.singletonList(MediaType.ALL);
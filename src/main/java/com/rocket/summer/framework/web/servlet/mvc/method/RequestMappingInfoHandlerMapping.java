@@ -2,6 +2,7 @@ package com.rocket.summer.framework.web.servlet.mvc.method;
 
 import com.rocket.summer.framework.http.MediaType;
 import com.rocket.summer.framework.util.CollectionUtils;
+import com.rocket.summer.framework.util.ObjectUtils;
 import com.rocket.summer.framework.util.StringUtils;
 import com.rocket.summer.framework.web.HttpMediaTypeNotAcceptableException;
 import com.rocket.summer.framework.web.HttpMediaTypeNotSupportedException;
@@ -13,9 +14,11 @@ import com.rocket.summer.framework.web.servlet.HandlerMapping;
 import com.rocket.summer.framework.web.servlet.handler.AbstractHandlerMethodMapping;
 import com.rocket.summer.framework.web.servlet.mvc.condition.NameValueExpression;
 import com.rocket.summer.framework.web.servlet.mvc.condition.ParamsRequestCondition;
+import com.rocket.summer.framework.web.util.WebUtils;
 
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
+import java.lang.reflect.Method;
 import java.util.*;
 
 /**
@@ -28,6 +31,29 @@ import java.util.*;
  */
 public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMethodMapping<RequestMappingInfo> {
 
+    /** Marker for mappings with custom conditions, which can't be reflected in a match cache key */
+    private static final ReferencedNames NOT_CACHEABLE = new ReferencedNames(new String[0], new String[0]);
+
+    /** Header and parameter names referenced by the registered mappings, lazily determined */
+    private volatile ReferencedNames referencedNames;
+
+
+    @Override
+    protected void registerHandlerMethod(Object handler, Method method, RequestMappingInfo mapping) {
+        super.registerHandlerMethod(handler, method, mapping);
+        this.referencedNames = null;
+        // Again, so that no match keyed by the previous names gets cached.
+        clearMatchCache();
+    }
+
+    @Override
+    protected void unregisterHandlerMethod(RequestMappingInfo mapping) {
+        super.unregisterHandlerMethod(mapping);
+        this.referencedNames = null;
+        // Again, so that no match keyed by the previous names gets cached.
+        clearMatchCache();
+    }
+
     /**
      * Get the URL path patterns associated with this {@link RequestMappingInfo}.
      */
@@ -59,6 +85,73 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
         };
     }
 
+    /**
+     * Key lookup results by lookup path, HTTP method and the values of all request
+     * headers and parameters referenced by any registered mapping, including the
+     * ".x"/".y" image submit variants of the parameters. If any mapping
+     * has a custom condition, lookup results are not cached.
+     * <p>Neither are lookup results for form submissions if any mapping references
+     * request parameters, since reading them would parse the request body: a regular
+     * lookup only does so if a mapping for the given path declares a parameter condition.
+     */
+    @Override
+    protected Object getMatchCacheKey(String lookupPath, HttpServletRequest request) {
+        ReferencedNames referencedNames = this.referencedNames;
+        if (referencedNames == null) {
+            Set<String> headers = new LinkedHashSet<String>();
+            Set<String> params = new LinkedHashSet<String>();
+            boolean cacheable = true;
+            for (RequestMappingInfo info : getHandlerMethods().keySet()) {
+                if (info.getCustomCondition() != null) {
+                    cacheable = false;
+                    break;
+                }
+                for (NameValueExpression<String> expression : info.getHeadersCondition().getExpressions()) {
+                    headers.add(expression.getName());
+                }
+                for (NameValueExpression<String> expression : info.getParamsCondition().getExpressions()) {
+                    params.add(expression.getName());
+                    // Presence also matches image submit parameters, see WebUtils.hasSubmitParameter
+                    for (String suffix : WebUtils.SUBMIT_IMAGE_SUFFIXES) {
+                        params.add(expression.getName() + suffix);
+                    }
+                }
+                if (!info.getConsumesCondition().isEmpty()) {
+                    headers.add("Content-Type");
+                }
+                if (!info.getProducesCondition().isEmpty()) {
+                    headers.add("Accept");
+                }
+            }
+            referencedNames = (cacheable ? new ReferencedNames(headers.toArray(new String[headers.size()]),
+                    params.toArray(new String[params.size()])) : NOT_CACHEABLE);
+            this.referencedNames = referencedNames;
+        }
+        if (referencedNames == NOT_CACHEABLE) {
+            return null;
+        }
+        String[] headerNames = referencedNames.headerNames;
+        String[] paramNames = referencedNames.paramNames;
+        if (paramNames.length > 0 && isFormContent(request)) {
+            return null;
+        }
+        Object[] values = new Object[headerNames.length + paramNames.length];
+        for (int i = 0; i < headerNames.length; i++) {
+            values[i] = ("Content-Type".equals(headerNames[i]) ?
+                    request.getContentType() : request.getHeader(headerNames[i]));
+        }
+        for (int i = 0; i < paramNames.length; i++) {
+            values[headerNames.length + i] = request.getParameter(paramNames[i]);
+        }
+        return new MatchCacheKey(lookupPath, request.getMethod(), values);
+    }
+
+    private static boolean isFormContent(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return (contentType != null && (StringUtils.startsWithIgnoreCase(contentType, "application/x-www-form-urlencoded") ||
+                StringUtils.startsWithIgnoreCase(contentType, "multipart/")));
+    }
+
     /**
      * Expose URI template variables and producible media types in the request.
      * @see HandlerMapping#URI_TEMPLATE_VARIABLES_ATTRIBUTE
@@ -190,5 +283,60 @@ public abstract class RequestMappingInfoHandlerMapping extends AbstractHandlerMe
         return null;
     }
 
-}
 
+    /**
+     * Header and parameter names referenced by the registered mappings,
+     * published together so that they are always consistent with each other.
+     */
+    private static final class ReferencedNames {
+
+        private final String[] headerNames;
+
+        private final String[] paramNames;
+
+        private ReferencedNames(String[] headerNames, String[] paramNames) {
+            this.headerNames = headerNames;
+            this.paramNames = paramNames;
+        }
+    }
+
+
+    private static final class MatchCacheKey {
+
+        private final String lookupPath;
+
+        private final String method;
+
+        private final Object[] values;
+
+        private final int hash;
+
+        private MatchCacheKey(String lookupPath, String method, Object[] values) {
+            this.lookupPath = lookupPath;
+            this.method = method;
+            this.values = values;
+            this.hash = (lookupPath.hashCode() * 31 + ObjectUtils.nullSafeHashCode(method)) * 31 +
+                    ObjectUtils.nullSafeHashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof MatchCacheKey)) {
+                return false;
+            }
+            MatchCacheKey otherKey = (MatchCacheKey) other;
+            return (this.hash == otherKey.hash && this.lookupPath.equals(otherKey.lookupPath) &&
+                    ObjectUtils.nullSafeEquals(this.method, otherKey.method) &&
+                    ObjectUtils.nullSafeEquals(this.values, otherKey.values));
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+
+}
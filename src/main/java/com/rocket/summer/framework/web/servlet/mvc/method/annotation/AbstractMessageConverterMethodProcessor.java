@@ -7,6 +7,8 @@ import com.rocket.summer.framework.http.converter.HttpMessageConverter;
 import com.rocket.summer.framework.http.server.ServletServerHttpRequest;
 import com.rocket.summer.framework.http.server.ServletServerHttpResponse;
 import com.rocket.summer.framework.util.CollectionUtils;
+import com.rocket.summer.framework.util.ObjectUtils;
+import com.rocket.summer.framework.util.ReflectionUtils;
 import com.rocket.summer.framework.web.HttpMediaTypeNotAcceptableException;
 import com.rocket.summer.framework.web.context.request.NativeWebRequest;
 import com.rocket.summer.framework.web.method.support.HandlerMethodReturnValueHandler;
@@ -15,7 +17,9 @@ import com.rocket.summer.framework.web.servlet.HandlerMapping;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Extends {@link AbstractMessageConverterMethodArgumentResolver} with the ability to handle method return
@@ -30,8 +34,42 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
 
     private static final MediaType MEDIA_TYPE_APPLICATION = new MediaType("application");
 
+    private static final int DECISION_CACHE_LIMIT = 256;
+
+
+    /** Fast access cache for write decisions, returning already cached instances without a global lock */
+    private final Map<DecisionKey, WriteDecision> decisionAccessCache =
+            new ConcurrentHashMap<DecisionKey, WriteDecision>(DECISION_CACHE_LIMIT);
+
+    /** Map from decision key to decision, synchronized for decision creation */
+    @SuppressWarnings("serial")
+    private final Map<DecisionKey, WriteDecision> decisionCreationCache =
+            new LinkedHashMap<DecisionKey, WriteDecision>(DECISION_CACHE_LIMIT, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<DecisionKey, WriteDecision> eldest) {
+                    if (size() > DECISION_CACHE_LIMIT) {
+                        decisionAccessCache.remove(eldest.getKey());
+                        return true;
+                    }
+                    else {
+                        return false;
+                    }
+                }
+            };
+
+    /** The converters the cached decisions were made with */
+    private volatile HttpMessageConverter<?>[] decisionConverters;
+
+    /** Whether a subclass overrides {@link #getProducibleMediaTypes}, in which case decisions are not cached */
+    private final boolean producibleMediaTypesOverridden;
+
+
     protected AbstractMessageConverterMethodProcessor(List<HttpMessageConverter<?>> messageConverters) {
         super(messageConverters);
+        Method method = ReflectionUtils.findMethod(getClass(), "getProducibleMediaTypes",
+                HttpServletRequest.class, Class.class);
+        this.producibleMediaTypesOverridden =
+                (method == null || method.getDeclaringClass() != AbstractMessageConverterMethodProcessor.class);
     }
 
     /**
@@ -77,7 +115,49 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
             throws IOException, HttpMediaTypeNotAcceptableException {
 
         Class<?> returnValueClass = returnValue.getClass();
+        WriteDecision decision = getWriteDecision(returnValueClass, inputMessage);
+        if (decision.converter == null) {
+            throw new HttpMediaTypeNotAcceptableException(decision.supportedMediaTypes);
+        }
+
+        ((HttpMessageConverter<T>) decision.converter).write(returnValue, decision.mediaType, outputMessage);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Written [" + returnValue + "] as \"" + decision.mediaType + "\" using [" +
+                    decision.converter + "]");
+        }
+    }
 
+    /**
+     * Return the converter and media type to write the given return value class
+     * with, as cached per return value class, {@code Accept} header and producible
+     * media types of the request mapping. Cached decisions are discarded when the
+     * configured message converters change. Nothing is cached if a subclass
+     * overrides {@link #getProducibleMediaTypes}, since its result may depend on
+     * more than what the cache key covers.
+     */
+    private WriteDecision getWriteDecision(Class<?> returnValueClass, ServletServerHttpRequest inputMessage) {
+        if (this.producibleMediaTypesOverridden) {
+            return determineWriteDecision(returnValueClass, inputMessage);
+        }
+        HttpServletRequest request = inputMessage.getServletRequest();
+        DecisionKey key = new DecisionKey(returnValueClass, getAcceptHeader(request),
+                request.getAttribute(HandlerMapping.PRODUCIBLE_MEDIA_TYPES_ATTRIBUTE));
+        checkDecisionConverters();
+        WriteDecision decision = this.decisionAccessCache.get(key);
+        if (decision == null) {
+            synchronized (this.decisionCreationCache) {
+                decision = this.decisionCreationCache.get(key);
+                if (decision == null) {
+                    decision = determineWriteDecision(returnValueClass, inputMessage);
+                    this.decisionAccessCache.put(key, decision);
+                    this.decisionCreationCache.put(key, decision);
+                }
+            }
+        }
+        return decision;
+    }
+
+    private WriteDecision determineWriteDecision(Class<?> returnValueClass, ServletServerHttpRequest inputMessage) {
         List<MediaType> acceptableMediaTypes = getAcceptableMediaTypes(inputMessage);
         List<MediaType> producibleMediaTypes = getProducibleMediaTypes(inputMessage.getServletRequest(), returnValueClass);
 
@@ -90,7 +170,7 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
             }
         }
         if (compatibleMediaTypes.isEmpty()) {
-            throw new HttpMediaTypeNotAcceptableException(producibleMediaTypes);
+            return new WriteDecision(null, null, producibleMediaTypes);
         }
 
         List<MediaType> mediaTypes = new ArrayList<MediaType>(compatibleMediaTypes);
@@ -112,16 +192,51 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
             selectedMediaType = selectedMediaType.removeQualityValue();
             for (HttpMessageConverter<?> messageConverter : messageConverters) {
                 if (messageConverter.canWrite(returnValueClass, selectedMediaType)) {
-                    ((HttpMessageConverter<T>) messageConverter).write(returnValue, selectedMediaType, outputMessage);
-                    if (logger.isDebugEnabled()) {
-                        logger.debug("Written [" + returnValue + "] as \"" + selectedMediaType + "\" using [" +
-                                messageConverter + "]");
-                    }
-                    return;
+                    return new WriteDecision(messageConverter, selectedMediaType, null);
                 }
             }
         }
-        throw new HttpMediaTypeNotAcceptableException(allSupportedMediaTypes);
+        return new WriteDecision(null, null, allSupportedMediaTypes);
+    }
+
+    /**
+     * Clear the cached decisions if the message converters changed since they were made.
+     */
+    private void checkDecisionConverters() {
+        HttpMessageConverter<?>[] converters = this.decisionConverters;
+        if (converters != null && converters.length == messageConverters.size()) {
+            int i = 0;
+            for (HttpMessageConverter<?> converter : messageConverters) {
+                if (converters[i++] != converter) {
+                    converters = null;
+                    break;
+                }
+            }
+            if (converters != null) {
+                return;
+            }
+        }
+        synchronized (this.decisionCreationCache) {
+            this.decisionAccessCache.clear();
+            this.decisionCreationCache.clear();
+            this.decisionConverters = messageConverters.toArray(new HttpMessageConverter<?>[messageConverters.size()]);
+        }
+    }
+
+    private static String getAcceptHeader(HttpServletRequest request) {
+        Enumeration<String> values = request.getHeaders("Accept");
+        if (values == null || !values.hasMoreElements()) {
+            return "";
+        }
+        String value = values.nextElement();
+        if (!values.hasMoreElements()) {
+            return value;
+        }
+        StringBuilder builder = new StringBuilder(value);
+        while (values.hasMoreElements()) {
+            builder.append(',').append(values.nextElement());
+        }
+        return builder.toString();
     }
 
     /**
@@ -174,4 +289,68 @@ public abstract class AbstractMessageConverterMethodProcessor extends AbstractMe
         return MediaType.SPECIFICITY_COMPARATOR.compare(acceptType, produceType) <= 0 ? acceptType : produceType;
     }
 
-}
\ No newline at end of file
+
+    /**
+     * Key of a cached write decision.
+     */
+    private static final class DecisionKey {
+
+        private final Class<?> returnValueClass;
+
+        private final String acceptHeader;
+
+        private final Object producibleMediaTypes;
+
+        private final int hashCode;
+
+        DecisionKey(Class<?> returnValueClass, String acceptHeader, Object producibleMediaTypes) {
+            this.returnValueClass = returnValueClass;
+            this.acceptHeader = acceptHeader;
+            this.producibleMediaTypes = producibleMediaTypes;
+            int result = returnValueClass.hashCode();
+            result = 31 * result + acceptHeader.hashCode();
+            result = 31 * result + (producibleMediaTypes != null ? producibleMediaTypes.hashCode() : 0);
+            this.hashCode = result;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof DecisionKey)) {
+                return false;
+            }
+            DecisionKey otherKey = (DecisionKey) other;
+            return (this.hashCode == otherKey.hashCode && this.returnValueClass == otherKey.returnValueClass &&
+                    this.acceptHeader.equals(otherKey.acceptHeader) &&
+                    ObjectUtils.nullSafeEquals(this.producibleMediaTypes, otherKey.producibleMediaTypes));
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hashCode;
+        }
+    }
+
+
+    /**
+     * The converter and media type selected for writing, or the media types
+     * to report if the return value cannot be written.
+     */
+    private static final class WriteDecision {
+
+        final HttpMessageConverter<?> converter;
+
+        final MediaType mediaType;
+
+        final List<MediaType> supportedMediaTypes;
+
+        WriteDecision(HttpMessageConverter<?> converter, MediaType mediaType, List<MediaType> supportedMediaTypes) {
+            this.converter = converter;
+            this.mediaType = mediaType;
+            this.supportedMediaTypes = supportedMediaTypes;
+        }
+    }
+
+}
@@ -2,9 +2,9 @@ package com.rocket.summer.framework.web.servlet.resource;
 
 import com.rocket.summer.framework.core.io.Resource;
 import com.rocket.summer.framework.util.DigestUtils;
-import com.rocket.summer.framework.util.FileCopyUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
 
 /**
  * A {@code VersionStrategy} that calculates an Hex MD5 hashes from the content
@@ -25,8 +25,13 @@ public class ContentVersionStrategy extends AbstractVersionStrategy {
     @Override
     public String getResourceVersion(Resource resource) {
         try {
-            byte[] content = FileCopyUtils.copyToByteArray(resource.getInputStream());
-            return DigestUtils.md5DigestAsHex(content);
+            InputStream inputStream = resource.getInputStream();
+            try {
+                return DigestUtils.md5DigestAsHex(inputStream);
+            }
+            finally {
+                inputStream.close();
+            }
         }
         catch (IOException ex) {
             throw new IllegalStateException("Failed to calculate hash for " + resource, ex);
@@ -0,0 +1,516 @@
+package com.rocket.summer.framework.web.servlet.resource;
+
+import com.rocket.summer.framework.beans.factory.DisposableBean;
+import com.rocket.summer.framework.core.io.Resource;
+import com.rocket.summer.framework.http.MediaType;
+import com.rocket.summer.framework.util.Assert;
+import com.rocket.summer.framework.util.DigestUtils;
+import com.rocket.summer.framework.util.FileCopyUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-memory cache for the content of small, frequently requested static resources,
+ * used by {@link ResourceHttpRequestHandler} to answer {@code 200} and {@code 304}
+ * responses for hot assets without touching the file system.
+ *
+ * <p>Each entry holds the resource content as an immutable byte buffer together with
+ * its strong ETag (an MD5 hash of the content), media type, content length,
+ * last-modified timestamp and, if worthwhile, a pre-compressed gzip variant with
+ * an ETag of its own.
+ *
+ * <p>The cache is bounded by a byte budget ({@link #setMaxCacheSize "maxCacheSize"}),
+ * evicting the oldest entries first, and skips resources larger than
+ * {@link #setMaxEntrySize "maxEntrySize"}. During development,
+ * {@link #setWatchForChanges "watchForChanges"} registers the directories of
+ * file-based resources with a {@link WatchService} and evicts entries as soon as
+ * their file changes.
+ *
+ * <p>Entries are keyed by the lookup path together with the handler the path is
+ * relative to, so a single cache may be shared by several handlers serving
+ * different locations.
+ *
+ * @see ResourceHttpRequestHandler#setResourceContentCache
+ */
+public class ResourceContentCache implements DisposableBean {
+
+    /** Default byte budget for the whole cache: 10 MB */
+    public static final long DEFAULT_MAX_CACHE_SIZE = 10 * 1024 * 1024;
+
+    /** Default maximum size of a single cached resource: 512 KB */
+    public static final int DEFAULT_MAX_ENTRY_SIZE = 512 * 1024;
+
+    private static final Log logger = LogFactory.getLog(ResourceContentCache.class);
+
+
+    private volatile long maxCacheSize = DEFAULT_MAX_CACHE_SIZE;
+
+    private volatile int maxEntrySize = DEFAULT_MAX_ENTRY_SIZE;
+
+    private boolean compress = true;
+
+    private boolean watchForChanges = false;
+
+    /** Fast access cache for entries, returning cached content without a global lock */
+    private final Map<CacheKey, CachedContent> accessCache = new ConcurrentHashMap<CacheKey, CachedContent>(256);
+
+    /** Map from key to entry in insertion order, synchronized for insertion and eviction */
+    private final LinkedHashMap<CacheKey, CachedContent> creationCache = new LinkedHashMap<CacheKey, CachedContent>(256);
+
+    private long currentSize = 0;
+
+    /** Watched file to cache keys, for invalidation on change */
+    private final ConcurrentMap<Path, Set<CacheKey>> watchedFiles = new ConcurrentHashMap<Path, Set<CacheKey>>();
+
+    private final Set<Path> watchedDirectories = ConcurrentHashMap.newKeySet();
+
+    private WatchService watchService;
+
+    private Thread watchThread;
+
+    private volatile boolean destroyed = false;
+
+
+    /**
+     * Set the maximum number of bytes held by this cache across all entries.
+     * Default is 10 MB.
+     */
+    public void setMaxCacheSize(long maxCacheSize) {
+        Assert.isTrue(maxCacheSize >= 0, "'maxCacheSize' must not be negative");
+        this.maxCacheSize = maxCacheSize;
+    }
+
+    /**
+     * Return the maximum number of bytes held by this cache.
+     */
+    public long getMaxCacheSize() {
+        return this.maxCacheSize;
+    }
+
+    /**
+     * Set the maximum size of a single resource to be cached; larger resources
+     * are always streamed from their location. Default is 512 KB.
+     */
+    public void setMaxEntrySize(int maxEntrySize) {
+        Assert.isTrue(maxEntrySize >= 0, "'maxEntrySize' must not be negative");
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    /**
+     * Return the maximum size of a single cached resource.
+     */
+    public int getMaxEntrySize() {
+        return this.maxEntrySize;
+    }
+
+    /**
+     * Whether to precompute a gzip variant of each cached resource, kept only
+     * if it is actually smaller than the original content. Default is "true".
+     */
+    public void setCompress(boolean compress) {
+        this.compress = compress;
+    }
+
+    public boolean isCompress() {
+        return this.compress;
+    }
+
+    /**
+     * Whether to watch the directories of cached file-based resources and evict
+     * entries whose files get modified or deleted. Intended for development.
+     * Default is "false".
+     */
+    public void setWatchForChanges(boolean watchForChanges) {
+        this.watchForChanges = watchForChanges;
+    }
+
+    public boolean isWatchForChanges() {
+        return this.watchForChanges;
+    }
+
+
+    /**
+     * Return the cached content for the given lookup path, or {@code null} if none.
+     * @param owner the handler the path is relative to, compared by identity
+     * @param path the lookup path of the resource
+     */
+    public CachedContent get(Object owner, String path) {
+        return this.accessCache.get(new CacheKey(owner, path));
+    }
+
+    /**
+     * Read the given resource and cache its content under the given lookup path.
+     * @param owner the handler the path is relative to, compared by identity
+     * @param path the lookup path of the resource
+     * @param resource the resolved resource
+     * @param mediaType the media type of the resource, or {@code null} if unknown
+     * @return the cached content, or {@code null} if the resource is not eligible
+     * for caching (too large, or of unknown length) or this cache has been destroyed
+     * @throws IOException if the resource content could not be read
+     */
+    public CachedContent put(Object owner, String path, Resource resource, MediaType mediaType) throws IOException {
+        if (this.destroyed) {
+            return null;
+        }
+        long length = resource.contentLength();
+        if (length < 0 || length > this.maxEntrySize || length > this.maxCacheSize) {
+            return null;
+        }
+        byte[] bytes = FileCopyUtils.copyToByteArray(resource.getInputStream());
+        if (bytes.length > this.maxEntrySize) {
+            return null;
+        }
+        CachedContent content = new CachedContent(bytes, (this.compress ? gzip(bytes) : null),
+                mediaType, resource.lastModified());
+        CacheKey key = new CacheKey(owner, path);
+
+        synchronized (this.creationCache) {
+            if (this.destroyed) {
+                // Destroyed concurrently
+                return null;
+            }
+            CachedContent previous = this.creationCache.put(key, content);
+            if (previous != null) {
+                this.currentSize -= previous.getSize();
+            }
+            this.accessCache.put(key, content);
+            this.currentSize += content.getSize();
+            evictIfNecessary();
+        }
+
+        if (this.watchForChanges) {
+            watch(key, resource);
+        }
+        if (logger.isTraceEnabled()) {
+            logger.trace("Cached content of " + resource + " under [" + path + "]");
+        }
+        return content;
+    }
+
+    /**
+     * Remove the entry for the given lookup path, if any.
+     * @param owner the handler the path is relative to, compared by identity
+     * @param path the lookup path of the resource
+     */
+    public void evict(Object owner, String path) {
+        evict(new CacheKey(owner, path));
+    }
+
+    private void evict(CacheKey key) {
+        synchronized (this.creationCache) {
+            CachedContent content = this.creationCache.remove(key);
+            if (content != null) {
+                this.accessCache.remove(key);
+                this.currentSize -= content.getSize();
+            }
+        }
+    }
+
+    /**
+     * Remove all entries from this cache.
+     */
+    public void clear() {
+        synchronized (this.creationCache) {
+            this.creationCache.clear();
+            this.accessCache.clear();
+            this.currentSize = 0;
+        }
+    }
+
+    /**
+     * Return the number of bytes currently held by this cache.
+     */
+    public long getCurrentSize() {
+        synchronized (this.creationCache) {
+            return this.currentSize;
+        }
+    }
+
+    private void evictIfNecessary() {
+        Iterator<Map.Entry<CacheKey, CachedContent>> it = this.creationCache.entrySet().iterator();
+        while (this.currentSize > this.maxCacheSize && it.hasNext()) {
+            Map.Entry<CacheKey, CachedContent> eldest = it.next();
+            it.remove();
+            this.accessCache.remove(eldest.getKey());
+            this.currentSize -= eldest.getValue().getSize();
+        }
+    }
+
+    private byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2 + 32);
+        GZIPOutputStream gzipOut = new GZIPOutputStream(out);
+        gzipOut.write(bytes);
+        gzipOut.close();
+        return (out.size() < bytes.length ? out.toByteArray() : null);
+    }
+
+
+    private void watch(CacheKey key, Resource resource) {
+        File file;
+        try {
+            file = resource.getFile();
+        }
+        catch (IOException ex) {
+            // Not a file-based resource (e.g. inside a jar) - nothing to watch
+            return;
+        }
+        Path filePath = file.toPath().toAbsolutePath();
+        Set<CacheKey> keys = this.watchedFiles.get(filePath);
+        if (keys == null) {
+            keys = ConcurrentHashMap.newKeySet();
+            Set<CacheKey> existing = this.watchedFiles.putIfAbsent(filePath, keys);
+            if (existing != null) {
+                keys = existing;
+            }
+        }
+        keys.add(key);
+
+        Path directory = filePath.getParent();
+        if (directory != null && this.watchedDirectories.add(directory)) {
+            try {
+                directory.register(getWatchService(), StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_CREATE);
+            }
+            catch (IOException ex) {
+                this.watchedDirectories.remove(directory);
+                logger.debug("Failed to watch directory [" + directory + "] for changes", ex);
+            }
+            catch (ClosedWatchServiceException ex) {
+                // Destroyed concurrently: the entry would not get evicted on change
+                evict(key);
+            }
+        }
+    }
+
+    private synchronized WatchService getWatchService() throws IOException {
+        if (this.destroyed) {
+            throw new ClosedWatchServiceException();
+        }
+        if (this.watchService == null) {
+            this.watchService = FileSystems.getDefault().newWatchService();
+            this.watchThread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    processWatchEvents();
+                }
+            }, "ResourceContentCache-watcher");
+            this.watchThread.setDaemon(true);
+            this.watchThread.start();
+        }
+        return this.watchService;
+    }
+
+    private void processWatchEvents() {
+        WatchService watcher = this.watchService;
+        try {
+            while (true) {
+                WatchKey key = watcher.take();
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        clear();
+                        continue;
+                    }
+                    Path changed = directory.resolve((Path) event.context()).toAbsolutePath();
+                    Set<CacheKey> cacheKeys = this.watchedFiles.remove(changed);
+                    if (cacheKeys != null) {
+                        for (CacheKey cacheKey : cacheKeys) {
+                            if (logger.isDebugEnabled()) {
+                                logger.debug("Evicting [" + cacheKey + "] after change of " + changed);
+                            }
+                            evict(cacheKey);
+                        }
+                    }
+                }
+                if (!key.reset()) {
+                    this.watchedDirectories.remove(directory);
+                }
+            }
+        }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        catch (ClosedWatchServiceException ex) {
+            // shut down via destroy()
+        }
+    }
+
+    /**
+     * Stop watching for file changes and release all cached content.
+     * Content is not cached anymore afterwards.
+     */
+    @Override
+    public synchronized void destroy() throws IOException {
+        this.destroyed = true;
+        if (this.watchService != null) {
+            this.watchService.close();
+            this.watchService = null;
+            this.watchThread = null;
+        }
+        this.watchedFiles.clear();
+        this.watchedDirectories.clear();
+        clear();
+    }
+
+
+    /**
+     * Cache key combining a lookup path with the handler it is relative to.
+     */
+    private static final class CacheKey {
+
+        private final Object owner;
+
+        private final String path;
+
+        CacheKey(Object owner, String path) {
+            this.owner = owner;
+            this.path = path;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey otherKey = (CacheKey) other;
+            return (this.owner == otherKey.owner && this.path.equals(otherKey.path));
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.owner) * 31 + this.path.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return this.path;
+        }
+    }
+
+
+    /**
+     * Immutable content of a cached resource along with the metadata needed
+     * to write a complete response for it.
+     */
+    public static final class CachedContent {
+
+        private final byte[] content;
+
+        private final byte[] gzippedContent;
+
+        private final String eTag;
+
+        private final String gzippedETag;
+
+        private final MediaType mediaType;
+
+        private final long lastModified;
+
+        CachedContent(byte[] content, byte[] gzippedContent, MediaType mediaType, long lastModified) {
+            this.content = content;
+            this.gzippedContent = gzippedContent;
+            String hash = DigestUtils.md5DigestAsHex(content);
+            this.eTag = "\"" + hash + "\"";
+            this.gzippedETag = (gzippedContent != null ? "\"" + hash + "-gzip\"" : null);
+            this.mediaType = mediaType;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * Return a read-only view of the content.
+         */
+        public ByteBuffer getContent() {
+            return ByteBuffer.wrap(this.content).asReadOnlyBuffer();
+        }
+
+        /**
+         * Return the length of the uncompressed content.
+         */
+        public int getContentLength() {
+            return this.content.length;
+        }
+
+        /**
+         * Whether a gzip variant of the content is available.
+         */
+        public boolean hasGzippedContent() {
+            return (this.gzippedContent != null);
+        }
+
+        /**
+         * Return the length of the gzip variant, or -1 if none.
+         */
+        public int getGzippedContentLength() {
+            return (this.gzippedContent != null ? this.gzippedContent.length : -1);
+        }
+
+        /**
+         * Return the strong ETag computed from the content, already quoted.
+         */
+        public String getETag() {
+            return this.eTag;
+        }
+
+        /**
+         * Return the strong ETag of the gzip variant, already quoted,
+         * or {@code null} if none.
+         */
+        public String getGzippedETag() {
+            return this.gzippedETag;
+        }
+
+        public MediaType getMediaType() {
+            return this.mediaType;
+        }
+
+        public long getLastModified() {
+            return this.lastModified;
+        }
+
+        /**
+         * Write the content, or its gzip variant, to the given stream.
+         * @param out the stream to write to
+         * @param gzipped whether to write the gzip variant (must be available)
+         */
+        public void writeTo(OutputStream out, boolean gzipped) throws IOException {
+            out.write(gzipped ? this.gzippedContent : this.content);
+        }
+
+        /**
+         * Return a stream over the uncompressed content.
+         */
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(this.content);
+        }
+
+        long getSize() {
+            return this.content.length + (this.gzippedContent != null ? this.gzippedContent.length : 0);
+        }
+    }
+
+}
@@ -60,6 +60,8 @@ public class ResourceHttpRequestHandler extends WebContentGenerator implements H
 
     private final List<ResourceResolver> resourceResolvers = new ArrayList<ResourceResolver>(4);
 
+    private ResourceContentCache resourceContentCache;
+
     public ResourceHttpRequestHandler() {
         super(METHOD_GET, METHOD_HEAD);
     }
@@ -92,6 +94,25 @@ public class ResourceHttpRequestHandler extends WebContentGenerator implements H
         return this.resourceResolvers;
     }
 
+    /**
+     * Configure a {@link ResourceContentCache} holding the content of small, hot
+     * resources in memory, so that {@code 200} and {@code 304} responses for them
+     * are answered without resolving or reading them from their location again.
+     * <p>The cache may be shared with other handlers, since its entries are
+     * kept per handler. By default no content is cached and each request is
+     * served from the configured locations.
+     */
+    public void setResourceContentCache(ResourceContentCache resourceContentCache) {
+        this.resourceContentCache = resourceContentCache;
+    }
+
+    /**
+     * Return the configured {@link ResourceContentCache}, if any.
+     */
+    public ResourceContentCache getResourceContentCache() {
+        return this.resourceContentCache;
+    }
+
 
     /**
      * Processes a resource request.
@@ -110,6 +131,17 @@ public class ResourceHttpRequestHandler extends WebContentGenerator implements H
 
         checkAndPrepare(request, response, true);
 
+        ResourceContentCache contentCache = this.resourceContentCache;
+        String path = null;
+        if (contentCache != null) {
+            path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+            ResourceContentCache.CachedContent content = (path != null ? contentCache.get(this, path) : null);
+            if (content != null) {
+                handleCachedContent(request, response, content);
+                return;
+            }
+        }
+
         // check whether a matching resource exists
         Resource resource = getResource(request);
         if (resource == null) {
@@ -120,6 +152,14 @@ public class ResourceHttpRequestHandler extends WebContentGenerator implements H
 
         // check the resource's media type
         MediaType mediaType = getMediaType(resource);
+
+        if (contentCache != null) {
+            ResourceContentCache.CachedContent content = contentCache.put(this, path, resource, mediaType);
+            if (content != null) {
+                handleCachedContent(request, response, content);
+                return;
+            }
+        }
         if (mediaType != null) {
             if (logger.isDebugEnabled()) {
                 logger.debug("Determined media type '" + mediaType + "' for " + resource);
@@ -146,6 +186,51 @@ public class ResourceHttpRequestHandler extends WebContentGenerator implements H
         writeContent(response, resource);
     }
 
+    /**
+     * Serve a resource from its cached content, evaluating conditional request
+     * headers against the cached ETag and last-modified timestamp.
+     * @param request current servlet request
+     * @param response current servlet response
+     * @param content the cached content of the requested resource
+     */
+    protected void handleCachedContent(HttpServletRequest request, HttpServletResponse response,
+            ResourceContentCache.CachedContent content) throws IOException {
+
+        boolean gzipped = (content.hasGzippedContent() && isGzipAccepted(request));
+        if (content.hasGzippedContent()) {
+            // On 304 responses as well
+            response.addHeader("Vary", "Accept-Encoding");
+        }
+        // Each encoding is a different representation with an ETag of its own
+        String eTag = (gzipped ? content.getGzippedETag() : content.getETag());
+        if (new ServletWebRequest(request, response).checkNotModified(eTag, content.getLastModified())) {
+            logger.trace("Cached resource not modified - returning 304");
+            return;
+        }
+
+        if (gzipped) {
+            response.setHeader("Content-Encoding", "gzip");
+            response.setContentLength(content.getGzippedContentLength());
+        }
+        else {
+            response.setContentLength(content.getContentLength());
+        }
+        if (content.getMediaType() != null) {
+            response.setContentType(content.getMediaType().toString());
+        }
+
+        if (METHOD_HEAD.equals(request.getMethod())) {
+            logger.trace("HEAD request - skipping content");
+            return;
+        }
+        content.writeTo(response.getOutputStream(), gzipped);
+    }
+
+    private boolean isGzipAccepted(HttpServletRequest request) {
+        String value = request.getHeader("Accept-Encoding");
+        return (value != null && value.toLowerCase().contains("gzip"));
+    }
+
     protected Resource getResource(HttpServletRequest request) {
         String path = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
         if (path == null) {
@@ -7,6 +7,7 @@ import com.rocket.summer.framework.core.annotation.AnnotationAwareOrderComparato
 import com.rocket.summer.framework.util.AntPathMatcher;
 import com.rocket.summer.framework.util.PathMatcher;
 import com.rocket.summer.framework.web.servlet.handler.SimpleUrlHandlerMapping;
+import com.rocket.summer.framework.web.util.ParsedRequestPath;
 import com.rocket.summer.framework.web.util.UrlPathHelper;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -171,10 +172,8 @@ public class ResourceUrlProvider implements ApplicationListener<ContextRefreshed
     }
 
     private int getLookupPathIndex(HttpServletRequest request) {
-        UrlPathHelper pathHelper = getUrlPathHelper();
-        String requestUri = pathHelper.getRequestUri(request);
-        String lookupPath = pathHelper.getLookupPathForRequest(request);
-        return requestUri.indexOf(lookupPath);
+        ParsedRequestPath requestPath = getUrlPathHelper().getParsedRequestPath(request);
+        return requestPath.getRequestUri().indexOf(requestPath.getLookupPath());
     }
 
     private int getEndPathIndex(String lookupPath) {
@@ -0,0 +1,187 @@
+package com.rocket.summer.framework.web.util;
+
+import com.rocket.summer.framework.util.AntPathMatcher;
+import com.rocket.summer.framework.util.ObjectUtils;
+import com.rocket.summer.framework.util.PathMatcher;
+import com.rocket.summer.framework.util.StringUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The paths of a request as resolved by a {@link UrlPathHelper}: decoded request
+ * URI, context path, servlet path, path within the application and lookup path.
+ *
+ * <p>Resolved once per request through {@link UrlPathHelper#getParsedRequestPath}
+ * and exposed as request attribute {@link UrlPathHelper#PARSED_REQUEST_PATH_ATTRIBUTE},
+ * so that handler mappings, interceptor mappings and resource URL resolution can
+ * share it instead of decoding the request URI over and over again. The segments of
+ * the lookup path are split lazily, on first access, and handed to an
+ * {@link AntPathMatcher} as-is for pattern matching.
+ *
+ * <p>Instances are immutable and remember the raw request values they were
+ * resolved from, so a cached instance is only reused as long as it still
+ * applies, e.g. not within a RequestDispatcher include.
+ *
+ * @see UrlPathHelper#getParsedRequestPath
+ */
+public final class ParsedRequestPath {
+
+    private final String requestUri;
+
+    private final String contextPath;
+
+    private final String servletPath;
+
+    private final String pathWithinApplication;
+
+    private final String lookupPath;
+
+    // Raw input for determining whether this instance still applies
+
+    private final Class<?> helperClass;
+
+    private final boolean alwaysUseFullPath;
+
+    private final boolean urlDecode;
+
+    private final String defaultEncoding;
+
+    private final String rawRequestUri;
+
+    private final String rawContextPath;
+
+    private final String rawServletPath;
+
+    private final String characterEncoding;
+
+    private volatile String[] lookupPathSegments;
+
+    private volatile List<String> lookupPathSegmentList;
+
+
+    ParsedRequestPath(UrlPathHelper helper, String rawRequestUri, String rawContextPath,
+                      String rawServletPath, String characterEncoding, String requestUri,
+                      String contextPath, String servletPath, String pathWithinApplication, String lookupPath) {
+
+        this.helperClass = helper.getClass();
+        this.alwaysUseFullPath = helper.isAlwaysUseFullPath();
+        this.urlDecode = helper.isUrlDecode();
+        this.defaultEncoding = helper.getDefaultEncoding();
+        this.rawRequestUri = rawRequestUri;
+        this.rawContextPath = rawContextPath;
+        this.rawServletPath = rawServletPath;
+        this.characterEncoding = characterEncoding;
+        this.requestUri = requestUri;
+        this.contextPath = contextPath;
+        this.servletPath = servletPath;
+        this.pathWithinApplication = pathWithinApplication;
+        this.lookupPath = lookupPath;
+    }
+
+
+    /**
+     * Return the decoded request URI, without any ";" appendices.
+     * @see UrlPathHelper#getRequestUri
+     */
+    public String getRequestUri() {
+        return this.requestUri;
+    }
+
+    /**
+     * Return the decoded context path.
+     * @see UrlPathHelper#getContextPath
+     */
+    public String getContextPath() {
+        return this.contextPath;
+    }
+
+    /**
+     * Return the servlet path.
+     * @see UrlPathHelper#getServletPath
+     */
+    public String getServletPath() {
+        return this.servletPath;
+    }
+
+    /**
+     * Return the path within the web application.
+     * @see UrlPathHelper#getPathWithinApplication
+     */
+    public String getPathWithinApplication() {
+        return this.pathWithinApplication;
+    }
+
+    /**
+     * Return the mapping lookup path, within the current servlet mapping
+     * if applicable, else within the web application.
+     * @see UrlPathHelper#getLookupPathForRequest
+     */
+    public String getLookupPath() {
+        return this.lookupPath;
+    }
+
+    /**
+     * Return the "/"-separated segments of the lookup path, with empty
+     * segments omitted.
+     * @return an unmodifiable list of segments
+     */
+    public List<String> getLookupPathSegments() {
+        List<String> segmentList = this.lookupPathSegmentList;
+        if (segmentList == null) {
+            segmentList = Collections.unmodifiableList(Arrays.asList(getLookupPathSegmentArray()));
+            this.lookupPathSegmentList = segmentList;
+        }
+        return segmentList;
+    }
+
+    /**
+     * Match the lookup path against the given pattern, reusing the already split
+     * lookup path segments if the given matcher is an {@link AntPathMatcher}.
+     * @param pattern the pattern to match against
+     * @param pathMatcher the matcher to use
+     * @return <code>true</code> if the lookup path matched, <code>false</code> if it didn't
+     * @see PathMatcher#match(String, String)
+     */
+    public boolean matches(String pattern, PathMatcher pathMatcher) {
+        if (pathMatcher instanceof AntPathMatcher) {
+            return ((AntPathMatcher) pathMatcher).match(pattern, this.lookupPath, getLookupPathSegmentArray());
+        }
+        return pathMatcher.match(pattern, this.lookupPath);
+    }
+
+    private String[] getLookupPathSegmentArray() {
+        String[] segments = this.lookupPathSegments;
+        if (segments == null) {
+            segments = StringUtils.tokenizeToStringArray(this.lookupPath, AntPathMatcher.DEFAULT_PATH_SEPARATOR);
+            this.lookupPathSegments = segments;
+        }
+        return segments;
+    }
+
+
+    /**
+     * Determine whether this instance has been resolved by an equally configured
+     * helper from the same raw request values.
+     */
+    boolean isResolvedFrom(UrlPathHelper helper, String rawRequestUri, String rawContextPath,
+                           String rawServletPath, String characterEncoding) {
+
+        return (this.helperClass == helper.getClass() &&
+                this.alwaysUseFullPath == helper.isAlwaysUseFullPath() &&
+                this.urlDecode == helper.isUrlDecode() &&
+                ObjectUtils.nullSafeEquals(this.defaultEncoding, helper.getDefaultEncoding()) &&
+                ObjectUtils.nullSafeEquals(this.rawRequestUri, rawRequestUri) &&
+                ObjectUtils.nullSafeEquals(this.rawContextPath, rawContextPath) &&
+                ObjectUtils.nullSafeEquals(this.rawServletPath, rawServletPath) &&
+                ObjectUtils.nullSafeEquals(this.characterEncoding, characterEncoding));
+    }
+
+    @Override
+    public String toString() {
+        return "ParsedRequestPath [requestUri='" + this.requestUri + "', contextPath='" + this.contextPath +
+                "', servletPath='" + this.servletPath + "', lookupPath='" + this.lookupPath + "']";
+    }
+
+}
@@ -459,6 +459,10 @@ public abstract class UriUtils {
     public static String decode(String source, String encoding) throws UnsupportedEncodingException {
         Assert.notNull(source, "'source' must not be null");
         Assert.hasLength(encoding, "'encoding' must not be empty");
+        if (source.indexOf('%') == -1) {
+            // Nothing to decode: avoid buffering the source.
+            return source;
+        }
         int length = source.length();
         ByteArrayOutputStream bos = new ByteArrayOutputStream(length);
         boolean changed = false;
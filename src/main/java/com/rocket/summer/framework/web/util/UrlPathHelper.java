@@ -7,7 +7,9 @@ import org.apache.commons.logging.LogFactory;
 import javax.servlet.http.HttpServletRequest;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Helper class for URL path matching. Provides support for URL paths in
@@ -24,6 +26,12 @@ import java.util.Properties;
  */
 public class UrlPathHelper {
 
+    /**
+     * Name of the request attribute that holds the {@link ParsedRequestPath}
+     * resolved by {@link #getParsedRequestPath}.
+     */
+    public static final String PARSED_REQUEST_PATH_ATTRIBUTE = UrlPathHelper.class.getName() + ".parsedRequestPath";
+
     /**
      * Special WebSphere request attribute, indicating the original request URI.
      * Preferable over the standard Servlet 2.4 forward attribute on WebSphere,
@@ -31,8 +39,17 @@ public class UrlPathHelper {
      */
     private static final String WEBSPHERE_URI_ATTRIBUTE = "com.ibm.websphere.servlet.uri_non_decoded";
 
+    /**
+     * Names of the public path methods that {@link #getParsedRequestPath} bypasses
+     * unless a subclass overrides one of them.
+     */
+    private static final String[] PATH_METHOD_NAMES = {"getLookupPathForRequest", "getPathWithinServletMapping",
+            "getPathWithinApplication", "getRequestUri", "getContextPath", "getServletPath"};
+
     private static final Log logger = LogFactory.getLog(UrlPathHelper.class);
 
+    private static final Map<Class<?>, Boolean> customPathResolution = new ConcurrentHashMap<Class<?>, Boolean>(8);
+
     static volatile Boolean websphereComplianceFlag;
 
 
@@ -53,6 +70,13 @@ public class UrlPathHelper {
         this.alwaysUseFullPath = alwaysUseFullPath;
     }
 
+    /**
+     * Whether URL lookup always uses the full path within the current servlet context.
+     */
+    public boolean isAlwaysUseFullPath() {
+        return this.alwaysUseFullPath;
+    }
+
     /**
      * Set if context path and request URI should be URL-decoded.
      * Both are returned <i>undecoded</i> by the Servlet API,
@@ -118,28 +142,134 @@ public class UrlPathHelper {
     }
 
 
+    /**
+     * Return the paths of the given request, resolved once and then cached as
+     * request attribute {@link #PARSED_REQUEST_PATH_ATTRIBUTE}.
+     * <p>A cached instance is reused by any equally configured helper for as long as
+     * the raw request URI, context path, servlet path and character encoding remain
+     * the same; it is re-resolved e.g. within a RequestDispatcher include.
+     * <p>If a subclass overrides any of the public path methods such as
+     * {@link #getRequestUri} or {@link #getLookupPathForRequest}, the paths are
+     * resolved through those methods on every call instead, and neither
+     * taken from nor exposed as request attribute.
+     * @param request current HTTP request
+     * @return the parsed request path (never <code>null</code>)
+     */
+    public ParsedRequestPath getParsedRequestPath(HttpServletRequest request) {
+        if (hasCustomPathResolution()) {
+            return resolveThroughPathMethods(request);
+        }
+
+        String rawRequestUri = (String) request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE);
+        if (rawRequestUri == null) {
+            rawRequestUri = request.getRequestURI();
+        }
+        String rawContextPath = (String) request.getAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE);
+        if (rawContextPath == null) {
+            rawContextPath = request.getContextPath();
+        }
+        String rawServletPath = (String) request.getAttribute(WebUtils.INCLUDE_SERVLET_PATH_ATTRIBUTE);
+        if (rawServletPath == null) {
+            rawServletPath = request.getServletPath();
+        }
+        String characterEncoding = (this.urlDecode ? request.getCharacterEncoding() : null);
+
+        Object cached = request.getAttribute(PARSED_REQUEST_PATH_ATTRIBUTE);
+        if (cached instanceof ParsedRequestPath &&
+                ((ParsedRequestPath) cached).isResolvedFrom(
+                        this, rawRequestUri, rawContextPath, rawServletPath, characterEncoding)) {
+            return (ParsedRequestPath) cached;
+        }
+
+        String requestUri = decodeAndCleanUriString(request, rawRequestUri);
+        String contextPath = decodeContextPath(request, rawContextPath);
+        String servletPath = cleanServletPath(request, rawServletPath);
+        String pathWithinApp = getPathWithinApplication(contextPath, requestUri);
+        String lookupPath;
+        if (this.alwaysUseFullPath) {
+            lookupPath = pathWithinApp;
+        }
+        else {
+            String rest = getPathWithinServletMapping(request, pathWithinApp, servletPath);
+            lookupPath = (!"".equals(rest) ? rest : pathWithinApp);
+        }
+
+        ParsedRequestPath parsedPath = new ParsedRequestPath(this, rawRequestUri, rawContextPath, rawServletPath,
+                characterEncoding, requestUri, contextPath, servletPath, pathWithinApp, lookupPath);
+        request.setAttribute(PARSED_REQUEST_PATH_ATTRIBUTE, parsedPath);
+        return parsedPath;
+    }
+
+    private ParsedRequestPath resolveThroughPathMethods(HttpServletRequest request) {
+        String rawRequestUri = (String) request.getAttribute(WebUtils.INCLUDE_REQUEST_URI_ATTRIBUTE);
+        if (rawRequestUri == null) {
+            rawRequestUri = request.getRequestURI();
+        }
+        String rawContextPath = (String) request.getAttribute(WebUtils.INCLUDE_CONTEXT_PATH_ATTRIBUTE);
+        if (rawContextPath == null) {
+            rawContextPath = request.getContextPath();
+        }
+        String rawServletPath = (String) request.getAttribute(WebUtils.INCLUDE_SERVLET_PATH_ATTRIBUTE);
+        if (rawServletPath == null) {
+            rawServletPath = request.getServletPath();
+        }
+        String characterEncoding = (this.urlDecode ? request.getCharacterEncoding() : null);
+        return new ParsedRequestPath(this, rawRequestUri, rawContextPath, rawServletPath, characterEncoding,
+                getRequestUri(request), getContextPath(request), getServletPath(request),
+                getPathWithinApplication(request), getLookupPathForRequest(request));
+    }
+
+    /**
+     * Determine whether this helper's class overrides any of the public path
+     * methods, in which case the one-pass resolution must not be used.
+     */
+    private boolean hasCustomPathResolution() {
+        Class<?> helperClass = getClass();
+        if (helperClass == UrlPathHelper.class) {
+            return false;
+        }
+        Boolean custom = customPathResolution.get(helperClass);
+        if (custom == null) {
+            custom = Boolean.FALSE;
+            for (String methodName : PATH_METHOD_NAMES) {
+                try {
+                    if (helperClass.getMethod(methodName, HttpServletRequest.class).getDeclaringClass() !=
+                            UrlPathHelper.class) {
+                        custom = Boolean.TRUE;
+                        break;
+                    }
+                }
+                catch (NoSuchMethodException ex) {
+                    throw new IllegalStateException("Expected method not found: " + ex);
+                }
+            }
+            customPathResolution.put(helperClass, custom);
+        }
+        return custom;
+    }
+
     /**
      * Return the mapping lookup path for the given request, within the current
      * servlet mapping if applicable, else within the web application.
      * <p>Detects include request URL if called within a RequestDispatcher include.
+     * <p>Delegates to {@link #getParsedRequestPath}, so the lookup path is only
+     * resolved once per request, unless a subclass overrides any of the public
+     * path methods.
      * @param request current HTTP request
      * @return the lookup path
      * @see #getPathWithinApplication
      * @see #getPathWithinServletMapping
      */
     public String getLookupPathForRequest(HttpServletRequest request) {
-        // Always use full path within current servlet context?
-        if (this.alwaysUseFullPath) {
-            return getPathWithinApplication(request);
-        }
-        // Else, use path within current servlet mapping if applicable
-        String rest = getPathWithinServletMapping(request);
-        if (!"".equals(rest)) {
-            return rest;
-        }
-        else {
-            return getPathWithinApplication(request);
+        if (hasCustomPathResolution()) {
+            // Build on the overridable methods, as getParsedRequestPath delegates back here.
+            if (this.alwaysUseFullPath) {
+                return getPathWithinApplication(request);
+            }
+            String rest = getPathWithinServletMapping(request);
+            return (!"".equals(rest) ? rest : getPathWithinApplication(request));
         }
+        return getParsedRequestPath(request).getLookupPath();
     }
 
     /**
@@ -154,8 +284,10 @@ public class UrlPathHelper {
      * @return the path within the servlet mapping, or ""
      */
     public String getPathWithinServletMapping(HttpServletRequest request) {
-        String pathWithinApp = getPathWithinApplication(request);
-        String servletPath = getServletPath(request);
+        return getPathWithinServletMapping(request, getPathWithinApplication(request), getServletPath(request));
+    }
+
+    private String getPathWithinServletMapping(HttpServletRequest request, String pathWithinApp, String servletPath) {
         if (pathWithinApp.startsWith(servletPath)) {
             // Normal case: URI contains servlet path.
             return pathWithinApp.substring(servletPath.length());
@@ -177,8 +309,10 @@ public class UrlPathHelper {
      * @return the path within the web application
      */
     public String getPathWithinApplication(HttpServletRequest request) {
-        String contextPath = getContextPath(request);
-        String requestUri = getRequestUri(request);
+        return getPathWithinApplication(getContextPath(request), getRequestUri(request));
+    }
+
+    private String getPathWithinApplication(String contextPath, String requestUri) {
         if (StringUtils.startsWithIgnoreCase(requestUri, contextPath)) {
             // Normal case: URI contains context path.
             String path = requestUri.substring(contextPath.length());
@@ -223,11 +357,7 @@ public class UrlPathHelper {
         if (contextPath == null) {
             contextPath = request.getContextPath();
         }
-        if ("/".equals(contextPath)) {
-            // Invalid case, but happens for includes on Jetty: silently adapt it.
-            contextPath = "";
-        }
-        return decodeRequestString(request, contextPath);
+        return decodeContextPath(request, contextPath);
     }
 
     /**
@@ -243,6 +373,10 @@ public class UrlPathHelper {
         if (servletPath == null) {
             servletPath = request.getServletPath();
         }
+        return cleanServletPath(request, servletPath);
+    }
+
+    private String cleanServletPath(HttpServletRequest request, String servletPath) {
         if (servletPath.length() > 1 && servletPath.endsWith("/") &&
                 shouldRemoveTrailingServletPathSlash(request)) {
             // On WebSphere, in non-compliant mode, for a "/foo/" case that would be "/foo"
@@ -300,6 +434,14 @@ public class UrlPathHelper {
     }
 
 
+    private String decodeContextPath(HttpServletRequest request, String contextPath) {
+        if ("/".equals(contextPath)) {
+            // Invalid case, but happens for includes on Jetty: silently adapt it.
+            contextPath = "";
+        }
+        return decodeRequestString(request, contextPath);
+    }
+
     /**
      * Decode the supplied URI string and strips any extraneous portion after a ';'.
      */
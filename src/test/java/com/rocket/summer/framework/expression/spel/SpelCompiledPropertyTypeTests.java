@@ -0,0 +1,87 @@
+package com.rocket.summer.framework.expression.spel;
+
+import com.rocket.summer.framework.expression.Expression;
+import com.rocket.summer.framework.expression.spel.standard.SpelExpression;
+import com.rocket.summer.framework.expression.spel.standard.SpelExpressionParser;
+import com.rocket.summer.framework.expression.spel.support.StandardEvaluationContext;
+
+/**
+ * Checks that compiled expressions evaluate to the same values as interpreted ones
+ * when a property is read through a public interface method with a less specific
+ * return type than the actual getter, e.g. a covariant or generically typed getter
+ * on a non-public class.
+ *
+ * <p>Run as a plain Java application; exits with an exception on any mismatch.
+ */
+public class SpelCompiledPropertyTypeTests {
+
+    public static void main(String[] args) {
+        Holder holder = new Holder();
+        assertCompiledEqualsInterpreted("covariant.value.length()", holder);
+        assertCompiledEqualsInterpreted("covariant.value + '!'", holder);
+        assertCompiledEqualsInterpreted("generic.value.length()", holder);
+        assertCompiledEqualsInterpreted("generic.value.toUpperCase()", holder);
+        System.out.println("OK");
+    }
+
+    private static void assertCompiledEqualsInterpreted(String expressionString, Object root) {
+        StandardEvaluationContext context = new StandardEvaluationContext(root);
+        SpelExpressionParser parser = new SpelExpressionParser(
+                new SpelParserConfiguration(SpelCompilerMode.OFF, SpelCompiledPropertyTypeTests.class.getClassLoader()));
+        Expression expression = parser.parseExpression(expressionString);
+        Object interpreted = expression.getValue(context);
+        // Once interpreted, the exit type descriptors are known
+        interpreted = expression.getValue(context);
+        if (!((SpelExpression) expression).compileExpression()) {
+            throw new IllegalStateException("Expression [" + expressionString + "] did not compile");
+        }
+        Object compiled = expression.getValue(context);
+        if (!interpreted.equals(compiled)) {
+            throw new IllegalStateException("Expression [" + expressionString + "] evaluated to [" +
+                    compiled + "] when compiled, but to [" + interpreted + "] when interpreted");
+        }
+    }
+
+
+    public interface Valued {
+
+        Object getValue();
+    }
+
+
+    public interface GenericValued<T> {
+
+        T getValue();
+    }
+
+
+    static class CovariantValued implements Valued {
+
+        @Override
+        public String getValue() {
+            return "covariant";
+        }
+    }
+
+
+    static class StringValued implements GenericValued<String> {
+
+        @Override
+        public String getValue() {
+            return "generic";
+        }
+    }
+
+
+    public static class Holder {
+
+        public Valued getCovariant() {
+            return new CovariantValued();
+        }
+
+        public GenericValued<String> getGeneric() {
+            return new StringValued();
+        }
+    }
+
+}